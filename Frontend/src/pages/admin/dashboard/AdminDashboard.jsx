@@ -443,6 +443,7 @@ export default function AdminDashboard() {
     CANCELLED: "#ef4444",
     FAILED: "#dc2626",
     DRAFT: "#6b7280",
+    EXPIRED: "#9ca3af",
     UNKNOWN: "#6b7280",
   };
 
@@ -702,6 +703,7 @@ function OrderRow({ id, name, amount, status }) {
     CANCELLED: "text-red-600",
     FAILED: "text-red-500",
     DRAFT: "text-gray-500",
+    EXPIRED: "text-gray-400",
     UNKNOWN: "text-gray-500",
   };
   return (
@@ -35,6 +35,7 @@ const STATUSES = [
   "FAILED",
   "REFUND_PENDING",
   "REFUNDED",
+  "EXPIRED",
 ];
 
 const toISOorNull = (val) => {
@@ -0,0 +1,54 @@
+package com.smartcommerce.backend.auth.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Per-request auth cost of JwtAuthenticationFilter, plus token issuing. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private JwtUtils jwt;
+    private String token;
+
+    @Setup
+    public void setup() {
+        jwt = new JwtUtils();
+        jwt.setJwtSecret("benchmark-secret-benchmark-secret-benchmark-secret-0123456789");
+        token = jwt.generateToken(42L, "USER");
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwt.validateToken(token);
+    }
+
+    @Benchmark
+    public Long getUserIdFromToken() {
+        return jwt.getUserIdFromToken(token);
+    }
+
+    /** What JwtAuthenticationFilter does per request: one verify. */
+    @Benchmark
+    public JwtPrincipal filterPath() {
+        return jwt.verify(token).orElse(null);
+    }
+
+    /** The previous filter path (validate + subject + role = three parses), kept for comparison. */
+    @Benchmark
+    public String threeParsePath() {
+        if (!jwt.validateToken(token)) return null;
+        jwt.getUserIdFromToken(token);
+        return jwt.getRoleFromToken(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwt.generateToken(42L, "USER");
+    }
+}
@@ -0,0 +1,67 @@
+package com.smartcommerce.backend.cart.dto;
+
+import com.smartcommerce.backend.cart.entity.CartItem;
+import com.smartcommerce.backend.product.entity.Product;
+import com.smartcommerce.backend.product.entity.ProductPhoto;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Cart page hot path: per-line paise math in CartItemDTO and the CartSummaryDTO roll-up. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartDtoBenchmark {
+
+    @Param({"1", "10", "50"})
+    int lines;
+
+    private List<CartItem> items;
+    private List<CartItemDTO> dtos;
+
+    @Setup
+    public void setup() {
+        items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            Product p = new Product();
+            p.setId((long) i + 1);
+            p.setName("Poster " + i);
+            p.setPrice(new BigDecimal("499.00").add(BigDecimal.valueOf(i)));
+            // every other line discounted, so both branches are measured
+            if (i % 2 == 0) p.setDiscountPrice(new BigDecimal("349.50"));
+            ProductPhoto ph = new ProductPhoto();
+            ph.setPhotoUrl("/uploads/products/" + i + ".jpg");
+            p.setPhotos(List.of(ph));
+
+            CartItem ci = new CartItem();
+            ci.setId((long) i + 1);
+            ci.setProduct(p);
+            ci.setQuantity(1 + i % 3);
+            items.add(ci);
+        }
+        dtos = items.stream().map(CartItemDTO::new).toList();
+    }
+
+    @Benchmark
+    public List<CartItemDTO> cartItemDtos() {
+        List<CartItemDTO> out = new ArrayList<>(items.size());
+        for (CartItem ci : items) out.add(new CartItemDTO(ci));
+        return out;
+    }
+
+    @Benchmark
+    public CartSummaryDTO cartSummary() {
+        return new CartSummaryDTO(dtos);
+    }
+
+    @Benchmark
+    public CartSummaryDTO cartSummaryFromEntities() {
+        return new CartSummaryDTO(cartItemDtos());
+    }
+}
@@ -0,0 +1,86 @@
+package com.smartcommerce.backend.order.dto;
+
+import com.smartcommerce.backend.auth.entity.User;
+import com.smartcommerce.backend.order.entity.Order;
+import com.smartcommerce.backend.order.entity.OrderItem;
+import com.smartcommerce.backend.order.entity.Payment;
+import com.smartcommerce.backend.order.entity.ShippingAddress;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/** Order detail / admin list mapping: OrderMapper.toDto and AdminOrderDTO.from over a detached order graph. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"1", "10", "50"})
+    int lines;
+
+    private final OrderMapper mapper = new OrderMapper();
+    private Order order;
+    private Payment payment;
+
+    @Setup
+    public void setup() {
+        User user = new User();
+        user.setId(42L);
+
+        ShippingAddress ship = new ShippingAddress();
+        ship.setHouseNo("12B");
+        ship.setArea("MG Road");
+        ship.setCity("Bengaluru");
+        ship.setState("Karnataka");
+        ship.setCountry("India");
+        ship.setPinCode("560001");
+        ship.setType("HOME");
+
+        order = new Order();
+        order.setUser(user);
+        order.setCustomerName("Asha");
+        order.setPhone("9999999999");
+        order.setShippingAddress(ship);
+        order.setSubtotal(99_900L);
+        order.setShippingFee(0L);
+        order.setCodFee(0L);
+        order.setDiscount(5_000L);
+        order.setTotalPayable(94_900L);
+        order.setStatus(Order.OrderStatus.PAID);
+        order.setRazorpayOrderId("order_BENCH");
+        order.setCreatedAt(Instant.now());
+        order.setUpdatedAt(Instant.now());
+        for (int i = 0; i < lines; i++) {
+            OrderItem oi = new OrderItem();
+            oi.setProductId((long) i + 1);
+            oi.setProductName("Poster " + i);
+            oi.setPrice(49_900L);
+            oi.setQuantity(1 + i % 3);
+            oi.setProductPhoto("/uploads/products/" + i + ".jpg");
+            order.addItem(oi);
+        }
+
+        payment = new Payment();
+        payment.setOrder(order);
+        payment.setMethod(Payment.Gateway.RAZORPAY);
+        payment.setStatus(Payment.PaymentStatus.CAPTURED);
+        payment.setPaymentMethod("upi");
+        payment.setRazorpayPaymentId("pay_BENCH");
+        payment.setAmount(94_900L);
+        payment.setCurrency("INR");
+    }
+
+    @Benchmark
+    public OrderResponse orderMapperToDto() {
+        return mapper.toDto(order, payment);
+    }
+
+    @Benchmark
+    public AdminOrderDTO adminOrderDtoFrom() {
+        return AdminOrderDTO.from(order);
+    }
+}
@@ -0,0 +1,38 @@
+package com.smartcommerce.backend.order.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** HMAC-SHA256 used for checkout signature checks (short payload) and webhook verification (full body). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PaymentSignatureBenchmark {
+
+    private static final String SECRET = "rzp_test_secret_0123456789";
+
+    private String checkoutPayload;
+    private String webhookBody;
+
+    @Setup
+    public void setup() {
+        checkoutPayload = "order_N5ZkXjYbq0X1Qp|pay_N5ZlB2cD3eF4gH";
+        StringBuilder sb = new StringBuilder("{\"event\":\"payment.captured\",\"payload\":{\"payment\":{\"entity\":{");
+        while (sb.length() < 2048) sb.append("\"notes_").append(sb.length()).append("\":\"value\",");
+        webhookBody = sb.append("\"id\":\"pay_N5ZlB2cD3eF4gH\"}}}}").toString();
+    }
+
+    @Benchmark
+    public String checkoutSignature() {
+        return PaymentService.hmacSha256(checkoutPayload, SECRET);
+    }
+
+    @Benchmark
+    public String webhookSignature() {
+        return PaymentService.hmacSha256(webhookBody, SECRET);
+    }
+}
@@ -0,0 +1,70 @@
+package com.smartcommerce.backend.product.search;
+
+import com.smartcommerce.backend.product.entity.Category;
+import com.smartcommerce.backend.product.entity.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Search latency vs catalog size: broad word, two words with a typo, facet-only browse. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductSearchIndexBenchmark {
+
+    private static final String[] WORDS = ("abstract anime art beach black blue canvas city classic cosmic dark dream "
+            + "flower forest gold landscape light minimal moon motivational mountain music night ocean quote retro "
+            + "sea sky space street sunset travel urban vintage water wave white wild").split(" ");
+
+    @Param({"1000", "20000", "100000"})
+    int products;
+
+    private ProductSearchIndex index;
+
+    @Setup
+    public void setup() {
+        index = new ProductSearchIndex(null); // no DB: documents are fed directly
+        Random rnd = new Random(42);
+        Category[] categories = new Category[8];
+        for (int i = 0; i < categories.length; i++) {
+            categories[i] = new Category();
+            categories[i].setId((long) i + 1);
+        }
+        for (int i = 0; i < products; i++) {
+            Product p = new Product();
+            p.setId((long) i + 1);
+            p.setSku("SKU-" + i);
+            p.setName(word(rnd) + " " + word(rnd) + " poster");
+            p.setDescription(word(rnd) + " " + word(rnd) + " " + word(rnd));
+            p.setMaterial(i % 3 == 0 ? "Canvas" : i % 3 == 1 ? "Matte" : "Glossy");
+            p.setSize(i % 4 == 0 ? "A2" : i % 4 == 1 ? "A3" : "A4");
+            p.setTags(List.of(word(rnd), word(rnd)));
+            p.setCategory(categories[i % categories.length]);
+            index.index(p);
+        }
+    }
+
+    private static String word(Random rnd) {
+        return WORDS[rnd.nextInt(WORDS.length)];
+    }
+
+    @Benchmark
+    public ProductSearchIndex.Hits oneWord() {
+        return index.search("sunset", null, null, null, null, 0, 24);
+    }
+
+    @Benchmark
+    public ProductSearchIndex.Hits twoWordsOneTypo() {
+        return index.search("sunset ocaen", null, "matte", null, null, 0, 24);
+    }
+
+    @Benchmark
+    public ProductSearchIndex.Hits browseFacets() {
+        return index.search(null, 3L, null, "a3", null, 0, 24);
+    }
+}
@@ -1,7 +1,6 @@
 package com.smartcommerce.backend.auth.security;
 
 import com.smartcommerce.backend.auth.entity.User;
-import com.smartcommerce.backend.auth.repository.UserRepository;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -26,11 +25,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtUtils jwtUtils;
-    private final UserRepository userRepo;
+    private final PrincipalCache principalCache;
 
-    public JwtAuthenticationFilter(JwtUtils jwtUtils, UserRepository userRepo) {
+    public JwtAuthenticationFilter(JwtUtils jwtUtils, PrincipalCache principalCache) {
         this.jwtUtils = jwtUtils;
-        this.userRepo = userRepo;
+        this.principalCache = principalCache;
     }
 
     @Override
@@ -72,19 +71,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            if (jwtUtils.validateToken(token)) {
-                Long userId = jwtUtils.getUserIdFromToken(token);
-                String roleFromToken = jwtUtils.getRoleFromToken(token); // ADMIN or USER
-
-                User user = userRepo.findById(userId).orElse(null);
-
-                if (user != null) {
-                    // 🔒 Normalize authority
-                    String authorityName = roleFromToken.startsWith("ROLE_")
-                            ? roleFromToken
-                            : "ROLE_" + roleFromToken;
-
-                    GrantedAuthority authority = new SimpleGrantedAuthority(authorityName);
+            // single signature check + parse; userId/role/expiry come from the same claims
+            JwtPrincipal principal = jwtUtils.verify(token).orElse(null);
+            if (principal != null) {
+                // cached snapshot instead of a users-table hit per request; invalidated on every user write
+                PrincipalCache.Snapshot snapshot = principalCache.get(principal.getUserId()).orElse(null);
+
+                if (snapshot == null) {
+                    logger.info("⛔ Token user {} no longer exists", principal.getUserId());
+                } else if (!snapshot.getAuthority().equals(principal.getAuthority())) {
+                    // role changed since the token was issued → token is revoked, re-login required
+                    logger.info("⛔ Stale role in token for user {}", principal.getUserId());
+                } else {
+                    GrantedAuthority authority = new SimpleGrantedAuthority(snapshot.getAuthority());
+                    User user = snapshot.toUser();
 
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(user, null, List.of(authority));
@@ -0,0 +1,27 @@
+package com.smartcommerce.backend.auth.security;
+
+import java.time.Instant;
+
+/** Verified contents of one JWT: who, which role, until when. Produced by {@link JwtUtils#verify(String)}. */
+public final class JwtPrincipal {
+
+    private final Long userId;
+    private final String role;       // as issued, e.g. ROLE_USER
+    private final Instant expiresAt;
+
+    public JwtPrincipal(Long userId, String role, Instant expiresAt) {
+        this.userId = userId;
+        this.role = role;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getUserId() { return userId; }
+    public String getRole() { return role; }
+    public Instant getExpiresAt() { return expiresAt; }
+
+    /** Spring authority name, always ROLE_-prefixed. */
+    public String getAuthority() {
+        if (role == null) return null;
+        return role.startsWith("ROLE_") ? role : "ROLE_" + role;
+    }
+}
@@ -7,19 +7,20 @@ import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtUtils {
 
-    private static String JWT_SECRET;
+    // Built once from the secret; both are immutable and thread-safe
+    private volatile SecretKey signingKey;
+    private volatile JwtParser parser;
 
     @Value("${jwt.secret-key}")
     public void setJwtSecret(String secret) {
-        JwtUtils.JWT_SECRET = secret;
-    }
-
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(JWT_SECRET.getBytes());
+        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.signingKey = key;
     }
 
     private final long JWT_EXPIRATION_MS = 24 * 60 * 60 * 1000; // 1 day
@@ -34,10 +35,30 @@ public class JwtUtils {
                 .claim("role", "ROLE_" + role)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * ✅ One signature check + one parse: returns the principal, or empty if the token is
+     * malformed, tampered with or expired. Prefer this over validate + get* on request paths.
+     */
+    public Optional<JwtPrincipal> verify(String token) {
+        try {
+            Claims claims = parseClaims(token);
+            Date exp = claims.getExpiration();
+            if (exp == null || exp.before(new Date())) {
+                return Optional.empty(); // token expired
+            }
+            return Optional.of(new JwtPrincipal(
+                    Long.parseLong(claims.getSubject()),
+                    claims.get("role", String.class),
+                    exp.toInstant()));
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty(); // invalid token (NumberFormatException included)
+        }
+    }
+
     public Long getUserIdFromToken(String token) {
         Claims claims = parseClaims(token);
         return Long.parseLong(claims.getSubject());
@@ -49,24 +70,10 @@ public class JwtUtils {
     }
 
     public boolean validateToken(String token) {
-        try {
-            Claims claims = parseClaims(token);
-
-            // Expiry check
-            if (claims.getExpiration().before(new Date())) {
-                return false; // token expired
-            }
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            return false; // invalid token
-        }
+        return verify(token).isPresent();
     }
 
     private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 }
@@ -0,0 +1,116 @@
+package com.smartcommerce.backend.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.smartcommerce.backend.auth.entity.User;
+import com.smartcommerce.backend.auth.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * userId -> immutable snapshot of the fields the auth path needs (id, email, role, verified...).
+ *
+ * Lets JwtAuthenticationFilter authenticate without a users-table round trip per request.
+ * Every user write path calls {@link #invalidate(Long)} (repeated after commit, like CatalogCache);
+ * the short TTL bounds staleness for writes that happen on another node. Deleted users are
+ * never cached, so their tokens stop authenticating as soon as the entry is gone.
+ */
+@Component
+public class PrincipalCache {
+
+    private final UserRepository userRepo;
+    private final Cache<Long, Snapshot> principals;
+
+    public PrincipalCache(UserRepository userRepo,
+                          @Value("${app.security.principal-cache.max-size:50000}") long maxSize,
+                          @Value("${app.security.principal-cache.ttl:PT2M}") Duration ttl) {
+        this.userRepo = userRepo;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /** Cached principal, loading it on a miss; empty if the user no longer exists. */
+    public Optional<Snapshot> get(Long userId) {
+        if (userId == null) return Optional.empty();
+        return Optional.ofNullable(principals.get(userId, id -> userRepo.findById(id).map(Snapshot::of).orElse(null)));
+    }
+
+    public void invalidate(Long userId) {
+        if (userId == null) return;
+        principals.invalidate(userId);
+        afterCommit(() -> principals.invalidate(userId));
+    }
+
+    public Map<String, Object> stats() {
+        CacheStats s = principals.stats();
+        return Map.of(
+                "size", principals.estimatedSize(),
+                "hits", s.hitCount(),
+                "misses", s.missCount(),
+                "hitRate", s.hitRate()
+        );
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    /** Immutable copy of a user; never an entity, so it is safe to share between requests. */
+    public static final class Snapshot {
+        private final Long id;
+        private final String email;
+        private final String name;
+        private final String phone;
+        private final String role;     // USER / ADMIN
+        private final boolean verified;
+
+        private Snapshot(Long id, String email, String name, String phone, String role, boolean verified) {
+            this.id = id;
+            this.email = email;
+            this.name = name;
+            this.phone = phone;
+            this.role = role;
+            this.verified = verified;
+        }
+
+        static Snapshot of(User u) {
+            return new Snapshot(u.getId(), u.getEmail(), u.getName(), u.getPhone(), u.getRole(), u.isVerified());
+        }
+
+        public Long getId() { return id; }
+        public String getEmail() { return email; }
+        public String getRole() { return role; }
+        public boolean isVerified() { return verified; }
+
+        public String getAuthority() { return "ROLE_" + role; }
+
+        /** Fresh, detached User per request (controllers cast the principal to User). No addresses, no password. */
+        public User toUser() {
+            User u = new User();
+            u.setId(id);
+            u.setEmail(email);
+            u.setName(name);
+            u.setPhone(phone);
+            u.setRole(role);
+            u.setVerified(verified);
+            return u;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.smartcommerce.backend.auth.security;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
@@ -37,6 +39,8 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 // 🔒 Define endpoint rules
                 .authorizeHttpRequests(auth -> auth
+                        // async re-dispatch of an already authorized request (streamed responses, e.g. product export)
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // ===== Public (no JWT needed) =====
                         .requestMatchers("/api/auth/**").permitAll() // OTP login (user)
                         .requestMatchers(
@@ -47,6 +51,7 @@ public class SecurityConfig {
                         ).permitAll() // Admin login + reset
                         .requestMatchers("/api/products/**").permitAll() // 👈 public product browsing
                         .requestMatchers("/api/categories/**").permitAll() // 👈 if you want public category list
+                        .requestMatchers(HttpMethod.GET, "/uploads/**").permitAll() // 👈 product photo files
                         .requestMatchers("/api/razorpay/webhook").permitAll()
                         .requestMatchers("/api/orders/user/**").hasAnyRole("USER", "ADMIN")
 
@@ -5,6 +5,7 @@ import com.smartcommerce.backend.auth.dto.AdminCreateUserRequest;
 import com.smartcommerce.backend.auth.dto.AdminUpdateUserRequest;
 import com.smartcommerce.backend.auth.entity.User;
 import com.smartcommerce.backend.auth.repository.UserRepository;
+import com.smartcommerce.backend.auth.security.PrincipalCache;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -15,10 +16,12 @@ public class AdminUserService {
 
     private final UserRepository userRepo;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
-    public AdminUserService(UserRepository userRepo, PasswordEncoder passwordEncoder) {
+    public AdminUserService(UserRepository userRepo, PasswordEncoder passwordEncoder, PrincipalCache principalCache) {
         this.userRepo = userRepo;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
     }
 
     private static String normalizeRole(String role) {
@@ -103,11 +106,14 @@ public class AdminUserService {
             }
         }
 
-        return userRepo.save(u);
+        User saved = userRepo.save(u);
+        principalCache.invalidate(id); // role/verification change applies to the next request
+        return saved;
     }
 
     // DELETE
     public void delete(Long id) {
         userRepo.deleteById(id);
+        principalCache.invalidate(id); // outstanding tokens stop authenticating
     }
 }
@@ -5,6 +5,7 @@
     import com.smartcommerce.backend.auth.repository.OtpRepository;
     import com.smartcommerce.backend.auth.repository.UserRepository;
     import com.smartcommerce.backend.auth.security.JwtUtils;
+    import com.smartcommerce.backend.auth.security.PrincipalCache;
     import io.jsonwebtoken.Jwts;
     import io.jsonwebtoken.SignatureAlgorithm;
     import lombok.RequiredArgsConstructor;
@@ -25,6 +26,7 @@
         private final UserRepository userRepo;
         private final OtpRepository otpRepo;
         private final EmailService emailService;
+        private final PrincipalCache principalCache;
         private final SecureRandom random = new SecureRandom();
 
         // JWT secret and expiration
@@ -57,13 +59,8 @@
             otp.setExpiryTime(LocalDateTime.now().plusMinutes(5));
             otpRepo.save(otp);
 
-            // Try sending OTP
-            try {
-                emailService.sendOtp(email, otpCode);
-            } catch (Exception e) {
-                System.err.println("⚠️ Email sending failed, fallback to console: " + e.getMessage());
-                emailService.sendOtpConsole(email, otpCode);
-            }
+            // Queue OTP mail (sent after commit by the mail dispatcher; no SMTP on this thread)
+            emailService.sendOtp(email, otpCode);
         }
 
         /**
@@ -83,6 +80,7 @@
 
             user.setVerified(true);
             userRepo.save(user);
+            principalCache.invalidate(user.getId());
 
             // Clear OTPs
             otpRepo.deleteByEmail(email);
@@ -4,10 +4,9 @@ import com.smartcommerce.backend.auth.entity.PasswordResetToken;
 import com.smartcommerce.backend.auth.entity.User;
 import com.smartcommerce.backend.auth.repository.PasswordResetTokenRepository;
 import com.smartcommerce.backend.auth.repository.UserRepository;
+import com.smartcommerce.backend.mail.service.MailOutbox;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -21,41 +20,25 @@ public class EmailService {
     private String baseUrl;
 
 
-    private final JavaMailSender mailSender;
+    private final MailOutbox mailOutbox;
     private final UserRepository userRepo;
 
     private final PasswordResetTokenRepository tokenRepo;
 
-    public EmailService(JavaMailSender mailSender, UserRepository userRepo, PasswordResetTokenRepository tokenRepo) {
-        this.mailSender = mailSender;
+    public EmailService(MailOutbox mailOutbox, UserRepository userRepo, PasswordResetTokenRepository tokenRepo) {
+        this.mailOutbox = mailOutbox;
         this.userRepo = userRepo;
         this.tokenRepo = tokenRepo;
     }
 
 
     // ------------------ OTP ------------------
+    // Queued in the caller's transaction; MailDispatcher sends it after commit (console fallback on failure)
     public void sendOtp(String toEmail, String code) {
-        if (mailSender != null) {
-            try {
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setTo(toEmail);
-                message.setSubject("Your SmartCommerce OTP");
-                message.setText("Your OTP is: " + code + " (valid for 5 minutes)");
-                mailSender.send(message);
-                System.out.println("✅ Sent OTP to " + toEmail);
-                return;
-            } catch (Exception ex) {
-                System.out.println("⚠️ Email failed, falling back to console...");
-            }
-        }
-        sendOtpConsole(toEmail, code);
-    }
-
-    public void sendOtpConsole(String toEmail, String code) {
-        System.out.println("---- OTP (DEV MODE) ----");
-        System.out.println("To: " + toEmail);
-        System.out.println("OTP: " + code);
-        System.out.println("------------------------");
+        mailOutbox.enqueue(toEmail,
+                "Your SmartCommerce OTP",
+                "Your OTP is: " + code + " (valid for 5 minutes)",
+                "OTP");
     }
 
     // ------------------ Forgot Password ------------------
@@ -79,26 +62,11 @@ public class EmailService {
 
         String resetLink = baseUrl + "/admin/reset-password?token=" + resetToken;
 
-        try {
-            if (mailSender != null) {
-                SimpleMailMessage message = new SimpleMailMessage();
-                message.setTo(email);
-                message.setSubject("Password Reset Request - SmartCommerce");
-                message.setText("Click the link below to reset your password:\n\n" + resetLink +
-                        "\n\nThis link will expire in 15 minutes.");
-                mailSender.send(message);
-                System.out.println("✅ Sent reset link to " + email);
-                return true;
-            }
-        } catch (Exception ex) {
-            System.out.println("⚠️ Email send failed: " + ex.getMessage());
-        }
-
-        // Fallback for dev mode
-        System.out.println("---- RESET LINK (DEV MODE) ----");
-        System.out.println("To: " + email);
-        System.out.println("Reset Link: " + resetLink);
-        System.out.println("-------------------------------");
+        mailOutbox.enqueue(email,
+                "Password Reset Request - SmartCommerce",
+                "Click the link below to reset your password:\n\n" + resetLink +
+                        "\n\nThis link will expire in 15 minutes.",
+                "PASSWORD_RESET");
         return true;
     }
 
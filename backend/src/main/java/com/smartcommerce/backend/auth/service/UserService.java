@@ -5,6 +5,7 @@ import com.smartcommerce.backend.auth.dto.UpdateProfileRequest;
 import com.smartcommerce.backend.auth.entity.Address;
 import com.smartcommerce.backend.auth.entity.User;
 import com.smartcommerce.backend.auth.repository.UserRepository;
+import com.smartcommerce.backend.auth.security.PrincipalCache;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -13,9 +14,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final PrincipalCache principalCache;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PrincipalCache principalCache) {
         this.userRepository = userRepository;
+        this.principalCache = principalCache;
     }
 
     // Get user profile
@@ -57,5 +60,6 @@ public class UserService {
         }
 
         userRepository.save(user);
+        principalCache.invalidate(userId);
     }
 }
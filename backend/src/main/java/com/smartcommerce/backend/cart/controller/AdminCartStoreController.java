@@ -0,0 +1,23 @@
+package com.smartcommerce.backend.cart.controller;
+
+import com.smartcommerce.backend.cart.store.CartStore;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/cart-store")
+public class AdminCartStoreController {
+
+    private final CartStore cartStore;
+
+    public AdminCartStoreController(CartStore cartStore) {
+        this.cartStore = cartStore;
+    }
+
+    // Admin: carts held in memory, pending writes, flush counters
+    @GetMapping
+    public Map<String, Object> stats() {
+        return cartStore.stats();
+    }
+}
@@ -1,5 +1,6 @@
 package com.smartcommerce.backend.cart.controller;
 
+import com.smartcommerce.backend.cart.dto.CartBatchRequest;
 import com.smartcommerce.backend.cart.dto.CartItemDTO;
 import com.smartcommerce.backend.cart.dto.CartSummaryDTO;
 import com.smartcommerce.backend.cart.service.CartService;
@@ -35,6 +36,13 @@ public class CartController {
         return cartService.updateQuantity(userId, productId, quantity);
     }
 
+    // Many add/set/remove ops in one call and one transaction; returns the resulting cart
+    @PostMapping("/{userId}/batch")
+    public CartSummaryDTO applyBatch(@PathVariable Long userId,
+                                     @RequestBody CartBatchRequest request) {
+        return cartService.applyBatch(userId, request);
+    }
+
     @DeleteMapping("/{userId}/remove")
     public ResponseEntity<Void> removeItem(
             @PathVariable Long userId,
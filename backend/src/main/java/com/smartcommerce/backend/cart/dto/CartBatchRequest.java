@@ -0,0 +1,17 @@
+package com.smartcommerce.backend.cart.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CartBatchRequest {
+    private List<Op> ops;          // applied in order, all or nothing
+
+    @Data
+    public static class Op {
+        private String op;         // "add" (quantity > 0) | "set" (quantity >= 0, creates the line, 0 removes) | "remove"
+        private Long productId;
+        private Integer quantity;  // ignored for "remove"
+    }
+}
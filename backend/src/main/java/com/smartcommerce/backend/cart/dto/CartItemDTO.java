@@ -1,57 +1,46 @@
 package com.smartcommerce.backend.cart.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.smartcommerce.backend.cart.entity.CartItem;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
+import com.smartcommerce.backend.common.Money;
+import com.smartcommerce.backend.product.entity.Product;
 
+// amounts are long paise; JSON still carries rupees (499.00) under the original field names
 public class CartItemDTO {
     private Long id;
     private Long productId;
     private String productName;
-    private BigDecimal productPrice;      // original price
+    private long productPricePaise;       // original price
     private int quantity;
-    private BigDecimal totalPrice;        // total with original price
+    private long totalPricePaise;         // total with original price
     private String productPhoto;
     private Integer discount;             // discount % (calculated from price & discountPrice)
-    private BigDecimal discountedPrice;   // price after discount
-    private BigDecimal discountedTotal;   // total after discount
+    private long discountedPricePaise;    // price after discount
+    private long discountedTotalPaise;    // total after discount
 
     // ✅ Constructor: map from entity
     public CartItemDTO(CartItem item) {
-        this.id = item.getId();
-        this.productId = item.getProduct().getId();
-        this.productName = item.getProduct().getName();
-        this.productPrice = item.getProduct().getPrice();
-        this.quantity = item.getQuantity();
-        this.totalPrice = productPrice.multiply(BigDecimal.valueOf(quantity))
-                .setScale(2, RoundingMode.HALF_UP);
-
-        this.productPhoto = (item.getProduct().getPhotos() != null && !item.getProduct().getPhotos().isEmpty())
-                ? item.getProduct().getPhotos().get(0).getPhotoUrl()
+        this(item.getId(), item.getProduct(), item.getQuantity());
+    }
+
+    // ✅ Constructor: cart line held by the cart store (id is null until the line is written to the DB)
+    public CartItemDTO(Long id, Product product, int quantity) {
+        this.id = id;
+        this.productId = product.getId();
+        this.productName = product.getName();
+        this.quantity = quantity;
+
+        this.productPhoto = (product.getPhotos() != null && !product.getPhotos().isEmpty())
+                ? product.getPhotos().get(0).getPhotoUrl()
                 : null;
 
-        BigDecimal discountPrice = item.getProduct().getDiscountPrice();
-
-        if (discountPrice != null && discountPrice.compareTo(BigDecimal.ZERO) > 0
-                && discountPrice.compareTo(productPrice) < 0) {
-
-            this.discountedPrice = discountPrice.setScale(2, RoundingMode.HALF_UP);
-            this.discountedTotal = discountedPrice.multiply(BigDecimal.valueOf(quantity))
-                    .setScale(2, RoundingMode.HALF_UP);
-
-            // derive % discount = (price - discountPrice) / price * 100
-            BigDecimal diff = productPrice.subtract(discountPrice);
-            this.discount = productPrice.compareTo(BigDecimal.ZERO) > 0
-                    ? diff.multiply(BigDecimal.valueOf(100))
-                    .divide(productPrice, 0, RoundingMode.HALF_UP)
-                    .intValue()
-                    : 0;
-        } else {
-            // no discount → discounted = original
-            this.discountedPrice = productPrice.setScale(2, RoundingMode.HALF_UP);
-            this.discountedTotal = totalPrice;
-            this.discount = 0;
-        }
+        // no discount → discounted = original (Money#effective)
+        this.productPricePaise = product.getPricePaise();
+        this.discountedPricePaise = product.getEffectivePricePaise();
+        this.totalPricePaise = Money.times(productPricePaise, quantity);
+        this.discountedTotalPaise = Money.times(discountedPricePaise, quantity);
+        this.discount = Money.percentOff(productPricePaise, discountedPricePaise);
     }
 
     // ✅ Getters & Setters
@@ -64,24 +53,26 @@ public class CartItemDTO {
     public String getProductName() { return productName; }
     public void setProductName(String productName) { this.productName = productName; }
 
-    public BigDecimal getProductPrice() { return productPrice; }
-    public void setProductPrice(BigDecimal productPrice) { this.productPrice = productPrice; }
+    @JsonProperty("productPrice")
+    @JsonSerialize(using = Money.RupeesSerializer.class)
+    public long getProductPricePaise() { return productPricePaise; }
 
     public int getQuantity() { return quantity; }
-    public void setQuantity(int quantity) { this.quantity = quantity; }
 
-    public BigDecimal getTotalPrice() { return totalPrice; }
-    public void setTotalPrice(BigDecimal totalPrice) { this.totalPrice = totalPrice; }
+    @JsonProperty("totalPrice")
+    @JsonSerialize(using = Money.RupeesSerializer.class)
+    public long getTotalPricePaise() { return totalPricePaise; }
 
     public String getProductPhoto() { return productPhoto; }
     public void setProductPhoto(String productPhoto) { this.productPhoto = productPhoto; }
 
     public Integer getDiscount() { return discount; }
-    public void setDiscount(Integer discount) { this.discount = discount; }
 
-    public BigDecimal getDiscountedPrice() { return discountedPrice; }
-    public void setDiscountedPrice(BigDecimal discountedPrice) { this.discountedPrice = discountedPrice; }
+    @JsonProperty("discountedPrice")
+    @JsonSerialize(using = Money.RupeesSerializer.class)
+    public long getDiscountedPricePaise() { return discountedPricePaise; }
 
-    public BigDecimal getDiscountedTotal() { return discountedTotal; }
-    public void setDiscountedTotal(BigDecimal discountedTotal) { this.discountedTotal = discountedTotal; }
+    @JsonProperty("discountedTotal")
+    @JsonSerialize(using = Money.RupeesSerializer.class)
+    public long getDiscountedTotalPaise() { return discountedTotalPaise; }
 }
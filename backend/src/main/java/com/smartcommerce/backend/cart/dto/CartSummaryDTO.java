@@ -1,39 +1,51 @@
 package com.smartcommerce.backend.cart.dto;
 
-import java.math.BigDecimal;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.smartcommerce.backend.common.Money;
+
 import java.util.List;
 
+// amounts are long paise; JSON carries rupees under the original field names
 public class CartSummaryDTO {
     private List<CartItemDTO> items;
     private int totalItems;
-    private BigDecimal totalAmount;          // after discounts
-    private BigDecimal originalTotalAmount;  // before discounts
-    private BigDecimal totalSavings;         // original - discounted
+    private long totalAmountPaise;          // after discounts
+    private long originalTotalAmountPaise;  // before discounts
 
+    // ✅ One pass over the lines
     public CartSummaryDTO(List<CartItemDTO> items) {
         this.items = items;
-        this.totalItems = items.stream()
-                .mapToInt(CartItemDTO::getQuantity)
-                .sum();
-
-        // before discount
-        this.originalTotalAmount = items.stream()
-                .map(CartItemDTO::getTotalPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // after discount
-        this.totalAmount = items.stream()
-                .map(CartItemDTO::getDiscountedTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        // savings
-        this.totalSavings = originalTotalAmount.subtract(totalAmount);
+        for (CartItemDTO item : items) {
+            totalItems += item.getQuantity();
+            originalTotalAmountPaise += item.getTotalPricePaise();
+            totalAmountPaise += item.getDiscountedTotalPaise();
+        }
+    }
+
+    // totals kept up to date by the cart store (no recomputation)
+    public CartSummaryDTO(List<CartItemDTO> items, int totalItems,
+                          long totalAmountPaise, long originalTotalAmountPaise) {
+        this.items = items;
+        this.totalItems = totalItems;
+        this.totalAmountPaise = totalAmountPaise;
+        this.originalTotalAmountPaise = originalTotalAmountPaise;
     }
 
     // ✅ Getters
     public List<CartItemDTO> getItems() { return items; }
     public int getTotalItems() { return totalItems; }
-    public BigDecimal getTotalAmount() { return totalAmount; }
-    public BigDecimal getOriginalTotalAmount() { return originalTotalAmount; }
-    public BigDecimal getTotalSavings() { return totalSavings; }
+
+    @JsonProperty("totalAmount")
+    @JsonSerialize(using = Money.RupeesSerializer.class)
+    public long getTotalAmountPaise() { return totalAmountPaise; }
+
+    @JsonProperty("originalTotalAmount")
+    @JsonSerialize(using = Money.RupeesSerializer.class)
+    public long getOriginalTotalAmountPaise() { return originalTotalAmountPaise; }
+
+    // savings = original - discounted
+    @JsonProperty("totalSavings")
+    @JsonSerialize(using = Money.RupeesSerializer.class)
+    public long getTotalSavingsPaise() { return originalTotalAmountPaise - totalAmountPaise; }
 }
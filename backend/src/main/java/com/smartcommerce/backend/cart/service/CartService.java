@@ -1,90 +1,80 @@
 package com.smartcommerce.backend.cart.service;
 
-import com.smartcommerce.backend.auth.entity.User;
-import com.smartcommerce.backend.auth.repository.UserRepository;
+import com.smartcommerce.backend.cart.dto.CartBatchRequest;
 import com.smartcommerce.backend.cart.dto.CartItemDTO;
 import com.smartcommerce.backend.cart.dto.CartSummaryDTO;
-import com.smartcommerce.backend.cart.entity.CartItem;
-import com.smartcommerce.backend.cart.repository.CartItemRepository;
-import com.smartcommerce.backend.product.entity.Product;
-import com.smartcommerce.backend.product.repository.ProductRepository;
+import com.smartcommerce.backend.cart.store.CartStore;
+import com.smartcommerce.backend.config.CartProps;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
 public class CartService {
-    private final CartItemRepository cartRepo;
-    private final UserRepository userRepo;
-    private final ProductRepository productRepo;
+    private final CartStore cartStore;
+    private final CartProps props;
 
-    public CartService(CartItemRepository cartRepo, UserRepository userRepo, ProductRepository productRepo) {
-        this.cartRepo = cartRepo;
-        this.userRepo = userRepo;
-        this.productRepo = productRepo;
+    public CartService(CartStore cartStore, CartProps props) {
+        this.cartStore = cartStore;
+        this.props = props;
     }
 
     // ✅ Add to cart
-    @Transactional
     public CartItemDTO addToCart(Long userId, Long productId, int quantity) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be > 0");
         }
-
-        User user = userRepo.getReferenceById(userId);
-        Product product = productRepo.getReferenceById(productId);
-
-        CartItem item = cartRepo.findByUser_IdAndProduct_Id(userId, productId)
-                .orElseGet(() -> {
-                    CartItem ci = new CartItem();
-                    ci.setUser(user);
-                    ci.setProduct(product);
-                    ci.setQuantity(0);
-                    return ci;
-                });
-
-        item.setQuantity(item.getQuantity() + quantity);
-        CartItem saved = cartRepo.save(item);
-
-        return new CartItemDTO(saved);
+        return cartStore.add(userId, productId, quantity);
     }
 
     // ✅ Remove product
-    @Transactional
     public void removeFromCart(Long userId, Long productId) {
-        cartRepo.findByUser_IdAndProduct_Id(userId, productId)
-                .ifPresent(cartRepo::delete);
+        cartStore.remove(userId, productId);
     }
 
-    // ✅ Update quantity
-    @Transactional
+    // ✅ Update quantity (<= 0 removes the line and returns null)
     public CartItemDTO updateQuantity(Long userId, Long productId, int quantity) {
-        CartItem item = cartRepo.findByUser_IdAndProduct_Id(userId, productId)
-                .orElseThrow(() -> new RuntimeException("Item not found in cart"));
+        return cartStore.setQuantity(userId, productId, Math.max(quantity, 0));
+    }
 
-        if (quantity <= 0) {
-            cartRepo.delete(item);
-            return null;
+    // ✅ Apply many add/set/remove ops at once (guest-cart merge, re-order); all or nothing
+    public CartSummaryDTO applyBatch(Long userId, CartBatchRequest request) {
+        List<CartBatchRequest.Op> ops = request == null ? null : request.getOps();
+        if (ops == null || ops.isEmpty()) {
+            throw new IllegalArgumentException("ops must not be empty");
         }
-
-        item.setQuantity(quantity);
-        CartItem saved = cartRepo.save(item);
-        return new CartItemDTO(saved);
+        if (ops.size() > props.getMaxBatchOps()) {
+            throw new IllegalArgumentException("Too many ops (max " + props.getMaxBatchOps() + ")");
+        }
+        for (int i = 0; i < ops.size(); i++) {
+            CartBatchRequest.Op op = ops.get(i);
+            if (op == null || op.getProductId() == null) {
+                throw new IllegalArgumentException("ops[" + i + "]: productId is required");
+            }
+            String type = op.getOp() == null ? "" : op.getOp().trim().toLowerCase();
+            op.setOp(type);
+            Integer q = op.getQuantity();
+            switch (type) {
+                case "add" -> {
+                    if (q == null || q <= 0) throw new IllegalArgumentException("ops[" + i + "]: quantity must be > 0");
+                }
+                case "set" -> {
+                    if (q == null || q < 0) throw new IllegalArgumentException("ops[" + i + "]: quantity must be >= 0");
+                }
+                case "remove" -> { }
+                default -> throw new IllegalArgumentException("ops[" + i + "]: op must be add, set or remove");
+            }
+        }
+        return cartStore.apply(userId, ops);
     }
 
     // ✅ Get user’s cart (with summary)
     public CartSummaryDTO getCart(Long userId) {
-        List<CartItemDTO> items = cartRepo.findByUser_Id(userId)
-                .stream()
-                .map(CartItemDTO::new)
-                .toList();
-
-        return new CartSummaryDTO(items);
+        return cartStore.summary(userId);
     }
 
     public void clearCart(Long userId) {
-        cartRepo.deleteByUser_Id(userId);  // or deleteAllByUserId(userId) if you used @Query
+        cartStore.clear(userId);
     }
 
 }
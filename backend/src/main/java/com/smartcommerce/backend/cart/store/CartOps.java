@@ -0,0 +1,46 @@
+package com.smartcommerce.backend.cart.store;
+
+import com.smartcommerce.backend.cart.dto.CartBatchRequest;
+
+import java.util.*;
+
+/** Resolves a validated batch of cart operations against the current quantities. */
+final class CartOps {
+
+    private CartOps() {
+    }
+
+    /** productId -> quantity after every op, in cart order (new lines at the end). */
+    static LinkedHashMap<Long, Integer> resolve(Map<Long, Integer> current, List<CartBatchRequest.Op> ops) {
+        LinkedHashMap<Long, Integer> out = new LinkedHashMap<>(current);
+        for (CartBatchRequest.Op op : ops) {
+            Long productId = op.getProductId();
+            switch (op.getOp()) {
+                case "add" -> out.merge(productId, op.getQuantity(), Integer::sum);
+                case "set" -> {
+                    if (op.getQuantity() == 0) out.remove(productId);
+                    else out.put(productId, op.getQuantity());
+                }
+                case "remove" -> out.remove(productId);
+                default -> throw new IllegalArgumentException("Unknown cart op: " + op.getOp());
+            }
+        }
+        return out;
+    }
+
+    /** Products that ops add or set to a positive quantity; they must exist (removals never need the product). */
+    static Set<Long> productsNeeded(List<CartBatchRequest.Op> ops) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (CartBatchRequest.Op op : ops) {
+            boolean puts = "add".equals(op.getOp()) || ("set".equals(op.getOp()) && op.getQuantity() > 0);
+            if (puts) ids.add(op.getProductId());
+        }
+        return ids;
+    }
+
+    static void requireAll(Set<Long> wanted, Set<Long> found) {
+        if (found.containsAll(wanted)) return;
+        List<Long> missing = wanted.stream().filter(id -> !found.contains(id)).toList();
+        throw new IllegalArgumentException("Product not found: " + missing);
+    }
+}
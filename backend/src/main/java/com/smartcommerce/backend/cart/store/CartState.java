@@ -0,0 +1,152 @@
+package com.smartcommerce.backend.cart.store;
+
+import com.smartcommerce.backend.cart.dto.CartItemDTO;
+import com.smartcommerce.backend.cart.dto.CartSummaryDTO;
+import com.smartcommerce.backend.product.entity.Product;
+
+import java.util.*;
+
+/**
+ * One user's cart in memory. Mutations and flushes synchronize on the instance; readers only
+ * touch the volatile {@link #summary}, an immutable snapshot republished after every change.
+ * Totals are adjusted by the changed line instead of being summed over the whole cart.
+ */
+final class CartState {
+
+    static final class Line {
+        Long id;              // cart_item id, null until written
+        int quantity;
+        CartItemDTO dto;      // priced with the product as of catalogVersion
+
+        Line(Long id, int quantity, CartItemDTO dto) {
+            this.id = id;
+            this.quantity = quantity;
+            this.dto = dto;
+        }
+    }
+
+    final Long userId;
+    final boolean userExists;
+    final LinkedHashMap<Long, Line> lines = new LinkedHashMap<>();   // productId -> line, cart order
+    final Set<Long> dirty = new HashSet<>();                         // productIds changed since the last flush
+    int flushFailures;
+    volatile long catalogVersion;
+
+    private int totalItems;
+    private long totalAmountPaise;
+    private long originalTotalAmountPaise;
+
+    volatile CartSummaryDTO summary;
+
+    CartState(Long userId, boolean userExists, long catalogVersion) {
+        this.userId = userId;
+        this.userExists = userExists;
+        this.catalogVersion = catalogVersion;
+        publish();
+    }
+
+    /** Sets a line (quantity <= 0 removes it) and marks it for the next flush. Returns the new line DTO or null. */
+    synchronized CartItemDTO set(Product product, int quantity) {
+        Long productId = product.getId();
+        Line line = lines.get(productId);
+        if (line != null) subtract(line.dto);
+        dirty.add(productId);
+        if (quantity <= 0) {
+            lines.remove(productId);
+            publish();
+            return null;
+        }
+        Long id = line != null ? line.id : null;
+        CartItemDTO dto = new CartItemDTO(id, product, quantity);
+        if (line == null) {
+            lines.put(productId, new Line(id, quantity, dto));
+        } else {
+            line.quantity = quantity;
+            line.dto = dto;
+        }
+        add(dto);
+        publish();
+        return dto;
+    }
+
+    /** Drops a line and marks it for deletion on the next flush. */
+    synchronized boolean remove(Long productId) {
+        Line line = lines.remove(productId);
+        if (line == null) return false;
+        subtract(line.dto);
+        dirty.add(productId);
+        publish();
+        return true;
+    }
+
+    /** Line loaded from the DB (not dirty). */
+    synchronized void load(Long id, Product product, int quantity) {
+        CartItemDTO dto = new CartItemDTO(id, product, quantity);
+        lines.put(product.getId(), new Line(id, quantity, dto));
+        add(dto);
+    }
+
+    synchronized void removeAll() {
+        lines.clear();
+        dirty.clear();
+        totalItems = 0;
+        totalAmountPaise = 0;
+        originalTotalAmountPaise = 0;
+        publish();
+    }
+
+    /** Re-prices every line after a catalog change; lines whose product is gone are dropped (and deleted on flush). */
+    synchronized void reprice(Map<Long, Product> products, long version) {
+        totalItems = 0;
+        totalAmountPaise = 0;
+        originalTotalAmountPaise = 0;
+        Iterator<Map.Entry<Long, Line>> it = lines.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<Long, Line> e = it.next();
+            Product p = products.get(e.getKey());
+            if (p == null) {
+                it.remove();
+                dirty.add(e.getKey());
+                continue;
+            }
+            Line line = e.getValue();
+            line.dto = new CartItemDTO(line.id, p, line.quantity);
+            add(line.dto);
+        }
+        catalogVersion = version;
+        publish();
+    }
+
+    /** Records the id of a freshly inserted row. */
+    synchronized void assignId(Long productId, Long id) {
+        Line line = lines.get(productId);
+        if (line == null) return;
+        line.id = id;
+        line.dto.setId(id);
+        publish();
+    }
+
+    synchronized LinkedHashMap<Long, Integer> quantities() {
+        LinkedHashMap<Long, Integer> out = new LinkedHashMap<>();
+        lines.forEach((productId, line) -> out.put(productId, line.quantity));
+        return out;
+    }
+
+    synchronized void publish() {
+        List<CartItemDTO> items = new ArrayList<>(lines.size());
+        for (Line line : lines.values()) items.add(line.dto);
+        summary = new CartSummaryDTO(Collections.unmodifiableList(items), totalItems, totalAmountPaise, originalTotalAmountPaise);
+    }
+
+    private void add(CartItemDTO dto) {
+        totalItems += dto.getQuantity();
+        totalAmountPaise += dto.getDiscountedTotalPaise();
+        originalTotalAmountPaise += dto.getTotalPricePaise();
+    }
+
+    private void subtract(CartItemDTO dto) {
+        totalItems -= dto.getQuantity();
+        totalAmountPaise -= dto.getDiscountedTotalPaise();
+        originalTotalAmountPaise -= dto.getTotalPricePaise();
+    }
+}
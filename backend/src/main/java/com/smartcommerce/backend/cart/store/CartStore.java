@@ -0,0 +1,43 @@
+package com.smartcommerce.backend.cart.store;
+
+import com.smartcommerce.backend.cart.dto.CartBatchRequest;
+import com.smartcommerce.backend.cart.dto.CartItemDTO;
+import com.smartcommerce.backend.cart.dto.CartSummaryDTO;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Where carts live while users shop. CartService validates input and delegates here;
+ * checkout reads and clears carts through {@code CartPort}, which also ends up here.
+ * Selected with app.cart.store (memory | db).
+ *
+ * @see com.smartcommerce.backend.cart.service.CartService
+ */
+public interface CartStore {
+
+    CartSummaryDTO summary(Long userId);
+
+    /** productId -> quantity, in cart order (what checkout prices). */
+    LinkedHashMap<Long, Integer> quantities(Long userId);
+
+    /** Adds to the line's quantity (creating it). */
+    CartItemDTO add(Long userId, Long productId, int quantity);
+
+    /** Sets the line's quantity; 0 removes it and returns null. RuntimeException when the line does not exist. */
+    CartItemDTO setQuantity(Long userId, Long productId, int quantity);
+
+    void remove(Long userId, Long productId);
+
+    /**
+     * Applies validated ops in order, all or nothing, and returns the resulting cart.
+     * IllegalArgumentException (nothing applied) when a product or the user does not exist.
+     */
+    CartSummaryDTO apply(Long userId, List<CartBatchRequest.Op> ops);
+
+    /** Empties the cart, DB rows included; the DB delete joins the caller's transaction. */
+    void clear(Long userId);
+
+    Map<String, Object> stats();
+}
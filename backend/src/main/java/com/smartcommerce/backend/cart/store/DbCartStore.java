@@ -0,0 +1,141 @@
+package com.smartcommerce.backend.cart.store;
+
+import com.smartcommerce.backend.auth.entity.User;
+import com.smartcommerce.backend.auth.repository.UserRepository;
+import com.smartcommerce.backend.cart.dto.CartBatchRequest;
+import com.smartcommerce.backend.cart.dto.CartItemDTO;
+import com.smartcommerce.backend.cart.dto.CartSummaryDTO;
+import com.smartcommerce.backend.cart.entity.CartItem;
+import com.smartcommerce.backend.cart.repository.CartItemRepository;
+import com.smartcommerce.backend.product.entity.Product;
+import com.smartcommerce.backend.product.repository.ProductRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/** Every call reads/writes cart_item directly. Stateless, so safe behind a load balancer with several instances. */
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "db")
+public class DbCartStore implements CartStore {
+
+    private final CartItemRepository cartRepo;
+    private final UserRepository userRepo;
+    private final ProductRepository productRepo;
+
+    public DbCartStore(CartItemRepository cartRepo, UserRepository userRepo, ProductRepository productRepo) {
+        this.cartRepo = cartRepo;
+        this.userRepo = userRepo;
+        this.productRepo = productRepo;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CartSummaryDTO summary(Long userId) {
+        List<CartItemDTO> items = cartRepo.findByUser_Id(userId)
+                .stream()
+                .map(CartItemDTO::new)
+                .toList();
+        return new CartSummaryDTO(items);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public LinkedHashMap<Long, Integer> quantities(Long userId) {
+        LinkedHashMap<Long, Integer> out = new LinkedHashMap<>();
+        cartRepo.findByUser_Id(userId).forEach(ci -> out.put(ci.getProduct().getId(), ci.getQuantity()));
+        return out;
+    }
+
+    @Override
+    @Transactional
+    public CartItemDTO add(Long userId, Long productId, int quantity) {
+        CartItem item = cartRepo.findByUser_IdAndProduct_Id(userId, productId)
+                .orElseGet(() -> {
+                    CartItem ci = new CartItem();
+                    ci.setUser(userRepo.getReferenceById(userId));
+                    ci.setProduct(productRepo.getReferenceById(productId));
+                    ci.setQuantity(0);
+                    return ci;
+                });
+        item.setQuantity(item.getQuantity() + quantity);
+        return new CartItemDTO(cartRepo.save(item));
+    }
+
+    @Override
+    @Transactional
+    public CartItemDTO setQuantity(Long userId, Long productId, int quantity) {
+        CartItem item = cartRepo.findByUser_IdAndProduct_Id(userId, productId)
+                .orElseThrow(() -> new RuntimeException("Item not found in cart"));
+        if (quantity <= 0) {
+            cartRepo.delete(item);
+            return null;
+        }
+        item.setQuantity(quantity);
+        return new CartItemDTO(cartRepo.save(item));
+    }
+
+    @Override
+    @Transactional
+    public void remove(Long userId, Long productId) {
+        cartRepo.findByUser_IdAndProduct_Id(userId, productId)
+                .ifPresent(cartRepo::delete);
+    }
+
+    // one read of the cart, one of the products, then batched writes in this transaction
+    @Override
+    @Transactional
+    public CartSummaryDTO apply(Long userId, List<CartBatchRequest.Op> ops) {
+        Set<Long> needed = CartOps.productsNeeded(ops);
+        Map<Long, Product> products = new HashMap<>();
+        if (!needed.isEmpty()) productRepo.findAllById(needed).forEach(p -> products.put(p.getId(), p));
+        CartOps.requireAll(needed, products.keySet());
+
+        LinkedHashMap<Long, CartItem> rows = new LinkedHashMap<>();
+        cartRepo.findByUser_Id(userId).forEach(ci -> rows.put(ci.getProduct().getId(), ci));
+        LinkedHashMap<Long, Integer> before = new LinkedHashMap<>();
+        rows.forEach((productId, ci) -> before.put(productId, ci.getQuantity()));
+        LinkedHashMap<Long, Integer> after = CartOps.resolve(before, ops);
+
+        List<CartItem> deleted = new ArrayList<>();
+        for (Map.Entry<Long, CartItem> e : rows.entrySet()) {
+            if (!after.containsKey(e.getKey())) deleted.add(e.getValue());
+        }
+        List<CartItem> created = new ArrayList<>();
+        for (Map.Entry<Long, Integer> e : after.entrySet()) {
+            CartItem row = rows.get(e.getKey());
+            if (row != null) {
+                row.setQuantity(e.getValue()); // dirty checking; updates go out as one JDBC batch
+                continue;
+            }
+            CartItem ci = new CartItem();
+            ci.setProduct(products.get(e.getKey()));
+            ci.setQuantity(e.getValue());
+            created.add(ci);
+        }
+        if (!created.isEmpty()) {
+            if (rows.isEmpty() && !userRepo.existsById(userId)) throw new IllegalArgumentException("User not found");
+            User user = userRepo.getReferenceById(userId);
+            created.forEach(ci -> ci.setUser(user));
+            cartRepo.saveAll(created);
+        }
+        if (!deleted.isEmpty()) cartRepo.deleteAllInBatch(deleted); // single DELETE ... WHERE id IN (...)
+
+        List<CartItemDTO> items = new ArrayList<>();
+        rows.values().stream().filter(ci -> after.containsKey(ci.getProduct().getId())).forEach(ci -> items.add(new CartItemDTO(ci)));
+        created.forEach(ci -> items.add(new CartItemDTO(ci)));
+        return new CartSummaryDTO(items);
+    }
+
+    @Override
+    @Transactional
+    public void clear(Long userId) {
+        cartRepo.deleteByUser_Id(userId);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        return Map.of("store", "db");
+    }
+}
@@ -0,0 +1,356 @@
+package com.smartcommerce.backend.cart.store;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.smartcommerce.backend.auth.repository.UserRepository;
+import com.smartcommerce.backend.cart.dto.CartBatchRequest;
+import com.smartcommerce.backend.cart.dto.CartItemDTO;
+import com.smartcommerce.backend.cart.dto.CartSummaryDTO;
+import com.smartcommerce.backend.cart.entity.CartItem;
+import com.smartcommerce.backend.cart.repository.CartItemRepository;
+import com.smartcommerce.backend.config.CartProps;
+import com.smartcommerce.backend.product.cache.CatalogCache;
+import com.smartcommerce.backend.product.entity.Product;
+import com.smartcommerce.backend.product.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carts held in memory (Caffeine) with write-behind to cart_item.
+ *
+ * Reads return a prebuilt {@link CartSummaryDTO} snapshot: no query, no arithmetic. Mutations change
+ * the in-memory cart and mark the line dirty; every app.cart.flush-interval the flusher writes the dirty
+ * lines of each cart in one short transaction, so ten "+1" clicks become one UPDATE. The pass runs on its own
+ * cartFlushExecutor thread, so a slow database never holds up the shared scheduler. Lines are re-priced
+ * from CatalogCache when the catalog version moves, so price changes still show up.
+ *
+ * Carts that still have unwritten changes stay in the dirty set even when Caffeine evicts them and are
+ * picked up again by the next read. Checkout clears through {@link #clear}, which writes pending changes
+ * first and then deletes the rows in the caller's transaction, so a late flush can never bring items back.
+ * In-memory means per instance: with several instances use app.cart.store=db (or sticky sessions).
+ */
+@Component
+@ConditionalOnProperty(name = "app.cart.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCartStore implements CartStore {
+
+    private final CartItemRepository cartRepo;
+    private final UserRepository userRepo;
+    private final ProductRepository productRepo;
+    private final CatalogCache catalogCache;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate newTx;
+    private final CartProps props;
+
+    private final Cache<Long, CartState> carts;
+    private final Map<Long, CartState> dirtyCarts = new ConcurrentHashMap<>();
+    private final Executor flushExecutor;
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong mutations = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong flushErrors = new AtomicLong();
+
+    public InMemoryCartStore(CartItemRepository cartRepo,
+                             UserRepository userRepo,
+                             ProductRepository productRepo,
+                             CatalogCache catalogCache,
+                             PlatformTransactionManager txManager,
+                             CartProps props,
+                             @Qualifier("cartFlushExecutor") Executor flushExecutor) {
+        this.cartRepo = cartRepo;
+        this.userRepo = userRepo;
+        this.productRepo = productRepo;
+        this.catalogCache = catalogCache;
+        this.tx = new TransactionTemplate(txManager);
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.props = props;
+        this.flushExecutor = flushExecutor;
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(props.getMaxCarts())
+                .expireAfterAccess(props.getIdleTtl())
+                .build();
+    }
+
+    // ---------------- reads ----------------
+
+    @Override
+    public CartSummaryDTO summary(Long userId) {
+        return fresh(userId).summary;
+    }
+
+    @Override
+    public LinkedHashMap<Long, Integer> quantities(Long userId) {
+        return cart(userId).quantities();
+    }
+
+    // ---------------- writes ----------------
+
+    // every write loops until markDirty accepts it: a cart evicted and reloaded under us is stale, so the
+    // change is made again on the instance readers see (relative ops are recomputed from that one)
+
+    @Override
+    public CartItemDTO add(Long userId, Long productId, int quantity) {
+        Product product = catalogCache.getProduct(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found"));
+        while (true) {
+            CartState cart = fresh(userId);
+            if (!cart.userExists) throw new IllegalArgumentException("User not found");
+            synchronized (cart) {
+                CartState.Line line = cart.lines.get(productId);
+                CartItemDTO dto = cart.set(product, (line != null ? line.quantity : 0) + quantity);
+                if (markDirty(cart)) return dto;
+            }
+        }
+    }
+
+    @Override
+    public CartItemDTO setQuantity(Long userId, Long productId, int quantity) {
+        while (true) {
+            CartState cart = fresh(userId);
+            synchronized (cart) {
+                if (!cart.lines.containsKey(productId)) throw new RuntimeException("Item not found in cart");
+                Product product = catalogCache.getProduct(productId)
+                        .orElseThrow(() -> new RuntimeException("Product not found"));
+                CartItemDTO dto = cart.set(product, quantity);
+                if (markDirty(cart)) return dto;
+            }
+        }
+    }
+
+    @Override
+    public void remove(Long userId, Long productId) {
+        while (true) {
+            CartState cart = cart(userId);
+            synchronized (cart) {
+                if (!cart.remove(productId) || markDirty(cart)) return;
+            }
+        }
+    }
+
+    @Override
+    public CartSummaryDTO apply(Long userId, List<CartBatchRequest.Op> ops) {
+        Set<Long> needed = CartOps.productsNeeded(ops);
+        Map<Long, Product> products = catalogCache.getProducts(needed);
+        CartOps.requireAll(needed, products.keySet());
+        while (true) {
+            CartState cart = fresh(userId);
+            if (!needed.isEmpty() && !cart.userExists) throw new IllegalArgumentException("User not found");
+            synchronized (cart) {
+                LinkedHashMap<Long, Integer> before = cart.quantities();
+                LinkedHashMap<Long, Integer> after = CartOps.resolve(before, ops);
+                boolean changed = false;
+                for (Long productId : before.keySet()) {
+                    if (!after.containsKey(productId)) changed |= cart.remove(productId);
+                }
+                for (Map.Entry<Long, Integer> e : after.entrySet()) {
+                    if (!e.getValue().equals(before.get(e.getKey()))) {
+                        cart.set(products.get(e.getKey()), e.getValue());
+                        changed = true;
+                    }
+                }
+                if (!changed || markDirty(cart)) return cart.summary;
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public void clear(Long userId) {
+        CartState cart = carts.getIfPresent(userId);
+        if (cart == null) cart = dirtyCarts.get(userId);
+        if (cart != null) {
+            synchronized (cart) {
+                // pending changes go to the DB first: if the caller rolls back, the reloaded cart still has them
+                flushLocked(cart, newTx);
+                cart.removeAll();
+            }
+        }
+        cartRepo.deleteByUser_Id(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) carts.invalidate(userId); // re-read the surviving rows
+                }
+            });
+        }
+    }
+
+    // ---------------- write-behind ----------------
+
+    // the shared scheduler thread only hands the pass to the cart-flush thread; one pass at a time
+    @Scheduled(fixedDelayString = "${app.cart.flush-interval:PT1S}")
+    public void tick() {
+        if (!flushing.compareAndSet(false, true)) return;
+        try {
+            flushExecutor.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            flushing.set(false); // shutting down; flushOnShutdown writes what is left
+        }
+    }
+
+    public void flush() {
+        for (CartState cart : dirtyCarts.values()) {
+            synchronized (cart) {
+                flushLocked(cart, tx);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // caller holds the cart's monitor
+    private void flushLocked(CartState cart, TransactionTemplate template) {
+        if (cart.dirty.isEmpty()) {
+            dirtyCarts.remove(cart.userId, cart);
+            return;
+        }
+        try {
+            Map<Long, Long> inserted = template.execute(st -> write(cart));
+            if (inserted != null) inserted.forEach(cart::assignId);
+            flushes.incrementAndGet();
+            rowsWritten.addAndGet(cart.dirty.size());
+            cart.dirty.clear();
+            cart.flushFailures = 0;
+            dirtyCarts.remove(cart.userId, cart);
+        } catch (RuntimeException e) {
+            flushErrors.incrementAndGet();
+            if (++cart.flushFailures >= props.getMaxFlushAttempts()) {
+                // give up on these changes: the DB is the truth again
+                System.err.println("⚠️ Cart of user " + cart.userId + " dropped after " + cart.flushFailures
+                        + " failed writes: " + e.getMessage());
+                cart.dirty.clear();
+                dirtyCarts.remove(cart.userId, cart);
+                carts.invalidate(cart.userId);
+            } else {
+                System.err.println("⚠️ Cart write for user " + cart.userId + " failed, will retry: " + e.getMessage());
+            }
+        }
+    }
+
+    // one select + one statement per dirty line; returns productId -> id of inserted rows
+    private Map<Long, Long> write(CartState cart) {
+        Map<Long, CartItem> rows = new HashMap<>();
+        for (CartItem ci : cartRepo.findByUser_Id(cart.userId)) rows.put(ci.getProduct().getId(), ci);
+
+        Map<Long, CartItem> created = new HashMap<>();
+        for (Long productId : cart.dirty) {
+            CartState.Line line = cart.lines.get(productId);
+            CartItem row = rows.get(productId);
+            if (line == null) {
+                if (row != null) cartRepo.delete(row);
+            } else if (row == null) {
+                CartItem ci = new CartItem();
+                ci.setUser(userRepo.getReferenceById(cart.userId));
+                ci.setProduct(productRepo.getReferenceById(productId));
+                ci.setQuantity(line.quantity);
+                created.put(productId, cartRepo.save(ci));
+            } else if (row.getQuantity() != line.quantity) {
+                row.setQuantity(line.quantity); // dirty checking issues the UPDATE
+            }
+        }
+        Map<Long, Long> ids = new HashMap<>();
+        created.forEach((productId, ci) -> ids.put(productId, ci.getId()));
+        return ids;
+    }
+
+    /**
+     * Queues the cart for the flusher, but only the instance readers see: the cached one, or the one already
+     * queued (evicted with unwritten changes). A stale copy (evicted, then reloaded by another request) must
+     * not replace the fresh one in dirtyCarts; false tells the caller to redo its change on the current cart.
+     */
+    private boolean markDirty(CartState cart) {
+        boolean[] queued = new boolean[1];
+        dirtyCarts.compute(cart.userId, (userId, queuedCart) -> {
+            queued[0] = queuedCart == cart || carts.getIfPresent(userId) == cart;
+            return queued[0] ? cart : queuedCart;
+        });
+        if (queued[0]) mutations.incrementAndGet();
+        return queued[0];
+    }
+
+    // ---------------- loading ----------------
+
+    private CartState cart(Long userId) {
+        return carts.get(userId, this::load);
+    }
+
+    // re-priced when products changed since the cart was built
+    private CartState fresh(Long userId) {
+        CartState cart = cart(userId);
+        long version = catalogCache.productsVersion();
+        if (cart.catalogVersion != version) {
+            synchronized (cart) {
+                if (cart.catalogVersion != version) {
+                    cart.reprice(catalogCache.getProducts(new ArrayList<>(cart.lines.keySet())), version);
+                    if (!cart.dirty.isEmpty()) markDirty(cart);
+                }
+            }
+        }
+        return cart;
+    }
+
+    private CartState load(Long userId) {
+        // evicted while it still had unwritten changes: adopt it again instead of reading stale rows
+        CartState pending = dirtyCarts.get(userId);
+        if (pending != null) return pending;
+
+        loads.incrementAndGet();
+        long version = catalogCache.productsVersion();
+        return tx.execute(st -> {
+            List<CartItem> rows = cartRepo.findByUser_Id(userId);
+            boolean userExists = !rows.isEmpty() || userRepo.existsById(userId);
+            CartState cart = new CartState(userId, userExists, version);
+            Map<Long, Product> products = catalogCache.getProducts(
+                    rows.stream().map(ci -> ci.getProduct().getId()).toList());
+            for (CartItem ci : rows) {
+                Product p = products.get(ci.getProduct().getId());
+                if (p != null) cart.load(ci.getId(), p, ci.getQuantity());
+            }
+            cart.publish();
+            return cart;
+        });
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("store", "memory");
+        m.put("carts", carts.estimatedSize());
+        m.put("dirtyCarts", dirtyCarts.size());
+        m.put("loads", loads.get());
+        m.put("mutations", mutations.get());
+        m.put("flushes", flushes.get());
+        m.put("rowsWritten", rowsWritten.get());
+        m.put("flushErrors", flushErrors.get());
+        return m;
+    }
+}
@@ -0,0 +1,23 @@
+package com.smartcommerce.backend.common;
+
+import java.util.List;
+
+/**
+ * One page of a keyset (cursor) paginated listing.
+ * No total count is computed: clients keep asking with {@code nextCursor} while {@code hasNext} is true.
+ */
+public class CursorPage<T> {
+    private final List<T> items;
+    private final String nextCursor;
+    private final boolean hasNext;
+
+    public CursorPage(List<T> items, String nextCursor, boolean hasNext) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public List<T> getItems() { return items; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasNext() { return hasNext; }
+}
@@ -1,8 +1,12 @@
 package com.smartcommerce.backend.common;
 
+import com.smartcommerce.backend.order.gateway.PaymentGatewayException;
+import com.smartcommerce.backend.order.service.InsufficientStockException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestControllerAdvice
 public class GlobalExceptionHandler {
     @ExceptionHandler(SecurityException.class)
@@ -13,6 +17,17 @@ public class GlobalExceptionHandler {
     public ResponseEntity<?> handleBad(IllegalArgumentException e) {
         return ResponseEntity.badRequest().body(e.getMessage());
     }
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<?> handleStock(InsufficientStockException e) {
+        return ResponseEntity.status(409).body(Map.of(
+                "error", e.getMessage(),
+                "shortfalls", e.getShortfalls()
+        ));
+    }
+    @ExceptionHandler(PaymentGatewayException.class)
+    public ResponseEntity<?> handleGateway(PaymentGatewayException e) {
+        return ResponseEntity.status(e.isUnavailable() ? 503 : 502).body(Map.of("error", e.getMessage()));
+    }
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<?> handleRun(RuntimeException e) {
         return ResponseEntity.status(500).body(e.getMessage());
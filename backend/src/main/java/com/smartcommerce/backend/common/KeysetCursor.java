@@ -0,0 +1,41 @@
+package com.smartcommerce.backend.common;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque cursor = last seen sort value + last seen id (tie breaker), base64url encoded.
+ */
+public final class KeysetCursor {
+
+    private static final char SEPARATOR = '|';
+
+    private final String value;
+    private final long id;
+
+    public KeysetCursor(String value, long id) {
+        this.value = value;
+        this.id = id;
+    }
+
+    public String getValue() { return value; }
+    public long getId() { return id; }
+
+    public String encode() {
+        String raw = (value == null ? "" : value) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** @return null for a blank cursor (first page) */
+    public static KeysetCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) return null;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf(SEPARATOR);
+            if (sep < 0) throw new IllegalArgumentException("Invalid cursor");
+            return new KeysetCursor(raw.substring(0, sep), Long.parseLong(raw.substring(sep + 1)));
+        } catch (IllegalArgumentException e) { // also covers NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.smartcommerce.backend.common;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Money as primitive {@code long} paise (1 rupee = 100 paise), the unit orders and the gateway already use.
+ * Product prices are converted once when a product is loaded (see {@code Product#getPricePaise}); cart lines,
+ * cart totals, checkout and coupons then work on longs only. Rupee decimals appear again just at the JSON edge
+ * ({@link RupeesSerializer}) and for the {@code effectivePrice} column.
+ *
+ * Rules: rupees -> paise rounds HALF_UP to the paisa; line totals are exact (price x quantity, overflow throws);
+ * percentages round HALF_UP to a whole percent.
+ */
+public final class Money {
+
+    private Money() {
+    }
+
+    /** Rupees to paise, HALF_UP to the paisa; null is 0. */
+    public static long paise(BigDecimal rupees) {
+        if (rupees == null) return 0L;
+        return rupees.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal rupees(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    /** What the customer pays per unit: the discount price when it is above 0 and below the price. */
+    public static long effective(long pricePaise, long discountPaise) {
+        return (discountPaise > 0 && discountPaise < pricePaise) ? discountPaise : pricePaise;
+    }
+
+    public static long times(long paise, int quantity) {
+        return Math.multiplyExact(paise, (long) quantity);
+    }
+
+    /** Whole percent off the price, HALF_UP; 0 when there is no discount. */
+    public static int percentOff(long pricePaise, long effectivePaise) {
+        if (pricePaise <= 0 || effectivePaise >= pricePaise) return 0;
+        long off = pricePaise - effectivePaise;
+        return (int) ((off * 200 + pricePaise) / (2 * pricePaise));
+    }
+
+    /** "1234.50" */
+    public static String format(long paise) {
+        long abs = Math.abs(paise);
+        long part = abs % 100;
+        StringBuilder sb = new StringBuilder(24);
+        if (paise < 0) sb.append('-');
+        sb.append(abs / 100).append('.');
+        if (part < 10) sb.append('0');
+        return sb.append(part).toString();
+    }
+
+    /** Writes paise as a rupee number with two decimals (499.00), the same JSON BigDecimal fields produced. */
+    public static class RupeesSerializer extends StdSerializer<Long> {
+
+        public RupeesSerializer() {
+            super(Long.class);
+        }
+
+        @Override
+        public void serialize(Long paise, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumber(format(paise));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.smartcommerce.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.cart")
+public class CartProps {
+    private String store = "memory";                          // memory (write-behind) | db (every call hits cart_item; use with >1 instance)
+    private long maxCarts = 100_000;                          // carts kept in memory; evicted dirty carts are still flushed
+    private Duration idleTtl = Duration.ofMinutes(30);        // untouched carts drop out (re-read from DB on next use)
+    private Duration flushInterval = Duration.ofSeconds(1);   // write-behind delay: changes within it coalesce into one write
+    private int maxFlushAttempts = 5;                         // a cart that keeps failing is reloaded from the DB
+    private int maxBatchOps = 200;                            // ops per POST /api/cart/{userId}/batch
+
+    public String getStore() { return store; }
+    public void setStore(String store) { this.store = store; }
+    public long getMaxCarts() { return maxCarts; }
+    public void setMaxCarts(long maxCarts) { this.maxCarts = maxCarts; }
+    public Duration getIdleTtl() { return idleTtl; }
+    public void setIdleTtl(Duration idleTtl) { this.idleTtl = idleTtl; }
+    public Duration getFlushInterval() { return flushInterval; }
+    public void setFlushInterval(Duration flushInterval) { this.flushInterval = flushInterval; }
+    public int getMaxFlushAttempts() { return maxFlushAttempts; }
+    public void setMaxFlushAttempts(int maxFlushAttempts) { this.maxFlushAttempts = maxFlushAttempts; }
+    public int getMaxBatchOps() { return maxBatchOps; }
+    public void setMaxBatchOps(int maxBatchOps) { this.maxBatchOps = maxBatchOps; }
+}
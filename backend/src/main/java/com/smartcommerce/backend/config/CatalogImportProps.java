@@ -0,0 +1,29 @@
+package com.smartcommerce.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties(prefix = "app.catalog-import")
+public class CatalogImportProps {
+    private int chunkSize = 1000;                             // rows per transaction (one JDBC batch per table)
+    private int maxErrors = 100;                              // row errors kept per job (counters keep counting)
+    private int keepJobs = 20;                                // finished jobs kept for GET /import/{id}
+    private int queueCapacity = 2;                            // imports waiting behind the running one
+    private DataSize maxUploadSize = DataSize.ofMegabytes(200);
+    private int exportPageSize = 500;                         // products per keyset page while exporting
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+    public int getMaxErrors() { return maxErrors; }
+    public void setMaxErrors(int maxErrors) { this.maxErrors = maxErrors; }
+    public int getKeepJobs() { return keepJobs; }
+    public void setKeepJobs(int keepJobs) { this.keepJobs = keepJobs; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public DataSize getMaxUploadSize() { return maxUploadSize; }
+    public void setMaxUploadSize(DataSize maxUploadSize) { this.maxUploadSize = maxUploadSize; }
+    public int getExportPageSize() { return exportPageSize; }
+    public void setExportPageSize(int exportPageSize) { this.exportPageSize = exportPageSize; }
+}
@@ -0,0 +1,24 @@
+package com.smartcommerce.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.coupons")
+public class CouponProps {
+    private Duration refreshInterval = Duration.ofMinutes(1);   // rule index reload (picks up other instances' edits)
+    private Duration holdTtl = Duration.ofMinutes(15);          // draft-time use is given back after this unless paid
+    private Duration sweepInterval = Duration.ofMinutes(1);
+    private int sweepBatch = 500;
+
+    public Duration getRefreshInterval() { return refreshInterval; }
+    public void setRefreshInterval(Duration refreshInterval) { this.refreshInterval = refreshInterval; }
+    public Duration getHoldTtl() { return holdTtl; }
+    public void setHoldTtl(Duration holdTtl) { this.holdTtl = holdTtl; }
+    public Duration getSweepInterval() { return sweepInterval; }
+    public void setSweepInterval(Duration sweepInterval) { this.sweepInterval = sweepInterval; }
+    public int getSweepBatch() { return sweepBatch; }
+    public void setSweepBatch(int sweepBatch) { this.sweepBatch = sweepBatch; }
+}
@@ -0,0 +1,125 @@
+package com.smartcommerce.backend.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded pools for background work. Never unbounded, never CallerRuns: a full queue must not
+ * push slow I/O back onto the request thread.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    // Outbound mail: overflow is dropped because the outbox poller picks the rows up anyway
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor(MailProps props) {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(props.getWorkers());
+        ex.setMaxPoolSize(props.getWorkers());
+        ex.setQueueCapacity(props.getWorkers());
+        ex.setThreadNamePrefix("mail-");
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        ex.setWaitForTasksToCompleteOnShutdown(true);
+        ex.setAwaitTerminationSeconds(10);
+        return ex;
+    }
+
+    // Payment gateway calls: a saturated pool fails fast (AbortPolicy) instead of queueing unboundedly
+    @Bean(name = "paymentGatewayExecutor")
+    public ThreadPoolTaskExecutor paymentGatewayExecutor(PaymentGatewayProps props) {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(props.getWorkers());
+        ex.setMaxPoolSize(props.getWorkers());
+        ex.setQueueCapacity(props.getQueueCapacity());
+        ex.setThreadNamePrefix("payment-gw-");
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        ex.setWaitForTasksToCompleteOnShutdown(true);
+        ex.setAwaitTerminationSeconds(10);
+        return ex;
+    }
+
+    // Photo variant transcoding: CPU/memory heavy, so few threads; overflow stays PENDING for the poller
+    @Bean(name = "imageExecutor")
+    public ThreadPoolTaskExecutor imageExecutor(ImageProps props) {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(props.getWorkers());
+        ex.setMaxPoolSize(props.getWorkers());
+        ex.setQueueCapacity(props.getQueueCapacity());
+        ex.setThreadNamePrefix("image-");
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        ex.setWaitForTasksToCompleteOnShutdown(true);
+        ex.setAwaitTerminationSeconds(30);
+        return ex;
+    }
+
+    // S3 multipart parts: callers wait on their parts, so a full pool fails the upload fast (AbortPolicy)
+    @Bean(name = "photoUploadExecutor")
+    public ThreadPoolTaskExecutor photoUploadExecutor(StorageProps props) {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(props.getS3().getUploadThreads());
+        ex.setMaxPoolSize(props.getS3().getUploadThreads());
+        ex.setQueueCapacity(props.getS3().getUploadThreads() * 4);
+        ex.setThreadNamePrefix("photo-upload-");
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        ex.setWaitForTasksToCompleteOnShutdown(true);
+        ex.setAwaitTerminationSeconds(30);
+        return ex;
+    }
+
+    // Bulk catalog imports: one at a time (they are DB-write heavy); a full queue rejects the upload
+    @Bean(name = "catalogImportExecutor")
+    public ThreadPoolTaskExecutor catalogImportExecutor(CatalogImportProps props) {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(1);
+        ex.setMaxPoolSize(1);
+        ex.setQueueCapacity(props.getQueueCapacity());
+        ex.setThreadNamePrefix("catalog-import-");
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        ex.setWaitForTasksToCompleteOnShutdown(true);
+        ex.setAwaitTerminationSeconds(30);
+        return ex;
+    }
+
+    // Order reaper: off the shared scheduler thread (it sleeps between batches); the reaper itself
+    // admits one run at a time, so a rejection only happens at shutdown
+    @Bean(name = "orderReaperExecutor")
+    public ThreadPoolTaskExecutor orderReaperExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(1);
+        ex.setMaxPoolSize(1);
+        ex.setQueueCapacity(1);
+        ex.setThreadNamePrefix("order-reaper-");
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        ex.setWaitForTasksToCompleteOnShutdown(false);
+        return ex;
+    }
+
+    // Cart write-behind (memory store): same shape as the reaper, so a slow flush never holds the shared scheduler
+    @Bean(name = "cartFlushExecutor")
+    public ThreadPoolTaskExecutor cartFlushExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(1);
+        ex.setMaxPoolSize(1);
+        ex.setQueueCapacity(1);
+        ex.setThreadNamePrefix("cart-flush-");
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        ex.setWaitForTasksToCompleteOnShutdown(false);
+        return ex;
+    }
+
+    // Order archiving: same shape as the reaper, separate so a long archive pass never delays reaping
+    @Bean(name = "orderArchiveExecutor")
+    public ThreadPoolTaskExecutor orderArchiveExecutor() {
+        ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+        ex.setCorePoolSize(1);
+        ex.setMaxPoolSize(1);
+        ex.setQueueCapacity(1);
+        ex.setThreadNamePrefix("order-archive-");
+        ex.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        ex.setWaitForTasksToCompleteOnShutdown(false);
+        return ex;
+    }
+}
@@ -0,0 +1,30 @@
+package com.smartcommerce.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "app.http-cache")
+public class HttpCacheProps {
+    private boolean enabled = true;                           // false = no validators, no Cache-Control, never 304
+    private String defaultPolicy = "no-cache";                // cache but always revalidate (cheap 304s)
+    private Map<String, String> policies = new LinkedHashMap<>(); // endpoint name → raw Cache-Control value
+    private Duration validatorTtl = Duration.ofSeconds(1);    // how long max(updatedAt)/count validators are reused
+
+    public String policyFor(String endpoint) {
+        return policies.getOrDefault(endpoint, defaultPolicy);
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getDefaultPolicy() { return defaultPolicy; }
+    public void setDefaultPolicy(String defaultPolicy) { this.defaultPolicy = defaultPolicy; }
+    public Map<String, String> getPolicies() { return policies; }
+    public void setPolicies(Map<String, String> policies) { this.policies = policies; }
+    public Duration getValidatorTtl() { return validatorTtl; }
+    public void setValidatorTtl(Duration validatorTtl) { this.validatorTtl = validatorTtl; }
+}
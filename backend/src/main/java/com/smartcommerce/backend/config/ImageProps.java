@@ -0,0 +1,41 @@
+package com.smartcommerce.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "app.images")
+public class ImageProps {
+    private List<Integer> widths = new ArrayList<>(List.of(320, 640, 960, 1600)); // variant widths (px), never upscaled
+    private float quality = 0.82f;                            // JPEG quality of variants
+    private long maxPixels = 50_000_000L;                     // originals above this are rejected (decompression bombs)
+    private int workers = 2;                                  // transcode threads (CPU + memory heavy)
+    private int queueCapacity = 100;                          // overflow is left PENDING for the poller
+    private int maxAttempts = 3;
+    private int batchSize = 50;                               // pending photos picked per poll
+    private Duration pollInterval = Duration.ofSeconds(30);
+    private Duration stuckAfter = Duration.ofMinutes(10);     // PROCESSING rows older than this are re-queued
+
+    public List<Integer> getWidths() { return widths; }
+    public void setWidths(List<Integer> widths) { this.widths = widths; }
+    public float getQuality() { return quality; }
+    public void setQuality(float quality) { this.quality = quality; }
+    public long getMaxPixels() { return maxPixels; }
+    public void setMaxPixels(long maxPixels) { this.maxPixels = maxPixels; }
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public Duration getPollInterval() { return pollInterval; }
+    public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+    public Duration getStuckAfter() { return stuckAfter; }
+    public void setStuckAfter(Duration stuckAfter) { this.stuckAfter = stuckAfter; }
+}
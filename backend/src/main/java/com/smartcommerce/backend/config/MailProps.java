@@ -0,0 +1,39 @@
+package com.smartcommerce.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.mail")
+public class MailProps {
+    private String transport = "smtp";          // smtp | console
+    private int workers = 2;                    // concurrent dispatcher threads
+    private int batchSize = 20;                 // messages per SMTP connection
+    private int maxAttempts = 5;
+    private Duration retryBackoff = Duration.ofSeconds(30);   // doubled per attempt
+    private Duration pollInterval = Duration.ofSeconds(10);   // safety net for missed wake-ups / retries
+    private Duration stuckAfter = Duration.ofMinutes(5);      // SENDING rows older than this are re-queued
+    private Duration retention = Duration.ofDays(1);          // SENT / FAILED rows kept this long
+    private boolean consoleFallback = true;     // print failed mails (OTP, reset link) to console, as before
+
+    public String getTransport() { return transport; }
+    public void setTransport(String transport) { this.transport = transport; }
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+    public Duration getRetryBackoff() { return retryBackoff; }
+    public void setRetryBackoff(Duration retryBackoff) { this.retryBackoff = retryBackoff; }
+    public Duration getPollInterval() { return pollInterval; }
+    public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+    public Duration getStuckAfter() { return stuckAfter; }
+    public void setStuckAfter(Duration stuckAfter) { this.stuckAfter = stuckAfter; }
+    public Duration getRetention() { return retention; }
+    public void setRetention(Duration retention) { this.retention = retention; }
+    public boolean isConsoleFallback() { return consoleFallback; }
+    public void setConsoleFallback(boolean consoleFallback) { this.consoleFallback = consoleFallback; }
+}
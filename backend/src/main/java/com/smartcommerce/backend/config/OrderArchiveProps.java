@@ -0,0 +1,36 @@
+package com.smartcommerce.backend.config;
+
+import com.smartcommerce.backend.order.entity.Order.OrderStatus;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "app.orders.archive")
+public class OrderArchiveProps {
+    private boolean enabled = true;
+    private Duration interval = Duration.ofHours(1);
+    private Duration after = Duration.ofDays(180);      // terminal orders untouched this long move to the archive
+    private List<OrderStatus> statuses = List.of(
+            OrderStatus.DELIVERED, OrderStatus.CANCELLED, OrderStatus.REFUNDED, OrderStatus.FAILED);
+    private int batchSize = 200;
+    private int maxBatchesPerRun = 50;                  // per status
+    private Duration pauseBetweenBatches = Duration.ofMillis(200);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Duration getInterval() { return interval; }
+    public void setInterval(Duration interval) { this.interval = interval; }
+    public Duration getAfter() { return after; }
+    public void setAfter(Duration after) { this.after = after; }
+    public List<OrderStatus> getStatuses() { return statuses; }
+    public void setStatuses(List<OrderStatus> statuses) { this.statuses = statuses; }
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public int getMaxBatchesPerRun() { return maxBatchesPerRun; }
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) { this.maxBatchesPerRun = maxBatchesPerRun; }
+    public Duration getPauseBetweenBatches() { return pauseBetweenBatches; }
+    public void setPauseBetweenBatches(Duration pauseBetweenBatches) { this.pauseBetweenBatches = pauseBetweenBatches; }
+}
@@ -0,0 +1,39 @@
+package com.smartcommerce.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.orders.reaper")
+public class OrderReaperProps {
+    private boolean enabled = true;
+    private Duration interval = Duration.ofMinutes(5);
+    private Duration draftStaleAfter = Duration.ofHours(1);     // DRAFT untouched this long is abandoned
+    private Duration pendingStaleAfter = Duration.ofHours(2);   // PAYMENT_PENDING: checked with the gateway first
+    private Duration purgeAfter = Duration.ofDays(30);          // EXPIRED rows are deleted after this (0 = keep)
+    private int batchSize = 200;
+    private int maxBatchesPerRun = 20;                          // per phase (drafts, pending, purge)
+    private Duration pauseBetweenBatches = Duration.ofMillis(200);
+    private int maxGatewayCallsPerRun = 100;                    // leaves the shared gateway pool to live checkout
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Duration getInterval() { return interval; }
+    public void setInterval(Duration interval) { this.interval = interval; }
+    public Duration getDraftStaleAfter() { return draftStaleAfter; }
+    public void setDraftStaleAfter(Duration draftStaleAfter) { this.draftStaleAfter = draftStaleAfter; }
+    public Duration getPendingStaleAfter() { return pendingStaleAfter; }
+    public void setPendingStaleAfter(Duration pendingStaleAfter) { this.pendingStaleAfter = pendingStaleAfter; }
+    public Duration getPurgeAfter() { return purgeAfter; }
+    public void setPurgeAfter(Duration purgeAfter) { this.purgeAfter = purgeAfter; }
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public int getMaxBatchesPerRun() { return maxBatchesPerRun; }
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) { this.maxBatchesPerRun = maxBatchesPerRun; }
+    public Duration getPauseBetweenBatches() { return pauseBetweenBatches; }
+    public void setPauseBetweenBatches(Duration pauseBetweenBatches) { this.pauseBetweenBatches = pauseBetweenBatches; }
+    public int getMaxGatewayCallsPerRun() { return maxGatewayCallsPerRun; }
+    public void setMaxGatewayCallsPerRun(int maxGatewayCallsPerRun) { this.maxGatewayCallsPerRun = maxGatewayCallsPerRun; }
+}
@@ -0,0 +1,39 @@
+package com.smartcommerce.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.payment")
+public class PaymentGatewayProps {
+    private String gateway = "razorpay";                     // razorpay | stub
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration readTimeout = Duration.ofSeconds(15);
+    private Duration callTimeout = Duration.ofSeconds(20);   // caller stops waiting after this
+    private int workers = 8;                                 // concurrent gateway calls
+    private int queueCapacity = 100;                         // beyond this calls fail fast
+    private int breakerFailureThreshold = 5;                 // consecutive failures that open the circuit
+    private Duration breakerOpenFor = Duration.ofSeconds(30);
+    private Duration stubLatency = Duration.ZERO;            // simulated round trip for the stub gateway
+
+    public String getGateway() { return gateway; }
+    public void setGateway(String gateway) { this.gateway = gateway; }
+    public Duration getConnectTimeout() { return connectTimeout; }
+    public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+    public Duration getReadTimeout() { return readTimeout; }
+    public void setReadTimeout(Duration readTimeout) { this.readTimeout = readTimeout; }
+    public Duration getCallTimeout() { return callTimeout; }
+    public void setCallTimeout(Duration callTimeout) { this.callTimeout = callTimeout; }
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public int getBreakerFailureThreshold() { return breakerFailureThreshold; }
+    public void setBreakerFailureThreshold(int breakerFailureThreshold) { this.breakerFailureThreshold = breakerFailureThreshold; }
+    public Duration getBreakerOpenFor() { return breakerOpenFor; }
+    public void setBreakerOpenFor(Duration breakerOpenFor) { this.breakerOpenFor = breakerOpenFor; }
+    public Duration getStubLatency() { return stubLatency; }
+    public void setStubLatency(Duration stubLatency) { this.stubLatency = stubLatency; }
+}
@@ -0,0 +1,54 @@
+package com.smartcommerce.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+@Component
+@ConfigurationProperties(prefix = "app.storage")
+public class StorageProps {
+    private String type = "local";                            // local | s3
+    private String publicBaseUrl;                             // URL prefix of stored keys; blank = first app.base-url + /uploads/productPhotos/
+    private String localDir = "uploads/productPhotos/";       // local: root of all keys, served under /uploads/productPhotos/**
+
+    private final S3 s3 = new S3();
+
+    public static class S3 {
+        private String bucket;
+        private String region = "us-east-1";
+        private String endpoint;                              // blank = AWS; e.g. http://localhost:9000 for MinIO
+        private boolean pathStyle = false;                    // MinIO and most S3 stand-ins need true
+        private String accessKey;                             // blank = default AWS credentials chain
+        private String secretKey;
+        private DataSize multipartThreshold = DataSize.ofMegabytes(16);
+        private DataSize partSize = DataSize.ofMegabytes(8);  // S3 minimum is 5MB (except the last part)
+        private int uploadThreads = 4;                        // parts in flight across all uploads
+
+        public String getBucket() { return bucket; }
+        public void setBucket(String bucket) { this.bucket = bucket; }
+        public String getRegion() { return region; }
+        public void setRegion(String region) { this.region = region; }
+        public String getEndpoint() { return endpoint; }
+        public void setEndpoint(String endpoint) { this.endpoint = endpoint; }
+        public boolean isPathStyle() { return pathStyle; }
+        public void setPathStyle(boolean pathStyle) { this.pathStyle = pathStyle; }
+        public String getAccessKey() { return accessKey; }
+        public void setAccessKey(String accessKey) { this.accessKey = accessKey; }
+        public String getSecretKey() { return secretKey; }
+        public void setSecretKey(String secretKey) { this.secretKey = secretKey; }
+        public DataSize getMultipartThreshold() { return multipartThreshold; }
+        public void setMultipartThreshold(DataSize multipartThreshold) { this.multipartThreshold = multipartThreshold; }
+        public DataSize getPartSize() { return partSize; }
+        public void setPartSize(DataSize partSize) { this.partSize = partSize; }
+        public int getUploadThreads() { return uploadThreads; }
+        public void setUploadThreads(int uploadThreads) { this.uploadThreads = uploadThreads; }
+    }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+    public String getPublicBaseUrl() { return publicBaseUrl; }
+    public void setPublicBaseUrl(String publicBaseUrl) { this.publicBaseUrl = publicBaseUrl; }
+    public String getLocalDir() { return localDir; }
+    public void setLocalDir(String localDir) { this.localDir = localDir; }
+    public S3 getS3() { return s3; }
+}
@@ -0,0 +1,36 @@
+package com.smartcommerce.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "app.webhooks")
+public class WebhookProps {
+    private int lanes = 4;                                    // worker threads; one razorpayOrderId always maps to the same one
+    private int laneQueueCapacity = 500;
+    private int batchSize = 200;                              // events claimed per dispatch pass
+    private int maxAttempts = 8;
+    private Duration retryBackoff = Duration.ofSeconds(10);   // doubled per attempt, capped at 1h
+    private Duration pollInterval = Duration.ofSeconds(2);
+    private Duration stuckAfter = Duration.ofMinutes(5);
+    private Duration retention = Duration.ofDays(7);          // DONE events kept this long
+
+    public int getLanes() { return lanes; }
+    public void setLanes(int lanes) { this.lanes = lanes; }
+    public int getLaneQueueCapacity() { return laneQueueCapacity; }
+    public void setLaneQueueCapacity(int laneQueueCapacity) { this.laneQueueCapacity = laneQueueCapacity; }
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+    public Duration getRetryBackoff() { return retryBackoff; }
+    public void setRetryBackoff(Duration retryBackoff) { this.retryBackoff = retryBackoff; }
+    public Duration getPollInterval() { return pollInterval; }
+    public void setPollInterval(Duration pollInterval) { this.pollInterval = pollInterval; }
+    public Duration getStuckAfter() { return stuckAfter; }
+    public void setStuckAfter(Duration stuckAfter) { this.stuckAfter = stuckAfter; }
+    public Duration getRetention() { return retention; }
+    public void setRetention(Duration retention) { this.retention = retention; }
+}
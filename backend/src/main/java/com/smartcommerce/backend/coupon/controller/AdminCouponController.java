@@ -0,0 +1,65 @@
+package com.smartcommerce.backend.coupon.controller;
+
+import com.smartcommerce.backend.coupon.entity.Coupon;
+import com.smartcommerce.backend.coupon.repository.CouponRepository;
+import com.smartcommerce.backend.coupon.service.CouponRuleIndex;
+import com.smartcommerce.backend.coupon.service.CouponService;
+import org.springframework.data.domain.Sort;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/coupons")
+public class AdminCouponController {
+
+    private final CouponRepository couponRepo;
+    private final CouponService couponService;
+    private final CouponRuleIndex index;
+
+    public AdminCouponController(CouponRepository couponRepo, CouponService couponService, CouponRuleIndex index) {
+        this.couponRepo = couponRepo;
+        this.couponService = couponService;
+        this.index = index;
+    }
+
+    // Admin: all coupons, newest first
+    @GetMapping
+    public List<Coupon> list() {
+        return couponRepo.findAll(Sort.by(Sort.Direction.DESC, "id"));
+    }
+
+    @GetMapping("/{id}")
+    public Coupon get(@PathVariable Long id) {
+        return couponRepo.findById(id).orElseThrow(() -> new RuntimeException("Coupon not found"));
+    }
+
+    @PostMapping
+    public Coupon create(@RequestBody Coupon coupon) {
+        return couponService.save(null, coupon);
+    }
+
+    @PutMapping("/{id}")
+    public Coupon update(@PathVariable Long id, @RequestBody Coupon coupon) {
+        return couponService.save(id, coupon);
+    }
+
+    // Soft delete: the code stops working, past orders keep their redemption
+    @DeleteMapping("/{id}")
+    public Coupon deactivate(@PathVariable Long id) {
+        return couponService.deactivate(id);
+    }
+
+    // Admin: size and age of the in-memory rule index
+    @GetMapping("/index")
+    public Map<String, Object> indexStats() {
+        return index.stats();
+    }
+
+    @PostMapping("/index/rebuild")
+    public Map<String, Object> rebuildIndex() {
+        index.rebuild();
+        return index.stats();
+    }
+}
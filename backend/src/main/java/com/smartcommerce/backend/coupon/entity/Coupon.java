@@ -0,0 +1,170 @@
+package com.smartcommerce.backend.coupon.entity;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A coupon definition. Checkout never reads this table: active coupons are compiled into
+ * {@code CouponRuleIndex}. Only the usage counter is touched per redemption, with a conditional
+ * UPDATE ({@code usedCount < maxUses}).
+ *
+ * Amounts are paise. Scope: with no include lists every product is eligible; excludes always win.
+ */
+@Entity
+@Table(
+        name = "coupons",
+        indexes = @Index(name = "idx_coupons_active", columnList = "active, endsAt")
+)
+public class Coupon {
+
+    public enum Type {
+        PERCENT,   // percentOff of the eligible subtotal, optionally capped by maxDiscountPaise
+        FLAT,      // amountPaise off (never more than the eligible subtotal)
+        BOGO       // buy buyQuantity, get freeQuantity free: the cheapest eligible units are free
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true, length = 40)
+    private String code;                 // stored upper-case
+
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    private Integer percentOff;          // PERCENT: 1..100
+    private Long amountPaise;            // FLAT
+    private Long maxDiscountPaise;       // PERCENT cap (optional)
+    private Integer buyQuantity;         // BOGO
+    private Integer freeQuantity;        // BOGO
+
+    @Column(nullable = false)
+    private Long minSubtotalPaise = 0L;  // on the whole cart subtotal
+
+    private Instant startsAt;            // null = already valid
+    private Instant endsAt;              // exclusive; null = no end
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    private Integer maxUses;             // all users together; null = unlimited
+    private Integer maxUsesPerUser;      // null = unlimited
+
+    // held + consumed redemptions; maintained while maxUses is set (recounted when a limit is added)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false)
+    private int usedCount;
+
+    @ElementCollection
+    @BatchSize(size = 50)
+    @CollectionTable(name = "coupon_include_products", joinColumns = @JoinColumn(name = "coupon_id"))
+    @Column(name = "product_id")
+    private Set<Long> includeProductIds = new HashSet<>();
+
+    @ElementCollection
+    @BatchSize(size = 50)
+    @CollectionTable(name = "coupon_exclude_products", joinColumns = @JoinColumn(name = "coupon_id"))
+    @Column(name = "product_id")
+    private Set<Long> excludeProductIds = new HashSet<>();
+
+    @ElementCollection
+    @BatchSize(size = 50)
+    @CollectionTable(name = "coupon_include_categories", joinColumns = @JoinColumn(name = "coupon_id"))
+    @Column(name = "category_id")
+    private Set<Long> includeCategoryIds = new HashSet<>();
+
+    @ElementCollection
+    @BatchSize(size = 50)
+    @CollectionTable(name = "coupon_exclude_categories", joinColumns = @JoinColumn(name = "coupon_id"))
+    @Column(name = "category_id")
+    private Set<Long> excludeCategoryIds = new HashSet<>();
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = Instant.now();
+    }
+
+    // --- Getters / Setters ---
+    public Long getId() { return id; }
+
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Integer getPercentOff() { return percentOff; }
+    public void setPercentOff(Integer percentOff) { this.percentOff = percentOff; }
+
+    public Long getAmountPaise() { return amountPaise; }
+    public void setAmountPaise(Long amountPaise) { this.amountPaise = amountPaise; }
+
+    public Long getMaxDiscountPaise() { return maxDiscountPaise; }
+    public void setMaxDiscountPaise(Long maxDiscountPaise) { this.maxDiscountPaise = maxDiscountPaise; }
+
+    public Integer getBuyQuantity() { return buyQuantity; }
+    public void setBuyQuantity(Integer buyQuantity) { this.buyQuantity = buyQuantity; }
+
+    public Integer getFreeQuantity() { return freeQuantity; }
+    public void setFreeQuantity(Integer freeQuantity) { this.freeQuantity = freeQuantity; }
+
+    public Long getMinSubtotalPaise() { return minSubtotalPaise; }
+    public void setMinSubtotalPaise(Long minSubtotalPaise) { this.minSubtotalPaise = minSubtotalPaise; }
+
+    public Instant getStartsAt() { return startsAt; }
+    public void setStartsAt(Instant startsAt) { this.startsAt = startsAt; }
+
+    public Instant getEndsAt() { return endsAt; }
+    public void setEndsAt(Instant endsAt) { this.endsAt = endsAt; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+
+    public Integer getMaxUses() { return maxUses; }
+    public void setMaxUses(Integer maxUses) { this.maxUses = maxUses; }
+
+    public Integer getMaxUsesPerUser() { return maxUsesPerUser; }
+    public void setMaxUsesPerUser(Integer maxUsesPerUser) { this.maxUsesPerUser = maxUsesPerUser; }
+
+    public int getUsedCount() { return usedCount; }
+    public void setUsedCount(int usedCount) { this.usedCount = usedCount; }
+
+    public Set<Long> getIncludeProductIds() { return includeProductIds; }
+    public void setIncludeProductIds(Set<Long> includeProductIds) { this.includeProductIds = includeProductIds; }
+
+    public Set<Long> getExcludeProductIds() { return excludeProductIds; }
+    public void setExcludeProductIds(Set<Long> excludeProductIds) { this.excludeProductIds = excludeProductIds; }
+
+    public Set<Long> getIncludeCategoryIds() { return includeCategoryIds; }
+    public void setIncludeCategoryIds(Set<Long> includeCategoryIds) { this.includeCategoryIds = includeCategoryIds; }
+
+    public Set<Long> getExcludeCategoryIds() { return excludeCategoryIds; }
+    public void setExcludeCategoryIds(Set<Long> excludeCategoryIds) { this.excludeCategoryIds = excludeCategoryIds; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,109 @@
+package com.smartcommerce.backend.coupon.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * One coupon use by one order. Taken (HELD) when the draft is created, like a stock hold:
+ * payment flips it to CONSUMED, cancellation or expiry to RELEASED, which gives the use back.
+ */
+@Entity
+@Table(
+        name = "coupon_redemptions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_redemption_order", columnNames = "orderId"),
+        indexes = {
+                @Index(name = "idx_redemption_coupon", columnList = "couponId, status"),
+                @Index(name = "idx_redemption_expiry", columnList = "status, expiresAt")
+        }
+)
+public class CouponRedemption {
+
+    public enum Status {
+        HELD, CONSUMED, RELEASED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long couponId;
+
+    @Column(nullable = false, length = 40)
+    private String code;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long discountPaise;
+
+    // whether coupons.usedCount was incremented for this use (only while the coupon has maxUses)
+    @Column(nullable = false)
+    private boolean countedGlobally;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.HELD;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public CouponRedemption() {}
+
+    public CouponRedemption(Long couponId, String code, Long orderId, Long userId,
+                            Long discountPaise, boolean countedGlobally, Instant expiresAt) {
+        this.couponId = couponId;
+        this.code = code;
+        this.orderId = orderId;
+        this.userId = userId;
+        this.discountPaise = discountPaise;
+        this.countedGlobally = countedGlobally;
+        this.expiresAt = expiresAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = Instant.now();
+    }
+
+    // --- Getters / Setters ---
+    public Long getId() { return id; }
+
+    public Long getCouponId() { return couponId; }
+
+    public String getCode() { return code; }
+
+    public Long getOrderId() { return orderId; }
+
+    public Long getUserId() { return userId; }
+
+    public Long getDiscountPaise() { return discountPaise; }
+
+    public boolean isCountedGlobally() { return countedGlobally; }
+    public void setCountedGlobally(boolean countedGlobally) { this.countedGlobally = countedGlobally; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+}
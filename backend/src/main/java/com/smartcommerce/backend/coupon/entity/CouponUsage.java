@@ -0,0 +1,37 @@
+package com.smartcommerce.backend.coupon.entity;
+
+import jakarta.persistence.*;
+
+/** Per-user use counter of one coupon, bumped with a conditional UPDATE ({@code used < maxUsesPerUser}). */
+@Entity
+@Table(
+        name = "coupon_usage",
+        uniqueConstraints = @UniqueConstraint(name = "uk_coupon_usage", columnNames = {"couponId", "userId"})
+)
+public class CouponUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long couponId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private int used;
+
+    public CouponUsage() {}
+
+    public CouponUsage(Long couponId, Long userId) {
+        this.couponId = couponId;
+        this.userId = userId;
+    }
+
+    public Long getId() { return id; }
+    public Long getCouponId() { return couponId; }
+    public Long getUserId() { return userId; }
+    public int getUsed() { return used; }
+}
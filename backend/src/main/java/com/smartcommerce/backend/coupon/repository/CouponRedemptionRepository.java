@@ -0,0 +1,50 @@
+package com.smartcommerce.backend.coupon.repository;
+
+import com.smartcommerce.backend.coupon.entity.CouponRedemption;
+import com.smartcommerce.backend.coupon.entity.CouponRedemption.Status;
+import com.smartcommerce.backend.order.entity.Order;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CouponRedemptionRepository extends JpaRepository<CouponRedemption, Long> {
+
+    // 🔒 The order's redemption, locked so consume/release/expiry cannot both win
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from CouponRedemption r where r.orderId = :orderId")
+    Optional<CouponRedemption> findByOrderIdForUpdate(@Param("orderId") Long orderId);
+
+    // 🔒 Redemptions of many orders in one status (reaper batches)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from CouponRedemption r where r.orderId in :orderIds and r.status = :status order by r.id")
+    List<CouponRedemption> findForUpdate(@Param("orderIds") Collection<Long> orderIds, @Param("status") Status status);
+
+    // ⏰ Expired holds, oldest first (batch-limited by the pageable); holds of orders in `keepFor`
+    //    (awaiting payment) are left alone, they are consumed or released with the order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from CouponRedemption r where r.status = :status and r.expiresAt < :now " +
+            "and not exists (select o.id from Order o where o.id = r.orderId and o.status = :keepFor) " +
+            "order by r.expiresAt, r.id")
+    List<CouponRedemption> findExpiredForUpdate(@Param("status") Status status,
+                                                @Param("now") Instant now,
+                                                @Param("keepFor") Order.OrderStatus keepFor,
+                                                Pageable page);
+
+    long countByCouponIdAndStatusIn(Long couponId, Collection<Status> statuses);
+
+    // 🧹 Reaper purge: rows of deleted (expired) orders
+    @Modifying
+    @Query("delete from CouponRedemption r where r.orderId in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
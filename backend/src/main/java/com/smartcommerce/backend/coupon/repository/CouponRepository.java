@@ -0,0 +1,38 @@
+package com.smartcommerce.backend.coupon.repository;
+
+import com.smartcommerce.backend.coupon.entity.Coupon;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CouponRepository extends JpaRepository<Coupon, Long> {
+
+    Optional<Coupon> findByCode(String code);
+
+    // 🎟️ Everything the rule index may need (future windows included, ended ones not)
+    @Query("select c from Coupon c where c.active = true and (c.endsAt is null or c.endsAt > :now)")
+    List<Coupon> findLive(@Param("now") Instant now);
+
+    // ➕ Take one use; 0 rows = limit reached (the row lock serializes racing checkouts)
+    @Modifying
+    @Query("update Coupon c set c.usedCount = c.usedCount + 1 " +
+            "where c.id = :id and (c.maxUses is null or c.usedCount < c.maxUses)")
+    int tryUse(@Param("id") Long id);
+
+    // ➕ Paid after the hold expired: the use already happened, so no limit check
+    @Modifying
+    @Query("update Coupon c set c.usedCount = c.usedCount + 1 where c.id = :id")
+    int forceUse(@Param("id") Long id);
+
+    // ➖ Give one use back
+    @Modifying
+    @Query("update Coupon c set c.usedCount = c.usedCount - 1 where c.id = :id and c.usedCount > 0")
+    int releaseUse(@Param("id") Long id);
+}
@@ -0,0 +1,25 @@
+package com.smartcommerce.backend.coupon.repository;
+
+import com.smartcommerce.backend.coupon.entity.CouponUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CouponUsageRepository extends JpaRepository<CouponUsage, Long> {
+
+    boolean existsByCouponIdAndUserId(Long couponId, Long userId);
+
+    // ➕ 0 rows = this user is at the limit (the row must exist, see CouponService#ensureUsageRow)
+    @Modifying
+    @Query("update CouponUsage u set u.used = u.used + 1 " +
+            "where u.couponId = :couponId and u.userId = :userId and u.used < :limit")
+    int tryUse(@Param("couponId") Long couponId, @Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update CouponUsage u set u.used = u.used - 1 " +
+            "where u.couponId = :couponId and u.userId = :userId and u.used > 0")
+    int releaseUse(@Param("couponId") Long couponId, @Param("userId") Long userId);
+}
@@ -0,0 +1,34 @@
+package com.smartcommerce.backend.coupon.seeder;
+
+import com.smartcommerce.backend.coupon.entity.Coupon;
+import com.smartcommerce.backend.coupon.repository.CouponRepository;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CouponSeeder {
+
+    private final CouponRepository couponRepo;
+
+    public CouponSeeder(CouponRepository couponRepo) {
+        this.couponRepo = couponRepo;
+    }
+
+    // the coupon checkout used to hard-code: ₹50 off carts of ₹999 or more
+    @Bean
+    CommandLineRunner seedCoupons() {
+        return args -> {
+            if (couponRepo.count() == 0) {
+                Coupon flat50 = new Coupon();
+                flat50.setCode("FLAT50");
+                flat50.setDescription("₹50 off orders of ₹999 or more");
+                flat50.setType(Coupon.Type.FLAT);
+                flat50.setAmountPaise(5000L);
+                flat50.setMinSubtotalPaise(99900L);
+                couponRepo.save(flat50);
+                System.out.println("✅ Default coupon created: FLAT50");
+            }
+        };
+    }
+}
@@ -0,0 +1,129 @@
+package com.smartcommerce.backend.coupon.service;
+
+import com.smartcommerce.backend.common.Money;
+import com.smartcommerce.backend.coupon.entity.Coupon;
+import com.smartcommerce.backend.order.entity.OrderItem;
+import com.smartcommerce.backend.product.entity.Product;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Immutable, pre-validated form of a {@link Coupon}: scope lists are hash sets and all
+ * parameters are primitives, so evaluating a cart is one pass over its lines with no I/O.
+ */
+final class CompiledCoupon {
+
+    final Long id;
+    final String code;
+    final Coupon.Type type;
+    final boolean limited;            // maxUses set: the global counter is taken at redemption
+    final int maxUsesPerUser;         // Integer.MAX_VALUE = unlimited
+
+    private final int percentOff;
+    private final long amountPaise;
+    private final long maxDiscountPaise;   // 0 = no cap
+    private final int buyQuantity;
+    private final int freeQuantity;
+    private final long minSubtotalPaise;
+    private final Instant startsAt;
+    private final Instant endsAt;
+    private final Set<Long> includeProducts;
+    private final Set<Long> excludeProducts;
+    private final Set<Long> includeCategories;
+    private final Set<Long> excludeCategories;
+    private final boolean scoped;          // any include list present
+
+    private CompiledCoupon(Coupon c) {
+        this.id = c.getId();
+        this.code = c.getCode();
+        this.type = c.getType();
+        this.limited = c.getMaxUses() != null;
+        this.maxUsesPerUser = c.getMaxUsesPerUser() != null ? c.getMaxUsesPerUser() : Integer.MAX_VALUE;
+        this.percentOff = c.getPercentOff() != null ? c.getPercentOff() : 0;
+        this.amountPaise = c.getAmountPaise() != null ? c.getAmountPaise() : 0L;
+        this.maxDiscountPaise = c.getMaxDiscountPaise() != null ? c.getMaxDiscountPaise() : 0L;
+        this.buyQuantity = c.getBuyQuantity() != null ? c.getBuyQuantity() : 0;
+        this.freeQuantity = c.getFreeQuantity() != null ? c.getFreeQuantity() : 0;
+        this.minSubtotalPaise = c.getMinSubtotalPaise() != null ? c.getMinSubtotalPaise() : 0L;
+        this.startsAt = c.getStartsAt();
+        this.endsAt = c.getEndsAt();
+        this.includeProducts = Set.copyOf(c.getIncludeProductIds());
+        this.excludeProducts = Set.copyOf(c.getExcludeProductIds());
+        this.includeCategories = Set.copyOf(c.getIncludeCategoryIds());
+        this.excludeCategories = Set.copyOf(c.getExcludeCategoryIds());
+        this.scoped = !includeProducts.isEmpty() || !includeCategories.isEmpty();
+    }
+
+    static CompiledCoupon of(Coupon c) {
+        return new CompiledCoupon(c);
+    }
+
+    boolean validAt(Instant now) {
+        return (startsAt == null || !now.isBefore(startsAt)) && (endsAt == null || now.isBefore(endsAt));
+    }
+
+    /** Discount in paise for these priced lines; IllegalArgumentException when the coupon does not apply. */
+    long discount(List<OrderItem> items, Map<Long, Product> products, long subtotalPaise) {
+        if (subtotalPaise < minSubtotalPaise) {
+            throw new IllegalArgumentException("Coupon " + code + " needs a cart of at least ₹" + Money.format(minSubtotalPaise));
+        }
+
+        long d = switch (type) {
+            case PERCENT -> {
+                long eligible = eligibleSubtotal(items, products);
+                long off = (Math.multiplyExact(eligible, (long) percentOff) + 50) / 100; // HALF_UP to the paisa
+                yield maxDiscountPaise > 0 ? Math.min(off, maxDiscountPaise) : off;
+            }
+            case FLAT -> Math.min(amountPaise, eligibleSubtotal(items, products));
+            case BOGO -> cheapestFreeUnits(items, products);
+        };
+
+        if (d <= 0) throw new IllegalArgumentException("Coupon " + code + " does not apply to the items in your cart");
+        return Math.min(d, subtotalPaise);
+    }
+
+    private boolean eligible(OrderItem item, Map<Long, Product> products) {
+        Long productId = item.getProductId();
+        Product p = products.get(productId);
+        Long categoryId = (p != null && p.getCategory() != null) ? p.getCategory().getId() : null;
+
+        if (excludeProducts.contains(productId)) return false;
+        if (categoryId != null && excludeCategories.contains(categoryId)) return false;
+        if (!scoped) return true;
+        return includeProducts.contains(productId) || (categoryId != null && includeCategories.contains(categoryId));
+    }
+
+    private long eligibleSubtotal(List<OrderItem> items, Map<Long, Product> products) {
+        long sum = 0;
+        for (OrderItem item : items) {
+            if (eligible(item, products)) sum = Math.addExact(sum, Money.times(item.getPrice(), item.getQuantity()));
+        }
+        return sum;
+    }
+
+    // every (buy + free) eligible units, the free ones are the cheapest units in the cart
+    private long cheapestFreeUnits(List<OrderItem> items, Map<Long, Product> products) {
+        if (buyQuantity <= 0 || freeQuantity <= 0) return 0;
+        List<OrderItem> eligible = new ArrayList<>();
+        long units = 0;
+        for (OrderItem item : items) {
+            if (eligible(item, products)) {
+                eligible.add(item);
+                units += item.getQuantity();
+            }
+        }
+        long free = units / (buyQuantity + freeQuantity) * freeQuantity;
+        if (free == 0) return 0;
+
+        eligible.sort(Comparator.comparingLong(OrderItem::getPrice));
+        long off = 0;
+        for (OrderItem item : eligible) {
+            long take = Math.min(free, item.getQuantity());
+            off = Math.addExact(off, Money.times(item.getPrice(), (int) take));
+            free -= take;
+            if (free == 0) break;
+        }
+        return off;
+    }
+}
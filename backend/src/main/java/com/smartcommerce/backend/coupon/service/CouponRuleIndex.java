@@ -0,0 +1,86 @@
+package com.smartcommerce.backend.coupon.service;
+
+import com.smartcommerce.backend.coupon.entity.Coupon;
+import com.smartcommerce.backend.coupon.repository.CouponRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live coupons compiled into an immutable code -> {@link CompiledCoupon} map that is swapped atomically.
+ * Admin writes rebuild it after commit; the periodic rebuild picks up writes made on other instances
+ * and drops coupons whose window has ended. Checkout only does a map lookup.
+ */
+@Component
+public class CouponRuleIndex {
+
+    private final CouponRepository couponRepo;
+    private final TransactionTemplate readTx;
+
+    private volatile Map<String, CompiledCoupon> byCode = Map.of();
+    private volatile Instant builtAt;
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    public CouponRuleIndex(CouponRepository couponRepo, PlatformTransactionManager txManager) {
+        this.couponRepo = couponRepo;
+        this.readTx = new TransactionTemplate(txManager);
+        this.readTx.setReadOnly(true);
+    }
+
+    /** Normalized (trimmed, upper-case) code; null when blank. */
+    public static String normalize(String code) {
+        if (code == null || code.isBlank()) return null;
+        return code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    CompiledCoupon find(String code) {
+        String key = normalize(code);
+        return key == null ? null : byCode.get(key);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.coupons.refresh-interval:PT1M}",
+               initialDelayString = "${app.coupons.refresh-interval:PT1M}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        Map<String, CompiledCoupon> next = readTx.execute(st -> {
+            Map<String, CompiledCoupon> out = new HashMap<>();
+            for (Coupon c : couponRepo.findLive(now)) out.put(c.getCode(), CompiledCoupon.of(c)); // scope sets load in batches
+            return out;
+        });
+        byCode = Map.copyOf(next);
+        builtAt = now;
+        rebuilds.incrementAndGet();
+    }
+
+    /** Rebuild once the caller's transaction commits (immediately when there is none). */
+    public void rebuildAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            rebuild();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                rebuild();
+            }
+        });
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("coupons", byCode.size());
+        m.put("builtAt", builtAt);
+        m.put("rebuilds", rebuilds.get());
+        return m;
+    }
+}
@@ -0,0 +1,276 @@
+package com.smartcommerce.backend.coupon.service;
+
+import com.smartcommerce.backend.config.CouponProps;
+import com.smartcommerce.backend.coupon.entity.Coupon;
+import com.smartcommerce.backend.coupon.entity.CouponRedemption;
+import com.smartcommerce.backend.coupon.entity.CouponRedemption.Status;
+import com.smartcommerce.backend.coupon.entity.CouponUsage;
+import com.smartcommerce.backend.coupon.repository.CouponRedemptionRepository;
+import com.smartcommerce.backend.coupon.repository.CouponRepository;
+import com.smartcommerce.backend.coupon.repository.CouponUsageRepository;
+import com.smartcommerce.backend.order.entity.Order;
+import com.smartcommerce.backend.order.model.PricedCart;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.List;
+
+/**
+ * Coupons at checkout.
+ *
+ * {@link #quote} evaluates a code against the priced cart from the in-memory {@link CouponRuleIndex}
+ * (no table reads). {@link #hold} then takes the use inside the draft transaction, the same way stock is
+ * held: a conditional UPDATE on the coupon's counter (only while it has maxUses) and one on the user's
+ * counter. Racing checkouts of a limited code serialize on that row and the loser gets a 400, so a
+ * coupon can never be used more often than allowed. Payment consumes the hold; cancellation, expiry
+ * or a newer draft of the same user gives the use back.
+ */
+@Service
+public class CouponService {
+
+    /** A code that applies to the cart, with what hold() needs to take the use. */
+    public record Applied(Long couponId, String code, long discountPaise, boolean limited, int maxUsesPerUser) {}
+
+    private final CouponRepository couponRepo;
+    private final CouponUsageRepository usageRepo;
+    private final CouponRedemptionRepository redemptionRepo;
+    private final CouponRuleIndex index;
+    private final CouponProps props;
+    private final TransactionTemplate newTx;
+
+    public CouponService(CouponRepository couponRepo,
+                         CouponUsageRepository usageRepo,
+                         CouponRedemptionRepository redemptionRepo,
+                         CouponRuleIndex index,
+                         CouponProps props,
+                         PlatformTransactionManager txManager) {
+        this.couponRepo = couponRepo;
+        this.usageRepo = usageRepo;
+        this.redemptionRepo = redemptionRepo;
+        this.index = index;
+        this.props = props;
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ---------------- checkout ----------------
+
+    /** Null when no code was given; IllegalArgumentException (400) when the code does not apply. */
+    public Applied quote(String couponCode, Long userId, PricedCart cart) {
+        if (CouponRuleIndex.normalize(couponCode) == null) return null;
+
+        CompiledCoupon c = index.find(couponCode);
+        if (c == null) throw new IllegalArgumentException("Invalid coupon code");
+        if (!c.validAt(Instant.now())) throw new IllegalArgumentException("Coupon " + c.code + " is not active");
+
+        long discount = c.discount(cart.getItems(), cart.getProducts(), cart.getSubtotal());
+        return new Applied(c.id, c.code, discount, c.limited, c.maxUsesPerUser);
+    }
+
+    /** Draft time, inside the draft's transaction: take one use of the coupon for this order. */
+    @Transactional
+    public void hold(Order order, Applied applied) {
+        Long userId = order.getUser().getId();
+
+        if (applied.limited() && couponRepo.tryUse(applied.couponId()) == 0) {
+            throw new IllegalArgumentException("Coupon " + applied.code() + " has been fully redeemed");
+        }
+        ensureUsageRow(applied.couponId(), userId);
+        if (usageRepo.tryUse(applied.couponId(), userId, applied.maxUsesPerUser()) == 0) {
+            throw new IllegalArgumentException("You have already used coupon " + applied.code());
+        }
+
+        redemptionRepo.save(new CouponRedemption(applied.couponId(), applied.code(), order.getId(), userId,
+                applied.discountPaise(), applied.limited(), Instant.now().plus(props.getHoldTtl())));
+    }
+
+    /**
+     * Payment captured / COD confirmed: the held use becomes final. Holds of PAYMENT_PENDING orders are
+     * not swept, so a RELEASED use is only met here for a draft confirmed after its hold expired:
+     * <ul>
+     *   <li>COD ({@code paid=false}): nothing was paid yet, so the use is re-taken with the usual limit
+     *       checks and a 400 sends the customer back to checkout;</li>
+     *   <li>paid: the customer has paid the discounted total, so the use is taken back without a limit
+     *       check. That may leave usedCount above maxUses; accepted, and logged.</li>
+     * </ul>
+     */
+    @Transactional
+    public void commit(Long orderId, boolean paid) {
+        redemptionRepo.findByOrderIdForUpdate(orderId).ifPresent(r -> {
+            if (r.getStatus() == Status.CONSUMED) return;
+            if (r.getStatus() == Status.RELEASED) {
+                if (paid) {
+                    if (r.isCountedGlobally()) couponRepo.forceUse(r.getCouponId());
+                    ensureUsageRow(r.getCouponId(), r.getUserId());
+                    usageRepo.tryUse(r.getCouponId(), r.getUserId(), Integer.MAX_VALUE);
+                    System.out.println("🎟️ Coupon " + r.getCode() + " re-taken for order " + orderId + " (paid after its hold expired)");
+                } else {
+                    retake(r);
+                }
+            }
+            r.setStatus(Status.CONSUMED);
+        });
+    }
+
+    // same checks and lock order as hold()
+    private void retake(CouponRedemption r) {
+        Integer perUser = couponRepo.findById(r.getCouponId()).map(Coupon::getMaxUsesPerUser).orElse(null);
+        if (r.isCountedGlobally() && couponRepo.tryUse(r.getCouponId()) == 0) {
+            throw new IllegalArgumentException("Coupon " + r.getCode() + " has been fully redeemed, please check out again");
+        }
+        ensureUsageRow(r.getCouponId(), r.getUserId());
+        if (usageRepo.tryUse(r.getCouponId(), r.getUserId(), perUser != null ? perUser : Integer.MAX_VALUE) == 0) {
+            throw new IllegalArgumentException("You have already used coupon " + r.getCode());
+        }
+    }
+
+    /** Order cancelled before capture: give the use back. No-op once consumed. */
+    @Transactional
+    public void release(Long orderId) {
+        redemptionRepo.findByOrderIdForUpdate(orderId)
+                .filter(r -> r.getStatus() == Status.HELD)
+                .ifPresent(this::giveBack);
+    }
+
+    /** Many orders closed at once (OrderReaper). */
+    @Transactional
+    public void release(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) return;
+        redemptionRepo.findForUpdate(orderIds, Status.HELD).forEach(this::giveBack);
+    }
+
+    /** Return expired holds (not those of orders awaiting payment, like stock holds). */
+    @Scheduled(fixedDelayString = "${app.coupons.sweep-interval:PT1M}")
+    @Transactional
+    public void releaseExpired() {
+        List<CouponRedemption> expired = redemptionRepo.findExpiredForUpdate(
+                Status.HELD, Instant.now(), Order.OrderStatus.PAYMENT_PENDING, PageRequest.of(0, props.getSweepBatch()));
+        expired.forEach(this::giveBack);
+        if (!expired.isEmpty()) {
+            System.out.println("🎟️ Released " + expired.size() + " expired coupon holds");
+        }
+    }
+
+    private void giveBack(CouponRedemption r) {
+        // same lock order as hold(): coupon row, then the user's row
+        if (r.isCountedGlobally()) couponRepo.releaseUse(r.getCouponId());
+        usageRepo.releaseUse(r.getCouponId(), r.getUserId());
+        r.setStatus(Status.RELEASED);
+    }
+
+    // the per-user counter row must exist before its conditional UPDATE; a racing insert is fine
+    private void ensureUsageRow(Long couponId, Long userId) {
+        if (usageRepo.existsByCouponIdAndUserId(couponId, userId)) return;
+        try {
+            newTx.executeWithoutResult(st -> usageRepo.saveAndFlush(new CouponUsage(couponId, userId)));
+        } catch (DataIntegrityViolationException e) {
+            // another checkout of the same user created it first
+        }
+    }
+
+    // ---------------- admin ----------------
+
+    /** Create (id == null) or update a coupon; the rule index is rebuilt after commit. */
+    @Transactional
+    public Coupon save(Long id, Coupon in) {
+        validate(in);
+        String code = CouponRuleIndex.normalize(in.getCode());
+
+        Coupon c = id == null ? new Coupon()
+                : couponRepo.findById(id).orElseThrow(() -> new RuntimeException("Coupon not found"));
+        couponRepo.findByCode(code)
+                .filter(other -> !other.getId().equals(c.getId()))
+                .ifPresent(other -> { throw new IllegalArgumentException("Coupon code already exists: " + code); });
+
+        boolean limitAdded = in.getMaxUses() != null && c.getMaxUses() == null;
+
+        c.setCode(code);
+        c.setDescription(in.getDescription());
+        c.setType(in.getType());
+        c.setPercentOff(in.getPercentOff());
+        c.setAmountPaise(in.getAmountPaise());
+        c.setMaxDiscountPaise(in.getMaxDiscountPaise());
+        c.setBuyQuantity(in.getBuyQuantity());
+        c.setFreeQuantity(in.getFreeQuantity());
+        c.setMinSubtotalPaise(in.getMinSubtotalPaise() != null ? in.getMinSubtotalPaise() : 0L);
+        c.setStartsAt(in.getStartsAt());
+        c.setEndsAt(in.getEndsAt());
+        c.setActive(in.isActive());
+        c.setMaxUses(in.getMaxUses());
+        c.setMaxUsesPerUser(in.getMaxUsesPerUser());
+        c.setIncludeProductIds(copy(in.getIncludeProductIds()));
+        c.setExcludeProductIds(copy(in.getExcludeProductIds()));
+        c.setIncludeCategoryIds(copy(in.getIncludeCategoryIds()));
+        c.setExcludeCategoryIds(copy(in.getExcludeCategoryIds()));
+
+        Coupon saved = couponRepo.save(c);
+        if (limitAdded && id != null) {
+            // the counter only runs while a limit is set: start it from the uses that exist
+            saved.setUsedCount((int) redemptionRepo.countByCouponIdAndStatusIn(
+                    saved.getId(), EnumSet.of(Status.HELD, Status.CONSUMED)));
+        }
+        index.rebuildAfterCommit();
+        return saved;
+    }
+
+    /** Soft delete: past redemptions keep pointing at the row. */
+    @Transactional
+    public Coupon deactivate(Long id) {
+        Coupon c = couponRepo.findById(id).orElseThrow(() -> new RuntimeException("Coupon not found"));
+        c.setActive(false);
+        index.rebuildAfterCommit();
+        return c;
+    }
+
+    private static void validate(Coupon c) {
+        if (CouponRuleIndex.normalize(c.getCode()) == null) throw new IllegalArgumentException("code is required");
+        if (c.getCode().trim().length() > 40) throw new IllegalArgumentException("code is too long (max 40)");
+        if (c.getType() == null) throw new IllegalArgumentException("type is required (PERCENT, FLAT or BOGO)");
+        switch (c.getType()) {
+            case PERCENT -> {
+                if (c.getPercentOff() == null || c.getPercentOff() < 1 || c.getPercentOff() > 100) {
+                    throw new IllegalArgumentException("percentOff must be 1..100");
+                }
+            }
+            case FLAT -> {
+                if (c.getAmountPaise() == null || c.getAmountPaise() <= 0) {
+                    throw new IllegalArgumentException("amountPaise must be > 0");
+                }
+            }
+            case BOGO -> {
+                if (c.getBuyQuantity() == null || c.getBuyQuantity() < 1
+                        || c.getFreeQuantity() == null || c.getFreeQuantity() < 1) {
+                    throw new IllegalArgumentException("buyQuantity and freeQuantity must be >= 1");
+                }
+            }
+        }
+        if (c.getMaxDiscountPaise() != null && c.getMaxDiscountPaise() <= 0) {
+            throw new IllegalArgumentException("maxDiscountPaise must be > 0");
+        }
+        if (c.getMinSubtotalPaise() != null && c.getMinSubtotalPaise() < 0) {
+            throw new IllegalArgumentException("minSubtotalPaise must be >= 0");
+        }
+        if (c.getStartsAt() != null && c.getEndsAt() != null && !c.getEndsAt().isAfter(c.getStartsAt())) {
+            throw new IllegalArgumentException("endsAt must be after startsAt");
+        }
+        if (c.getMaxUses() != null && c.getMaxUses() < 1) throw new IllegalArgumentException("maxUses must be >= 1");
+        if (c.getMaxUsesPerUser() != null && c.getMaxUsesPerUser() < 1) {
+            throw new IllegalArgumentException("maxUsesPerUser must be >= 1");
+        }
+    }
+
+    private static Set<Long> copy(Set<Long> ids) {
+        return ids == null ? new HashSet<>() : new HashSet<>(ids);
+    }
+}
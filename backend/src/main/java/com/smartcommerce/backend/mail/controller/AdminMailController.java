@@ -0,0 +1,30 @@
+package com.smartcommerce.backend.mail.controller;
+
+import com.smartcommerce.backend.mail.service.MailDispatcher;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/mail/outbox")
+public class AdminMailController {
+
+    private final MailDispatcher dispatcher;
+
+    public AdminMailController(MailDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    // Admin: pending / sending / failed counts
+    @GetMapping
+    public Map<String, Object> stats() {
+        return dispatcher.stats();
+    }
+
+    // Admin: kick the dispatcher now instead of waiting for the next poll
+    @PostMapping("/flush")
+    public String flush() {
+        dispatcher.wake();
+        return "Mail dispatcher woken";
+    }
+}
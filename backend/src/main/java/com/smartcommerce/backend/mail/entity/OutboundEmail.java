@@ -0,0 +1,69 @@
+package com.smartcommerce.backend.mail.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/** Mail outbox row: written in the caller's transaction, delivered after commit by MailDispatcher. */
+@Entity
+@Table(
+        name = "outbound_emails",
+        indexes = {
+                @Index(name = "idx_mail_due", columnList = "status, nextAttemptAt"),
+                @Index(name = "idx_mail_claim", columnList = "claimToken")
+        }
+)
+@Data
+@NoArgsConstructor
+public class OutboundEmail {
+
+    public enum Status {
+        PENDING, SENDING, SENT, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String toAddress;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(nullable = false)
+    private String body;
+
+    @Column(length = 32)
+    private String kind; // OTP, PASSWORD_RESET ...
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(length = 36)
+    private String claimToken;
+
+    private Instant claimedAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    private Instant sentAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = Instant.now();
+        if (this.nextAttemptAt == null) this.nextAttemptAt = this.createdAt;
+    }
+}
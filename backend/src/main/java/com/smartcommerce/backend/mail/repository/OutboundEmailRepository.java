@@ -0,0 +1,51 @@
+package com.smartcommerce.backend.mail.repository;
+
+import com.smartcommerce.backend.mail.entity.OutboundEmail;
+import com.smartcommerce.backend.mail.entity.OutboundEmail.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    // 📬 Due messages, oldest first
+    @Query("select m.id from OutboundEmail m where m.status = :status and m.nextAttemptAt <= :now order by m.nextAttemptAt, m.id")
+    List<Long> findDueIds(@Param("status") Status status, @Param("now") Instant now, Pageable page);
+
+    // 🔒 Claim: only rows still PENDING move to SENDING, so concurrent workers never share a row
+    @Modifying
+    @Query("update OutboundEmail m set m.status = :sending, m.claimToken = :token, m.claimedAt = :now " +
+            "where m.id in :ids and m.status = :pending")
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("token") String token,
+              @Param("now") Instant now,
+              @Param("pending") Status pending,
+              @Param("sending") Status sending);
+
+    List<OutboundEmail> findByClaimToken(String claimToken);
+
+    @Modifying
+    @Query("update OutboundEmail m set m.status = :sent, m.sentAt = :now, m.attempts = m.attempts + 1, m.lastError = null " +
+            "where m.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") Instant now, @Param("sent") Status sent);
+
+    // ♻️ Worker died mid-send → back to PENDING
+    @Modifying
+    @Query("update OutboundEmail m set m.status = :pending, m.claimToken = null " +
+            "where m.status = :sending and m.claimedAt < :before")
+    int requeueStuck(@Param("before") Instant before, @Param("pending") Status pending, @Param("sending") Status sending);
+
+    @Modifying
+    @Query("delete from OutboundEmail m where m.status in :statuses and m.createdAt < :before")
+    int deleteFinishedBefore(@Param("statuses") Collection<Status> statuses, @Param("before") Instant before);
+
+    long countByStatus(Status status);
+}
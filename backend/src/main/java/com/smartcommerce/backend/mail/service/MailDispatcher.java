@@ -0,0 +1,154 @@
+package com.smartcommerce.backend.mail.service;
+
+import com.smartcommerce.backend.config.MailProps;
+import com.smartcommerce.backend.mail.entity.OutboundEmail;
+import com.smartcommerce.backend.mail.entity.OutboundEmail.Status;
+import com.smartcommerce.backend.mail.repository.OutboundEmailRepository;
+import com.smartcommerce.backend.mail.transport.ConsoleMailTransport;
+import com.smartcommerce.backend.mail.transport.MailTransport;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the mail outbox on the bounded "mailExecutor" pool.
+ *
+ * Each round claims up to batch-size due rows (PENDING -> SENDING with a claim token, in a short
+ * transaction), hands them to the transport outside any transaction, then records SENT or schedules
+ * a retry with exponential backoff; after max-attempts a row is FAILED. A scheduled poll re-queues
+ * rows orphaned by a crash, retries due failures and purges old rows.
+ */
+@Service
+public class MailDispatcher {
+
+    private static final List<Status> FINISHED = List.of(Status.SENT, Status.FAILED);
+
+    private final OutboundEmailRepository repo;
+    private final MailTransport transport;
+    private final TaskExecutor executor;
+    private final TransactionTemplate tx;
+    private final MailProps props;
+
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    public MailDispatcher(OutboundEmailRepository repo,
+                          MailTransport transport,
+                          @Qualifier("mailExecutor") TaskExecutor executor,
+                          PlatformTransactionManager txManager,
+                          MailProps props) {
+        this.repo = repo;
+        this.transport = transport;
+        this.executor = executor;
+        this.tx = new TransactionTemplate(txManager);
+        this.props = props;
+    }
+
+    /** Start a drain worker unless enough are already running (running workers loop until the outbox is empty). */
+    public void wake() {
+        if (activeWorkers.incrementAndGet() > props.getWorkers()) {
+            activeWorkers.decrementAndGet();
+            return;
+        }
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            activeWorkers.decrementAndGet(); // next poll picks it up
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.poll-interval:PT10S}")
+    public void poll() {
+        Instant now = Instant.now();
+        tx.executeWithoutResult(st -> {
+            repo.requeueStuck(now.minus(props.getStuckAfter()), Status.PENDING, Status.SENDING);
+            repo.deleteFinishedBefore(FINISHED, now.minus(props.getRetention()));
+        });
+        wake();
+    }
+
+    public Map<String, Object> stats() {
+        return Map.of(
+                "pending", repo.countByStatus(Status.PENDING),
+                "sending", repo.countByStatus(Status.SENDING),
+                "failed", repo.countByStatus(Status.FAILED),
+                "activeWorkers", activeWorkers.get()
+        );
+    }
+
+    // ---------------- worker ----------------
+
+    private void drain() {
+        try {
+            while (sendOneBatch() > 0) {
+                // keep going while there is due mail
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Mail dispatcher error: " + e.getMessage());
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    /** @return number of messages claimed (0 = nothing due) */
+    int sendOneBatch() {
+        String token = UUID.randomUUID().toString();
+        List<OutboundEmail> batch = tx.execute(st -> {
+            Instant now = Instant.now();
+            List<Long> due = repo.findDueIds(Status.PENDING, now, PageRequest.of(0, props.getBatchSize()));
+            if (due.isEmpty()) return List.of();
+            if (repo.claim(due, token, now, Status.PENDING, Status.SENDING) == 0) return List.of();
+            return repo.findByClaimToken(token);
+        });
+        if (batch == null || batch.isEmpty()) return 0;
+
+        // SMTP round trip happens here, with no DB connection held
+        Map<Long, String> failed = transport.send(batch);
+
+        tx.executeWithoutResult(st -> record(batch, failed));
+        return batch.size();
+    }
+
+    private void record(List<OutboundEmail> batch, Map<Long, String> failed) {
+        Instant now = Instant.now();
+        List<Long> sent = new ArrayList<>(batch.size());
+        for (OutboundEmail m : batch) {
+            String error = failed.get(m.getId());
+            if (error == null) {
+                sent.add(m.getId());
+                continue;
+            }
+
+            if (props.isConsoleFallback()) ConsoleMailTransport.print(m);
+
+            int attempts = m.getAttempts() + 1;
+            m.setAttempts(attempts);
+            m.setClaimToken(null);
+            m.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+            if (attempts >= props.getMaxAttempts()) {
+                m.setStatus(Status.FAILED);
+                System.err.println("❌ Mail " + m.getId() + " to " + m.getToAddress() + " failed permanently: " + error);
+            } else {
+                m.setStatus(Status.PENDING);
+                m.setNextAttemptAt(now.plus(backoff(attempts)));
+            }
+            repo.save(m);
+        }
+        if (!sent.isEmpty()) repo.markSent(sent, now, Status.SENT);
+    }
+
+    private Duration backoff(int attempts) {
+        // base * 2^(attempts-1), capped at 1h
+        Duration d = props.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 16));
+        return d.compareTo(Duration.ofHours(1)) > 0 ? Duration.ofHours(1) : d;
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartcommerce.backend.mail.service;
+
+import com.smartcommerce.backend.mail.entity.OutboundEmail;
+import com.smartcommerce.backend.mail.repository.OutboundEmailRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Entry point for outbound mail. {@link #enqueue} only inserts a row (in the caller's transaction,
+ * so the mail exists iff the business change committed) and wakes the dispatcher after commit.
+ * No SMTP I/O ever happens on the calling thread.
+ */
+@Service
+public class MailOutbox {
+
+    private final OutboundEmailRepository repo;
+    private final MailDispatcher dispatcher;
+
+    public MailOutbox(OutboundEmailRepository repo, MailDispatcher dispatcher) {
+        this.repo = repo;
+        this.dispatcher = dispatcher;
+    }
+
+    @Transactional
+    public OutboundEmail enqueue(String to, String subject, String body, String kind) {
+        OutboundEmail m = new OutboundEmail();
+        m.setToAddress(to);
+        m.setSubject(subject);
+        m.setBody(body);
+        m.setKind(kind);
+        OutboundEmail saved = repo.save(m);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wake();
+            }
+        });
+        return saved;
+    }
+}
@@ -0,0 +1,28 @@
+package com.smartcommerce.backend.mail.transport;
+
+import com.smartcommerce.backend.mail.entity.OutboundEmail;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/** Dev mode (app.mail.transport=console): nothing leaves the machine, every mail is printed. */
+@Component
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "console")
+public class ConsoleMailTransport implements MailTransport {
+
+    @Override
+    public Map<Long, String> send(List<OutboundEmail> batch) {
+        batch.forEach(ConsoleMailTransport::print);
+        return Map.of();
+    }
+
+    public static void print(OutboundEmail m) {
+        System.out.println("---- MAIL (DEV MODE) ----");
+        System.out.println("To: " + m.getToAddress());
+        System.out.println("Subject: " + m.getSubject());
+        System.out.println(m.getBody());
+        System.out.println("-------------------------");
+    }
+}
@@ -0,0 +1,12 @@
+package com.smartcommerce.backend.mail.transport;
+
+import com.smartcommerce.backend.mail.entity.OutboundEmail;
+
+import java.util.List;
+import java.util.Map;
+
+/** Delivers a batch of outbox rows. Returns the rows that failed (id -> error); empty map = all sent. */
+public interface MailTransport {
+
+    Map<Long, String> send(List<OutboundEmail> batch);
+}
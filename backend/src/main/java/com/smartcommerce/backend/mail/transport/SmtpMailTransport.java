@@ -0,0 +1,62 @@
+package com.smartcommerce.backend.mail.transport;
+
+import com.smartcommerce.backend.mail.entity.OutboundEmail;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * SMTP via JavaMailSender. The whole batch goes through one {@code send(SimpleMailMessage...)} call,
+ * i.e. one SMTP connection/handshake for up to batch-size messages.
+ */
+@Component
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "smtp", matchIfMissing = true)
+public class SmtpMailTransport implements MailTransport {
+
+    private final JavaMailSender mailSender;
+
+    public SmtpMailTransport(JavaMailSender mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    @Override
+    public Map<Long, String> send(List<OutboundEmail> batch) {
+        // identity map: failures are reported against the exact message instance we passed in
+        Map<SimpleMailMessage, Long> ids = new IdentityHashMap<>();
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            OutboundEmail m = batch.get(i);
+            SimpleMailMessage msg = new SimpleMailMessage();
+            msg.setTo(m.getToAddress());
+            msg.setSubject(m.getSubject());
+            msg.setText(m.getBody());
+            messages[i] = msg;
+            ids.put(msg, m.getId());
+        }
+
+        try {
+            mailSender.send(messages);
+            return Map.of();
+        } catch (MailSendException ex) {
+            Map<Long, String> failed = new HashMap<>();
+            ex.getFailedMessages().forEach((msg, cause) -> {
+                Long id = ids.get(msg);
+                if (id != null) failed.put(id, cause.getMessage());
+            });
+            // no per-message detail (e.g. connect failed before any send) → whole batch failed
+            return failed.isEmpty() ? allFailed(batch, ex) : failed;
+        } catch (Exception ex) {
+            return allFailed(batch, ex);
+        }
+    }
+
+    private static Map<Long, String> allFailed(List<OutboundEmail> batch, Exception ex) {
+        Map<Long, String> failed = new HashMap<>();
+        batch.forEach(m -> failed.put(m.getId(), String.valueOf(ex.getMessage())));
+        return failed;
+    }
+}
@@ -0,0 +1,164 @@
+package com.smartcommerce.backend.order.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcommerce.backend.order.entity.ArchivedOrder;
+import com.smartcommerce.backend.order.repository.ArchivedOrderRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cold storage for old terminal orders. The {@code orders_archive} index (one small row per order,
+ * see {@link ArchivedOrder}) serves lists and routes lookups; the snapshots themselves live in one
+ * table per order month, {@code orders_archive_<yyyymm>} (order_id, gzip'd JSON). A month can be
+ * dumped, moved to cheaper storage or dropped as a whole without touching the hot tables.
+ * Archived orders are read-only.
+ */
+@Component
+public class OrderArchive {
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final ArchivedOrderRepository indexRepo;
+    private final ObjectMapper objectMapper;
+
+    private final Set<Integer> knownMonths = ConcurrentHashMap.newKeySet();
+
+    private static final String INSERT_INDEX =
+            "insert into orders_archive (id, user_id, customer_name, total_payable, status, " +
+            "created_at, updated_at, archived_at, archive_month) values (:id, :userId, :customerName, " +
+            ":totalPayable, :status, :createdAt, :updatedAt, :archivedAt, :archiveMonth)";
+
+    public OrderArchive(NamedParameterJdbcTemplate jdbc,
+                        ArchivedOrderRepository indexRepo,
+                        ObjectMapper objectMapper) {
+        this.jdbc = jdbc;
+        this.indexRepo = indexRepo;
+        this.objectMapper = objectMapper;
+    }
+
+    /** yyyymm (UTC) of an order's creation: the monthly table it is archived into. */
+    public static int monthOf(Instant createdAt) {
+        ZonedDateTime t = createdAt.atZone(ZoneOffset.UTC);
+        return t.getYear() * 100 + t.getMonthValue();
+    }
+
+    /**
+     * Creates the monthly tables if missing. Call outside any transaction: MySQL commits the open
+     * transaction on DDL.
+     */
+    public void ensureMonths(Collection<Integer> months) {
+        for (Integer month : months) {
+            if (knownMonths.contains(month)) continue;
+            jdbc.getJdbcTemplate().execute("create table if not exists " + table(month) +
+                    " (order_id bigint not null primary key, snapshot mediumblob not null)");
+            knownMonths.add(month);
+        }
+    }
+
+    /** Writes index rows + snapshots in the caller's transaction; the months must exist already. */
+    public void write(List<ArchivedOrder> rows, Map<Long, OrderSnapshot> snapshots) {
+        if (rows.isEmpty()) return;
+
+        List<MapSqlParameterSource> index = new ArrayList<>(rows.size());
+        Map<Integer, List<MapSqlParameterSource>> blobsByMonth = new TreeMap<>();
+        for (ArchivedOrder a : rows) {
+            index.add(new MapSqlParameterSource()
+                    .addValue("id", a.getId())
+                    .addValue("userId", a.getUserId())
+                    .addValue("customerName", a.getCustomerName())
+                    .addValue("totalPayable", a.getTotalPayable())
+                    .addValue("status", a.getStatus().name())
+                    .addValue("createdAt", Timestamp.from(a.getCreatedAt()))
+                    .addValue("updatedAt", Timestamp.from(a.getUpdatedAt()))
+                    .addValue("archivedAt", Timestamp.from(a.getArchivedAt()))
+                    .addValue("archiveMonth", a.getArchiveMonth()));
+            blobsByMonth.computeIfAbsent(a.getArchiveMonth(), m -> new ArrayList<>())
+                    .add(new MapSqlParameterSource()
+                            .addValue("orderId", a.getId())
+                            .addValue("snapshot", encode(snapshots.get(a.getId()))));
+        }
+
+        jdbc.batchUpdate(INSERT_INDEX, index.toArray(MapSqlParameterSource[]::new));
+        blobsByMonth.forEach((month, params) -> jdbc.batchUpdate(
+                "insert into " + table(month) + " (order_id, snapshot) values (:orderId, :snapshot)",
+                params.toArray(MapSqlParameterSource[]::new)));
+    }
+
+    // ---------------- read path ----------------
+
+    public Optional<OrderSnapshot> find(Long orderId) {
+        return indexRepo.findById(orderId).map(a -> load(List.of(a)).get(0));
+    }
+
+    /** Same 404 / 403 rules as OrderService.getOrderForUserStrict. */
+    public OrderSnapshot getForUserStrict(Long orderId, Long userId) {
+        ArchivedOrder a = indexRepo.findById(orderId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+        if (!a.getUserId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You cannot access another user's order");
+        }
+        return load(List.of(a)).get(0);
+    }
+
+    /** Snapshots for index rows, in the same order; one query per month touched. */
+    public List<OrderSnapshot> load(List<ArchivedOrder> rows) {
+        Map<Integer, List<Long>> idsByMonth = new TreeMap<>();
+        for (ArchivedOrder a : rows) {
+            idsByMonth.computeIfAbsent(a.getArchiveMonth(), m -> new ArrayList<>()).add(a.getId());
+        }
+
+        Map<Long, OrderSnapshot> byId = new HashMap<>();
+        idsByMonth.forEach((month, ids) -> jdbc.query(
+                "select order_id, snapshot from " + table(month) + " where order_id in (:ids)",
+                Map.of("ids", ids),
+                rs -> { byId.put(rs.getLong(1), decode(rs.getBytes(2))); }));
+
+        List<OrderSnapshot> out = new ArrayList<>(rows.size());
+        for (ArchivedOrder a : rows) {
+            OrderSnapshot s = byId.get(a.getId());
+            if (s == null) throw new IllegalStateException("Archived order " + a.getId() + " has no snapshot in " + table(a.getArchiveMonth()));
+            out.add(s);
+        }
+        return out;
+    }
+
+    // ---------------- internals ----------------
+
+    // months are ints, so the generated name is always [a-z_0-9]
+    private static String table(int month) {
+        return "orders_archive_" + month;
+    }
+
+    private byte[] encode(OrderSnapshot s) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (GZIPOutputStream gz = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gz, s);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private OrderSnapshot decode(byte[] blob) {
+        try (GZIPInputStream gz = new GZIPInputStream(new ByteArrayInputStream(blob))) {
+            return objectMapper.readValue(gz, OrderSnapshot.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.smartcommerce.backend.order.archive;
+
+import com.smartcommerce.backend.config.OrderArchiveProps;
+import com.smartcommerce.backend.order.entity.ArchivedOrder;
+import com.smartcommerce.backend.order.entity.Order;
+import com.smartcommerce.backend.order.entity.Order.OrderStatus;
+import com.smartcommerce.backend.order.entity.Payment;
+import com.smartcommerce.backend.order.repository.ArchivedOrderRepository;
+import com.smartcommerce.backend.order.repository.OrderItemRepository;
+import com.smartcommerce.backend.order.repository.OrderRepository;
+import com.smartcommerce.backend.order.repository.OrderRepository.StaleOrder;
+import com.smartcommerce.backend.order.repository.PaymentRepository;
+import com.smartcommerce.backend.order.repository.StockReservationRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Moves terminal orders ({@code app.orders.archive.statuses}) untouched for {@code app.orders.archive.after}
+ * out of the hot tables into {@link OrderArchive}, so {@code orders} / {@code order_items} only hold
+ * orders that can still change.
+ *
+ * Walks each status by id in keyset batches like OrderReaper. A batch is one transaction: lock the
+ * orders (SKIP LOCKED, re-checking status and age), snapshot them with items and payment, write the
+ * archive rows, then bulk-delete items, payments, stock holds and the orders themselves. Either the
+ * whole batch moves or none of it does. Coupon redemptions stay: they are the coupon's use history.
+ */
+@Service
+public class OrderArchiver {
+
+    private final OrderRepository orderRepo;
+    private final OrderItemRepository itemRepo;
+    private final PaymentRepository paymentRepo;
+    private final StockReservationRepository reservationRepo;
+    private final ArchivedOrderRepository indexRepo;
+    private final OrderArchive archive;
+    private final OrderArchiveProps props;
+    private final Executor executor;
+    private final TransactionTemplate tx;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // metrics (since start)
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong archived = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile Instant lastRunAt;
+    private volatile long lastRunMillis;
+
+    public OrderArchiver(OrderRepository orderRepo,
+                         OrderItemRepository itemRepo,
+                         PaymentRepository paymentRepo,
+                         StockReservationRepository reservationRepo,
+                         ArchivedOrderRepository indexRepo,
+                         OrderArchive archive,
+                         OrderArchiveProps props,
+                         @Qualifier("orderArchiveExecutor") Executor executor,
+                         PlatformTransactionManager txManager) {
+        this.orderRepo = orderRepo;
+        this.itemRepo = itemRepo;
+        this.paymentRepo = paymentRepo;
+        this.reservationRepo = reservationRepo;
+        this.indexRepo = indexRepo;
+        this.archive = archive;
+        this.props = props;
+        this.executor = executor;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    @Scheduled(initialDelayString = "${app.orders.archive.interval:PT1H}",
+            fixedDelayString = "${app.orders.archive.interval:PT1H}")
+    public void tick() {
+        if (props.isEnabled()) trigger();
+    }
+
+    /** Starts a run in the background; false if one is already running. */
+    public boolean trigger() {
+        if (!running.compareAndSet(false, true)) return false;
+        try {
+            executor.execute(this::run);
+            return true;
+        } catch (RejectedExecutionException e) {
+            running.set(false); // shutting down
+            return false;
+        }
+    }
+
+    /** One full pass on the calling thread (normally the archive executor). */
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            Instant cutoff = Instant.now().minus(props.getAfter());
+            long moved = 0;
+            for (OrderStatus status : props.getStatuses()) {
+                moved += archiveStatus(status, cutoff);
+            }
+            if (moved > 0) System.out.println("🗄️ Archived " + moved + " orders");
+        } catch (RuntimeException e) {
+            errors.incrementAndGet();
+            System.err.println("⚠️ Order archive run failed: " + e.getMessage());
+        } finally {
+            runs.incrementAndGet();
+            lastRunAt = Instant.now();
+            lastRunMillis = (System.nanoTime() - start) / 1_000_000;
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", props.isEnabled());
+        m.put("running", running.get());
+        m.put("runs", runs.get());
+        m.put("lastRunAt", lastRunAt);
+        m.put("lastRunMillis", lastRunMillis);
+        m.put("archived", archived.get());
+        m.put("errors", errors.get());
+        Map<String, Long> months = new LinkedHashMap<>();
+        indexRepo.countByMonth().forEach(c -> months.put(String.valueOf(c.getArchiveMonth()), c.getOrders()));
+        m.put("months", months);
+        return m;
+    }
+
+    // ---------------- internals ----------------
+
+    private long archiveStatus(OrderStatus status, Instant cutoff) {
+        long moved = 0;
+        long afterId = 0;
+        for (int batch = 0; batch < props.getMaxBatchesPerRun(); batch++) {
+            List<StaleOrder> page = orderRepo.findStale(status, cutoff, afterId, PageRequest.of(0, props.getBatchSize()));
+            if (page.isEmpty()) break;
+            afterId = page.get(page.size() - 1).getId();
+
+            // DDL outside the batch transaction (MySQL would commit it)
+            archive.ensureMonths(page.stream().map(o -> OrderArchive.monthOf(o.getCreatedAt())).collect(Collectors.toSet()));
+
+            int n = archiveBatch(page.stream().map(StaleOrder::getId).toList(), status, cutoff);
+            archived.addAndGet(n);
+            moved += n;
+            if (page.size() < props.getBatchSize() || !pause()) break;
+        }
+        return moved;
+    }
+
+    private int archiveBatch(List<Long> ids, OrderStatus status, Instant cutoff) {
+        try {
+            Integer n = tx.execute(st -> {
+                List<Long> locked = orderRepo.lockStale(ids, status, cutoff).stream().map(Order::getId).toList();
+                if (locked.isEmpty()) return 0;
+
+                List<Order> orders = orderRepo.findWithItems(locked);
+                Map<Long, Payment> payments = new HashMap<>();
+                for (Payment p : paymentRepo.findByOrder_IdIn(locked)) payments.put(p.getOrder().getId(), p);
+
+                Instant now = Instant.now();
+                List<ArchivedOrder> rows = new ArrayList<>(orders.size());
+                Map<Long, OrderSnapshot> snapshots = new HashMap<>();
+                for (Order o : orders) {
+                    rows.add(indexRow(o, now));
+                    snapshots.put(o.getId(), OrderSnapshot.from(o, payments.get(o.getId())));
+                }
+                archive.write(rows, snapshots);
+
+                itemRepo.deleteByOrderIds(locked);
+                paymentRepo.deleteByOrderIds(locked);
+                reservationRepo.deleteByOrderIds(locked);
+                return orderRepo.deleteByIdInAndStatus(locked, status);
+            });
+            return n == null ? 0 : n;
+        } catch (RuntimeException e) {
+            errors.incrementAndGet();
+            System.err.println("⚠️ Archiving " + ids.size() + " " + status + " orders failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static ArchivedOrder indexRow(Order o, Instant now) {
+        ArchivedOrder a = new ArchivedOrder();
+        a.setId(o.getId());
+        a.setUserId(o.getUser().getId());
+        a.setCustomerName(o.getCustomerName());
+        a.setTotalPayable(o.getTotalPayable());
+        a.setStatus(o.getStatus());
+        a.setCreatedAt(o.getCreatedAt());
+        a.setUpdatedAt(o.getUpdatedAt());
+        a.setArchivedAt(now);
+        a.setArchiveMonth(OrderArchive.monthOf(o.getCreatedAt()));
+        return a;
+    }
+
+    // false = interrupted (shutdown): stop the pass
+    private boolean pause() {
+        long ms = props.getPauseBetweenBatches().toMillis();
+        if (ms <= 0) return true;
+        try {
+            Thread.sleep(ms);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.smartcommerce.backend.order.archive;
+
+import com.smartcommerce.backend.order.dto.AdminOrderDTO;
+import com.smartcommerce.backend.order.entity.Order;
+import com.smartcommerce.backend.order.entity.OrderItem;
+import com.smartcommerce.backend.order.entity.Payment;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Everything the read endpoints show for an order, frozen at archive time and stored gzip'd JSON in
+ * its monthly archive table. {@link #order} is the admin view; {@link #lines} and {@link #payment}
+ * add what the customer view needs.
+ */
+public class OrderSnapshot {
+    public AdminOrderDTO order;
+    public String couponCode;
+    public List<Line> lines;
+    public PaymentSnapshot payment;     // null = no payment row
+
+    public static OrderSnapshot from(Order o, Payment p) {
+        OrderSnapshot s = new OrderSnapshot();
+        s.order = AdminOrderDTO.from(o);
+        s.couponCode = o.getCouponCode();
+        s.lines = o.getItems().stream().map(Line::from).collect(Collectors.toList());
+        s.payment = p != null ? PaymentSnapshot.from(p) : null;
+        return s;
+    }
+
+    public static class Line {
+        public Long id;
+        public Long productId;
+        public String productName;
+        public Long price;          // paise
+        public Integer quantity;
+        public String productPhoto;
+
+        static Line from(OrderItem oi) {
+            Line l = new Line();
+            l.id = oi.getId();
+            l.productId = oi.getProductId();
+            l.productName = oi.getProductName();
+            l.price = oi.getPrice();
+            l.quantity = oi.getQuantity();
+            l.productPhoto = oi.getProductPhoto();
+            return l;
+        }
+    }
+
+    public static class PaymentSnapshot {
+        public String gateway;          // RAZORPAY / COD
+        public String method;           // upi / card / netbanking
+        public String status;
+        public Long amount;             // paise
+        public String currency;
+        public String razorpayOrderId;
+        public String razorpayPaymentId;
+        public String referenceId;
+        public String refundId;
+        public String refundStatus;
+        public Long refundAmount;
+
+        static PaymentSnapshot from(Payment p) {
+            PaymentSnapshot s = new PaymentSnapshot();
+            s.gateway = p.getMethod() != null ? p.getMethod().name() : null;
+            s.method = p.getPaymentMethod();
+            s.status = p.getStatus() != null ? p.getStatus().name() : null;
+            s.amount = p.getAmount();
+            s.currency = p.getCurrency();
+            s.razorpayOrderId = p.getRazorpayOrderId();
+            s.razorpayPaymentId = p.getRazorpayPaymentId();
+            s.referenceId = p.getReferenceId();
+            s.refundId = p.getRefundId();
+            s.refundStatus = p.getRefundStatus();
+            s.refundAmount = p.getRefundAmount();
+            return s;
+        }
+    }
+}
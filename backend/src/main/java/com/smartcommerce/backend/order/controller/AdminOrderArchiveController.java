@@ -0,0 +1,29 @@
+package com.smartcommerce.backend.order.controller;
+
+import com.smartcommerce.backend.order.archive.OrderArchiver;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/orders/archive")
+public class AdminOrderArchiveController {
+
+    private final OrderArchiver archiver;
+
+    public AdminOrderArchiveController(OrderArchiver archiver) {
+        this.archiver = archiver;
+    }
+
+    // Admin: archived counters, last run and orders per monthly table
+    @GetMapping
+    public Map<String, Object> stats() {
+        return archiver.stats();
+    }
+
+    // Admin: run now (in the background) instead of waiting for the next tick
+    @PostMapping("/run")
+    public Map<String, Object> run() {
+        return Map.of("started", archiver.trigger());
+    }
+}
@@ -1,12 +1,23 @@
 package com.smartcommerce.backend.order.controller;
 
+import com.smartcommerce.backend.coupon.service.CouponService;
+import com.smartcommerce.backend.order.archive.OrderArchive;
+import com.smartcommerce.backend.order.archive.OrderSnapshot;
 import com.smartcommerce.backend.order.dto.AdminOrderDTO;
+import com.smartcommerce.backend.order.dto.AdminOrderSliceDTO;
+import com.smartcommerce.backend.order.entity.ArchivedOrder;
 import com.smartcommerce.backend.order.entity.Order;
 import com.smartcommerce.backend.order.entity.OrderItem;
 import com.smartcommerce.backend.order.entity.ShippingAddress;
+import com.smartcommerce.backend.order.repository.ArchivedOrderRepository;
 import com.smartcommerce.backend.order.repository.OrderRepository;
+import com.smartcommerce.backend.order.repository.OrderSpecs;
+import com.smartcommerce.backend.order.service.StockReservationService;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -23,19 +34,37 @@ import java.util.List;
 public class AdminOrderController {
 
     private final OrderRepository orderRepo;
-
-    public AdminOrderController(OrderRepository orderRepo) {
+    private final StockReservationService stockReservations;
+    private final CouponService couponService;
+    private final ArchivedOrderRepository archivedOrderRepo;
+    private final OrderArchive orderArchive;
+
+    public AdminOrderController(OrderRepository orderRepo,
+                                StockReservationService stockReservations,
+                                CouponService couponService,
+                                ArchivedOrderRepository archivedOrderRepo,
+                                OrderArchive orderArchive) {
         this.orderRepo = orderRepo;
+        this.stockReservations = stockReservations;
+        this.couponService = couponService;
+        this.archivedOrderRepo = archivedOrderRepo;
+        this.orderArchive = orderArchive;
     }
 
     // ---------- READ: Paginated + filterable list ----------
+    // Page mode (default) counts the filtered rows; ?keyset=true / ?cursor=... returns slices without a count,
+    // newest first, so deep pages cost the same as the first one. Slices only walk createdAt desc, id desc:
+    // any other ?sort= with them is a 400
     @GetMapping
-    public ResponseEntity<Page<AdminOrderDTO>> getOrders(
+    public ResponseEntity<?> getOrders(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) Long orderId,   // 👈 added
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant start,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant end,
+            @RequestParam(defaultValue = "false") boolean archived,   // 🗄️ list the archive instead
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(required = false) String cursor,            // 🔑 nextCursor of the previous slice
             Pageable pageable
     ) {
         Order.OrderStatus enumStatus = null;
@@ -47,15 +76,47 @@ public class AdminOrderController {
             }
         }
 
-        Page<Order> page = orderRepo.filterOrders(enumStatus, start, end, userId, orderId, pageable);
+        if (archived) {
+            Page<ArchivedOrder> page = archivedOrderRepo.findAll(
+                    OrderSpecs.archived(enumStatus, start, end, userId, orderId), pageable);
+            List<AdminOrderDTO> content = orderArchive.load(page.getContent()).stream().map(s -> s.order).toList();
+            return ResponseEntity.ok(new PageImpl<>(content, pageable, page.getTotalElements()));
+        }
+
+        Specification<Order> spec = OrderSpecs.filter(enumStatus, start, end, userId, orderId);
+        if (keyset || cursor != null) {
+            Sort sort = pageable.getSort();
+            if (sort.isSorted() && !sort.equals(OrderSpecs.NEWEST_FIRST)
+                    && !sort.equals(Sort.by(Sort.Order.desc("createdAt")))) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Keyset slices are always sorted by createdAt,desc; drop the sort parameter");
+            }
+            if (cursor != null && !cursor.isBlank()) {
+                AdminOrderSliceDTO.Cursor after = AdminOrderSliceDTO.decodeCursor(cursor);
+                spec = spec.and(OrderSpecs.olderThan(after.createdAt(), after.id()));
+            }
+            // one extra row tells whether another slice follows
+            int size = pageable.getPageSize();
+            List<Order> rows = orderRepo.findBy(spec, q -> q.sortBy(OrderSpecs.NEWEST_FIRST).limit(size + 1).all());
+            boolean hasNext = rows.size() > size;
+            List<AdminOrderDTO> content = rows.stream().limit(size).map(AdminOrderDTO::from).toList();
+            return ResponseEntity.ok(AdminOrderSliceDTO.of(content, size, hasNext));
+        }
+
+        Page<Order> page = orderRepo.findAll(spec, pageable);
         return ResponseEntity.ok(page.map(AdminOrderDTO::from));
     }
 
     // ---------- READ: Single order ----------
     @GetMapping("/{id}")
     public ResponseEntity<AdminOrderDTO> getOrder(@PathVariable Long id) {
-        Order order = orderRepo.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+        Order order = orderRepo.findById(id).orElse(null);
+        if (order == null) {
+            // 🗄️ archived orders are read-only: served here, 404 for the update/delete endpoints
+            OrderSnapshot archived = orderArchive.find(id)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+            return ResponseEntity.ok(archived.order);
+        }
         return ResponseEntity.ok(AdminOrderDTO.from(order));
     }
 
@@ -75,6 +136,7 @@ public class AdminOrderController {
         }
 
         order.setStatus(newStatus);
+        releaseHeldStockIfClosed(order);
         // @PreUpdate on entity will set updatedAt
         return ResponseEntity.ok(AdminOrderDTO.from(order));
     }
@@ -113,6 +175,7 @@ public class AdminOrderController {
             } catch (IllegalArgumentException e) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid status in body: " + dto.status);
             }
+            releaseHeldStockIfClosed(order);
         }
 
         // Address
@@ -164,6 +227,7 @@ public class AdminOrderController {
         if (!hard) {
             // Soft delete = mark as CANCELLED (keep history)
             order.setStatus(Order.OrderStatus.CANCELLED);
+            releaseHeldStockIfClosed(order);
             return ResponseEntity.noContent().build();
         }
 
@@ -178,4 +242,12 @@ public class AdminOrderController {
             );
         }
     }
+
+    // 📦 Cancelled/failed drafts give their held stock and coupon use back (consumed holds are untouched)
+    private void releaseHeldStockIfClosed(Order order) {
+        if (order.getStatus() == Order.OrderStatus.CANCELLED || order.getStatus() == Order.OrderStatus.FAILED) {
+            stockReservations.release(order.getId());
+            couponService.release(order.getId());
+        }
+    }
 }
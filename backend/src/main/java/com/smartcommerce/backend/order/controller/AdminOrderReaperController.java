@@ -0,0 +1,29 @@
+package com.smartcommerce.backend.order.controller;
+
+import com.smartcommerce.backend.order.service.OrderReaper;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/orders/reaper")
+public class AdminOrderReaperController {
+
+    private final OrderReaper reaper;
+
+    public AdminOrderReaperController(OrderReaper reaper) {
+        this.reaper = reaper;
+    }
+
+    // Admin: expired / reconciled / purged counters and last run
+    @GetMapping
+    public Map<String, Object> stats() {
+        return reaper.stats();
+    }
+
+    // Admin: run now (in the background) instead of waiting for the next tick
+    @PostMapping("/run")
+    public Map<String, Object> run() {
+        return Map.of("started", reaper.trigger());
+    }
+}
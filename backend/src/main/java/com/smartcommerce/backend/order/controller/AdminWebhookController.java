@@ -0,0 +1,34 @@
+package com.smartcommerce.backend.order.controller;
+
+import com.smartcommerce.backend.order.service.WebhookEventProcessor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/webhooks")
+public class AdminWebhookController {
+
+    private final WebhookEventProcessor processor;
+
+    public AdminWebhookController(WebhookEventProcessor processor) {
+        this.processor = processor;
+    }
+
+    // Admin: queue depth, lag and retry counters
+    @GetMapping
+    public Map<String, Object> stats() {
+        return processor.stats();
+    }
+
+    // Admin: re-queue a dead-lettered (FAILED) event
+    @PostMapping("/{id}/retry")
+    public String retry(@PathVariable Long id) {
+        if (!processor.retry(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No failed webhook event with id " + id);
+        }
+        return "Webhook event re-queued";
+    }
+}
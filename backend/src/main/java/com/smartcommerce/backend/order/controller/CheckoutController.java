@@ -6,6 +6,7 @@ import com.smartcommerce.backend.order.dto.ConfirmPaymentRequest;
 import com.smartcommerce.backend.order.dto.CreateDraftRequest;
 import com.smartcommerce.backend.order.dto.RazorOrderResponse;
 import com.smartcommerce.backend.order.entity.Order;
+import com.smartcommerce.backend.order.gateway.PaymentGatewayException;
 import com.smartcommerce.backend.order.service.CheckoutService;
 import com.smartcommerce.backend.order.service.PaymentService;
 import org.springframework.http.ResponseEntity;
@@ -44,7 +45,7 @@ public class CheckoutController {
     }
 
     @PostMapping("/create-razorpay-order/{orderId}")
-    public ResponseEntity<RazorOrderResponse> createRazorpayOrder(@PathVariable Long orderId) throws Exception {
+    public ResponseEntity<RazorOrderResponse> createRazorpayOrder(@PathVariable Long orderId) {
         Order o = checkout.getOrderById(orderId);
         RazorOrderResponse res = payment.createRazorpayOrder(o);
         return ResponseEntity.ok(res);
@@ -72,6 +73,12 @@ public class CheckoutController {
                     "message", "Payment confirmed",
                     "orderStatus", order.getStatus().name()
             ));
+        } catch (PaymentGatewayException e) {
+            // Gateway down / slow / circuit open: client may retry, nothing was changed locally
+            return ResponseEntity.status(e.isUnavailable() ? 503 : 502).body(Map.of(
+                    "error", "Payment confirmation failed",
+                    "reason", e.getMessage()
+            ));
         } catch (Exception e) {
             e.printStackTrace(); // log full error in console
             return ResponseEntity.status(500).body(Map.of(
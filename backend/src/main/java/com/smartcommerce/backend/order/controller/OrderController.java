@@ -2,11 +2,14 @@ package com.smartcommerce.backend.order.controller;
 
 import com.smartcommerce.backend.auth.entity.User;
 import com.smartcommerce.backend.auth.repository.UserRepository;
+import com.smartcommerce.backend.order.archive.OrderArchive;
 import com.smartcommerce.backend.order.dto.OrderMapper;
 import com.smartcommerce.backend.order.dto.OrderRequest;
 import com.smartcommerce.backend.order.dto.OrderResponse;
+import com.smartcommerce.backend.order.dto.OrderSummaryDTO;
 import com.smartcommerce.backend.order.entity.Order;
 import com.smartcommerce.backend.order.entity.Payment;
+import com.smartcommerce.backend.order.repository.ArchivedOrderRepository;
 import com.smartcommerce.backend.order.repository.OrderRepository;
 import com.smartcommerce.backend.order.repository.PaymentRepository;
 import com.smartcommerce.backend.order.service.OrderService;
@@ -30,17 +33,23 @@ public class OrderController {
     private final OrderRepository orderRepo;
     private final OrderMapper orderMapper;
     private final PaymentRepository paymentRepo;
+    private final OrderArchive orderArchive;
+    private final ArchivedOrderRepository archivedOrderRepo;
 
     public OrderController(OrderService orderService,
                            UserRepository userRepo,
                            OrderRepository orderRepo,
                            OrderMapper orderMapper,
-                           PaymentRepository paymentRepo) {
+                           PaymentRepository paymentRepo,
+                           OrderArchive orderArchive,
+                           ArchivedOrderRepository archivedOrderRepo) {
         this.orderService = orderService;
         this.userRepo = userRepo;
         this.orderRepo = orderRepo;
         this.orderMapper = orderMapper;
         this.paymentRepo = paymentRepo;
+        this.orderArchive = orderArchive;
+        this.archivedOrderRepo = archivedOrderRepo;
     }
 
     private User currentUser(Authentication auth) {
@@ -53,7 +62,11 @@ public class OrderController {
     @GetMapping("/{id}")
     public OrderResponse getOrderById(@PathVariable Long id, Authentication auth) {
         User me = currentUser(auth);
-        Order order = orderService.getOrderForUserStrict(id, me.getId());
+        Order order = orderService.findOrderForUserStrict(id, me.getId()).orElse(null);
+        if (order == null) {
+            // 🗄️ old terminal orders are served from the archive (same 404 / 403 rules)
+            return orderMapper.toDto(orderArchive.getForUserStrict(id, me.getId()));
+        }
 
         // fetch payment (may not exist yet)
         Payment payment = paymentRepo.findByOrder_Id(order.getId()).orElse(null);
@@ -66,7 +79,9 @@ public class OrderController {
     @GetMapping("/{id}/status")
     public String getOrderStatus(@PathVariable Long id, Authentication auth) {
         User me = currentUser(auth);
-        return orderService.getOrderForUserStrict(id, me.getId()).getStatus().name();
+        return orderService.findOrderForUserStrict(id, me.getId())
+                .map(o -> o.getStatus().name())
+                .orElseGet(() -> orderArchive.getForUserStrict(id, me.getId()).order.status);
     }
 
     // ✅ (Optional) Download invoice — ownership enforced exactly the same way
@@ -78,7 +93,7 @@ public class OrderController {
         throw new ResponseStatusException(HttpStatus.NOT_IMPLEMENTED, "Invoice generation not implemented");
     }
 
-    // ✅ Create order (force logged-in user)
+    // ✅ Create order (force logged-in user); amounts in the request are ignored, a codFee > 0 only asks for COD
     @PostMapping("/create")
     public Order createOrder(@RequestBody OrderRequest req, Authentication auth) {
         User me = currentUser(auth);
@@ -88,28 +103,34 @@ public class OrderController {
                 req.getPhone(),
                 req.getShippingAddress(),
                 req.getItems(),
-                req.getSubtotal(),
-                req.getShippingFee(),
-                req.getCodFee(),
-                req.getDiscount()
+                req.getCodFee() > 0
         );
     }
 
-    // ✅ Get orders for a user (block access to others)
+    // ✅ Get orders for a user (block access to others); live and archived ones as summaries, newest first
     @GetMapping("/user/{userId}")
-    public List<Order> getOrdersForUser(@PathVariable Long userId, Authentication auth) {
+    public List<OrderSummaryDTO> getOrdersForUser(@PathVariable Long userId, Authentication auth) {
         User me = currentUser(auth);
         if (!me.getId().equals(userId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You cannot access another user's orders");
         }
-        return orderService.getOrdersByUserId(userId);
+        return summaries(userId);
     }
 
     // ✅ Get my orders (no params, safest)
     @GetMapping("/my")
-    public List<Order> getMyOrders(Authentication auth) {
+    public List<OrderSummaryDTO> getMyOrders(Authentication auth) {
         User me = currentUser(auth);
-        return orderRepo.findByUser_Id(me.getId());
+        return summaries(me.getId());
+    }
+
+    // both queries come back newest first, so one merge pass keeps the whole list in createdAt order
+    private List<OrderSummaryDTO> summaries(Long userId) {
+        List<OrderSummaryDTO> live = orderService.getOrdersByUserId(userId).stream()
+                .map(OrderSummaryDTO::from).toList();
+        List<OrderSummaryDTO> archived = archivedOrderRepo.findByUserIdOrderByCreatedAtDescIdDesc(userId).stream()
+                .map(OrderSummaryDTO::from).toList();
+        return OrderSummaryDTO.merge(live, archived);
     }
 
     // ✅ Finalize order (ownership enforced)
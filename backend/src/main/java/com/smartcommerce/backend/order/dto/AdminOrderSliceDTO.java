@@ -0,0 +1,47 @@
+package com.smartcommerce.backend.order.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * One keyset page of the admin order list: no total count, just whether more rows follow and the
+ * opaque cursor to pass back as {@code ?cursor=} for them.
+ */
+public class AdminOrderSliceDTO {
+    public List<AdminOrderDTO> content;
+    public int size;
+    public boolean hasNext;
+    public String nextCursor;      // null on the last slice
+
+    public static AdminOrderSliceDTO of(List<AdminOrderDTO> content, int size, boolean hasNext) {
+        AdminOrderSliceDTO dto = new AdminOrderSliceDTO();
+        dto.content = content;
+        dto.size = size;
+        dto.hasNext = hasNext;
+        if (hasNext && !content.isEmpty()) {
+            AdminOrderDTO last = content.get(content.size() - 1);
+            dto.nextCursor = encodeCursor(last.createdAt, last.id);
+        }
+        return dto;
+    }
+
+    // 🔑 Cursor = base64url("<createdAt ISO>,<id>"); full Instant precision so equal timestamps page correctly
+    public static String encodeCursor(Instant createdAt, Long id) {
+        String raw = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            return new Cursor(Instant.parse(raw.substring(0, comma)), Long.parseLong(raw.substring(comma + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public record Cursor(Instant createdAt, Long id) {}
+}
@@ -1,8 +1,10 @@
 package com.smartcommerce.backend.order.dto;
 
+import com.smartcommerce.backend.order.archive.OrderSnapshot;
 import com.smartcommerce.backend.order.entity.Order;
 import com.smartcommerce.backend.order.entity.OrderItem;
 import com.smartcommerce.backend.order.entity.Payment;
+import com.smartcommerce.backend.order.entity.ShippingAddress;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -38,6 +40,54 @@ public class OrderMapper {
         );
     }
 
+    // 🗄️ Archived order: same response shape, built from its snapshot
+    public OrderResponse toDto(OrderSnapshot s) {
+        AdminOrderDTO o = s.order;
+
+        List<OrderItemDTO> items = s.lines != null
+                ? s.lines.stream()
+                .map(l -> new OrderItemDTO(l.id, l.productName, l.quantity, l.price, l.productPhoto))
+                .collect(Collectors.toList())
+                : List.of();
+
+        PaymentDTO paymentDto = null;
+        if (s.payment != null) {
+            OrderSnapshot.PaymentSnapshot p = s.payment;
+            paymentDto = new PaymentDTO(
+                    p.gateway,
+                    p.method,
+                    p.status,
+                    p.razorpayPaymentId != null ? p.razorpayPaymentId : p.referenceId,
+                    p.amount != null ? p.amount : 0L,
+                    p.currency
+            );
+        }
+
+        return new OrderResponse(
+                o.id,
+                o.status,
+                o.totalPayable,
+                o.customerName,
+                o.phone,
+                o.shippingAddress != null ? new ShippingAddressDTO(toAddress(o.shippingAddress)) : null,
+                items,
+                paymentDto
+        );
+    }
+
+    private static ShippingAddress toAddress(AdminOrderDTO.ShippingAddressDTO dto) {
+        ShippingAddress sa = new ShippingAddress();
+        sa.setHouseNo(dto.houseNo);
+        sa.setArea(dto.area);
+        sa.setLandmark(dto.landmark);
+        sa.setCity(dto.city);
+        sa.setState(dto.state);
+        sa.setCountry(dto.country);
+        sa.setPinCode(dto.pinCode);
+        sa.setType(dto.type);
+        return sa;
+    }
+
     private OrderItemDTO mapItem(OrderItem item) {
         return new OrderItemDTO(
                 item.getId(),
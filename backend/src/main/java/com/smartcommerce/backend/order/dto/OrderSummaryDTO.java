@@ -0,0 +1,58 @@
+package com.smartcommerce.backend.order.dto;
+
+import com.smartcommerce.backend.order.entity.ArchivedOrder;
+import com.smartcommerce.backend.order.entity.Order;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One row of a user's order list, the same shape for live orders and archived ones; the full order is
+ * {@code GET /api/orders/{id}} either way.
+ */
+public class OrderSummaryDTO {
+    public Long id;
+    public String status;
+    public Instant createdAt;
+    public Long totalPayable;      // paise
+    public boolean archived;
+
+    // newest first; id breaks ties so the order is stable
+    public static final Comparator<OrderSummaryDTO> NEWEST_FIRST =
+            Comparator.comparing((OrderSummaryDTO s) -> s.createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                    .thenComparing(s -> s.id, Comparator.reverseOrder());
+
+    public static OrderSummaryDTO from(Order o) {
+        OrderSummaryDTO dto = new OrderSummaryDTO();
+        dto.id = o.getId();
+        dto.status = o.getStatus().name();
+        dto.createdAt = o.getCreatedAt();
+        dto.totalPayable = o.getTotalPayable();
+        dto.archived = false;
+        return dto;
+    }
+
+    public static OrderSummaryDTO from(ArchivedOrder a) {
+        OrderSummaryDTO dto = new OrderSummaryDTO();
+        dto.id = a.getId();
+        dto.status = a.getStatus().name();
+        dto.createdAt = a.getCreatedAt();
+        dto.totalPayable = a.getTotalPayable();
+        dto.archived = true;
+        return dto;
+    }
+
+    /** Merges two lists that are each already NEWEST_FIRST into one NEWEST_FIRST list. */
+    public static List<OrderSummaryDTO> merge(List<OrderSummaryDTO> a, List<OrderSummaryDTO> b) {
+        List<OrderSummaryDTO> all = new ArrayList<>(a.size() + b.size());
+        int i = 0, j = 0;
+        while (i < a.size() && j < b.size()) {
+            all.add(NEWEST_FIRST.compare(a.get(i), b.get(j)) <= 0 ? a.get(i++) : b.get(j++));
+        }
+        all.addAll(a.subList(i, a.size()));
+        all.addAll(b.subList(j, b.size()));
+        return all;
+    }
+}
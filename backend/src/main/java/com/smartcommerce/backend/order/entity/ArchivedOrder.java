@@ -0,0 +1,77 @@
+package com.smartcommerce.backend.order.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Index row of an order moved out of the hot {@code orders} table by OrderArchiver. Only the columns
+ * lists and lookups need live here; the full order (items, address, payment) is a compressed
+ * snapshot in the monthly table {@code orders_archive_<yyyymm>} named by {@link #archiveMonth}.
+ */
+@Entity
+@Table(
+        name = "orders_archive",
+        indexes = {
+                @Index(name = "idx_archive_user_created", columnList = "userId, createdAt"),
+                @Index(name = "idx_archive_status_created", columnList = "status, createdAt"),
+                @Index(name = "idx_archive_created", columnList = "createdAt"),
+                @Index(name = "idx_archive_month", columnList = "archiveMonth")
+        }
+)
+public class ArchivedOrder {
+
+    @Id
+    private Long id;                // the original order id (ids are never reused)
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private String customerName;
+
+    private Long totalPayable;      // paise
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private Order.OrderStatus status;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    @Column(nullable = false)
+    private Integer archiveMonth;   // yyyymm of createdAt (UTC)
+
+    // --- Getters / Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getCustomerName() { return customerName; }
+    public void setCustomerName(String customerName) { this.customerName = customerName; }
+
+    public Long getTotalPayable() { return totalPayable; }
+    public void setTotalPayable(Long totalPayable) { this.totalPayable = totalPayable; }
+
+    public Order.OrderStatus getStatus() { return status; }
+    public void setStatus(Order.OrderStatus status) { this.status = status; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    public Instant getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(Instant archivedAt) { this.archivedAt = archivedAt; }
+
+    public Integer getArchiveMonth() { return archiveMonth; }
+    public void setArchiveMonth(Integer archiveMonth) { this.archiveMonth = archiveMonth; }
+}
@@ -9,12 +9,22 @@ import java.util.List;
 import java.util.Objects;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders",
+        // InnoDB secondary indexes end in the PK: (status, id) serves the reaper/archiver keyset walk,
+        // (status, created_at, id) and (user_id, created_at, id) the admin list filters and its keyset pages,
+        // (created_at, id) the unfiltered and date-range-only list
+        indexes = {
+                @Index(name = "idx_orders_status", columnList = "status"),
+                @Index(name = "idx_orders_created", columnList = "createdAt"),
+                @Index(name = "idx_orders_status_created", columnList = "status, createdAt"),
+                @Index(name = "idx_orders_user_created", columnList = "user_id, createdAt")
+        })
 public class Order {
 
     public enum OrderStatus {
         DRAFT, PAYMENT_PENDING, PAID, CONFIRMED,
-        PACKED, SHIPPED, DELIVERED, CANCELLED, FAILED, REFUND_PENDING, REFUNDED
+        PACKED, SHIPPED, DELIVERED, CANCELLED, FAILED, REFUND_PENDING, REFUNDED,
+        EXPIRED // abandoned DRAFT / PAYMENT_PENDING, closed by OrderReaper
     }
 
     @Id
@@ -38,6 +48,9 @@ public class Order {
     private Long discount;
     private Long totalPayable;
 
+    @Column(length = 40)
+    private String couponCode;     // as applied at draft time (null = none)
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 32)
     private OrderStatus status;
@@ -93,6 +106,9 @@ public class Order {
     public Long getTotalPayable() { return totalPayable; }
     public void setTotalPayable(Long totalPayable) { this.totalPayable = totalPayable; }
 
+    public String getCouponCode() { return couponCode; }
+    public void setCouponCode(String couponCode) { this.couponCode = couponCode; }
+
     public OrderStatus getStatus() { return status; }
     public void setStatus(OrderStatus status) { this.status = status; }
 
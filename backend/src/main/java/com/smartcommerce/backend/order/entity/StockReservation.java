@@ -0,0 +1,91 @@
+package com.smartcommerce.backend.order.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Stock held for a draft order. Stock is decremented when the hold is taken, so capturing
+ * payment only flips HELD -> CONSUMED; RELEASED puts the quantity back on the product.
+ */
+@Entity
+@Table(
+        name = "stock_reservations",
+        indexes = {
+                @Index(name = "idx_resv_order", columnList = "orderId, status"),
+                @Index(name = "idx_resv_expiry", columnList = "status, expiresAt")
+        }
+)
+public class StockReservation {
+
+    public enum Status {
+        HELD, CONSUMED, RELEASED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.HELD;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    private Instant updatedAt;
+
+    public StockReservation() {}
+
+    public StockReservation(Long orderId, Long productId, Integer quantity, Instant expiresAt) {
+        this.orderId = orderId;
+        this.productId = productId;
+        this.quantity = quantity;
+        this.expiresAt = expiresAt;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = Instant.now();
+    }
+
+    // --- Getters / Setters ---
+    public Long getId() { return id; }
+
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+
+    public Integer getQuantity() { return quantity; }
+    public void setQuantity(Integer quantity) { this.quantity = quantity; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    public Instant getCreatedAt() { return createdAt; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,109 @@
+package com.smartcommerce.backend.order.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * Raw, signature-verified Razorpay webhook, stored before any processing.
+ * eventId is the dedupe key (X-Razorpay-Event-Id, or a body hash); laneKey groups events that
+ * must be applied in arrival order (the razorpayOrderId when the payload carries one).
+ */
+@Entity
+@Table(
+        name = "webhook_events",
+        uniqueConstraints = @UniqueConstraint(name = "uk_webhook_event_id", columnNames = "eventId"),
+        indexes = {
+                @Index(name = "idx_webhook_due", columnList = "status, nextAttemptAt, id"),
+                @Index(name = "idx_webhook_lane", columnList = "laneKey, status")
+        }
+)
+public class WebhookEvent {
+
+    public enum Status {
+        PENDING, PROCESSING, DONE, FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 80)
+    private String eventId;
+
+    @Column(nullable = false, length = 64)
+    private String eventType;
+
+    @Column(nullable = false, length = 80)
+    private String laneKey;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(length = 255)
+    private String signature;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.PENDING;
+
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    private Instant claimedAt;
+
+    @Column(nullable = false, updatable = false)
+    private Instant receivedAt;
+
+    private Instant processedAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @PrePersist
+    protected void onCreate() {
+        this.receivedAt = Instant.now();
+        if (this.nextAttemptAt == null) this.nextAttemptAt = this.receivedAt;
+    }
+
+    // --- Getters / Setters ---
+    public Long getId() { return id; }
+
+    public String getEventId() { return eventId; }
+    public void setEventId(String eventId) { this.eventId = eventId; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public String getLaneKey() { return laneKey; }
+    public void setLaneKey(String laneKey) { this.laneKey = laneKey; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public String getSignature() { return signature; }
+    public void setSignature(String signature) { this.signature = signature; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public Instant getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(Instant nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public Instant getClaimedAt() { return claimedAt; }
+    public void setClaimedAt(Instant claimedAt) { this.claimedAt = claimedAt; }
+
+    public Instant getReceivedAt() { return receivedAt; }
+
+    public Instant getProcessedAt() { return processedAt; }
+    public void setProcessedAt(Instant processedAt) { this.processedAt = processedAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+}
@@ -0,0 +1,25 @@
+package com.smartcommerce.backend.order.gateway;
+
+import org.json.JSONObject;
+
+import java.util.List;
+
+/**
+ * Remote payment provider. Implementations are blocking and thread-safe; callers go through
+ * {@link PaymentGatewayClient}, which adds the deadline, circuit breaker and async variants.
+ * Never call these inside a DB transaction.
+ */
+public interface PaymentGateway {
+
+    /** Creates a provider order for {@code amountPaise} and returns its id. */
+    String createOrder(long amountPaise, String currency, String receipt) throws Exception;
+
+    /** Full provider payment entity (id, status, method, amount, upi/card/bank details...). */
+    JSONObject fetchPayment(String paymentId) throws Exception;
+
+    /** Every payment attempted against provider order {@code orderId} (empty when nobody tried to pay). */
+    List<JSONObject> fetchOrderPayments(String orderId) throws Exception;
+
+    /** Starts a refund of {@code amountPaise} and returns the refund id. */
+    String refund(String paymentId, long amountPaise) throws Exception;
+}
@@ -0,0 +1,186 @@
+package com.smartcommerce.backend.order.gateway;
+
+import com.smartcommerce.backend.config.PaymentGatewayProps;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The only way into {@link PaymentGateway}. Calls run on the bounded "paymentGatewayExecutor",
+ * so a slow provider ties up gateway threads, not request threads or DB connections:
+ * <ul>
+ *   <li>{@code *Async} methods return at once; the blocking ones wait at most {@code app.payment.call-timeout}.</li>
+ *   <li>After {@code breaker-failure-threshold} consecutive failures the circuit opens and calls fail fast
+ *       for {@code breaker-open-for}; then a single probe call decides whether it closes again.</li>
+ *   <li>Provider "bad request" answers (e.g. already refunded) are results, not outages, and don't count.</li>
+ * </ul>
+ */
+@Component
+public class PaymentGatewayClient {
+
+    private final PaymentGateway gateway;
+    private final Executor executor;
+    private final PaymentGatewayProps props;
+
+    // circuit breaker
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicBoolean probing = new AtomicBoolean();
+    private volatile long openUntil; // epoch ms, 0 = closed
+
+    // metrics (since start)
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public PaymentGatewayClient(PaymentGateway gateway,
+                                @Qualifier("paymentGatewayExecutor") Executor executor,
+                                PaymentGatewayProps props) {
+        this.gateway = gateway;
+        this.executor = executor;
+        this.props = props;
+    }
+
+    // ---------------- async ----------------
+
+    public CompletableFuture<String> createOrderAsync(long amountPaise, String currency, String receipt) {
+        return submit("createOrder", () -> gateway.createOrder(amountPaise, currency, receipt));
+    }
+
+    public CompletableFuture<JSONObject> fetchPaymentAsync(String paymentId) {
+        return submit("fetchPayment", () -> gateway.fetchPayment(paymentId));
+    }
+
+    public CompletableFuture<List<JSONObject>> fetchOrderPaymentsAsync(String orderId) {
+        return submit("fetchOrderPayments", () -> gateway.fetchOrderPayments(orderId));
+    }
+
+    public CompletableFuture<String> refundAsync(String paymentId, long amountPaise) {
+        return submit("refund", () -> gateway.refund(paymentId, amountPaise));
+    }
+
+    // ---------------- blocking (bounded by call-timeout) ----------------
+
+    public String createOrder(long amountPaise, String currency, String receipt) {
+        return await(createOrderAsync(amountPaise, currency, receipt));
+    }
+
+    public JSONObject fetchPayment(String paymentId) {
+        return await(fetchPaymentAsync(paymentId));
+    }
+
+    public String refund(String paymentId, long amountPaise) {
+        return await(refundAsync(paymentId, amountPaise));
+    }
+
+    public List<JSONObject> fetchOrderPayments(String orderId) {
+        return await(fetchOrderPaymentsAsync(orderId));
+    }
+
+    /** Background callers (e.g. OrderReaper) back off unless the circuit is fully closed. */
+    public boolean isClosed() {
+        return openUntil == 0;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("state", state());
+        m.put("consecutiveFailures", consecutiveFailures.get());
+        m.put("calls", calls.get());
+        m.put("failures", failures.get());
+        m.put("rejected", rejected.get());
+        m.put("timeouts", timeouts.get());
+        return m;
+    }
+
+    // ---------------- internals ----------------
+
+    private <T> CompletableFuture<T> submit(String op, Callable<T> call) {
+        if (!allowCall()) {
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new PaymentGatewayException("Payment gateway unavailable (circuit open)", null, true));
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                calls.incrementAndGet();
+                try {
+                    T value = call.call();
+                    onSuccess();
+                    result.complete(value);
+                } catch (Exception e) {
+                    if (isProviderRejection(e)) onSuccess(); else onFailure();
+                    result.completeExceptionally(new PaymentGatewayException(
+                            "Payment gateway " + op + " failed: " + e.getMessage(), e, false));
+                }
+            });
+        } catch (RejectedExecutionException full) {
+            probing.set(false);
+            rejected.incrementAndGet();
+            return CompletableFuture.failedFuture(
+                    new PaymentGatewayException("Payment gateway busy, try again", full, true));
+        }
+
+        return result
+                .orTimeout(props.getCallTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(e -> {
+                    if (e instanceof TimeoutException) {
+                        timeouts.incrementAndGet();
+                        return CompletableFuture.failedFuture(
+                                new PaymentGatewayException("Payment gateway " + op + " timed out", e, true));
+                    }
+                    return CompletableFuture.failedFuture(e);
+                });
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof PaymentGatewayException pge) throw pge;
+            throw new PaymentGatewayException("Payment gateway call failed", e.getCause(), false);
+        }
+    }
+
+    private boolean allowCall() {
+        if (openUntil == 0) return true;
+        if (System.currentTimeMillis() < openUntil) return false;
+        return probing.compareAndSet(false, true); // half-open: one probe at a time
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        openUntil = 0;
+        probing.set(false);
+    }
+
+    private void onFailure() {
+        failures.incrementAndGet();
+        int n = consecutiveFailures.incrementAndGet();
+        if (probing.getAndSet(false) || n >= props.getBreakerFailureThreshold()) {
+            openUntil = System.currentTimeMillis() + props.getBreakerOpenFor().toMillis();
+        }
+    }
+
+    private String state() {
+        long until = openUntil;
+        if (until == 0) return "CLOSED";
+        return System.currentTimeMillis() < until ? "OPEN" : "HALF_OPEN";
+    }
+
+    // Razorpay reports validation/business errors as "BAD_REQUEST_ERROR:<description>"
+    private static boolean isProviderRejection(Exception e) {
+        String msg = e.getMessage();
+        return msg != null && msg.startsWith("BAD_REQUEST_ERROR");
+    }
+}
@@ -0,0 +1,17 @@
+package com.smartcommerce.backend.order.gateway;
+
+/** A gateway call failed, timed out, or was refused because the circuit is open / the pool is full. */
+public class PaymentGatewayException extends RuntimeException {
+
+    private final boolean unavailable;
+
+    public PaymentGatewayException(String message, Throwable cause, boolean unavailable) {
+        super(message, cause);
+        this.unavailable = unavailable;
+    }
+
+    /** True when the call never reached the provider (circuit open, saturated) or timed out. */
+    public boolean isUnavailable() {
+        return unavailable;
+    }
+}
@@ -0,0 +1,97 @@
+package com.smartcommerce.backend.order.gateway;
+
+import com.razorpay.RazorpayClient;
+import com.smartcommerce.backend.config.PaymentGatewayProps;
+import com.smartcommerce.backend.config.RazorpayProps;
+import okhttp3.OkHttpClient;
+import org.json.JSONObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Razorpay over one shared {@link RazorpayClient}. The SDK keeps a single static OkHttp client
+ * (connection pool + TLS setup) that every {@code new RazorpayClient} rebuilds, with fixed 60s
+ * timeouts; so the client is built once, and its OkHttp client is re-derived once with our timeouts.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "razorpay", matchIfMissing = true)
+public class RazorpayPaymentGateway implements PaymentGateway {
+
+    private final RazorpayProps keys;
+    private final PaymentGatewayProps props;
+    private volatile RazorpayClient client;
+
+    public RazorpayPaymentGateway(RazorpayProps keys, PaymentGatewayProps props) {
+        this.keys = keys;
+        this.props = props;
+    }
+
+    @Override
+    public String createOrder(long amountPaise, String currency, String receipt) throws Exception {
+        JSONObject req = new JSONObject(Map.of(
+                "amount", amountPaise,
+                "currency", currency,
+                "receipt", receipt,
+                "payment_capture", 1
+        ));
+        com.razorpay.Order rzpOrder = client().orders.create(req);
+        return rzpOrder.get("id");
+    }
+
+    @Override
+    public JSONObject fetchPayment(String paymentId) throws Exception {
+        return client().payments.fetch(paymentId).toJson();
+    }
+
+    @Override
+    public List<JSONObject> fetchOrderPayments(String orderId) throws Exception {
+        return client().orders.fetchPayments(orderId).stream().map(com.razorpay.Payment::toJson).toList();
+    }
+
+    @Override
+    public String refund(String paymentId, long amountPaise) throws Exception {
+        JSONObject req = new JSONObject();
+        req.put("amount", amountPaise);
+        req.put("speed", "optimum");
+        return client().payments.refund(paymentId, req).get("id");
+    }
+
+    // Lazy: keys are often blank in dev, and a broken client must not stop the app from starting
+    private RazorpayClient client() throws Exception {
+        RazorpayClient c = client;
+        if (c == null) {
+            synchronized (this) {
+                c = client;
+                if (c == null) {
+                    c = new RazorpayClient(keys.getKeyId(), keys.getKeySecret());
+                    applyTimeouts();
+                    client = c;
+                }
+            }
+        }
+        return c;
+    }
+
+    // SDK has no timeout setting; derive from its client so TLS factory, interceptors and pool are kept
+    private void applyTimeouts() {
+        try {
+            Field f = Class.forName("com.razorpay.ApiUtils").getDeclaredField("client");
+            f.setAccessible(true);
+            OkHttpClient sdk = (OkHttpClient) f.get(null);
+            if (sdk == null) return;
+            f.set(null, sdk.newBuilder()
+                    .connectTimeout(props.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .readTimeout(props.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .writeTimeout(props.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .build());
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Still bounded for callers by app.payment.call-timeout
+            System.err.println("⚠️ Could not apply Razorpay HTTP timeouts: " + e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.smartcommerce.backend.order.gateway;
+
+import com.smartcommerce.backend.config.PaymentGatewayProps;
+import org.json.JSONObject;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Offline gateway for local runs and load tests (app.payment.gateway=stub). Orders and refunds
+ * get fake ids; every fetched payment is a captured UPI payment (no amount, so the
+ * stored order amount stands), but no provider order has payments of its own, so abandoned
+ * orders reconcile as unpaid.
+ * {@code app.payment.stub-latency} simulates the provider round trip.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "stub")
+public class StubPaymentGateway implements PaymentGateway {
+
+    private final PaymentGatewayProps props;
+
+    public StubPaymentGateway(PaymentGatewayProps props) {
+        this.props = props;
+    }
+
+    @Override
+    public String createOrder(long amountPaise, String currency, String receipt) throws Exception {
+        pause();
+        return "order_stub_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+    }
+
+    @Override
+    public JSONObject fetchPayment(String paymentId) throws Exception {
+        pause();
+        JSONObject json = new JSONObject();
+        json.put("id", paymentId);
+        json.put("status", "captured");
+        json.put("method", "upi");
+        json.put("upi", new JSONObject(Map.of("vpa", "stub@upi")));
+        json.put("acquirer_data", new JSONObject(Map.of("upi_transaction_id", "stub-" + paymentId)));
+        return json;
+    }
+
+    @Override
+    public List<JSONObject> fetchOrderPayments(String orderId) throws Exception {
+        pause();
+        return List.of();
+    }
+
+    @Override
+    public String refund(String paymentId, long amountPaise) throws Exception {
+        pause();
+        return "rfnd_stub_" + UUID.randomUUID().toString().replace("-", "").substring(0, 14);
+    }
+
+    private void pause() throws InterruptedException {
+        long ms = props.getStubLatency().toMillis();
+        if (ms > 0) Thread.sleep(ms);
+    }
+}
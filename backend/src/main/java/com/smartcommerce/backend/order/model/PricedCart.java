@@ -0,0 +1,25 @@
+package com.smartcommerce.backend.order.model;
+
+import com.smartcommerce.backend.order.entity.OrderItem;
+import com.smartcommerce.backend.product.entity.Product;
+
+import java.util.List;
+import java.util.Map;
+
+/** Result of the bulk cart pricing stage: order-item snapshots + subtotal (paise). */
+public class PricedCart {
+    private final List<OrderItem> items;
+    private final long subtotal;                 // paise
+    private final Map<Long, Product> products;   // productId → product used for pricing
+
+    public PricedCart(List<OrderItem> items, long subtotal, Map<Long, Product> products) {
+        this.items = items;
+        this.subtotal = subtotal;
+        this.products = products;
+    }
+
+    public List<OrderItem> getItems() { return items; }
+    public long getSubtotal() { return subtotal; }
+    public Map<Long, Product> getProducts() { return products; }
+    public Product getProduct(Long productId) { return products.get(productId); }
+}
@@ -0,0 +1,29 @@
+package com.smartcommerce.backend.order.repository;
+
+import com.smartcommerce.backend.order.entity.ArchivedOrder;
+import com.smartcommerce.backend.order.entity.Order;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+// 🔍 Admin list of the archive: OrderSpecs.archived, same filters as the hot list
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long>, JpaSpecificationExecutor<ArchivedOrder> {
+
+    // 🔍 A user's archived orders, newest first (idx_archive_user_created)
+    List<ArchivedOrder> findByUserIdOrderByCreatedAtDescIdDesc(Long userId);
+
+    // 📊 Orders per monthly table
+    @Query("select a.archiveMonth as archiveMonth, count(a) as orders from ArchivedOrder a " +
+            "group by a.archiveMonth order by a.archiveMonth")
+    List<MonthCount> countByMonth();
+
+    interface MonthCount {
+        Integer getArchiveMonth();
+        Long getOrders();
+    }
+}
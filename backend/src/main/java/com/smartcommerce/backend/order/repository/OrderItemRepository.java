@@ -2,7 +2,17 @@ package com.smartcommerce.backend.order.repository;
 
 import com.smartcommerce.backend.order.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     void deleteAllByOrderId(Long orderId);
+
+    // 🧹 One statement for a whole reaper batch
+    @Modifying
+    @Query("delete from OrderItem i where i.order.id in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
@@ -1,16 +1,19 @@
 package com.smartcommerce.backend.order.repository;
 
 import com.smartcommerce.backend.order.entity.Order;
-import org.springframework.data.domain.Page;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+// 🔍 Admin list filters are built with OrderSpecs (only the given predicates, index-friendly)
+public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
 
     // 🔍 Filter by status
     List<Order> findByStatus(Order.OrderStatus status);
@@ -18,24 +21,54 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     // 🔍 Filter by userId (go through User entity)
     List<Order> findByUser_Id(Long userId);
 
+    // 🔍 A user's orders, newest first (idx_orders_user_created)
+    List<Order> findByUser_IdOrderByCreatedAtDescIdDesc(Long userId);
+
     // 🔍 Filter by date range
     List<Order> findByCreatedAtBetween(Instant start, Instant end);
 
-    // 🔍 Combine filters (with pagination)
-    @Query("select o from Order o " +
-            "where (:orderId is not null and o.id = :orderId) " +
-            "or (:orderId is null and " +
-            "     (:status is null or o.status = :status) " +
-            " and (:start is null or o.createdAt >= :start) " +
-            " and (:end is null or o.createdAt <= :end) " +
-            " and (:userId is null or o.user.id = :userId))")
-    Page<Order> filterOrders(@Param("status") Order.OrderStatus status,
-                             @Param("start") Instant start,
-                             @Param("end") Instant end,
-                             @Param("userId") Long userId,
-                             @Param("orderId") Long orderId,
-                             Pageable pageable);
-
     // ✅ Ownership-enforced lookup
     Optional<Order> findByIdAndUser_Id(Long id, Long userId);
+
+    // 🧹 Reaper / archiver keyset walk: stale orders of one status in id order (idx_orders_status is (status, id))
+    @Query("select o.id as id, o.razorpayOrderId as razorpayOrderId, o.createdAt as createdAt from Order o " +
+            "where o.status = :status and o.updatedAt < :cutoff and o.id > :afterId order by o.id")
+    List<StaleOrder> findStale(@Param("status") Order.OrderStatus status,
+                                  @Param("cutoff") Instant cutoff,
+                                  @Param("afterId") Long afterId,
+                                  Pageable page);
+
+    // 🔒 Re-check + lock before closing; rows a live checkout has locked are skipped, not waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // SKIP LOCKED
+    @Query("select o from Order o where o.id in :ids and o.status = :status and o.updatedAt < :cutoff")
+    List<Order> lockStale(@Param("ids") Collection<Long> ids,
+                          @Param("status") Order.OrderStatus status,
+                          @Param("cutoff") Instant cutoff);
+
+    // 🔁 A user's open drafts, locked; rows a confirm is holding right now are skipped (idx_orders_user_created)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2")) // SKIP LOCKED
+    @Query("select o from Order o where o.user.id = :userId and o.status = :status")
+    List<Order> lockByUserAndStatus(@Param("userId") Long userId, @Param("status") Order.OrderStatus status);
+
+    // 📦 Orders with their items in one query (archiver snapshots)
+    @Query("select distinct o from Order o left join fetch o.items where o.id in :ids")
+    List<Order> findWithItems(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("update Order o set o.status = :status, o.updatedAt = :now where o.id in :ids")
+    int updateStatus(@Param("ids") Collection<Long> ids,
+                     @Param("status") Order.OrderStatus status,
+                     @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from Order o where o.id in :ids and o.status = :status")
+    int deleteByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") Order.OrderStatus status);
+
+    interface StaleOrder {
+        Long getId();
+        String getRazorpayOrderId();
+        Instant getCreatedAt();
+    }
 }
@@ -0,0 +1,59 @@
+package com.smartcommerce.backend.order.repository;
+
+import com.smartcommerce.backend.order.entity.ArchivedOrder;
+import com.smartcommerce.backend.order.entity.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Admin order list filters. Only the filters actually given become predicates, so MySQL sees e.g.
+ * {@code status = ? and created_at >= ?} and can range-scan idx_orders_status_created, where the old
+ * {@code (:x is null or ...)} JPQL left it a full scan. With no filter, or a date range only,
+ * idx_orders_created serves the NEWEST_FIRST walk. An order id wins over every other filter.
+ */
+public final class OrderSpecs {
+
+    // 🔑 Keyset order: newest first, id breaks ties (both columns end the composite indexes)
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+
+    private OrderSpecs() {}
+
+    public static Specification<Order> filter(Order.OrderStatus status, Instant start, Instant end,
+                                              Long userId, Long orderId) {
+        return build(status, start, end, userId, orderId, root -> root.get("user").get("id"));
+    }
+
+    public static Specification<ArchivedOrder> archived(Order.OrderStatus status, Instant start, Instant end,
+                                                        Long userId, Long orderId) {
+        return build(status, start, end, userId, orderId, root -> root.get("userId"));
+    }
+
+    // ➡️ Rows after a keyset cursor in NEWEST_FIRST order
+    public static Specification<Order> olderThan(Instant createdAt, Long id) {
+        return (root, q, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+
+    private static <T> Specification<T> build(Order.OrderStatus status, Instant start, Instant end,
+                                              Long userId, Long orderId,
+                                              Function<Root<T>, Path<Long>> userIdPath) {
+        return (root, q, cb) -> {
+            if (orderId != null) return cb.equal(root.get("id"), orderId);
+            List<Predicate> ps = new ArrayList<>(4);
+            if (status != null) ps.add(cb.equal(root.get("status"), status));
+            if (userId != null) ps.add(cb.equal(userIdPath.apply(root), userId)); // FK column, no join
+            if (start != null) ps.add(cb.greaterThanOrEqualTo(root.get("createdAt"), start));
+            if (end != null) ps.add(cb.lessThanOrEqualTo(root.get("createdAt"), end));
+            return cb.and(ps.toArray(Predicate[]::new));
+        };
+    }
+}
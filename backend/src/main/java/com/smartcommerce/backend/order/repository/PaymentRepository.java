@@ -2,8 +2,14 @@ package com.smartcommerce.backend.order.repository;
 
 import com.smartcommerce.backend.order.entity.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -23,4 +29,20 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
     // 🔎 Find by linked order (used in OrderService.cancelOrder)
     Optional<Payment> findByOrder_Id(Long orderId);
+
+    // 📦 Payments of many orders (archiver snapshots)
+    List<Payment> findByOrder_IdIn(Collection<Long> orderIds);
+
+    // 🧹 Reaper: unpaid attempts of expired orders are closed as FAILED
+    @Modifying
+    @Query("update Payment p set p.status = :to, p.updatedAt = :now " +
+            "where p.order.id in :orderIds and p.status in :from")
+    int updateStatusByOrderIds(@Param("orderIds") Collection<Long> orderIds,
+                               @Param("from") Collection<Payment.PaymentStatus> from,
+                               @Param("to") Payment.PaymentStatus to,
+                               @Param("now") Instant now);
+
+    @Modifying
+    @Query("delete from Payment p where p.order.id in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
 }
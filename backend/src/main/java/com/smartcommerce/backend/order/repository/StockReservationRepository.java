@@ -0,0 +1,47 @@
+package com.smartcommerce.backend.order.repository;
+
+import com.smartcommerce.backend.order.entity.Order;
+import com.smartcommerce.backend.order.entity.StockReservation;
+import com.smartcommerce.backend.order.entity.StockReservation.Status;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    // 🔒 Held rows of one order, locked so consume/release/expiry cannot both win
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from StockReservation r where r.orderId = :orderId and r.status = :status order by r.id")
+    List<StockReservation> findForUpdate(@Param("orderId") Long orderId, @Param("status") Status status);
+
+    // 🔒 Held rows of many orders (reaper batches)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from StockReservation r where r.orderId in :orderIds and r.status = :status order by r.id")
+    List<StockReservation> findForUpdate(@Param("orderIds") Collection<Long> orderIds, @Param("status") Status status);
+
+    // ⏰ Expired holds, oldest first (batch-limited by the pageable); holds of orders in `keepFor`
+    //    (awaiting payment) are left alone, they are consumed or released with the order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from StockReservation r where r.status = :status and r.expiresAt < :now " +
+            "and not exists (select o.id from Order o where o.id = r.orderId and o.status = :keepFor) " +
+            "order by r.expiresAt, r.id")
+    List<StockReservation> findExpiredForUpdate(@Param("status") Status status,
+                                                @Param("now") Instant now,
+                                                @Param("keepFor") Order.OrderStatus keepFor,
+                                                Pageable page);
+
+    // 🧹 Reaper purge: rows of deleted (expired) orders
+    @Modifying
+    @Query("delete from StockReservation r where r.orderId in :orderIds")
+    int deleteByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+}
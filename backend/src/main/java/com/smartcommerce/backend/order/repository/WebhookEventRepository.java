@@ -0,0 +1,55 @@
+package com.smartcommerce.backend.order.repository;
+
+import com.smartcommerce.backend.order.entity.WebhookEvent;
+import com.smartcommerce.backend.order.entity.WebhookEvent.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface WebhookEventRepository extends JpaRepository<WebhookEvent, Long> {
+
+    // 🔎 Dedupe (Razorpay redelivers the same event id)
+    boolean existsByEventId(String eventId);
+
+    // 📬 Due events in arrival order
+    @Query("select e from WebhookEvent e where e.status = :status and e.nextAttemptAt <= :now order by e.id")
+    List<WebhookEvent> findDue(@Param("status") Status status, @Param("now") Instant now, Pageable page);
+
+    // 🚧 Lanes that must wait: an event is in flight, or an earlier one is waiting for its retry
+    @Query("select distinct e.laneKey from WebhookEvent e " +
+            "where e.status = :processing or (e.status = :pending and e.nextAttemptAt > :now)")
+    List<String> findBlockedLanes(@Param("now") Instant now,
+                                  @Param("pending") Status pending,
+                                  @Param("processing") Status processing);
+
+    @Modifying
+    @Query("update WebhookEvent e set e.status = :processing, e.claimedAt = :now where e.id = :id and e.status = :pending")
+    int claim(@Param("id") Long id, @Param("now") Instant now,
+              @Param("pending") Status pending, @Param("processing") Status processing);
+
+    @Modifying
+    @Query("update WebhookEvent e set e.status = :pending, e.claimedAt = null where e.id in :ids and e.status = :processing")
+    int unclaim(@Param("ids") Collection<Long> ids, @Param("pending") Status pending, @Param("processing") Status processing);
+
+    // ♻️ Worker died mid-event → back to PENDING
+    @Modifying
+    @Query("update WebhookEvent e set e.status = :pending, e.claimedAt = null where e.status = :processing and e.claimedAt < :before")
+    int requeueStuck(@Param("before") Instant before, @Param("pending") Status pending, @Param("processing") Status processing);
+
+    @Modifying
+    @Query("delete from WebhookEvent e where e.status = :done and e.receivedAt < :before")
+    int deleteDoneBefore(@Param("done") Status done, @Param("before") Instant before);
+
+    long countByStatus(Status status);
+
+    @Query("select min(e.receivedAt) from WebhookEvent e where e.status in :statuses")
+    Instant findOldestReceivedAt(@Param("statuses") Collection<Status> statuses);
+}
@@ -5,4 +5,7 @@ import java.util.List;
 
 public interface CartPort {
     List<CartLine> loadUserCart(String userId);
+
+    /** Empties the user's cart; DB rows are deleted in the caller's transaction. */
+    void clearUserCart(Long userId);
 }
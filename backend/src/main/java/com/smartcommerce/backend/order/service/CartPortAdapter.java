@@ -1,29 +1,31 @@
 package com.smartcommerce.backend.order.service;
 
-import com.smartcommerce.backend.cart.entity.CartItem;
-import com.smartcommerce.backend.cart.repository.CartItemRepository;
+import com.smartcommerce.backend.cart.store.CartStore;
 import com.smartcommerce.backend.order.model.CartLine;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 public class CartPortAdapter implements CartPort {
 
-    private final CartItemRepository cartItemRepo;
+    private final CartStore cartStore;
 
-    public CartPortAdapter(CartItemRepository cartItemRepo) {
-        this.cartItemRepo = cartItemRepo;
+    public CartPortAdapter(CartStore cartStore) {
+        this.cartStore = cartStore;
     }
 
     @Override
     public List<CartLine> loadUserCart(String userId) {
         Long uid = Long.valueOf(userId); // 🔑 your User.id is Long
-        List<CartItem> cartItems = cartItemRepo.findByUser_Id(uid);
+        List<CartLine> lines = new ArrayList<>();
+        cartStore.quantities(uid).forEach((productId, qty) -> lines.add(new CartLine(productId, qty)));
+        return lines;
+    }
 
-        return cartItems.stream()
-                .map(ci -> new CartLine(ci.getProduct().getId(), ci.getQuantity()))
-                .collect(Collectors.toList());
+    @Override
+    public void clearUserCart(Long userId) {
+        cartStore.clear(userId);
     }
 }
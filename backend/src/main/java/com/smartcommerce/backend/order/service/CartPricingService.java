@@ -0,0 +1,82 @@
+package com.smartcommerce.backend.order.service;
+
+import com.smartcommerce.backend.common.Money;
+import com.smartcommerce.backend.order.entity.OrderItem;
+import com.smartcommerce.backend.order.model.CartLine;
+import com.smartcommerce.backend.order.model.PricedCart;
+import com.smartcommerce.backend.product.cache.CatalogCache;
+import com.smartcommerce.backend.product.entity.Product;
+import com.smartcommerce.backend.product.entity.ProductPhoto;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prices a whole cart in one pass: all products (with photos) are fetched as one set
+ * keyed by product id instead of one product + one photo query per line.
+ * Does not check stock; callers decide how strict they need to be.
+ */
+@Service
+public class CartPricingService {
+
+    static final String PLACEHOLDER_PHOTO = "https://via.placeholder.com/300x300?text=No+Image";
+
+    static final long FREE_SHIPPING_FROM = 49900;   // paise
+    static final long SHIPPING_FEE = 4900;
+    static final long COD_FEE = 3000;
+
+    private final CatalogCache catalogCache;
+
+    public CartPricingService(CatalogCache catalogCache) {
+        this.catalogCache = catalogCache;
+    }
+
+    /** Shipping charged on a cart of this subtotal (paise). */
+    public static long shippingFee(long subtotal) {
+        return subtotal >= FREE_SHIPPING_FROM ? 0 : SHIPPING_FEE;
+    }
+
+    public static long codFee(boolean cod) {
+        return cod ? COD_FEE : 0;
+    }
+
+    public PricedCart price(List<CartLine> lines) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (CartLine line : lines) ids.add(line.getProductId());
+
+        // cache hits cost nothing, misses are loaded together (products + tags, then photos)
+        Map<Long, Product> products = catalogCache.getProducts(ids);
+
+        long subtotal = 0L;
+        List<OrderItem> items = new ArrayList<>(lines.size());
+
+        for (CartLine line : lines) {
+            Product p = products.get(line.getProductId());
+            if (p == null) throw new IllegalArgumentException("Product not found: " + line.getProductId());
+            if (line.getQty() <= 0) throw new IllegalArgumentException("Invalid quantity for product " + p.getId());
+
+            long pricePaise = p.getEffectivePricePaise(); // same rule and rounding as the cart page (Money)
+            subtotal = Math.addExact(subtotal, Money.times(pricePaise, line.getQty()));
+
+            OrderItem oi = new OrderItem();
+            oi.setProductId(p.getId());
+            oi.setProductName(p.getName());
+            oi.setPrice(pricePaise);
+            oi.setQuantity(line.getQty());
+            oi.setProductPhoto(primaryPhoto(p));
+            items.add(oi);
+        }
+
+        return new PricedCart(items, subtotal, products);
+    }
+
+    // photos are ordered by id, so the first one is the primary photo
+    private static String primaryPhoto(Product p) {
+        List<ProductPhoto> photos = p.getPhotos();
+        return (photos == null || photos.isEmpty()) ? PLACEHOLDER_PHOTO : photos.get(0).getPhotoUrl();
+    }
+}
@@ -5,21 +5,18 @@ import com.smartcommerce.backend.auth.entity.Address;
 import com.smartcommerce.backend.auth.entity.User;
 import com.smartcommerce.backend.auth.repository.AddressRepository;
 import com.smartcommerce.backend.auth.repository.UserRepository;
-import com.smartcommerce.backend.cart.repository.CartItemRepository;
+import com.smartcommerce.backend.auth.security.PrincipalCache;
+import com.smartcommerce.backend.coupon.service.CouponService;
 import com.smartcommerce.backend.order.dto.CreateDraftRequest;
 import com.smartcommerce.backend.order.entity.Order;
 import com.smartcommerce.backend.order.entity.OrderItem;
 import com.smartcommerce.backend.order.entity.ShippingAddress;
 import com.smartcommerce.backend.order.model.CartLine;
+import com.smartcommerce.backend.order.model.PricedCart;
 import com.smartcommerce.backend.order.repository.OrderRepository;
-import com.smartcommerce.backend.product.entity.Product;
-import com.smartcommerce.backend.product.entity.ProductPhoto;
-import com.smartcommerce.backend.product.repository.ProductPhotoRepository;
-import com.smartcommerce.backend.product.repository.ProductRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -29,30 +26,30 @@ import java.util.Optional;
 public class CheckoutService {
 
     private final OrderRepository orderRepo;
-    private final ProductRepository productRepo;
-    private final ProductPhotoRepository productPhotoRepo;
     private final CartPort cartPort;
     private final CouponService couponService;
-    private final CartItemRepository cartItemRepo;
     private final UserRepository userRepo;
     private final AddressRepository addressRepo;
+    private final CartPricingService cartPricing;
+    private final StockReservationService stockReservations;
+    private final PrincipalCache principalCache;
 
     public CheckoutService(OrderRepository orderRepo,
-                           ProductRepository productRepo,
-                           ProductPhotoRepository productPhotoRepo,
                            CartPort cartPort,
                            CouponService couponService,
-                           CartItemRepository cartItemRepo,
                            UserRepository userRepo,
-                           AddressRepository addressRepo) {
+                           AddressRepository addressRepo,
+                           CartPricingService cartPricing,
+                           StockReservationService stockReservations,
+                           PrincipalCache principalCache) {
         this.orderRepo = orderRepo;
-        this.productRepo = productRepo;
-        this.productPhotoRepo = productPhotoRepo;
         this.cartPort = cartPort;
         this.couponService = couponService;
-        this.cartItemRepo = cartItemRepo;
         this.userRepo = userRepo;
         this.addressRepo = addressRepo;
+        this.cartPricing = cartPricing;
+        this.stockReservations = stockReservations;
+        this.principalCache = principalCache;
     }
 
     public Order getOrderById(Long id) {
@@ -75,38 +72,17 @@ public class CheckoutService {
             throw new IllegalArgumentException("Cart is empty");
         }
 
-        long subtotal = 0L;
-        List<OrderItem> items = new ArrayList<>();
+        // ---- Price all lines at once (set-based product + photo load) ----
+        PricedCart priced = cartPricing.price(cart);
 
-        for (CartLine line : cart) {
-            Product p = productRepo.findById(line.getProductId())
-                    .orElseThrow(() -> new IllegalArgumentException("Product not found: " + line.getProductId()));
+        long subtotal = priced.getSubtotal();
+        List<OrderItem> items = priced.getItems();
 
-            if (line.getQty() <= 0) throw new IllegalArgumentException("Invalid quantity for product " + p.getId());
-            if (p.getStock() == null || p.getStock() < line.getQty())
-                throw new IllegalStateException("Insufficient stock for product: " + p.getName());
-
-            long pricePaise = getProductPricePaise(p);
-            subtotal += pricePaise * line.getQty();
-
-            String photoUrl = productPhotoRepo.findByProduct_Id(p.getId()).stream()
-                    .findFirst()
-                    .map(ProductPhoto::getPhotoUrl)
-                    .orElse("https://via.placeholder.com/300x300?text=No+Image");
-
-            OrderItem oi = new OrderItem();
-            oi.setProductId(p.getId());
-            oi.setProductName(p.getName());
-            oi.setPrice(pricePaise);
-            oi.setQuantity(line.getQty());
-            oi.setProductPhoto(photoUrl);
-            items.add(oi);
-        }
-
-        long shipping = (subtotal >= 49900) ? 0 : 4900;
-        long codFee = "cod".equalsIgnoreCase(req.getPaymentMethod()) ? 3000 : 0;
-        long discount = couponService.computeDiscountPaise(
-                req.getCouponCode(), user.getId().toString(), items, subtotal);
+        long shipping = CartPricingService.shippingFee(subtotal);
+        long codFee = CartPricingService.codFee("cod".equalsIgnoreCase(req.getPaymentMethod()));
+        // coupon is evaluated from the in-memory rule index; its use is taken below with the stock hold
+        CouponService.Applied coupon = couponService.quote(req.getCouponCode(), user.getId(), priced);
+        long discount = coupon != null ? coupon.discountPaise() : 0;
         long total = Math.max(0, subtotal + shipping + codFee - discount);
 
         // ---- Build order snapshot address from DTO ----
@@ -135,6 +111,7 @@ public class CheckoutService {
         o.setShippingFee(shipping);
         o.setCodFee(codFee);
         o.setDiscount(discount);
+        o.setCouponCode(coupon != null ? coupon.code() : null);
         o.setTotalPayable(total);
         o.setStatus(Order.OrderStatus.DRAFT);
         o.setCreatedAt(Instant.now());
@@ -143,8 +120,13 @@ public class CheckoutService {
         items.forEach(it -> it.setOrder(o));
         o.setItems(items);
 
-        // ---- Persist order first ----
+        // ---- One open draft per user: earlier drafts give their holds back before new ones are taken ----
+        supersedeOpenDrafts(user.getId());
+
+        // ---- Persist order first, then hold its stock (TTL-bound; consumed on payment) ----
         Order savedOrder = orderRepo.save(o);
+        stockReservations.reserve(savedOrder);
+        if (coupon != null) couponService.hold(savedOrder, coupon);
 
         // ---- Deduplicate address before adding to user's saved addresses ----
         String houseNo = safe(a.getHouseNo());
@@ -182,62 +164,70 @@ public class CheckoutService {
 
         // Persist user (cascades address only if new)
         userRepo.save(user);
+        principalCache.invalidate(user.getId());
 
         return savedOrder;
     }
 
-    /** After online payment capture — decrement stock, mark PAID, clear cart. */
+    /**
+     * A retried checkout (or a script hammering create-draft) must not stack stock holds: the user's
+     * earlier DRAFTs become EXPIRED and their stock and coupon holds are released in this transaction, so a failed new
+     * draft rolls that back too. Drafts already in a payment (PAYMENT_PENDING) are left alone.
+     */
+    private void supersedeOpenDrafts(Long userId) {
+        List<Order> previous = orderRepo.lockByUserAndStatus(userId, Order.OrderStatus.DRAFT);
+        if (previous.isEmpty()) return;
+
+        Instant now = Instant.now();
+        List<Long> ids = new ArrayList<>(previous.size());
+        for (Order prev : previous) {
+            prev.setStatus(Order.OrderStatus.EXPIRED);
+            prev.setUpdatedAt(now);
+            ids.add(prev.getId());
+        }
+        stockReservations.release(ids);
+        couponService.release(ids);   // else maxUsesPerUser=1 blocks the retry until the hold expires
+    }
+
+    /** After online payment capture — consume held stock, mark PAID, clear cart. */
     @Transactional
     public Order markPaid(Order o) {
         if (o.getStatus() == Order.OrderStatus.PAID || o.getStatus() == Order.OrderStatus.CONFIRMED) {
             return o;
         }
 
-        o.getItems().forEach(oi -> {
-            Product p = productRepo.findByIdForUpdate(oi.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product missing: " + oi.getProductId()));
-
-            if (p.getStock() == null || p.getStock() < oi.getQuantity()) {
-                throw new IllegalStateException("Insufficient stock for " + p.getName());
-            }
-
-            p.setStock(p.getStock() - oi.getQuantity());
-            p.setInStock(p.getStock() > 0);
-            productRepo.save(p);
-        });
+        // consume the draft-time hold; only uncovered quantities are decremented here
+        stockReservations.commit(o);
+        couponService.commit(o.getId(), true);
 
         o.setStatus(Order.OrderStatus.PAID);
         o.setUpdatedAt(Instant.now());
         Order saved = orderRepo.save(o);
 
         if (o.getUser() != null && o.getUser().getId() != null) {
-            cartItemRepo.deleteByUser_Id(o.getUser().getId());
+            cartPort.clearUserCart(o.getUser().getId());
         }
         return saved;
     }
 
-    /** COD: decrement stock and mark CONFIRMED. */
+    /** COD: consume held stock and mark CONFIRMED. */
     @Transactional
     public Order confirmCOD(Order o) {
         if (o.getStatus() == Order.OrderStatus.CONFIRMED) return o;
+        if (!isOpen(o)) {
+            throw new IllegalArgumentException("Order is no longer open (" + o.getStatus() + "), please check out again");
+        }
 
-        o.getItems().forEach(oi -> {
-            Product p = productRepo.findByIdForUpdate(oi.getProductId())
-                    .orElseThrow(() -> new RuntimeException("Product missing: " + oi.getProductId()));
-            if (p.getStock() == null || p.getStock() < oi.getQuantity()) {
-                throw new IllegalStateException("Insufficient stock for " + p.getName());
-            }
-            p.setStock(p.getStock() - oi.getQuantity());
-            p.setInStock(p.getStock() > 0);
-            productRepo.save(p);
-        });
+        // consume the draft-time hold; only uncovered quantities are decremented here
+        stockReservations.commit(o);
+        couponService.commit(o.getId(), false);
 
         o.setStatus(Order.OrderStatus.CONFIRMED);
         o.setUpdatedAt(Instant.now());
         Order saved = orderRepo.save(o);
 
         if (o.getUser() != null && o.getUser().getId() != null) {
-            cartItemRepo.deleteByUser_Id(o.getUser().getId());
+            cartPort.clearUserCart(o.getUser().getId());
         }
         return saved;
     }
@@ -270,14 +260,9 @@ public class CheckoutService {
     }
 
     // -------- helpers --------
-    private long toPaise(BigDecimal rupees) {
-        if (rupees == null) return 0L;
-        return rupees.movePointRight(2).longValue();
-    }
-
-    private long getProductPricePaise(Product p) {
-        BigDecimal effective = (p.getDiscountPrice() != null) ? p.getDiscountPrice() : p.getPrice();
-        return toPaise(effective);
+    /** DRAFT or PAYMENT_PENDING: still holds stock and may be paid / confirmed. */
+    public static boolean isOpen(Order o) {
+        return o.getStatus() == Order.OrderStatus.DRAFT || o.getStatus() == Order.OrderStatus.PAYMENT_PENDING;
     }
 
     private static boolean isBlank(String s) {
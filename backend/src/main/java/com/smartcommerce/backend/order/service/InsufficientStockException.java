@@ -0,0 +1,38 @@
+package com.smartcommerce.backend.order.service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/** Thrown when one or more lines cannot be covered by current stock; carries every shortfall, not just the first. */
+public class InsufficientStockException extends IllegalStateException {
+
+    private final List<Shortfall> shortfalls;
+
+    public InsufficientStockException(List<Shortfall> shortfalls) {
+        super("Insufficient stock for " + shortfalls.stream()
+                .map(Shortfall::getProductName)
+                .collect(Collectors.joining(", ")));
+        this.shortfalls = List.copyOf(shortfalls);
+    }
+
+    public List<Shortfall> getShortfalls() { return shortfalls; }
+
+    public static class Shortfall {
+        private final Long productId;
+        private final String productName;
+        private final int requested;
+        private final int available;
+
+        public Shortfall(Long productId, String productName, int requested, int available) {
+            this.productId = productId;
+            this.productName = productName;
+            this.requested = requested;
+            this.available = available;
+        }
+
+        public Long getProductId() { return productId; }
+        public String getProductName() { return productName; }
+        public int getRequested() { return requested; }
+        public int getAvailable() { return available; }
+    }
+}
@@ -0,0 +1,361 @@
+package com.smartcommerce.backend.order.service;
+
+import com.smartcommerce.backend.config.OrderReaperProps;
+import com.smartcommerce.backend.coupon.repository.CouponRedemptionRepository;
+import com.smartcommerce.backend.coupon.service.CouponService;
+import com.smartcommerce.backend.order.entity.Order;
+import com.smartcommerce.backend.order.entity.Order.OrderStatus;
+import com.smartcommerce.backend.order.entity.Payment;
+import com.smartcommerce.backend.order.entity.Payment.PaymentStatus;
+import com.smartcommerce.backend.order.gateway.PaymentGatewayClient;
+import com.smartcommerce.backend.order.gateway.PaymentGatewayException;
+import com.smartcommerce.backend.order.repository.OrderItemRepository;
+import com.smartcommerce.backend.order.repository.OrderRepository;
+import com.smartcommerce.backend.order.repository.OrderRepository.StaleOrder;
+import com.smartcommerce.backend.order.repository.PaymentRepository;
+import com.smartcommerce.backend.order.repository.StockReservationRepository;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closes abandoned checkouts. Every {@code app.orders.reaper.interval}, on its own thread:
+ * <ol>
+ *   <li>DRAFT orders untouched for {@code draft-stale-after} become EXPIRED and their stock/coupon holds go back;</li>
+ *   <li>PAYMENT_PENDING orders untouched for {@code pending-stale-after} are first checked with the gateway:
+ *       captured → paid through {@link CheckoutService#markPaid}, authorized → left for the capture,
+ *       nothing paid → EXPIRED;</li>
+ *   <li>EXPIRED orders older than {@code purge-after} are deleted with their items, payments and holds.</li>
+ * </ol>
+ * Each phase walks its status by id (keyset, never OFFSET) in batches of {@code batch-size}, at most
+ * {@code max-batches-per-run} batches, sleeping {@code pause-between-batches} in between. A batch is one
+ * short transaction that locks its orders with SKIP LOCKED and re-checks them, so an order a live
+ * checkout is touching is left for the next run. Gateway calls run outside transactions, one at a time,
+ * at most {@code max-gateway-calls-per-run}, and only while the circuit breaker is closed.
+ * A late payment.captured webhook still finds the payment row of an EXPIRED order and marks it paid.
+ */
+@Service
+public class OrderReaper {
+
+    private final OrderRepository orderRepo;
+    private final OrderItemRepository itemRepo;
+    private final PaymentRepository paymentRepo;
+    private final StockReservationRepository reservationRepo;
+    private final CouponRedemptionRepository redemptionRepo;
+    private final StockReservationService stockReservations;
+    private final CouponService couponService;
+    private final CheckoutService checkoutService;
+    private final PaymentGatewayClient gateway;
+    private final OrderReaperProps props;
+    private final Executor executor;
+    private final TransactionTemplate tx;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // metrics (since start)
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong draftsExpired = new AtomicLong();
+    private final AtomicLong pendingExpired = new AtomicLong();
+    private final AtomicLong pendingPaid = new AtomicLong();
+    private final AtomicLong pendingInFlight = new AtomicLong();
+    private final AtomicLong gatewayCalls = new AtomicLong();
+    private final AtomicLong gatewaySkipped = new AtomicLong();
+    private final AtomicLong purged = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+    private volatile Instant lastRunAt;
+    private volatile long lastRunMillis;
+
+    public OrderReaper(OrderRepository orderRepo,
+                       OrderItemRepository itemRepo,
+                       PaymentRepository paymentRepo,
+                       StockReservationRepository reservationRepo,
+                       CouponRedemptionRepository redemptionRepo,
+                       StockReservationService stockReservations,
+                       CouponService couponService,
+                       CheckoutService checkoutService,
+                       PaymentGatewayClient gateway,
+                       OrderReaperProps props,
+                       @Qualifier("orderReaperExecutor") Executor executor,
+                       PlatformTransactionManager txManager) {
+        this.orderRepo = orderRepo;
+        this.itemRepo = itemRepo;
+        this.paymentRepo = paymentRepo;
+        this.reservationRepo = reservationRepo;
+        this.redemptionRepo = redemptionRepo;
+        this.stockReservations = stockReservations;
+        this.couponService = couponService;
+        this.checkoutService = checkoutService;
+        this.gateway = gateway;
+        this.props = props;
+        this.executor = executor;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    // The shared scheduler thread only hands the run over; the run itself sleeps between batches
+    @Scheduled(initialDelayString = "${app.orders.reaper.interval:PT5M}",
+            fixedDelayString = "${app.orders.reaper.interval:PT5M}")
+    public void tick() {
+        if (props.isEnabled()) trigger();
+    }
+
+    /** Starts a run in the background; false if one is already running. */
+    public boolean trigger() {
+        if (!running.compareAndSet(false, true)) return false;
+        try {
+            executor.execute(this::run);
+            return true;
+        } catch (RejectedExecutionException e) {
+            running.set(false); // shutting down
+            return false;
+        }
+    }
+
+    /** One full pass on the calling thread (normally the reaper executor). */
+    public void run() {
+        long start = System.nanoTime();
+        try {
+            Instant now = Instant.now();
+            long drafts = expireDrafts(now.minus(props.getDraftStaleAfter()));
+            long pending = reconcilePending(now.minus(props.getPendingStaleAfter()));
+            long deleted = props.getPurgeAfter().isZero() ? 0 : purge(now.minus(props.getPurgeAfter()));
+            if (drafts + pending + deleted > 0) {
+                System.out.println("🧹 Order reaper: expired " + drafts + " drafts, closed " + pending
+                        + " pending orders, purged " + deleted);
+            }
+        } catch (RuntimeException e) {
+            errors.incrementAndGet();
+            System.err.println("⚠️ Order reaper run failed: " + e.getMessage());
+        } finally {
+            runs.incrementAndGet();
+            lastRunAt = Instant.now();
+            lastRunMillis = (System.nanoTime() - start) / 1_000_000;
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", props.isEnabled());
+        m.put("running", running.get());
+        m.put("runs", runs.get());
+        m.put("lastRunAt", lastRunAt);
+        m.put("lastRunMillis", lastRunMillis);
+        m.put("draftsExpired", draftsExpired.get());
+        m.put("pendingExpired", pendingExpired.get());
+        m.put("pendingPaid", pendingPaid.get());
+        m.put("pendingInFlight", pendingInFlight.get());
+        m.put("gatewayCalls", gatewayCalls.get());
+        m.put("gatewaySkipped", gatewaySkipped.get());
+        m.put("purged", purged.get());
+        m.put("errors", errors.get());
+        return m;
+    }
+
+    // ---------------- phases ----------------
+
+    private long expireDrafts(Instant cutoff) {
+        long expired = 0;
+        long afterId = 0;
+        for (int batch = 0; batch < props.getMaxBatchesPerRun(); batch++) {
+            List<StaleOrder> page = stale(OrderStatus.DRAFT, cutoff, afterId);
+            if (page.isEmpty()) break;
+            afterId = page.get(page.size() - 1).getId();
+
+            int n = expire(ids(page), OrderStatus.DRAFT, cutoff);
+            draftsExpired.addAndGet(n);
+            expired += n;
+            if (page.size() < props.getBatchSize() || !pause()) break;
+        }
+        return expired;
+    }
+
+    private long reconcilePending(Instant cutoff) {
+        long closed = 0;
+        long afterId = 0;
+        int budget = props.getMaxGatewayCallsPerRun();
+        for (int batch = 0; batch < props.getMaxBatchesPerRun(); batch++) {
+            List<StaleOrder> page = stale(OrderStatus.PAYMENT_PENDING, cutoff, afterId);
+            if (page.isEmpty()) break;
+            afterId = page.get(page.size() - 1).getId();
+
+            List<Long> unpaid = new ArrayList<>(page.size());
+            boolean gatewayDone = false;
+            for (StaleOrder c : page) {
+                if (c.getRazorpayOrderId() == null) { // never reached the gateway
+                    unpaid.add(c.getId());
+                    continue;
+                }
+                if (gatewayDone || budget <= 0 || !gateway.isClosed()) {
+                    gatewayDone = true;
+                    gatewaySkipped.incrementAndGet();
+                    continue;
+                }
+
+                budget--;
+                gatewayCalls.incrementAndGet();
+                List<JSONObject> payments;
+                try {
+                    payments = gateway.fetchOrderPayments(c.getRazorpayOrderId()); // no transaction open
+                } catch (PaymentGatewayException e) {
+                    // outage or busy pool: leave the rest for the next run, live checkout comes first
+                    System.err.println("⚠️ Order reaper: gateway lookup failed, pausing reconciliation: " + e.getMessage());
+                    gatewayDone = true;
+                    gatewaySkipped.incrementAndGet();
+                    continue;
+                }
+
+                JSONObject captured = withStatus(payments, "captured");
+                if (captured != null) {
+                    if (markPaid(c.getId(), c.getRazorpayOrderId(), captured, cutoff)) {
+                        pendingPaid.incrementAndGet();
+                        closed++;
+                    }
+                } else if (withStatus(payments, "authorized") != null) {
+                    pendingInFlight.incrementAndGet(); // auto-capture (or auto-refund) is on its way
+                } else {
+                    unpaid.add(c.getId());
+                }
+            }
+
+            int n = expire(unpaid, OrderStatus.PAYMENT_PENDING, cutoff);
+            pendingExpired.addAndGet(n);
+            closed += n;
+            if (gatewayDone || page.size() < props.getBatchSize() || !pause()) break;
+        }
+        return closed;
+    }
+
+    private long purge(Instant cutoff) {
+        long deleted = 0;
+        long afterId = 0;
+        for (int batch = 0; batch < props.getMaxBatchesPerRun(); batch++) {
+            List<StaleOrder> page = stale(OrderStatus.EXPIRED, cutoff, afterId);
+            if (page.isEmpty()) break;
+            afterId = page.get(page.size() - 1).getId();
+
+            int n = delete(ids(page), cutoff);
+            purged.addAndGet(n);
+            deleted += n;
+            if (page.size() < props.getBatchSize() || !pause()) break;
+        }
+        return deleted;
+    }
+
+    // ---------------- batch transactions ----------------
+
+    // Orders still in `from` and still stale are locked (skipping any a checkout holds) and closed in bulk
+    private int expire(List<Long> ids, OrderStatus from, Instant cutoff) {
+        if (ids.isEmpty()) return 0;
+        try {
+            Integer n = tx.execute(st -> {
+                List<Long> locked = lock(ids, from, cutoff);
+                if (locked.isEmpty()) return 0;
+
+                Instant now = Instant.now();
+                orderRepo.updateStatus(locked, OrderStatus.EXPIRED, now);
+                paymentRepo.updateStatusByOrderIds(locked,
+                        List.of(PaymentStatus.CREATED, PaymentStatus.ATTEMPTED), PaymentStatus.FAILED, now);
+                stockReservations.release(locked);
+                couponService.release(locked);
+                return locked.size();
+            });
+            return n == null ? 0 : n;
+        } catch (RuntimeException e) {
+            // e.g. deadlock victim against a concurrent capture: those orders are simply retried next run
+            errors.incrementAndGet();
+            System.err.println("⚠️ Order reaper: expiring " + ids.size() + " " + from + " orders failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // Same path as a payment.captured webhook, under the order's lock
+    private boolean markPaid(Long orderId, String rzpOrderId, JSONObject json, Instant cutoff) {
+        try {
+            return Boolean.TRUE.equals(tx.execute(st -> {
+                List<Order> locked = orderRepo.lockStale(List.of(orderId), OrderStatus.PAYMENT_PENDING, cutoff);
+                if (locked.isEmpty()) return false; // confirm/webhook got there first
+                Order order = locked.get(0);
+
+                Payment payment = paymentRepo.findByRazorpayOrderId(rzpOrderId).orElse(null);
+                if (payment == null) return false;
+                if (payment.getStatus() != PaymentStatus.CAPTURED) {
+                    PaymentService.applyFetchedPayment(order, payment, json, json.optString("id", null), null);
+                    paymentRepo.save(payment);
+                }
+                checkoutService.markPaid(order);
+                return true;
+            }));
+        } catch (RuntimeException e) {
+            // e.g. stock gone after the hold expired: stays PAYMENT_PENDING for an admin to resolve
+            errors.incrementAndGet();
+            System.err.println("⚠️ Order reaper: order " + orderId + " is paid but could not be marked paid: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // Children first, one statement per table; only rows still EXPIRED are removed
+    private int delete(List<Long> ids, Instant cutoff) {
+        try {
+            Integer n = tx.execute(st -> {
+                List<Long> locked = lock(ids, OrderStatus.EXPIRED, cutoff);
+                if (locked.isEmpty()) return 0;
+
+                itemRepo.deleteByOrderIds(locked);
+                paymentRepo.deleteByOrderIds(locked);
+                reservationRepo.deleteByOrderIds(locked);
+                redemptionRepo.deleteByOrderIds(locked);
+                return orderRepo.deleteByIdInAndStatus(locked, OrderStatus.EXPIRED);
+            });
+            return n == null ? 0 : n;
+        } catch (RuntimeException e) {
+            errors.incrementAndGet();
+            System.err.println("⚠️ Order reaper: purging " + ids.size() + " expired orders failed: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    // ---------------- helpers ----------------
+
+    private List<StaleOrder> stale(OrderStatus status, Instant cutoff, long afterId) {
+        return orderRepo.findStale(status, cutoff, afterId, PageRequest.of(0, props.getBatchSize()));
+    }
+
+    private List<Long> lock(List<Long> ids, OrderStatus status, Instant cutoff) {
+        return orderRepo.lockStale(ids, status, cutoff).stream().map(Order::getId).toList();
+    }
+
+    private static List<Long> ids(List<StaleOrder> page) {
+        return page.stream().map(StaleOrder::getId).toList();
+    }
+
+    private static JSONObject withStatus(List<JSONObject> payments, String status) {
+        for (JSONObject p : payments) {
+            if (status.equalsIgnoreCase(p.optString("status", null))) return p;
+        }
+        return null;
+    }
+
+    // false = interrupted (shutdown): stop the phase
+    private boolean pause() {
+        long ms = props.getPauseBetweenBatches().toMillis();
+        if (ms <= 0) return true;
+        try {
+            Thread.sleep(ms);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
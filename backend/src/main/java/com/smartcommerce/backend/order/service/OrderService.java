@@ -2,7 +2,7 @@ package com.smartcommerce.backend.order.service;
 
 import com.smartcommerce.backend.auth.entity.User;
 import com.smartcommerce.backend.auth.repository.UserRepository;
-import com.smartcommerce.backend.cart.repository.CartItemRepository;
+import com.smartcommerce.backend.coupon.service.CouponService;
 import com.smartcommerce.backend.order.dto.OrderItemDTO;
 import com.smartcommerce.backend.order.dto.OrderResponse;
 import com.smartcommerce.backend.order.dto.PaymentDTO;
@@ -11,23 +11,23 @@ import com.smartcommerce.backend.order.entity.Order;
 import com.smartcommerce.backend.order.entity.OrderItem;
 import com.smartcommerce.backend.order.entity.Payment;
 import com.smartcommerce.backend.order.entity.ShippingAddress;
+import com.smartcommerce.backend.order.model.CartLine;
+import com.smartcommerce.backend.order.model.PricedCart;
 import com.smartcommerce.backend.order.repository.OrderRepository;
 import com.smartcommerce.backend.order.repository.PaymentRepository;
-import com.smartcommerce.backend.product.entity.Product;
-import com.smartcommerce.backend.product.entity.ProductPhoto;
-import com.smartcommerce.backend.product.repository.ProductPhotoRepository;
-import com.smartcommerce.backend.product.repository.ProductRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Component;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static com.smartcommerce.backend.order.entity.Payment.PaymentStatus.REFUNDED;
 
@@ -36,48 +36,62 @@ public class OrderService {
 
     private final OrderRepository orderRepo;
     private final UserRepository userRepo;
-    private final CartItemRepository cartRepo;
-    private final ProductRepository productRepo;
-    private final ProductPhotoRepository productPhotoRepo;
+    private final CartPort cartPort;
     private final PaymentRepository paymentRepo;
     private final PaymentService paymentService;
-
+    private final CartPricingService cartPricing;
+    private final StockReservationService stockReservations;
+    private final CouponService couponService;
 
     public OrderService(OrderRepository orderRepo,
                         UserRepository userRepo,
-                        CartItemRepository cartRepo,
-                        ProductRepository productRepo,
-                        ProductPhotoRepository productPhotoRepo,
+                        CartPort cartPort,
                         PaymentRepository paymentRepo,
-                        PaymentService paymentService
+                        PaymentService paymentService,
+                        CartPricingService cartPricing,
+                        StockReservationService stockReservations,
+                        CouponService couponService
                         ) {
         this.orderRepo = orderRepo;
         this.userRepo = userRepo;
-        this.cartRepo = cartRepo;
-        this.productRepo = productRepo;
-        this.productPhotoRepo = productPhotoRepo;
+        this.cartPort = cartPort;
         this.paymentService = paymentService;
         this.paymentRepo = paymentRepo;
+        this.cartPricing = cartPricing;
+        this.stockReservations = stockReservations;
+        this.couponService = couponService;
     }
 
-    // ✅ Rupees → Paise
-    private long rupeesToPaise(BigDecimal rupees) {
-        if (rupees == null) return 0L;
-        return rupees.movePointRight(2).longValueExact(); // 339.00 → 33900
-    }
-
-    // ✅ Create draft order with product snapshot
+    // ✅ Create draft order with product snapshot; every amount is computed here from the catalog,
+    //    the client only says what it wants (items) and whether it pays on delivery
     public Order createDraftOrder(
             User user,  // 🔥 pass full User, not userId
             String customerName,
             String phone,
             ShippingAddress address,
             List<OrderItem> items,
-            long subtotal,
-            long shippingFee,
-            long codFee,
-            long discount
+            boolean cod
     ) {
+        if (items == null || items.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Order has no items");
+        }
+
+        // 📦 Price items with a product snapshot (same bulk pricing stage as checkout)
+        List<CartLine> lines = new ArrayList<>(items.size());
+        for (OrderItem item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Each item needs a productId and a quantity");
+            }
+            lines.add(new CartLine(item.getProductId(), item.getQuantity()));
+        }
+        PricedCart priced = cartPricing.price(lines);
+
+        // no coupon on this path: product discounts are already in the unit prices
+        long subtotal = priced.getSubtotal();
+        long shippingFee = CartPricingService.shippingFee(subtotal);
+        long codFee = CartPricingService.codFee(cod);
+        long discount = 0L;
+
         // 📝 Create new Order
         Order order = new Order();
         order.setUser(user);
@@ -88,33 +102,13 @@ public class OrderService {
         order.setShippingFee(shippingFee);
         order.setCodFee(codFee);
         order.setDiscount(discount);
-        order.setTotalPayable(subtotal + shippingFee + codFee - discount);
+        order.setTotalPayable(Math.max(0, subtotal + shippingFee + codFee - discount));
         order.setStatus(Order.OrderStatus.DRAFT);
         order.setCreatedAt(Instant.now());
         order.setUpdatedAt(Instant.now());
 
-        // 📦 Enrich items with product snapshot
-        List<OrderItem> enrichedItems = new ArrayList<>();
-        for (OrderItem item : items) {
-            Product product = productRepo.findById(item.getProductId())
-                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found: " + item.getProductId()));
-
-            List<ProductPhoto> photos = productPhotoRepo.findByProduct_Id(product.getId());
-            String photoUrl = photos.isEmpty()
-                    ? "https://via.placeholder.com/150"
-                    : photos.get(0).getPhotoUrl();
-
-            // snapshot
-            OrderItem orderItem = new OrderItem();
-            orderItem.setOrder(order);
-            orderItem.setProductId(product.getId());
-            orderItem.setProductName(product.getName());
-            orderItem.setProductPhoto(photoUrl);
-            orderItem.setPrice(rupeesToPaise(product.getPrice()));
-            orderItem.setQuantity(item.getQuantity());
-
-            enrichedItems.add(orderItem);
-        }
+        List<OrderItem> enrichedItems = priced.getItems();
+        enrichedItems.forEach(oi -> oi.setOrder(order));
 
         order.setItems(enrichedItems);
         return orderRepo.save(order);
@@ -129,11 +123,16 @@ public class OrderService {
     // ✅ Scoped fetch: explicit 403 vs 404
     public Order getOrderForUserStrict(Long orderId, Long userId) {
         // Check existence first → 404 if missing
-        Order order = orderRepo.findById(orderId)
+        return findOrderForUserStrict(orderId, userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found"));
+    }
+
+    // ✅ Same, but empty instead of 404 (read endpoints then look in the archive)
+    public Optional<Order> findOrderForUserStrict(Long orderId, Long userId) {
+        Optional<Order> order = orderRepo.findById(orderId);
 
         // Then ownership → 403 if not owner
-        if (!order.getUser().getId().equals(userId)) {
+        if (order.isPresent() && !order.get().getUser().getId().equals(userId)) {
             throw new ResponseStatusException(HttpStatus.FORBIDDEN, "You cannot access another user's order");
         }
         return order;
@@ -163,7 +162,7 @@ public class OrderService {
         Order saved = orderRepo.save(order);
 
         // 🧹 Clear cart for this user
-        cartRepo.deleteByUser_Id(order.getUser().getId());
+        cartPort.clearUserCart(order.getUser().getId());
 
         return saved;
     }
@@ -191,6 +190,10 @@ public class OrderService {
         order.setUpdatedAt(Instant.now());
         orderRepo.save(order);
 
+        // 📦 Give back stock and coupon use still held for this draft (no-op once payment consumed them)
+        stockReservations.release(orderId);
+        couponService.release(orderId);
+
         paymentRepo.findByOrder_Id(orderId).ifPresent(payment -> {
             boolean captured = payment.getStatus() == Payment.PaymentStatus.CAPTURED
                     && payment.getRazorpayPaymentId() != null
@@ -214,20 +217,35 @@ public class OrderService {
                 return;
             }
 
-            // Otherwise, initiate (idempotent) refund
-            paymentService.initiateRefund(order, payment);
+            // Otherwise refund via the gateway once this transaction has committed (no remote call inside it)
+            order.setStatus(Order.OrderStatus.REFUND_PENDING);
+            orderRepo.save(order);
+            afterCommit(() -> paymentService.initiateRefundAsync(orderId));
         });
 
         return order;
     }
 
 
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
     public List<Order> getOrdersByUser(User user) {
         return orderRepo.findByUser_Id(user.getId());
     }
 
     public List<Order> getOrdersByUserId(Long userId) {
-        return orderRepo.findByUser_Id(userId);
+        return orderRepo.findByUser_IdOrderByCreatedAtDescIdDesc(userId);
     }
 
 }
@@ -1,17 +1,19 @@
 package com.smartcommerce.backend.order.service;
 
-import com.razorpay.RazorpayClient;
-import com.razorpay.Refund;
 import com.smartcommerce.backend.config.RazorpayProps;
 import com.smartcommerce.backend.order.dto.RazorOrderResponse;
 import com.smartcommerce.backend.order.entity.Order;
 import com.smartcommerce.backend.order.entity.Payment;
 import com.smartcommerce.backend.order.entity.Payment.PaymentStatus;
+import com.smartcommerce.backend.order.gateway.PaymentGatewayClient;
 import com.smartcommerce.backend.order.repository.OrderRepository;
 import com.smartcommerce.backend.order.repository.PaymentRepository;
 import org.json.JSONObject;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
@@ -19,27 +21,43 @@ import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.Instant;
 import java.util.HexFormat;
-import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Razorpay order / confirm / refund flows. Remote calls go through {@link PaymentGatewayClient}
+ * and never run inside a DB transaction: read state, call the gateway, then apply the result in
+ * a short transaction that re-checks state (the gateway result may race a webhook or a retry).
+ */
 @Service
 public class PaymentService {
 
     private final RazorpayProps props;
     private final PaymentRepository paymentRepo;
     private final OrderRepository orderRepo;
-
-    public PaymentService(RazorpayProps props, PaymentRepository paymentRepo, OrderRepository orderRepo) {
+    private final PaymentGatewayClient gateway;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate newTx;
+
+    public PaymentService(RazorpayProps props,
+                          PaymentRepository paymentRepo,
+                          OrderRepository orderRepo,
+                          PaymentGatewayClient gateway,
+                          PlatformTransactionManager txManager) {
         this.props = props;
         this.paymentRepo = paymentRepo;
         this.orderRepo = orderRepo;
+        this.gateway = gateway;
+        this.tx = new TransactionTemplate(txManager);
+        // refund results may be applied on the caller's afterCommit thread (fast/failed futures
+        // complete synchronously), where REQUIRED would join the already-committed transaction
+        this.newTx = new TransactionTemplate(txManager);
+        this.newTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     // ---------------- Helpers ----------------
-    private RazorpayClient razorpay() throws Exception {
-        return new RazorpayClient(props.getKeyId(), props.getKeySecret());
-    }
 
-    private String hmacSha256(String data, String secret) {
+    // package-private + static: also driven by the JMH signature benchmark
+    static String hmacSha256(String data, String secret) {
         try {
             Mac mac = Mac.getInstance("HmacSHA256");
             mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
@@ -50,13 +68,16 @@ public class PaymentService {
     }
 
     // ---------------- CREATE RAZORPAY ORDER ----------------
-    // ---------------- CREATE RAZORPAY ORDER ----------------
-    @Transactional
-    public RazorOrderResponse createRazorpayOrder(Order order) throws Exception {
+    public RazorOrderResponse createRazorpayOrder(Order order) {
         if (order.getTotalPayable() == null || order.getTotalPayable() <= 0) {
             throw new IllegalStateException("Invalid payable amount");
         }
 
+        if (order.getRazorpayOrderId() == null && !CheckoutService.isOpen(order)) {
+            // e.g. superseded by a newer draft or expired: its stock holds are gone
+            throw new IllegalArgumentException("Order is no longer open (" + order.getStatus() + "), please check out again");
+        }
+
         if (order.getRazorpayOrderId() != null) {
             return new RazorOrderResponse(
                     props.getKeyId(),
@@ -66,42 +87,41 @@ public class PaymentService {
             );
         }
 
-        RazorpayClient client = razorpay();
+        // ✅ order.getTotalPayable() is already paise (remote call: no transaction open)
+        String created = gateway.createOrder(order.getTotalPayable(), "INR", "rcpt_" + order.getId());
+
+        String rzpOrderId = tx.execute(st -> {
+            Order o = orderRepo.findById(order.getId())
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+            // A concurrent request got there first → reuse its order (ours simply expires unpaid)
+            if (o.getRazorpayOrderId() != null) return o.getRazorpayOrderId();
+            // Superseded while we were at the gateway → the Razorpay order is never paid
+            if (o.getStatus() != Order.OrderStatus.DRAFT) {
+                throw new IllegalArgumentException("Order is no longer open (" + o.getStatus() + "), please check out again");
+            }
 
-        // ✅ order.getTotalPayable() is already paise
-        JSONObject req = new JSONObject(Map.of(
-                "amount", order.getTotalPayable(),
-                "currency", "INR",
-                "receipt", "rcpt_" + order.getId(),
-                "payment_capture", 1
-        ));
+            o.setRazorpayOrderId(created);
+            o.setStatus(Order.OrderStatus.PAYMENT_PENDING);
+            o.setUpdatedAt(Instant.now());
+            orderRepo.save(o);
 
-        com.razorpay.Order rzpOrder = client.orders.create(req);
-        String rzpOrderId = rzpOrder.get("id");
+            Payment p = new Payment();
+            p.setOrder(o);
+            p.setMethod(Payment.Gateway.RAZORPAY);
+            p.setRazorpayOrderId(created);
+            p.setAmount(o.getTotalPayable()); // ✅ store paise
+            p.setCurrency("INR");
+            p.setStatus(PaymentStatus.CREATED);
+            paymentRepo.save(p);
+            return created;
+        });
 
         order.setRazorpayOrderId(rzpOrderId);
-        order.setStatus(Order.OrderStatus.PAYMENT_PENDING);
-        order.setUpdatedAt(Instant.now());
-        orderRepo.save(order);
-
-        Payment p = new Payment();
-        p.setOrder(order);
-        p.setMethod(Payment.Gateway.RAZORPAY);
-        p.setRazorpayOrderId(rzpOrderId);
-        p.setAmount(order.getTotalPayable()); // ✅ store paise
-        p.setCurrency("INR");
-        p.setStatus(PaymentStatus.CREATED);
-        paymentRepo.save(p);
-
         return new RazorOrderResponse(props.getKeyId(), rzpOrderId, order.getTotalPayable(), "INR");
     }
 
     // ---------------- CONFIRM RAZORPAY PAYMENT ----------------
-    @Transactional
     public void confirmPayment(Long orderId, String rzpOrderId, String rzpPaymentId, String rzpSignature) {
-        Order order = orderRepo.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found"));
-
         String payload = rzpOrderId + "|" + rzpPaymentId;
         String expected = hmacSha256(payload, props.getKeySecret());
 
@@ -110,130 +130,134 @@ public class PaymentService {
             throw new SecurityException("Invalid Razorpay signature");
         }
 
-        Payment payment = paymentRepo.findByRazorpayOrderId(rzpOrderId)
+        Payment current = paymentRepo.findByRazorpayOrderId(rzpOrderId)
                 .orElseThrow(() -> new RuntimeException("Payment not found for order " + orderId));
 
         // Idempotency
-        if (payment.getStatus() == PaymentStatus.CAPTURED) return;
+        if (current.getStatus() == PaymentStatus.CAPTURED) return;
 
+        JSONObject json;
         try {
-            RazorpayClient client = razorpay();
-            com.razorpay.Payment rzpPayment = client.payments.fetch(rzpPaymentId);
-
-            String method = rzpPayment.get("method");
-            String status = rzpPayment.get("status"); // created, authorized, captured, failed
-
-            payment.setPaymentMethod(method);
-            payment.setRazorpayPaymentId(rzpPaymentId);
-            payment.setRazorpaySignature(rzpSignature);
-
-            JSONObject json = rzpPayment.toJson();
-
-            if ("upi".equalsIgnoreCase(method)) {
-                JSONObject upiObj = json.optJSONObject("upi");
-                if (upiObj != null) payment.setUpiId(upiObj.optString("vpa", null));
-                JSONObject acq = json.optJSONObject("acquirer_data");
-                if (acq != null) payment.setReferenceId(acq.optString("upi_transaction_id", null));
-            } else if ("card".equalsIgnoreCase(method)) {
-                JSONObject card = json.optJSONObject("card");
-                if (card != null) {
-                    payment.setCardLast4(card.optString("last4", null));
-                    payment.setCardNetwork(card.optString("network", null));
-                }
-            } else if ("netbanking".equalsIgnoreCase(method)) {
-                payment.setBankName(json.optString("bank", null));
-                JSONObject acq = json.optJSONObject("acquirer_data");
-                if (acq != null) payment.setReferenceId(acq.optString("bank_transaction_id", null));
-            }
-
-            if ("captured".equalsIgnoreCase(status)) {
-                long capturedAmountPaise = ((Number) rzpPayment.get("amount")).longValue(); // ✅ safe cast
-                payment.setAmount(capturedAmountPaise); // ✅ store actual paise captured
-                payment.setStatus(PaymentStatus.CAPTURED);
-
-                // Do NOT set PAID here; let markPaid() do stock + status
-                if (order.getStatus() == Order.OrderStatus.DRAFT) {
-                    order.setStatus(Order.OrderStatus.PAYMENT_PENDING);
-                }
+            json = gateway.fetchPayment(rzpPaymentId); // remote call: no transaction open
+        } catch (RuntimeException e) {
+            System.err.println("Payment confirmation failed for orderId=" + orderId +
+                    " paymentId=" + rzpPaymentId + " error=" + e.getMessage());
+            throw e;
+        }
 
-            } else if ("failed".equalsIgnoreCase(status)) {
-                payment.setStatus(PaymentStatus.FAILED);
-                order.setStatus(Order.OrderStatus.FAILED);
+        tx.executeWithoutResult(st -> {
+            Order order = orderRepo.findById(orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found"));
+            Payment payment = paymentRepo.findByRazorpayOrderId(rzpOrderId)
+                    .orElseThrow(() -> new RuntimeException("Payment not found for order " + orderId));
 
-            } else {
-                payment.setStatus(PaymentStatus.ATTEMPTED);
-                order.setStatus(Order.OrderStatus.PAYMENT_PENDING);
-            }
+            // The webhook may have captured it while we were waiting on the gateway
+            if (payment.getStatus() == PaymentStatus.CAPTURED) return;
 
+            applyFetchedPayment(order, payment, json, rzpPaymentId, rzpSignature);
             paymentRepo.save(payment);
             orderRepo.save(order);
-
-        } catch (Exception e) {
-            System.err.println("Payment confirmation failed for orderId=" + orderId +
-                    " paymentId=" + rzpPaymentId + " error=" + e.getMessage());
-            throw new RuntimeException("Failed to fetch/confirm Razorpay payment", e);
-        }
+        });
     }
 
-    // ---------------- INITIATE REFUND (called from OrderService.cancelOrder) ----------------
-    @Transactional
-    public void initiateRefund(Order order, Payment payment) {
-        // 0) If already refunded → just reflect that on order and exit
-        if (payment.getStatus() == PaymentStatus.REFUNDED
-                || "PROCESSED".equalsIgnoreCase(payment.getRefundStatus())) {
-            payment.setRefundStatus("PROCESSED");
-            paymentRepo.save(payment);
-            order.setStatus(Order.OrderStatus.REFUNDED);
-            orderRepo.save(order);
-            return;
+    // package-private: OrderReaper applies payments it finds when reconciling abandoned orders
+    static void applyFetchedPayment(Order order, Payment payment, JSONObject json,
+                                            String rzpPaymentId, String rzpSignature) {
+        String method = json.optString("method", null);
+        String status = json.optString("status", null); // created, authorized, captured, failed
+
+        payment.setPaymentMethod(method);
+        payment.setRazorpayPaymentId(rzpPaymentId);
+        payment.setRazorpaySignature(rzpSignature);
+
+        if ("upi".equalsIgnoreCase(method)) {
+            JSONObject upiObj = json.optJSONObject("upi");
+            if (upiObj != null) payment.setUpiId(upiObj.optString("vpa", null));
+            JSONObject acq = json.optJSONObject("acquirer_data");
+            if (acq != null) payment.setReferenceId(acq.optString("upi_transaction_id", null));
+        } else if ("card".equalsIgnoreCase(method)) {
+            JSONObject card = json.optJSONObject("card");
+            if (card != null) {
+                payment.setCardLast4(card.optString("last4", null));
+                payment.setCardNetwork(card.optString("network", null));
+            }
+        } else if ("netbanking".equalsIgnoreCase(method)) {
+            payment.setBankName(json.optString("bank", null));
+            JSONObject acq = json.optJSONObject("acquirer_data");
+            if (acq != null) payment.setReferenceId(acq.optString("bank_transaction_id", null));
         }
 
-        // 1) If a refund is already in-flight (not FAILED) → do not create again
-        if (payment.getRefundId() != null && !"FAILED".equalsIgnoreCase(payment.getRefundStatus())) {
-            order.setStatus(Order.OrderStatus.REFUND_PENDING);
-            orderRepo.save(order);
-            return;
+        if ("captured".equalsIgnoreCase(status)) {
+            if (json.has("amount")) {
+                payment.setAmount(json.getLong("amount")); // ✅ store actual paise captured
+            }
+            payment.setStatus(PaymentStatus.CAPTURED);
+
+            // Do NOT set PAID here; let markPaid() do stock + status
+            if (order.getStatus() == Order.OrderStatus.DRAFT) {
+                order.setStatus(Order.OrderStatus.PAYMENT_PENDING);
+            }
+
+        } else if ("failed".equalsIgnoreCase(status)) {
+            payment.setStatus(PaymentStatus.FAILED);
+            order.setStatus(Order.OrderStatus.FAILED);
+
+        } else {
+            payment.setStatus(PaymentStatus.ATTEMPTED);
+            order.setStatus(Order.OrderStatus.PAYMENT_PENDING);
         }
+    }
 
-        // 2) Nothing to refund
-        if (payment.getStatus() != PaymentStatus.CAPTURED
+    // ---------------- REFUND (after OrderService.cancelOrder commits) ----------------
+
+    /**
+     * Starts the refund for a cancelled order's captured payment without blocking the caller.
+     * The order is already REFUND_PENDING; on failure the payment is marked refundStatus=FAILED
+     * so cancelling again (or an admin) retries it.
+     */
+    public CompletableFuture<Void> initiateRefundAsync(Long orderId) {
+        Payment payment = paymentRepo.findByOrder_Id(orderId).orElse(null);
+        if (payment == null
+                || payment.getStatus() != PaymentStatus.CAPTURED
                 || payment.getRazorpayPaymentId() == null
-                || payment.getRazorpayPaymentId().isBlank()) {
-            return;
+                || payment.getRazorpayPaymentId().isBlank()
+                || (payment.getRefundId() != null && !"FAILED".equalsIgnoreCase(payment.getRefundStatus()))) {
+            return CompletableFuture.completedFuture(null);
         }
 
-        try {
-            RazorpayClient client = razorpay();
-
-            JSONObject req = new JSONObject();
-            req.put("amount", payment.getAmount());
-            req.put("speed", "optimum");
+        Long paymentId = payment.getId();
+        long amount = payment.getAmount();
+        return gateway.refundAsync(payment.getRazorpayPaymentId(), amount)
+                .handle((refundId, error) -> {
+                    newTx.executeWithoutResult(st -> applyRefundResult(paymentId, amount, refundId, error));
+                    return null;
+                });
+    }
 
-            Refund refund = client.payments.refund(payment.getRazorpayPaymentId(), req);
+    private void applyRefundResult(Long paymentId, long amount, String refundId, Throwable error) {
+        Payment payment = paymentRepo.findById(paymentId).orElse(null);
+        if (payment == null) return;
+        Order order = payment.getOrder();
 
-            // Save refund attempt
-            payment.setRefundId(refund.get("id"));
+        if (error == null) {
+            payment.setRefundId(refundId);
             payment.setRefundStatus("PENDING");
-            payment.setRefundAmount(payment.getAmount());
-            paymentRepo.save(payment);
-
+            payment.setRefundAmount(amount);
             order.setStatus(Order.OrderStatus.REFUND_PENDING);
-            orderRepo.save(order);
+            return;
+        }
 
-        } catch (Exception e) {
-            String msg = e.getMessage() == null ? "" : e.getMessage();
-            // If Razorpay says "fully refunded already", normalize state and return
-            if (msg.toLowerCase().contains("fully refunded")) {
-                payment.setRefundStatus("PROCESSED");
-                payment.setStatus(PaymentStatus.REFUNDED);
-                paymentRepo.save(payment);
-
-                order.setStatus(Order.OrderStatus.REFUNDED);
-                orderRepo.save(order);
-                return;
-            }
-            throw new RuntimeException("Refund initiation failed: " + msg, e);
+        String msg = error.getMessage() == null ? "" : error.getMessage();
+        // If Razorpay says "fully refunded already", normalize state
+        if (msg.toLowerCase().contains("fully refunded")) {
+            payment.setRefundStatus("PROCESSED");
+            payment.setStatus(PaymentStatus.REFUNDED);
+            order.setStatus(Order.OrderStatus.REFUNDED);
+            return;
         }
+
+        System.err.println("⚠️ Refund initiation failed for paymentId=" + paymentId + ": " + msg);
+        payment.setRefundStatus("FAILED");
     }
 
 
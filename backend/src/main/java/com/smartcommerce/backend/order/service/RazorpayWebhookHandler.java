@@ -0,0 +1,153 @@
+package com.smartcommerce.backend.order.service;
+
+import com.smartcommerce.backend.order.entity.Order;
+import com.smartcommerce.backend.order.entity.Payment;
+import com.smartcommerce.backend.order.entity.Payment.PaymentStatus;
+import com.smartcommerce.backend.order.entity.WebhookEvent;
+import com.smartcommerce.backend.order.repository.OrderRepository;
+import com.smartcommerce.backend.order.repository.PaymentRepository;
+import org.json.JSONObject;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/** Applies one stored Razorpay webhook event. Every handler is idempotent, so redelivery/retry is safe. */
+@Service
+public class RazorpayWebhookHandler {
+
+    private final PaymentService paymentService;
+    private final PaymentRepository paymentRepo;
+    private final OrderRepository orderRepo;
+    private final CheckoutService checkoutService;
+
+    public RazorpayWebhookHandler(PaymentService paymentService,
+                                  PaymentRepository paymentRepo,
+                                  OrderRepository orderRepo,
+                                  CheckoutService checkoutService) {
+        this.paymentService = paymentService;
+        this.paymentRepo = paymentRepo;
+        this.orderRepo = orderRepo;
+        this.checkoutService = checkoutService;
+    }
+
+    @Transactional
+    public void handle(WebhookEvent event) {
+        JSONObject evt = new JSONObject(event.getPayload());
+        JSONObject payload = evt.optJSONObject("payload");
+        if (payload == null) return;
+
+        String signature = event.getSignature();
+        switch (event.getEventType()) {
+            case "payment.captured" -> handlePaymentCaptured(payload, signature);
+            case "payment.failed"   -> handlePaymentFailed(payload, signature);
+            case "refund.processed" -> handleRefundProcessed(payload);
+            case "refund.failed"    -> handleRefundFailed(payload);
+            default -> { /* ignore other events */ }
+        }
+    }
+
+    // ---------------- Handlers ----------------
+
+    private void handlePaymentCaptured(JSONObject payload, String signature) {
+        JSONObject paymentWrapper = payload.optJSONObject("payment");
+        if (paymentWrapper == null) return;
+
+        JSONObject paymentEntity = paymentWrapper.optJSONObject("entity");
+        if (paymentEntity == null) return;
+
+        String rzpOrderId   = paymentEntity.optString("order_id", null);
+        String rzpPaymentId = paymentEntity.optString("id", null);
+        String channel      = paymentEntity.optString("method", null); // upi/card/netbanking/wallet...
+
+        if (rzpOrderId == null || rzpPaymentId == null) return;
+
+        Optional<Payment> opt = paymentRepo.findByRazorpayOrderId(rzpOrderId);
+        if (opt.isEmpty()) return;
+
+        Payment p = opt.get();
+        if (p.getStatus() == PaymentStatus.CAPTURED) {
+            // Idempotent: already captured
+            return;
+        }
+
+        p.setRazorpayPaymentId(rzpPaymentId);
+        p.setStatus(PaymentStatus.CAPTURED);
+        p.setMethod(Payment.Gateway.RAZORPAY); // enum field
+        p.setPaymentMethod(channel);            // string: upi/card/etc
+        p.setRazorpaySignature(signature);      // persist webhook signature
+        p.setUpdatedAt(Instant.now());
+        paymentRepo.save(p);
+
+        // Mark order paid using your checkout flow
+        Order o = p.getOrder();
+        checkoutService.markPaid(o);
+    }
+
+    private void handlePaymentFailed(JSONObject payload, String signature) {
+        JSONObject paymentWrapper = payload.optJSONObject("payment");
+        if (paymentWrapper == null) return;
+
+        JSONObject paymentEntity = paymentWrapper.optJSONObject("entity");
+        if (paymentEntity == null) return;
+
+        String rzpOrderId   = paymentEntity.optString("order_id", null);
+        String rzpPaymentId = paymentEntity.optString("id", null);
+        String channel      = paymentEntity.optString("method", null);
+
+        if (rzpOrderId == null || rzpPaymentId == null) return;
+
+        Optional<Payment> opt = paymentRepo.findByRazorpayOrderId(rzpOrderId);
+        if (opt.isEmpty()) return;
+
+        Payment p = opt.get();
+        if (p.getStatus() == PaymentStatus.FAILED) {
+            // Idempotent: already failed
+            return;
+        }
+
+        p.setRazorpayPaymentId(rzpPaymentId);
+        p.setStatus(PaymentStatus.FAILED);
+        p.setMethod(Payment.Gateway.RAZORPAY);
+        p.setPaymentMethod(channel);
+        p.setRazorpaySignature(signature);
+        p.setUpdatedAt(Instant.now());
+        paymentRepo.save(p);
+
+        // Update order → FAILED and persist
+        Order o = p.getOrder();
+        o.setStatus(Order.OrderStatus.FAILED);
+        o.setUpdatedAt(Instant.now());
+        orderRepo.save(o);
+        // Or use: checkoutService.markFailed(o);
+    }
+
+    private void handleRefundProcessed(JSONObject payload) {
+        JSONObject refundWrapper = payload.optJSONObject("refund");
+        if (refundWrapper == null) return;
+
+        JSONObject refundEntity = refundWrapper.optJSONObject("entity");
+        if (refundEntity == null) return;
+
+        String refundId = refundEntity.optString("id", null);
+        if (refundId == null) return;
+
+        // Moves refundStatus → PROCESSED and sets Payment.status → REFUNDED
+        paymentService.markRefundProcessed(refundId);
+    }
+
+    private void handleRefundFailed(JSONObject payload) {
+        JSONObject refundWrapper = payload.optJSONObject("refund");
+        if (refundWrapper == null) return;
+
+        JSONObject refundEntity = refundWrapper.optJSONObject("entity");
+        if (refundEntity == null) return;
+
+        String refundId = refundEntity.optString("id", null);
+        if (refundId == null) return;
+
+        // Moves refundStatus → FAILED (keeps Payment.status as CAPTURED)
+        paymentService.markRefundFailed(refundId);
+    }
+}
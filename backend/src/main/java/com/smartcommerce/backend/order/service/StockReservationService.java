@@ -0,0 +1,164 @@
+package com.smartcommerce.backend.order.service;
+
+import com.smartcommerce.backend.order.entity.Order;
+import com.smartcommerce.backend.order.entity.OrderItem;
+import com.smartcommerce.backend.order.entity.StockReservation;
+import com.smartcommerce.backend.order.entity.StockReservation.Status;
+import com.smartcommerce.backend.order.repository.StockReservationRepository;
+import com.smartcommerce.backend.product.cache.CatalogCache;
+import com.smartcommerce.backend.product.repository.ProductRepository;
+import com.smartcommerce.backend.product.repository.ProductRepository.StockLevel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Set-based stock engine.
+ *
+ * Quantities are aggregated per product and applied in ascending product-id order with one
+ * conditional UPDATE per product ({@code stock = stock - q where stock >= q}), so concurrent
+ * checkouts always touch rows in the same order and never hold a lock while reading.
+ * Stock is taken as a TTL-bound hold when the draft is created; payment capture only
+ * consumes the hold. Expired or cancelled holds are returned to stock, except while the order
+ * is PAYMENT_PENDING: the customer may be paying, so those holds live until the order is paid
+ * (consumed) or closed by a cancel or the OrderReaper (released).
+ */
+@Service
+public class StockReservationService {
+
+    private final ProductRepository productRepo;
+    private final StockReservationRepository reservationRepo;
+    private final CatalogCache catalogCache;
+    private final Duration ttl;
+    private final int sweepBatch;
+
+    public StockReservationService(ProductRepository productRepo,
+                                   StockReservationRepository reservationRepo,
+                                   CatalogCache catalogCache,
+                                   @Value("${app.stock.reservation-ttl:PT15M}") Duration ttl,
+                                   @Value("${app.stock.reservation-sweep-batch:500}") int sweepBatch) {
+        this.productRepo = productRepo;
+        this.reservationRepo = reservationRepo;
+        this.catalogCache = catalogCache;
+        this.ttl = ttl;
+        this.sweepBatch = sweepBatch;
+    }
+
+    /** Draft time: take stock for every line and record a hold that expires after the TTL. */
+    @Transactional
+    public void reserve(Order order) {
+        SortedMap<Long, Integer> wanted = aggregate(order.getItems());
+        decrementAll(wanted);
+
+        Instant expiresAt = Instant.now().plus(ttl);
+        List<StockReservation> holds = new ArrayList<>(wanted.size());
+        wanted.forEach((productId, qty) ->
+                holds.add(new StockReservation(order.getId(), productId, qty, expiresAt)));
+        reservationRepo.saveAll(holds);
+    }
+
+    /**
+     * Payment captured / COD confirmed: consume the order's live holds. Anything not covered
+     * by a hold (hold expired, order edited, legacy draft) is decremented now and may still fail.
+     */
+    @Transactional
+    public void commit(Order order) {
+        List<StockReservation> held = reservationRepo.findForUpdate(order.getId(), Status.HELD);
+        held.forEach(r -> r.setStatus(Status.CONSUMED));
+
+        SortedMap<Long, Integer> missing = aggregate(order.getItems());
+        for (StockReservation r : held) {
+            missing.computeIfPresent(r.getProductId(), (id, qty) -> qty - r.getQuantity());
+        }
+        missing.values().removeIf(qty -> qty <= 0);
+        decrementAll(missing);
+    }
+
+    /** Order cancelled before capture: give its live holds back. No-op once consumed. */
+    @Transactional
+    public void release(Long orderId) {
+        restore(reservationRepo.findForUpdate(orderId, Status.HELD));
+    }
+
+    /** Many orders closed at once (OrderReaper): one locking read, one restore per product. */
+    @Transactional
+    public void release(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) return;
+        restore(reservationRepo.findForUpdate(orderIds, Status.HELD));
+    }
+
+    /** Return expired holds to stock (not those of orders awaiting payment). */
+    @Scheduled(fixedDelayString = "${app.stock.reservation-sweep:PT1M}")
+    @Transactional
+    public void releaseExpired() {
+        List<StockReservation> expired = reservationRepo.findExpiredForUpdate(
+                Status.HELD, Instant.now(), Order.OrderStatus.PAYMENT_PENDING, PageRequest.of(0, sweepBatch));
+        if (!expired.isEmpty()) {
+            restore(expired);
+            System.out.println("📦 Released " + expired.size() + " expired stock reservations");
+        }
+    }
+
+    // ---------------- internals ----------------
+
+    private void decrementAll(SortedMap<Long, Integer> wanted) {
+        if (wanted.isEmpty()) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> failed = new LinkedHashMap<>();
+        wanted.forEach((productId, qty) -> {
+            if (productRepo.decrementStock(productId, qty, now) == 0) failed.put(productId, qty);
+        });
+        catalogCache.evictStock(wanted.keySet());
+
+        // throwing rolls back the decrements that did succeed
+        if (!failed.isEmpty()) throw new InsufficientStockException(shortfalls(failed));
+    }
+
+    private void restore(List<StockReservation> holds) {
+        if (holds.isEmpty()) return;
+
+        SortedMap<Long, Integer> qtyByProduct = new TreeMap<>();
+        for (StockReservation r : holds) {
+            r.setStatus(Status.RELEASED);
+            qtyByProduct.merge(r.getProductId(), r.getQuantity(), Integer::sum);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        qtyByProduct.forEach((productId, qty) -> productRepo.restoreStock(productId, qty, now));
+        catalogCache.evictStock(qtyByProduct.keySet());
+    }
+
+    private List<InsufficientStockException.Shortfall> shortfalls(Map<Long, Integer> failed) {
+        Map<Long, StockLevel> levels = productRepo.findStockLevels(failed.keySet()).stream()
+                .collect(Collectors.toMap(StockLevel::getId, Function.identity()));
+
+        List<InsufficientStockException.Shortfall> out = new ArrayList<>(failed.size());
+        failed.forEach((productId, qty) -> {
+            StockLevel level = levels.get(productId);
+            String name = level != null ? level.getName() : "product " + productId;
+            int available = level != null && level.getStock() != null ? Math.max(0, level.getStock()) : 0;
+            out.add(new InsufficientStockException.Shortfall(productId, name, qty, available));
+        });
+        return out;
+    }
+
+    private static SortedMap<Long, Integer> aggregate(List<OrderItem> items) {
+        SortedMap<Long, Integer> qtyByProduct = new TreeMap<>();
+        if (items == null) return qtyByProduct;
+        for (OrderItem oi : items) {
+            if (oi.getProductId() == null || oi.getQuantity() == null || oi.getQuantity() <= 0) continue;
+            qtyByProduct.merge(oi.getProductId(), oi.getQuantity(), Integer::sum);
+        }
+        return qtyByProduct;
+    }
+}
@@ -0,0 +1,305 @@
+package com.smartcommerce.backend.order.service;
+
+import com.smartcommerce.backend.config.WebhookProps;
+import com.smartcommerce.backend.order.entity.WebhookEvent;
+import com.smartcommerce.backend.order.entity.WebhookEvent.Status;
+import com.smartcommerce.backend.order.repository.WebhookEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.json.JSONObject;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Webhook inbox: {@link #ingest} stores the verified raw event (deduped by event id) so the
+ * controller can ack at once; a dispatch pass then claims due events and runs them on per-lane
+ * single-thread executors. A lane (razorpayOrderId) always hashes to the same thread and is
+ * skipped while one of its events is in flight or waiting for a retry, so events for one order
+ * are applied strictly in arrival order while different orders proceed in parallel.
+ */
+@Service
+public class WebhookEventProcessor {
+
+    private static final List<Status> OPEN = List.of(Status.PENDING, Status.PROCESSING);
+
+    private final WebhookEventRepository repo;
+    private final RazorpayWebhookHandler handler;
+    private final TransactionTemplate tx;
+    private final WebhookProps props;
+
+    private final ThreadPoolTaskExecutor[] lanes;
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private final AtomicBoolean wakeQueued = new AtomicBoolean();
+
+    // metrics (since start)
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong lastLagMs = new AtomicLong();
+    private final AtomicLong maxLagMs = new AtomicLong();
+
+    public WebhookEventProcessor(WebhookEventRepository repo,
+                                 RazorpayWebhookHandler handler,
+                                 PlatformTransactionManager txManager,
+                                 WebhookProps props) {
+        this.repo = repo;
+        this.handler = handler;
+        this.tx = new TransactionTemplate(txManager);
+        this.props = props;
+
+        this.lanes = new ThreadPoolTaskExecutor[Math.max(1, props.getLanes())];
+        for (int i = 0; i < lanes.length; i++) {
+            ThreadPoolTaskExecutor ex = new ThreadPoolTaskExecutor();
+            ex.setCorePoolSize(1);
+            ex.setMaxPoolSize(1);
+            ex.setQueueCapacity(props.getLaneQueueCapacity());
+            ex.setThreadNamePrefix("webhook-lane-" + i + "-");
+            ex.setWaitForTasksToCompleteOnShutdown(true);
+            ex.setAwaitTerminationSeconds(10);
+            ex.initialize();
+            lanes[i] = ex;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolTaskExecutor ex : lanes) ex.shutdown();
+    }
+
+    // ---------------- ingest (request thread) ----------------
+
+    /**
+     * Store a signature-verified event. Returns false for a duplicate (already stored), which the
+     * caller still acks with 200. Only throws if the row could not be written (→ 5xx, Razorpay retries).
+     */
+    public boolean ingest(String headerEventId, String body, String signature) {
+        String eventId = (headerEventId != null && !headerEventId.isBlank())
+                ? headerEventId.trim()
+                : "sha256:" + sha256Hex(body);
+        received.incrementAndGet();
+
+        if (repo.existsByEventId(eventId)) {
+            duplicates.incrementAndGet();
+            return false;
+        }
+
+        JSONObject evt = new JSONObject(body);
+        WebhookEvent e = new WebhookEvent();
+        e.setEventId(eventId);
+        e.setEventType(evt.optString("event", ""));
+        e.setLaneKey(laneKey(evt, eventId));
+        e.setPayload(body);
+        e.setSignature(signature);
+        try {
+            repo.save(e);
+        } catch (DataIntegrityViolationException race) {
+            duplicates.incrementAndGet(); // same event delivered concurrently
+            return false;
+        }
+
+        wake();
+        return true;
+    }
+
+    // ---------------- dispatch ----------------
+
+    /** Run a dispatch pass soon on a lane thread (coalesced; the scheduled poll is the safety net). */
+    public void wake() {
+        if (!wakeQueued.compareAndSet(false, true)) return;
+        try {
+            lanes[0].execute(() -> {
+                wakeQueued.set(false);
+                dispatch();
+            });
+        } catch (RejectedExecutionException ex) {
+            wakeQueued.set(false);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.webhooks.poll-interval:PT2S}")
+    public void poll() {
+        Instant now = Instant.now();
+        tx.executeWithoutResult(st -> {
+            repo.requeueStuck(now.minus(props.getStuckAfter()), Status.PENDING, Status.PROCESSING);
+            repo.deleteDoneBefore(Status.DONE, now.minus(props.getRetention()));
+        });
+        dispatch();
+    }
+
+    void dispatch() {
+        if (!dispatchLock.tryLock()) return; // another pass is running; it will see the new rows
+        try {
+            Instant now = Instant.now();
+            Map<String, List<WebhookEvent>> byLane = tx.execute(st -> claimDue(now));
+            if (byLane == null) return;
+
+            byLane.forEach((lane, events) -> {
+                try {
+                    laneExecutor(lane).execute(() -> runLane(events));
+                } catch (RejectedExecutionException full) {
+                    tx.executeWithoutResult(st -> repo.unclaim(ids(events), Status.PENDING, Status.PROCESSING));
+                }
+            });
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    private Map<String, List<WebhookEvent>> claimDue(Instant now) {
+        Set<String> blocked = new HashSet<>(repo.findBlockedLanes(now, Status.PENDING, Status.PROCESSING));
+        List<WebhookEvent> due = repo.findDue(Status.PENDING, now, PageRequest.of(0, props.getBatchSize()));
+
+        Map<String, List<WebhookEvent>> byLane = new LinkedHashMap<>();
+        for (WebhookEvent e : due) {
+            if (blocked.contains(e.getLaneKey())) continue;
+            if (repo.claim(e.getId(), now, Status.PENDING, Status.PROCESSING) == 0) continue; // taken elsewhere
+            byLane.computeIfAbsent(e.getLaneKey(), k -> new ArrayList<>()).add(e);
+        }
+        return byLane;
+    }
+
+    /** Events of one lane, in id order. The first failure stops the lane and releases the rest. */
+    private void runLane(List<WebhookEvent> events) {
+        for (int i = 0; i < events.size(); i++) {
+            WebhookEvent e = events.get(i);
+            try {
+                handler.handle(e);
+                markDone(e);
+            } catch (Exception ex) {
+                markFailedAttempt(e, ex);
+                List<WebhookEvent> rest = events.subList(i + 1, events.size());
+                if (!rest.isEmpty()) {
+                    tx.executeWithoutResult(st -> repo.unclaim(ids(rest), Status.PENDING, Status.PROCESSING));
+                }
+                return;
+            }
+        }
+    }
+
+    private void markDone(WebhookEvent e) {
+        Instant now = Instant.now();
+        tx.executeWithoutResult(st -> repo.findById(e.getId()).ifPresent(row -> {
+            row.setStatus(Status.DONE);
+            row.setAttempts(row.getAttempts() + 1);
+            row.setProcessedAt(now);
+            row.setLastError(null);
+        }));
+        processed.incrementAndGet();
+        long lag = Duration.between(e.getReceivedAt(), now).toMillis();
+        lastLagMs.set(lag);
+        maxLagMs.accumulateAndGet(lag, Math::max);
+    }
+
+    private void markFailedAttempt(WebhookEvent e, Exception ex) {
+        String error = String.valueOf(ex.getMessage());
+        System.err.println("⚠️ Webhook " + e.getEventId() + " (" + e.getEventType() + ") failed: " + error);
+        tx.executeWithoutResult(st -> repo.findById(e.getId()).ifPresent(row -> {
+            int attempts = row.getAttempts() + 1;
+            row.setAttempts(attempts);
+            row.setClaimedAt(null);
+            row.setLastError(error.length() > 500 ? error.substring(0, 500) : error);
+            if (attempts >= props.getMaxAttempts()) {
+                row.setStatus(Status.FAILED); // dead letter; no longer blocks its lane
+                deadLettered.incrementAndGet();
+            } else {
+                row.setStatus(Status.PENDING);
+                row.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+                retries.incrementAndGet();
+            }
+        }));
+    }
+
+    // ---------------- admin ----------------
+
+    public Map<String, Object> stats() {
+        Instant oldestOpen = repo.findOldestReceivedAt(OPEN);
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("pending", repo.countByStatus(Status.PENDING));
+        m.put("processing", repo.countByStatus(Status.PROCESSING));
+        m.put("failed", repo.countByStatus(Status.FAILED));
+        m.put("oldestOpenAgeMs", oldestOpen == null ? 0 : Duration.between(oldestOpen, Instant.now()).toMillis());
+        m.put("received", received.get());
+        m.put("duplicates", duplicates.get());
+        m.put("processed", processed.get());
+        m.put("retries", retries.get());
+        m.put("deadLettered", deadLettered.get());
+        m.put("lastLagMs", lastLagMs.get());
+        m.put("maxLagMs", maxLagMs.get());
+        return m;
+    }
+
+    /** Put a dead-lettered event back in the queue. */
+    public boolean retry(Long id) {
+        Boolean ok = tx.execute(st -> repo.findById(id)
+                .filter(e -> e.getStatus() == Status.FAILED)
+                .map(e -> {
+                    e.setStatus(Status.PENDING);
+                    e.setAttempts(0);
+                    e.setNextAttemptAt(Instant.now());
+                    return true;
+                })
+                .orElse(false));
+        if (Boolean.TRUE.equals(ok)) wake();
+        return Boolean.TRUE.equals(ok);
+    }
+
+    // ---------------- helpers ----------------
+
+    private Executor laneExecutor(String lane) {
+        return lanes[Math.floorMod(lane.hashCode(), lanes.length)];
+    }
+
+    private Duration backoff(int attempts) {
+        Duration d = props.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 16));
+        return d.compareTo(Duration.ofHours(1)) > 0 ? Duration.ofHours(1) : d;
+    }
+
+    /** razorpayOrderId when present (payment.* and most refund.* payloads), else the payment id, else the event itself. */
+    private static String laneKey(JSONObject evt, String eventId) {
+        JSONObject payload = evt.optJSONObject("payload");
+        if (payload != null) {
+            String orderId = entityField(payload, "payment", "order_id");
+            if (orderId != null) return orderId;
+            String paymentId = entityField(payload, "refund", "payment_id");
+            if (paymentId != null) return paymentId;
+        }
+        return eventId;
+    }
+
+    private static String entityField(JSONObject payload, String wrapper, String field) {
+        JSONObject w = payload.optJSONObject(wrapper);
+        JSONObject entity = w != null ? w.optJSONObject("entity") : null;
+        String v = entity != null ? entity.optString(field, null) : null;
+        return (v == null || v.isBlank()) ? null : v;
+    }
+
+    private static List<Long> ids(List<WebhookEvent> events) {
+        return events.stream().map(WebhookEvent::getId).toList();
+    }
+
+    private static String sha256Hex(String body) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(md.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
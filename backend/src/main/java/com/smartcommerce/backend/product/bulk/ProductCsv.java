@@ -0,0 +1,207 @@
+package com.smartcommerce.backend.product.bulk;
+
+import com.smartcommerce.backend.product.dto.ProductImportRow;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * CSV layout of {@link ProductImportRow}: a header row naming the columns (any order, case-insensitive,
+ * unknown columns ignored), tags and photoUrls as "|"-separated lists.
+ */
+public final class ProductCsv {
+
+    public static final List<String> COLUMNS = List.of(
+            "sku", "name", "description", "price", "discountPrice", "rating", "stock", "size",
+            "material", "width", "height", "weight", "category", "tags", "photoUrls");
+
+    private static final String LIST_SEPARATOR = "|";
+
+    private ProductCsv() {}
+
+    /** Streaming RFC 4180 reader: quoted fields may hold commas, quotes ("") and line breaks. */
+    public static final class RecordReader implements Closeable {
+        private final Reader in;
+        private int peeked = -2;
+        private long line = 1;
+        private long recordLine;
+
+        public RecordReader(Reader in) {
+            this.in = in;
+        }
+
+        /** Next record, or null at end of input. */
+        public List<String> next() throws IOException {
+            int c = read();
+            if (c == 0xFEFF && line == 1) c = read(); // UTF-8 BOM written by spreadsheet exports
+            while (c == '\r' || c == '\n') c = read(); // blank lines
+            if (c < 0) return null;
+            recordLine = line;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) throw new IllegalArgumentException("Unterminated quoted field");
+                    if (c == '"') {
+                        int n = read();
+                        if (n == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            c = n;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\r' || c == '\n' || c < 0) {
+                    if (c == '\r') {
+                        int n = read();
+                        if (n != '\n') peeked = n;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        /** Line number the last record started on (1-based, header = 1). */
+        public long recordLine() {
+            return recordLine;
+        }
+
+        private int read() throws IOException {
+            int c;
+            if (peeked != -2) {
+                c = peeked;
+                peeked = -2;
+                return c;
+            }
+            c = in.read();
+            if (c == '\n') line++;
+            return c;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /** Column name (lower case) -> position, from the header record. */
+    public static Map<String, Integer> header(List<String> record) {
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < record.size(); i++) {
+            header.putIfAbsent(record.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.containsKey("sku") || !header.containsKey("name")) {
+            throw new IllegalArgumentException("CSV header must contain at least sku and name");
+        }
+        return header;
+    }
+
+    public static ProductImportRow toRow(Map<String, Integer> header, List<String> record) {
+        Function<String, String> col = name -> {
+            Integer i = header.get(name.toLowerCase(Locale.ROOT));
+            if (i == null || i >= record.size()) return null;
+            String v = record.get(i).trim();
+            return v.isEmpty() ? null : v;
+        };
+        ProductImportRow row = new ProductImportRow();
+        row.setSku(col.apply("sku"));
+        row.setName(col.apply("name"));
+        row.setDescription(col.apply("description"));
+        row.setPrice(decimal("price", col.apply("price")));
+        row.setDiscountPrice(decimal("discountPrice", col.apply("discountPrice")));
+        row.setRating(number("rating", col.apply("rating")));
+        row.setStock(integer("stock", col.apply("stock")));
+        row.setSize(col.apply("size"));
+        row.setMaterial(col.apply("material"));
+        row.setWidth(number("width", col.apply("width")));
+        row.setHeight(number("height", col.apply("height")));
+        row.setWeight(number("weight", col.apply("weight")));
+        row.setCategory(col.apply("category"));
+        row.setTags(list(col.apply("tags")));
+        row.setPhotoUrls(list(col.apply("photoUrls")));
+        return row;
+    }
+
+    public static String headerLine() {
+        return String.join(",", COLUMNS) + "\n";
+    }
+
+    public static String toLine(ProductImportRow row) {
+        List<Object> values = Arrays.asList(
+                row.getSku(), row.getName(), row.getDescription(), row.getPrice(), row.getDiscountPrice(),
+                row.getRating(), row.getStock(), row.getSize(), row.getMaterial(), row.getWidth(),
+                row.getHeight(), row.getWeight(), row.getCategory(),
+                String.join(LIST_SEPARATOR, row.getTags()), String.join(LIST_SEPARATOR, row.getPhotoUrls()));
+        StringBuilder sb = new StringBuilder(256);
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) sb.append(',');
+            Object v = values.get(i);
+            if (v != null) escape(sb, v instanceof BigDecimal d ? d.toPlainString() : v.toString());
+        }
+        return sb.append('\n').toString();
+    }
+
+    private static void escape(StringBuilder sb, String v) {
+        if (v.indexOf(',') < 0 && v.indexOf('"') < 0 && v.indexOf('\n') < 0 && v.indexOf('\r') < 0) {
+            sb.append(v);
+            return;
+        }
+        sb.append('"').append(v.replace("\"", "\"\"")).append('"');
+    }
+
+    private static List<String> list(String v) {
+        List<String> out = new ArrayList<>();
+        if (v == null) return out;
+        for (String s : v.split("\\" + LIST_SEPARATOR)) {
+            if (!s.isBlank()) out.add(s.trim());
+        }
+        return out;
+    }
+
+    private static BigDecimal decimal(String column, String v) {
+        try {
+            return v == null ? null : new BigDecimal(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + v);
+        }
+    }
+
+    private static Double number(String column, String v) {
+        try {
+            return v == null ? null : Double.valueOf(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + v);
+        }
+    }
+
+    private static Integer integer(String column, String v) {
+        try {
+            return v == null ? null : Integer.valueOf(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + v);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.smartcommerce.backend.product.bulk;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Progress of one bulk import, readable while the import runs. */
+public class ProductImportJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private final String id;
+    private final String format;
+    private final long bytes;
+    private final int maxErrors;
+    private final Instant createdAt = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();   // SKU already in the catalog or earlier in the file
+    private final AtomicLong invalid = new AtomicLong();   // parse / validation errors
+    private final AtomicLong failed = new AtomicLong();    // rows of chunks whose transaction rolled back
+    private final List<Map<String, Object>> errors = new ArrayList<>();
+
+    public ProductImportJob(String id, String format, long bytes, int maxErrors) {
+        this.id = id;
+        this.format = format;
+        this.bytes = bytes;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getId() { return id; }
+    public String getFormat() { return format; }
+    public Status getStatus() { return status; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public long getInserted() { return inserted.get(); }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void finish(String failure) {
+        this.failure = failure;
+        finishedAt = Instant.now();
+        status = failure == null ? Status.DONE : Status.FAILED;
+    }
+
+    void rowRead() { read.incrementAndGet(); }
+    void inserted(int n) { inserted.addAndGet(n); }
+
+    void skipped(long line, String sku, String reason) {
+        skipped.incrementAndGet();
+        error(line, sku, reason);
+    }
+
+    void invalid(long line, String sku, String reason) {
+        invalid.incrementAndGet();
+        error(line, sku, reason);
+    }
+
+    void failed(int rows, long line, String reason) {
+        failed.addAndGet(rows);
+        error(line, null, reason);
+    }
+
+    private synchronized void error(long line, String sku, String reason) {
+        if (errors.size() >= maxErrors) return;
+        Map<String, Object> e = new LinkedHashMap<>();
+        e.put("line", line);
+        if (sku != null) e.put("sku", sku);
+        e.put("error", reason);
+        errors.add(e);
+    }
+
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("jobId", id);
+        m.put("status", status);
+        m.put("format", format);
+        m.put("bytes", bytes);
+        m.put("read", read.get());
+        m.put("inserted", inserted.get());
+        m.put("skipped", skipped.get());
+        m.put("invalid", invalid.get());
+        m.put("failed", failed.get());
+        m.put("createdAt", createdAt.toString());
+        if (startedAt != null) m.put("startedAt", startedAt.toString());
+        if (finishedAt != null) m.put("finishedAt", finishedAt.toString());
+        if (startedAt != null) {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            long ms = Math.max(1, end.toEpochMilli() - startedAt.toEpochMilli());
+            m.put("elapsedMs", ms);
+            m.put("rowsPerSecond", read.get() * 1000 / ms);
+        }
+        if (failure != null) m.put("failure", failure);
+        m.put("errors", List.copyOf(errors));
+        return m;
+    }
+}
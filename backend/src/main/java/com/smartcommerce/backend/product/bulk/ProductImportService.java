@@ -0,0 +1,393 @@
+package com.smartcommerce.backend.product.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcommerce.backend.common.Money;
+import com.smartcommerce.backend.config.CatalogImportProps;
+import com.smartcommerce.backend.product.cache.CatalogCache;
+import com.smartcommerce.backend.product.dto.ProductImportRow;
+import com.smartcommerce.backend.product.search.ProductSearchIndex;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Bulk product import from CSV or JSON Lines.
+ *
+ * The upload is streamed to a temp file and the request returns a job id right away; one import runs
+ * at a time on the "catalogImportExecutor". The file is parsed row by row (never held in memory) and
+ * inserted in chunks of app.catalog-import.chunk-size, each chunk in its own transaction:
+ * one IN query to find SKUs that already exist, then one JDBC batch per table (products, tags,
+ * photos). Plain JDBC because Product uses IDENTITY ids, which turns off Hibernate's insert batching.
+ * Rows with errors are counted and reported, they never stop the import.
+ */
+@Service
+public class ProductImportService {
+
+    private static final String INSERT_PRODUCT =
+            "insert into products (sku, name, description, price, discount_price, effective_price, rating, stock, "
+                    + "in_stock, size, material, width, height, weight, category_id, created_at, updated_at) "
+                    + "values (:sku, :name, :description, :price, :discountPrice, :effectivePrice, :rating, :stock, "
+                    + ":inStock, :size, :material, :width, :height, :weight, :categoryId, :now, :now)";
+    private static final String INSERT_TAG = "insert into product_tags (product_id, tags) values (:productId, :tag)";
+    private static final String INSERT_PHOTO =
+            "insert into product_photos (product_id, photo_url, variant_attempts) values (:productId, :url, 0)";
+
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99"); // precision 10, scale 2
+
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final TaskExecutor executor;
+    private final ObjectMapper objectMapper;
+    private final CatalogCache catalogCache;
+    private final ProductSearchIndex searchIndex;
+    private final CatalogImportProps props;
+
+    // recent jobs, oldest first
+    private final Map<String, ProductImportJob> jobs = new LinkedHashMap<>();
+
+    public ProductImportService(NamedParameterJdbcTemplate jdbc,
+                                PlatformTransactionManager txManager,
+                                @Qualifier("catalogImportExecutor") TaskExecutor executor,
+                                ObjectMapper objectMapper,
+                                CatalogCache catalogCache,
+                                ProductSearchIndex searchIndex,
+                                CatalogImportProps props) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.executor = executor;
+        this.objectMapper = objectMapper;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
+        this.props = props;
+    }
+
+    /** Spools the upload to disk and queues the import. Throws RejectedExecutionException when imports are backed up. */
+    public ProductImportJob start(InputStream body, String format) throws IOException {
+        String fmt = normalizeFormat(format);
+        Path file = Files.createTempFile("catalog-import-", "." + fmt);
+        long bytes;
+        try {
+            bytes = spool(body, file, props.getMaxUploadSize().toBytes());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+
+        ProductImportJob job = new ProductImportJob(UUID.randomUUID().toString(), fmt, bytes, props.getMaxErrors());
+        register(job);
+        try {
+            executor.execute(() -> run(job, file));
+        } catch (RejectedExecutionException e) {
+            Files.deleteIfExists(file);
+            synchronized (jobs) {
+                jobs.remove(job.getId());
+            }
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<ProductImportJob> getJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    public List<Map<String, Object>> recentJobs() {
+        List<ProductImportJob> copy;
+        synchronized (jobs) {
+            copy = new ArrayList<>(jobs.values());
+        }
+        Collections.reverse(copy);
+        return copy.stream().map(ProductImportJob::toMap).toList();
+    }
+
+    public static String normalizeFormat(String format) {
+        if (format == null) throw new IllegalArgumentException("format must be csv or jsonl");
+        return switch (format.trim().toLowerCase(Locale.ROOT)) {
+            case "csv" -> "csv";
+            case "jsonl", "ndjson" -> "jsonl";
+            default -> throw new IllegalArgumentException("format must be csv or jsonl");
+        };
+    }
+
+    // ---------------- worker ----------------
+
+    void run(ProductImportJob job, Path file) {
+        job.start();
+        String failure = null;
+        try (RowSource rows = "csv".equals(job.getFormat()) ? csv(file) : jsonl(file)) {
+            Map<String, Long> categories = loadCategories();
+            Set<String> seen = new HashSet<>();
+            List<Parsed> chunk = new ArrayList<>(props.getChunkSize());
+
+            Parsed p;
+            while ((p = rows.next()) != null) {
+                job.rowRead();
+                if (p.error() != null) {
+                    job.invalid(p.line(), p.row() != null ? p.row().getSku() : null, p.error());
+                    continue;
+                }
+                String error = validate(p.row(), categories);
+                if (error != null) {
+                    job.invalid(p.line(), p.row().getSku(), error);
+                    continue;
+                }
+                if (!seen.add(p.row().getSku())) {
+                    job.skipped(p.line(), p.row().getSku(), "Duplicate SKU in file");
+                    continue;
+                }
+                chunk.add(p);
+                if (chunk.size() >= props.getChunkSize()) {
+                    flush(job, chunk, categories);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) flush(job, chunk, categories);
+        } catch (Exception e) {
+            failure = e.getMessage();
+            System.err.println("⚠️ Catalog import " + job.getId() + " failed: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+            }
+            if (job.getInserted() > 0) searchIndex.rebuild(); // one reload instead of one index update per row
+            job.finish(failure);
+        }
+    }
+
+    private void flush(ProductImportJob job, List<Parsed> chunk, Map<String, Long> categories) {
+        try {
+            Integer inserted = tx.execute(st -> insertChunk(job, chunk, categories));
+            job.inserted(inserted != null ? inserted : 0);
+            catalogCache.evictAllProducts(); // each committed chunk is visible right away
+        } catch (RuntimeException e) {
+            // e.g. a SKU created concurrently: the whole chunk rolled back, report it and go on
+            job.failed(chunk.size(), chunk.get(0).line(), "Chunk of " + chunk.size() + " rows rolled back: " + e.getMessage());
+        }
+    }
+
+    private int insertChunk(ProductImportJob job, List<Parsed> chunk, Map<String, Long> categories) {
+        List<String> skus = chunk.stream().map(p -> p.row().getSku()).toList();
+        Set<String> existing = new HashSet<>(jdbc.queryForList(
+                "select sku from products where sku in (:skus)", Map.of("skus", skus), String.class));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ProductImportRow> rows = new ArrayList<>(chunk.size());
+        List<MapSqlParameterSource> params = new ArrayList<>(chunk.size());
+        for (Parsed p : chunk) {
+            ProductImportRow r = p.row();
+            if (existing.contains(r.getSku())) {
+                job.skipped(p.line(), r.getSku(), "SKU already exists");
+                continue;
+            }
+            rows.add(r);
+            params.add(new MapSqlParameterSource()
+                    .addValue("sku", r.getSku())
+                    .addValue("name", r.getName())
+                    .addValue("description", r.getDescription())
+                    .addValue("price", r.getPrice())
+                    .addValue("discountPrice", r.getDiscountPrice())
+                    .addValue("effectivePrice", Money.rupees(Money.effective(Money.paise(r.getPrice()), Money.paise(r.getDiscountPrice()))))
+                    .addValue("rating", r.getRating() != null ? r.getRating() : 0.0)
+                    .addValue("stock", r.getStock())
+                    .addValue("inStock", r.getStock() == null || r.getStock() > 0)
+                    .addValue("size", r.getSize())
+                    .addValue("material", r.getMaterial())
+                    .addValue("width", r.getWidth())
+                    .addValue("height", r.getHeight())
+                    .addValue("weight", r.getWeight())
+                    .addValue("categoryId", categoryId(r, categories))
+                    .addValue("now", now));
+        }
+        if (rows.isEmpty()) return 0;
+        jdbc.batchUpdate(INSERT_PRODUCT, params.toArray(MapSqlParameterSource[]::new));
+
+        // generated ids by SKU (unique), one query for the chunk
+        Map<String, Long> ids = new HashMap<>();
+        jdbc.query("select id, sku from products where sku in (:skus)",
+                Map.of("skus", rows.stream().map(ProductImportRow::getSku).toList()),
+                rs -> {
+                    ids.put(rs.getString("sku"), rs.getLong("id"));
+                });
+
+        List<MapSqlParameterSource> tags = new ArrayList<>();
+        List<MapSqlParameterSource> photos = new ArrayList<>();
+        for (ProductImportRow r : rows) {
+            Long id = ids.get(r.getSku());
+            r.getTags().forEach(t -> tags.add(new MapSqlParameterSource("productId", id).addValue("tag", t)));
+            r.getPhotoUrls().forEach(u -> photos.add(new MapSqlParameterSource("productId", id).addValue("url", u)));
+        }
+        if (!tags.isEmpty()) jdbc.batchUpdate(INSERT_TAG, tags.toArray(MapSqlParameterSource[]::new));
+        if (!photos.isEmpty()) jdbc.batchUpdate(INSERT_PHOTO, photos.toArray(MapSqlParameterSource[]::new));
+        return rows.size();
+    }
+
+    // null = valid; also normalizes the row (trimmed SKU, 2-decimal prices)
+    private String validate(ProductImportRow r, Map<String, Long> categories) {
+        if (r.getSku() == null || r.getSku().isBlank()) return "sku is required";
+        r.setSku(r.getSku().trim());
+        if (r.getSku().length() > 255) return "sku is longer than 255";
+        if (r.getName() == null || r.getName().isBlank()) return "name is required";
+        if (r.getName().length() > 255) return "name is longer than 255";
+        if (r.getDescription() != null && r.getDescription().length() > 1000) return "description is longer than 1000";
+        if (r.getPrice() == null) return "price is required";
+        if (r.getPrice().signum() < 0 || r.getPrice().compareTo(MAX_PRICE) > 0) return "price out of range";
+        if (r.getDiscountPrice() != null
+                && (r.getDiscountPrice().signum() < 0 || r.getDiscountPrice().compareTo(MAX_PRICE) > 0)) {
+            return "discountPrice out of range";
+        }
+        if (r.getPrice().scale() > 2 || r.getDiscountPrice() != null && r.getDiscountPrice().scale() > 2) {
+            return "prices have at most 2 decimals";
+        }
+        if (r.getStock() != null && r.getStock() < 0) return "stock must not be negative";
+        if (r.getRating() != null && (r.getRating() < 0 || r.getRating() > 5)) return "rating must be between 0 and 5";
+        for (String t : r.getTags()) {
+            if (t == null || t.length() > 255) return "tags must be non-empty and at most 255 characters";
+        }
+        for (String u : r.getPhotoUrls()) {
+            if (u == null || u.isBlank() || u.length() > 255) return "photoUrls must be non-empty and at most 255 characters";
+        }
+        if (categoryId(r, categories) == null) return "Unknown category: " + r.getCategory();
+        return null;
+    }
+
+    private static Long categoryId(ProductImportRow r, Map<String, Long> categories) {
+        String name = r.getCategory() == null || r.getCategory().isBlank() ? "general" : r.getCategory().trim();
+        return categories.get(name.toLowerCase(Locale.ROOT));
+    }
+
+    private Map<String, Long> loadCategories() {
+        Map<String, Long> out = new HashMap<>();
+        jdbc.query("select id, name from categories", rs -> {
+            out.put(rs.getString("name").toLowerCase(Locale.ROOT), rs.getLong("id"));
+        });
+        return out;
+    }
+
+    private void register(ProductImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            // forget the oldest finished jobs beyond keep-jobs
+            Iterator<ProductImportJob> it = jobs.values().iterator();
+            while (jobs.size() > props.getKeepJobs() && it.hasNext()) {
+                if (it.next().getFinishedAt() != null) it.remove();
+            }
+        }
+    }
+
+    private static long spool(InputStream in, Path file, long max) throws IOException {
+        byte[] buf = new byte[64 * 1024];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) >= 0) {
+                total += n;
+                if (total > max) throw new IllegalArgumentException("Import file is larger than " + max + " bytes");
+                out.write(buf, 0, n);
+            }
+        }
+        return total;
+    }
+
+    // ---------------- parsing ----------------
+
+    private record Parsed(long line, ProductImportRow row, String error) {}
+
+    private interface RowSource extends Closeable {
+        /** Next row (possibly with a parse error), null at end of file. */
+        Parsed next() throws IOException;
+    }
+
+    private RowSource csv(Path file) throws IOException {
+        ProductCsv.RecordReader reader = new ProductCsv.RecordReader(Files.newBufferedReader(file, StandardCharsets.UTF_8));
+        List<String> first = reader.next();
+        if (first == null) {
+            reader.close();
+            return emptySource();
+        }
+        Map<String, Integer> header;
+        try {
+            header = ProductCsv.header(first);
+        } catch (IllegalArgumentException e) {
+            reader.close();
+            throw e;
+        }
+        return new RowSource() {
+            @Override
+            public Parsed next() throws IOException {
+                List<String> record = reader.next();
+                if (record == null) return null;
+                try {
+                    return new Parsed(reader.recordLine(), ProductCsv.toRow(header, record), null);
+                } catch (IllegalArgumentException e) {
+                    return new Parsed(reader.recordLine(), null, e.getMessage());
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    private RowSource jsonl(Path file) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return new RowSource() {
+            private long line;
+
+            @Override
+            public Parsed next() throws IOException {
+                String text;
+                do {
+                    text = reader.readLine();
+                    line++;
+                    if (text == null) return null;
+                } while (text.isBlank());
+                try {
+                    return new Parsed(line, objectMapper.readValue(text, ProductImportRow.class), null);
+                } catch (JsonProcessingException e) {
+                    return new Parsed(line, null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    private static RowSource emptySource() {
+        return new RowSource() {
+            @Override
+            public Parsed next() {
+                return null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+}
@@ -0,0 +1,258 @@
+package com.smartcommerce.backend.product.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.smartcommerce.backend.product.entity.Category;
+import com.smartcommerce.backend.product.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for products and categories (size + TTL eviction).
+ *
+ * Entries are loaded through a private, short-lived EntityManager (never the request's one),
+ * fully initialized and then detached when it closes, so they are safe to share between
+ * requests and must be treated as read-only. Every write path evicts the affected ids;
+ * inside a transaction the eviction is repeated after commit so a concurrent reader
+ * cannot re-populate the entry with pre-commit data.
+ *
+ * Every eviction except {@link #evictStock} also bumps a catalog version (products / categories);
+ * evictStock bumps a separate stock version instead. Versions are local to this instance: carts use the
+ * products version to know when to reprice, and {@link CatalogHttpCache} uses all three to reload its
+ * validators early. They are not validators themselves.
+ */
+@Component
+public class CatalogCache {
+
+    private static final String ALL_CATEGORIES = "all";
+
+    private final EntityManagerFactory emf;
+
+    private final Cache<Long, Product> products;
+    private final Cache<Long, Category> categories;
+    private final Cache<String, List<Category>> categoryLists;
+
+    private final AtomicLong productsVersion = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong categoriesVersion = new AtomicLong(System.currentTimeMillis());
+    private final AtomicLong stockVersion = new AtomicLong(System.currentTimeMillis());
+
+    public CatalogCache(EntityManagerFactory emf,
+                        @Value("${app.catalog-cache.max-products:10000}") long maxProducts,
+                        @Value("${app.catalog-cache.max-categories:500}") long maxCategories,
+                        @Value("${app.catalog-cache.ttl:PT10M}") Duration ttl) {
+        this.emf = emf;
+
+        this.products = Caffeine.newBuilder()
+                .maximumSize(maxProducts)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.categories = Caffeine.newBuilder()
+                .maximumSize(maxCategories)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.categoryLists = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    // ---------------- Reads ----------------
+
+    public Optional<Product> getProduct(Long id) {
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(products.get(id, this::loadProduct));
+    }
+
+    /** Bulk lookup; missing ids are simply absent from the result. */
+    public Map<Long, Product> getProducts(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return Map.of();
+        return products.getAll(ids, this::loadProducts);
+    }
+
+    public Optional<Category> getCategory(Long id) {
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(categories.get(id, this::loadCategory));
+    }
+
+    public List<Category> getAllCategories() {
+        return categoryLists.get(ALL_CATEGORIES, k -> loadAllCategories());
+    }
+
+    // ---------------- Invalidation ----------------
+
+    public void evictProduct(Long id) {
+        if (id == null) return;
+        evictProducts(List.of(id));
+    }
+
+    public void evictProducts(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return;
+        List<Long> copy = List.copyOf(ids);
+        Runnable evict = () -> {
+            products.invalidateAll(copy);
+            bump(productsVersion);
+        };
+        evict.run();
+        afterCommit(evict);
+    }
+
+    /**
+     * Stock moved (checkout hold, release, commit): the cached rows are dropped and the stock version moves.
+     * Prices, names and photos are unchanged, so the products version stays put and carts are not repriced for it.
+     */
+    public void evictStock(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return;
+        List<Long> copy = List.copyOf(ids);
+        Runnable evict = () -> {
+            products.invalidateAll(copy);
+            bump(stockVersion);
+        };
+        evict.run();
+        afterCommit(evict);
+    }
+
+    public void evictAllProducts() {
+        Runnable evict = () -> {
+            products.invalidateAll();
+            bump(productsVersion);
+        };
+        evict.run();
+        afterCommit(evict);
+    }
+
+    public void evictCategory(Long id) {
+        Runnable evict = () -> {
+            if (id != null) categories.invalidate(id);
+            categoryLists.invalidateAll();
+            bump(categoriesVersion);
+        };
+        evict.run();
+        afterCommit(evict);
+    }
+
+    // ---------------- Versions ----------------
+
+    /** Changes whenever any product's fields or photos may have changed on this instance (not on stock moves). */
+    public long productsVersion() {
+        return productsVersion.get();
+    }
+
+    /** Changes whenever any category may have changed on this instance. */
+    public long categoriesVersion() {
+        return categoriesVersion.get();
+    }
+
+    /** Changes whenever stock moved on this instance without a products version bump. */
+    public long stockVersion() {
+        return stockVersion.get();
+    }
+
+    // next version = max(previous + 1, now)
+    private static void bump(AtomicLong version) {
+        long now = System.currentTimeMillis();
+        version.accumulateAndGet(now, (prev, t) -> Math.max(prev + 1, t));
+    }
+
+    // ---------------- Stats ----------------
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("products", describe(products.stats(), products.estimatedSize()));
+        out.put("categories", describe(categories.stats(), categories.estimatedSize()));
+        out.put("categoryLists", describe(categoryLists.stats(), categoryLists.estimatedSize()));
+        out.put("productsVersion", productsVersion.get());
+        out.put("categoriesVersion", categoriesVersion.get());
+        out.put("stockVersion", stockVersion.get());
+        return out;
+    }
+
+    public void clear() {
+        products.invalidateAll();
+        categories.invalidateAll();
+        categoryLists.invalidateAll();
+        bump(productsVersion);
+        bump(categoriesVersion);
+    }
+
+    // ---------------- Loaders ----------------
+
+    private Product loadProduct(Long id) {
+        return loadProducts(Set.of(id)).get(id);
+    }
+
+    // two set-based queries whatever the number of ids: products + tags, then photos
+    private Map<Long, Product> loadProducts(Set<? extends Long> ids) {
+        return withEntityManager(em -> {
+            List<Product> rows = em.createQuery(
+                            "select distinct p from Product p left join fetch p.tags where p.id in :ids",
+                            Product.class)
+                    .setParameter("ids", ids)
+                    .getResultList();
+            if (!rows.isEmpty()) {
+                em.createQuery("select distinct p from Product p left join fetch p.photos where p in :products",
+                                Product.class)
+                        .setParameter("products", rows)
+                        .getResultList();
+            }
+            Map<Long, Product> byId = new HashMap<>();
+            for (Product p : rows) {
+                Hibernate.initialize(p.getPhotos());
+                byId.put(p.getId(), p);
+            }
+            return byId;
+        });
+    }
+
+    private Category loadCategory(Long id) {
+        return withEntityManager(em -> em.find(Category.class, id));
+    }
+
+    private List<Category> loadAllCategories() {
+        return withEntityManager(em -> List.copyOf(
+                em.createQuery("select c from Category c", Category.class).getResultList()));
+    }
+
+    // everything loaded here is detached once the EntityManager closes
+    private <T> T withEntityManager(Function<EntityManager, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Map<String, Object> describe(CacheStats s, long size) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("size", size);
+        m.put("hits", s.hitCount());
+        m.put("misses", s.missCount());
+        m.put("evictions", s.evictionCount());
+        m.put("hitRate", s.hitRate());
+        return m;
+    }
+}
@@ -0,0 +1,122 @@
+package com.smartcommerce.backend.product.cache;
+
+import com.smartcommerce.backend.config.HttpCacheProps;
+import com.smartcommerce.backend.product.entity.Product;
+import com.smartcommerce.backend.product.repository.CategoryRepository;
+import com.smartcommerce.backend.product.repository.ProductRepository;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Conditional GET for the public catalog endpoints.
+ *
+ * Validators are derived from the data: max(updatedAt) and row count of products and categories
+ * (an insert or update moves the max, a delete moves the count), plus a product's own updatedAt.
+ * Stock moves write updatedAt too, so the stock counts inside cached responses never outlive their validators.
+ * Every instance behind a load balancer therefore hands out the same ETag for the same catalog.
+ * The two aggregate queries (index-only on idx_products_updated) are memoized for
+ * app.http-cache.validator-ttl, and reloaded at once when one of this instance's {@link CatalogCache}
+ * versions (products, categories, stock) moves, so a local write is visible to the next request. Usage in a controller:
+ * <pre>
+ *     if (httpCache.checkProducts(request, "products")) return null; // 304 already written
+ * </pre>
+ * Every call also sets the endpoint's Cache-Control policy (app.http-cache.policies.&lt;endpoint&gt;).
+ */
+@Component
+public class CatalogHttpCache {
+
+    private final CatalogCache catalogCache;
+    private final ProductRepository productRepo;
+    private final CategoryRepository categoryRepo;
+    private final HttpCacheProps props;
+
+    private volatile State state;
+
+    public CatalogHttpCache(CatalogCache catalogCache, ProductRepository productRepo,
+                            CategoryRepository categoryRepo, HttpCacheProps props) {
+        this.catalogCache = catalogCache;
+        this.productRepo = productRepo;
+        this.categoryRepo = categoryRepo;
+        this.props = props;
+    }
+
+    /** Responses built from products and the categories they embed (lists, search). */
+    public boolean checkCatalog(WebRequest request, String endpoint) {
+        if (!props.isEnabled()) return false;
+        State s = state();
+        return check(request, endpoint, "\"pc-" + s.products() + "-" + s.categories() + "\"",
+                Math.max(s.products().modified(), s.categories().modified()));
+    }
+
+    /** Responses built from product columns only (keyset cards). */
+    public boolean checkProducts(WebRequest request, String endpoint) {
+        if (!props.isEnabled()) return false;
+        State s = state();
+        return check(request, endpoint, "\"p-" + s.products() + "\"", s.products().modified());
+    }
+
+    /** Responses built from categories only. */
+    public boolean checkCategories(WebRequest request, String endpoint) {
+        if (!props.isEnabled()) return false;
+        State s = state();
+        return check(request, endpoint, "\"c-" + s.categories() + "\"", s.categories().modified());
+    }
+
+    /** One product (with its photos, tags and embedded category). */
+    public boolean checkProduct(WebRequest request, String endpoint, Product product) {
+        if (!props.isEnabled()) return false;
+        Table categories = state().categories();
+        long updated = millis(product.getUpdatedAt());
+        String etag = "\"p" + product.getId() + "-" + updated + "-" + categories + "\"";
+        return check(request, endpoint, etag, Math.max(updated, categories.modified()));
+    }
+
+    // sets Cache-Control + ETag + Last-Modified; true = request validators match and a 304 has been written
+    private boolean check(WebRequest request, String endpoint, String etag, long lastModified) {
+        if (request instanceof ServletWebRequest servlet && servlet.getResponse() != null) {
+            servlet.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, props.policyFor(endpoint));
+        }
+        return request.checkNotModified(etag, lastModified);
+    }
+
+    // 🔁 Memoized table states; versions are read before the queries so a write racing the load reloads again
+    private State state() {
+        long productsVersion = catalogCache.productsVersion();
+        long categoriesVersion = catalogCache.categoriesVersion();
+        long stockVersion = catalogCache.stockVersion();
+        long now = System.nanoTime();
+        State s = state;
+        if (s != null && s.productsVersion() == productsVersion && s.categoriesVersion() == categoriesVersion
+                && s.stockVersion() == stockVersion && now - s.loadedAt() < props.getValidatorTtl().toNanos()) {
+            return s;
+        }
+        s = new State(productsVersion, categoriesVersion, stockVersion, now,
+                Table.of(productRepo.findCatalogState()), Table.of(categoryRepo.findCatalogState()));
+        state = s;
+        return s;
+    }
+
+    private static long millis(LocalDateTime t) {
+        return t != null ? t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+    }
+
+    private record State(long productsVersion, long categoriesVersion, long stockVersion, long loadedAt,
+                         Table products, Table categories) {}
+
+    // toString() is the ETag part: "<max updatedAt millis>.<row count>"
+    private record Table(long modified, long rows) {
+        static Table of(ProductRepository.CatalogState s) {
+            return new Table(millis(s.getLastModified()), s.getTotal() != null ? s.getTotal() : 0L);
+        }
+
+        @Override
+        public String toString() {
+            return modified + "." + rows;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.smartcommerce.backend.product.controller;
+
+import com.smartcommerce.backend.product.cache.CatalogCache;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/catalog/cache")
+public class AdminCatalogCacheController {
+
+    private final CatalogCache catalogCache;
+
+    public AdminCatalogCacheController(CatalogCache catalogCache) {
+        this.catalogCache = catalogCache;
+    }
+
+    // Admin: hit / miss / eviction counters per cache
+    @GetMapping
+    public Map<String, Object> stats() {
+        return catalogCache.stats();
+    }
+
+    // Admin: drop everything (e.g. after manual DB edits)
+    @DeleteMapping
+    public String clear() {
+        catalogCache.clear();
+        return "Catalog cache cleared";
+    }
+}
@@ -1,24 +1,43 @@
 package com.smartcommerce.backend.product.controller;
 
+import com.smartcommerce.backend.product.cache.CatalogCache;
 import com.smartcommerce.backend.product.entity.Category;
+import com.smartcommerce.backend.product.entity.ProductPhoto;
+import com.smartcommerce.backend.product.image.PhotoVariantService;
 import com.smartcommerce.backend.product.repository.CategoryRepository;
+import com.smartcommerce.backend.product.repository.ProductPhotoRepository;
+import com.smartcommerce.backend.product.search.ProductSearchIndex;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/admin/categories")
 public class AdminCategoryController {
 
     private final CategoryRepository categoryRepo;
+    private final CatalogCache catalogCache;
+    private final ProductSearchIndex searchIndex;
+    private final ProductPhotoRepository photoRepo;
+    private final PhotoVariantService photoVariants;
 
-    public AdminCategoryController(CategoryRepository categoryRepo) {
+    public AdminCategoryController(CategoryRepository categoryRepo, CatalogCache catalogCache,
+                                   ProductSearchIndex searchIndex, ProductPhotoRepository photoRepo,
+                                   PhotoVariantService photoVariants) {
         this.categoryRepo = categoryRepo;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
+        this.photoRepo = photoRepo;
+        this.photoVariants = photoVariants;
     }
 
     // Admin: create category
     @PostMapping
     public Category createCategory(@RequestBody Category category) {
         // all fields: name, description, icon
-        return categoryRepo.save(category);
+        Category saved = categoryRepo.save(category);
+        catalogCache.evictCategory(saved.getId());
+        return saved;
     }
 
     // Admin: update category
@@ -31,13 +50,22 @@ public class AdminCategoryController {
         category.setDescription(updatedCategory.getDescription());
         category.setIcon(updatedCategory.getIcon()); // ✅ update icon too
 
-        return categoryRepo.save(category);
+        Category saved = categoryRepo.save(category);
+        catalogCache.evictCategory(id);
+        catalogCache.evictAllProducts(); // cached products embed their category
+        return saved;
     }
 
     // Admin: delete category
     @DeleteMapping("/{id}")
     public String deleteCategory(@PathVariable Long id) {
+        // photo rows of the cascade-deleted products take their files with them once the delete has committed
+        List<ProductPhoto> photos = photoRepo.findByProduct_Category_Id(id);
         categoryRepo.deleteById(id);
+        photoVariants.deleteFilesAfterCommit(photos);
+        catalogCache.evictCategory(id);
+        catalogCache.evictAllProducts(); // products of the category are cascade-deleted
+        searchIndex.removeCategory(id);
         return "Category deleted successfully!";
     }
 }
@@ -0,0 +1,82 @@
+package com.smartcommerce.backend.product.controller;
+
+import com.smartcommerce.backend.product.bulk.ProductExportService;
+import com.smartcommerce.backend.product.bulk.ProductImportJob;
+import com.smartcommerce.backend.product.bulk.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/api/admin/products")
+public class AdminProductBulkController {
+
+    private final ProductImportService importService;
+    private final ProductExportService exportService;
+
+    public AdminProductBulkController(ProductImportService importService, ProductExportService exportService) {
+        this.importService = importService;
+        this.exportService = exportService;
+    }
+
+    // 📥 Bulk import: raw CSV / JSON Lines body (format from ?format= or the Content-Type), runs in the background
+    @PostMapping("/import")
+    public ResponseEntity<?> importProducts(@RequestParam(required = false) String format,
+                                            HttpServletRequest request) throws IOException {
+        String fmt = format != null ? format : formatOf(request.getContentType());
+        try {
+            ProductImportJob job = importService.start(request.getInputStream(), fmt);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job.toMap());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Map.of("error", "Too many imports queued, try again later"));
+        }
+    }
+
+    // Progress / result of one import
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<?> importStatus(@PathVariable String jobId) {
+        return importService.getJob(jobId)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(job.toMap()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", "Import not found")));
+    }
+
+    // Recent imports, newest first
+    @GetMapping("/import")
+    public List<Map<String, Object>> imports() {
+        return importService.recentJobs();
+    }
+
+    // 📤 Streaming export of the whole catalog in the import format
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "csv") String format) {
+        String fmt = ProductImportService.normalizeFormat(format);
+        MediaType type = "csv".equals(fmt)
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        return ResponseEntity.ok()
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + fmt + "\"")
+                .body(out -> exportService.export(fmt, out));
+    }
+
+    private static String formatOf(String contentType) {
+        if (contentType == null) return null;
+        String ct = contentType.toLowerCase(Locale.ROOT);
+        if (ct.startsWith("text/csv")) return "csv";
+        if (ct.startsWith("application/x-ndjson") || ct.startsWith("application/jsonl")
+                || ct.startsWith("application/x-jsonlines")) return "jsonl";
+        return null;
+    }
+}
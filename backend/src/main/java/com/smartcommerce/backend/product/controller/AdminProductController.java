@@ -1,11 +1,15 @@
 package com.smartcommerce.backend.product.controller;
 
+import com.smartcommerce.backend.config.StorageProps;
+import com.smartcommerce.backend.product.cache.CatalogCache;
 import com.smartcommerce.backend.product.entity.Product;
 import com.smartcommerce.backend.product.entity.ProductPhoto;
+import com.smartcommerce.backend.product.image.PhotoFiles;
+import com.smartcommerce.backend.product.image.PhotoVariantService;
 import com.smartcommerce.backend.product.repository.ProductPhotoRepository;
 import com.smartcommerce.backend.product.repository.ProductRepository;
 import com.smartcommerce.backend.product.service.ProductService;
-import org.springframework.beans.factory.annotation.Value;
+import com.smartcommerce.backend.product.storage.PhotoStorage;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -15,28 +19,36 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/admin/products")
 public class AdminProductController {
 
-    // ✅ inject base URL from application.properties
-    @Value("${app.base-url}")
-    private String baseUrl;
-
     private final ProductService productService;
     private final ProductRepository productRepository;
     private final ProductPhotoRepository productPhotoRepository;
+    private final CatalogCache catalogCache;
+    private final PhotoVariantService photoVariants;
+    private final PhotoStorage storage;
 
-    private final String uploadDir = "uploads/productPhotos/";
+    private final String stagingDir;
 
     public AdminProductController(ProductService productService,
                                   ProductRepository productRepository,
-                                  ProductPhotoRepository productPhotoRepository) {
+                                  ProductPhotoRepository productPhotoRepository,
+                                  CatalogCache catalogCache,
+                                  PhotoVariantService photoVariants,
+                                  PhotoStorage storage,
+                                  StorageProps storageProps) {
         this.productService = productService;
         this.productRepository = productRepository;
         this.productPhotoRepository = productPhotoRepository;
+        this.catalogCache = catalogCache;
+        this.photoVariants = photoVariants;
+        this.storage = storage;
+        this.stagingDir = storageProps.getLocalDir();
     }
 
     // Get all products for a given category
@@ -79,32 +91,40 @@ public class AdminProductController {
         }
         Product product = productOpt.get();
 
+        for (MultipartFile file : files) {
+            String type = file.getContentType();
+            if (!file.isEmpty() && (type == null || !type.startsWith("image/"))) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("error", "Not an image: " + file.getOriginalFilename()));
+            }
+        }
+
         List<String> urls = new ArrayList<>();
 
         try {
             for (MultipartFile file : files) {
                 if (file.isEmpty()) continue;
 
-                // generate unique filename
-                String filename = UUID.randomUUID() + "_" + file.getOriginalFilename();
-
-                // save file to local uploads dir
-                Path path = Paths.get(uploadDir, filename);
-                Files.createDirectories(path.getParent());
-                Files.write(path, file.getBytes());
+                // stream to disk (never the whole file on heap), then name it by content hash
+                String filename = storeOriginal(file);
 
-                // ✅ build public URL dynamically
-                String url = baseUrl + "/uploads/productPhotos/" + filename;
+                // ✅ public URL comes from the storage backend (local /uploads/... or bucket/CDN)
+                String url = storage.publicUrl(filename);
 
                 // save into DB
                 ProductPhoto photo = new ProductPhoto();
                 photo.setProduct(product);
                 photo.setPhotoUrl(url);
+                photo.setOriginalKey(filename);
+                photo.setVariantStatus(ProductPhoto.VariantStatus.PENDING);
                 productPhotoRepository.save(photo);
+                photoVariants.submit(photo.getId()); // resized variants follow in the background
 
                 urls.add(url);
             }
 
+            productRepository.touch(productId, LocalDateTime.now()); // photos are part of the product's ETag
+            catalogCache.evictProduct(productId);
             return ResponseEntity.ok(Map.of("urls", urls));
 
         } catch (IOException e) {
@@ -114,6 +134,24 @@ public class AdminProductController {
         }
     }
 
+    // transferTo(File) lets the container move its own temp file into place when it can;
+    // same bytes → same key, so re-uploads of one image share a stored file.
+    // Staged in local-dir so the local backend can rename it into place instead of copying.
+    private String storeOriginal(MultipartFile file) throws IOException {
+        Path dir = Paths.get(stagingDir).toAbsolutePath();
+        Files.createDirectories(dir);
+        Path part = dir.resolve("upload-" + UUID.randomUUID() + ".part");
+        try {
+            file.transferTo(part.toFile());
+            String filename = PhotoFiles.sha256(part).substring(0, 32)
+                    + PhotoFiles.extension(file.getOriginalFilename(), file.getContentType());
+            storage.put(filename, part, file.getContentType());
+            return filename;
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
     // 🗑️ Delete a specific photo
     @DeleteMapping("/{productId}/photos/{photoId}")
     public ResponseEntity<?> deleteProductPhoto(
@@ -132,15 +170,11 @@ public class AdminProductController {
                     .body(Map.of("error", "Photo does not belong to this product"));
         }
 
-        // delete file from server
-        try {
-            Path path = Paths.get("uploads", photo.getPhotoUrl().replace("/uploads/", ""));
-            Files.deleteIfExists(path);
-        } catch (Exception e) {
-            e.printStackTrace(); // log only
-        }
-
         productPhotoRepository.delete(photo);
+        // stored files (original + variants) go once the row is gone
+        photoVariants.deleteFilesAfterCommit(List.of(photo));
+        productRepository.touch(productId, LocalDateTime.now());
+        catalogCache.evictProduct(productId);
 
         return ResponseEntity.ok(Map.of("message", "Photo deleted"));
     }
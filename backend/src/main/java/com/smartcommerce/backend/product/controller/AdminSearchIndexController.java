@@ -0,0 +1,30 @@
+package com.smartcommerce.backend.product.controller;
+
+import com.smartcommerce.backend.product.search.ProductSearchIndex;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/catalog/search-index")
+public class AdminSearchIndexController {
+
+    private final ProductSearchIndex searchIndex;
+
+    public AdminSearchIndexController(ProductSearchIndex searchIndex) {
+        this.searchIndex = searchIndex;
+    }
+
+    // Admin: indexed products / terms, last rebuild duration
+    @GetMapping
+    public Map<String, Object> stats() {
+        return searchIndex.stats();
+    }
+
+    // Admin: rebuild from the DB now (e.g. after manual DB edits or bulk imports)
+    @PostMapping("/rebuild")
+    public Map<String, Object> rebuild() {
+        searchIndex.rebuild();
+        return searchIndex.stats();
+    }
+}
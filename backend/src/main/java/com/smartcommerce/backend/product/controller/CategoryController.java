@@ -1,8 +1,10 @@
 package com.smartcommerce.backend.product.controller;
 
+import com.smartcommerce.backend.product.cache.CatalogCache;
+import com.smartcommerce.backend.product.cache.CatalogHttpCache;
 import com.smartcommerce.backend.product.entity.Category;
-import com.smartcommerce.backend.product.repository.CategoryRepository;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -10,21 +12,25 @@ import java.util.List;
 @RequestMapping("/api/categories")
 public class CategoryController {
 
-    private final CategoryRepository categoryRepo;
+    private final CatalogCache catalogCache;
+    private final CatalogHttpCache httpCache;
 
-    public CategoryController(CategoryRepository categoryRepo) {
-        this.categoryRepo = categoryRepo;
+    public CategoryController(CatalogCache catalogCache, CatalogHttpCache httpCache) {
+        this.catalogCache = catalogCache;
+        this.httpCache = httpCache;
     }
 
     // Public: list all categories
     @GetMapping
-    public List<Category> getAllCategories() {
-        return categoryRepo.findAll();
+    public List<Category> getAllCategories(WebRequest request) {
+        if (httpCache.checkCategories(request, "categories")) return null;
+        return catalogCache.getAllCategories();
     }
 
     // Public: get category by id
     @GetMapping("/{id}")
-    public Category getCategoryById(@PathVariable Long id) {
-        return categoryRepo.findById(id).orElseThrow(() -> new RuntimeException("Category not found"));
+    public Category getCategoryById(@PathVariable Long id, WebRequest request) {
+        if (httpCache.checkCategories(request, "categories")) return null;
+        return catalogCache.getCategory(id).orElseThrow(() -> new RuntimeException("Category not found"));
     }
 }
@@ -1,9 +1,17 @@
 package com.smartcommerce.backend.product.controller;
 
+import com.smartcommerce.backend.common.CursorPage;
+import com.smartcommerce.backend.product.cache.CatalogHttpCache;
+import com.smartcommerce.backend.product.dto.ProductFilter;
+import com.smartcommerce.backend.product.dto.ProductSearchResult;
+import com.smartcommerce.backend.product.dto.ProductSort;
+import com.smartcommerce.backend.product.dto.ProductSummaryDTO;
 import com.smartcommerce.backend.product.entity.Product;
 import com.smartcommerce.backend.product.service.ProductService;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -11,24 +19,78 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogHttpCache httpCache;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, CatalogHttpCache httpCache) {
         this.productService = productService;
+        this.httpCache = httpCache;
     }
 
     // ✅ Get all products (with optional category filter)
+    // GETs below answer 304 from catalog versions before any DB work (see CatalogHttpCache)
     @GetMapping
-    public List<Product> getAllProducts(@RequestParam(required = false) Long categoryId) {
+    public List<Product> getAllProducts(@RequestParam(required = false) Long categoryId,
+                                        WebRequest request) {
+        if (httpCache.checkCatalog(request, "products")) return null;
         if (categoryId != null) {
             return productService.getProductsByCategory(categoryId);
         }
         return productService.getAllProducts();
     }
 
+    // ✅ Paginated + filtered listing (keyset cursor, slim cards, one query per page)
+    // e.g. /api/products/page?sort=price&direction=asc&size=24&cursor=<nextCursor>
+    //      /api/products/page?categoryId=3&minPrice=199&maxPrice=999&inStock=true&hasDiscount=true&minRating=4
+    // productSize filters on the poster size; size is the page size
+    @GetMapping("/page")
+    public CursorPage<ProductSummaryDTO> getProductPage(@RequestParam(required = false) Long categoryId,
+                                                        @RequestParam(required = false) BigDecimal minPrice,
+                                                        @RequestParam(required = false) BigDecimal maxPrice,
+                                                        @RequestParam(required = false) Boolean inStock,
+                                                        @RequestParam(required = false) Boolean hasDiscount,
+                                                        @RequestParam(required = false) String material,
+                                                        @RequestParam(required = false) String productSize,
+                                                        @RequestParam(required = false) Double minRating,
+                                                        @RequestParam(required = false) String sort,
+                                                        @RequestParam(defaultValue = "desc") String direction,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size,
+                                                        WebRequest request) {
+        if (httpCache.checkProducts(request, "product-page")) return null;
+        ProductFilter filter = ProductFilter.byCategory(categoryId);
+        filter.setMinPrice(minPrice);
+        filter.setMaxPrice(maxPrice);
+        filter.setInStock(inStock);
+        filter.setHasDiscount(hasDiscount);
+        filter.setMaterial(material);
+        filter.setSize(productSize);
+        filter.setMinRating(minRating);
+        return productService.listProducts(filter, ProductSort.from(sort),
+                !"asc".equalsIgnoreCase(direction), cursor, size);
+    }
+
+    // ✅ Full-text search (ranked, typo tolerant) with category / material / size facets
+    // e.g. /api/products/search?q=sunset canvas&material=canvas&page=0&size=24
+    // productSize filters on the poster size facet; size is the page size, as on /page
+    @GetMapping("/search")
+    public ProductSearchResult search(@RequestParam(required = false) String q,
+                                      @RequestParam(required = false) Long categoryId,
+                                      @RequestParam(required = false) String material,
+                                      @RequestParam(required = false) String productSize,
+                                      @RequestParam(required = false) String tag,
+                                      @RequestParam(defaultValue = "0") Integer page,
+                                      @RequestParam(required = false) Integer size,
+                                      WebRequest request) {
+        if (httpCache.checkCatalog(request, "product-search")) return null;
+        return productService.searchProducts(q, categoryId, material, productSize, tag, page, size);
+    }
+
     // ✅ Get product by ID
     @GetMapping("/{id}")
-    public Product getProductById(@PathVariable Long id) {
-        return productService.getProductById(id);
+    public Product getProductById(@PathVariable Long id, WebRequest request) {
+        Product product = productService.getProductById(id); // catalog cache, usually no DB
+        if (httpCache.checkProduct(request, "product", product)) return null;
+        return product;
     }
 
     // ✅ Create product
@@ -0,0 +1,158 @@
+package com.smartcommerce.backend.product.controller;
+
+import com.smartcommerce.backend.config.HttpCacheProps;
+import com.smartcommerce.backend.config.StorageProps;
+import com.smartcommerce.backend.product.storage.LocalPhotoStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.regex.Pattern;
+
+/**
+ * Serves /uploads/productPhotos/** (product photos) straight from disk, out of app.storage.local-dir:
+ * the same directory and URL path LocalPhotoStorage writes keys to and builds URLs from.
+ *
+ * Single byte ranges (206 / 416), ETag + Last-Modified revalidation, and Cache-Control from
+ * app.http-cache.policies: files whose name carries a content hash never change, so they get the
+ * "uploads-hashed" (immutable) policy, anything else "uploads". Bodies go out through Tomcat's
+ * sendfile when the connector offers it, otherwise FileChannel.transferTo; the file is never
+ * read onto the heap.
+ */
+@RestController
+public class UploadedFileController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // <64 hex sha256>.<ext> originals, <width>.<16 hex>.jpg variants
+    private static final Pattern HASHED_NAME = Pattern.compile("(?:[0-9a-f]{64}|[0-9]+\\.[0-9a-f]{16})\\.[a-z0-9]{1,5}");
+
+    private final Path root;
+    private final HttpCacheProps cacheProps;
+
+    public UploadedFileController(StorageProps storageProps, HttpCacheProps cacheProps) {
+        this.root = Paths.get(storageProps.getLocalDir()).toAbsolutePath().normalize();
+        this.cacheProps = cacheProps;
+    }
+
+    @GetMapping(LocalPhotoStorage.URL_PATH + "**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String relative = request.getRequestURI()
+                .substring(request.getContextPath().length() + LocalPhotoStorage.URL_PATH.length());
+        Path file = root.resolve(URLDecoder.decode(relative, StandardCharsets.UTF_8)).normalize();
+        String name = file.getFileName() != null ? file.getFileName().toString() : "";
+        if (!file.startsWith(root) || name.endsWith(".part") || name.endsWith(".tmp") || !Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attrs.size();
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        if (cacheProps.isEnabled()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL,
+                    cacheProps.policyFor(isHashed(name) ? "uploads-hashed" : "uploads"));
+            if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(MediaTypeFactory.getMediaType(name).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] r = parseRange(range, length);
+            if (r == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (r.length == 2) {
+                start = r[0];
+                end = r[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the bytes itself once the request returns (kernel sendfile)
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = start;
+            while (count > 0) {
+                long sent = ch.transferTo(position, count, target);
+                if (sent <= 0) break;
+                position += sent;
+                count -= sent;
+            }
+        }
+        out.flush();
+    }
+
+    static boolean isHashed(String fileName) {
+        return HASHED_NAME.matcher(fileName).matches();
+    }
+
+    /**
+     * "bytes=a-b" / "bytes=a-" / "bytes=-n" → {start, end}; null = unsatisfiable;
+     * empty array = ignore the header and send everything (malformed or multi-range).
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) return new long[0];
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return new long[0];
+        try {
+            String from = spec.substring(0, dash).trim();
+            String to = spec.substring(dash + 1).trim();
+            if (from.isEmpty()) {
+                if (to.isEmpty()) return new long[0];
+                long suffix = Long.parseLong(to);
+                if (suffix <= 0 || length == 0) return null;
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+            long start = Long.parseLong(from);
+            long end = to.isEmpty() ? length - 1 : Math.min(Long.parseLong(to), length - 1);
+            if (start >= length || start > end) return null;
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.smartcommerce.backend.product.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Optional catalog filters for the keyset listing; every null field means "don't filter".
+ * All set fields are ANDed into one query.
+ */
+public class ProductFilter {
+    private Long categoryId;
+    private BigDecimal minPrice;     // inclusive, on the effective price
+    private BigDecimal maxPrice;     // inclusive, on the effective price
+    private Boolean inStock;
+    private Boolean hasDiscount;
+    private String material;
+    private String size;
+    private Double minRating;        // rating floor, inclusive
+
+    public static ProductFilter none() {
+        return new ProductFilter();
+    }
+
+    public static ProductFilter byCategory(Long categoryId) {
+        ProductFilter f = new ProductFilter();
+        f.setCategoryId(categoryId);
+        return f;
+    }
+
+    // ✅ Reject contradictory or out of range input before it reaches the query
+    public void validate() {
+        if (minPrice != null && minPrice.signum() < 0) throw new IllegalArgumentException("minPrice must be >= 0");
+        if (maxPrice != null && maxPrice.signum() < 0) throw new IllegalArgumentException("maxPrice must be >= 0");
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new IllegalArgumentException("minPrice must not exceed maxPrice");
+        }
+        if (minRating != null && (minRating < 0 || minRating > 5)) {
+            throw new IllegalArgumentException("minRating must be between 0 and 5");
+        }
+    }
+
+    public Long getCategoryId() { return categoryId; }
+    public void setCategoryId(Long categoryId) { this.categoryId = categoryId; }
+
+    public BigDecimal getMinPrice() { return minPrice; }
+    public void setMinPrice(BigDecimal minPrice) { this.minPrice = minPrice; }
+
+    public BigDecimal getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(BigDecimal maxPrice) { this.maxPrice = maxPrice; }
+
+    public Boolean getInStock() { return inStock; }
+    public void setInStock(Boolean inStock) { this.inStock = inStock; }
+
+    public Boolean getHasDiscount() { return hasDiscount; }
+    public void setHasDiscount(Boolean hasDiscount) { this.hasDiscount = hasDiscount; }
+
+    public String getMaterial() { return material; }
+    public void setMaterial(String material) { this.material = blankToNull(material); }
+
+    public String getSize() { return size; }
+    public void setSize(String size) { this.size = blankToNull(size); }
+
+    public Double getMinRating() { return minRating; }
+    public void setMinRating(Double minRating) { this.minRating = minRating; }
+
+    private static String blankToNull(String s) {
+        return (s == null || s.isBlank()) ? null : s.trim();
+    }
+}
@@ -0,0 +1,48 @@
+package com.smartcommerce.backend.product.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of ranked search hits plus facet counts over all matches.
+ * Each facet dimension is counted with every filter applied except its own, so the
+ * client can show how many results picking another value would give.
+ */
+public class ProductSearchResult {
+    private final List<ProductSummaryDTO> items;
+    private final long total;
+    private final int page;
+    private final int size;
+    private final Map<String, List<FacetCount>> facets;   // category / material / size
+
+    public ProductSearchResult(List<ProductSummaryDTO> items, long total, int page, int size,
+                               Map<String, List<FacetCount>> facets) {
+        this.items = items;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.facets = facets;
+    }
+
+    public List<ProductSummaryDTO> getItems() { return items; }
+    public long getTotal() { return total; }
+    public int getPage() { return page; }
+    public int getSize() { return size; }
+    public Map<String, List<FacetCount>> getFacets() { return facets; }
+
+    public static class FacetCount {
+        private final String value;   // filter value to send back (category id, material, size)
+        private final String label;   // display text
+        private final long count;
+
+        public FacetCount(String value, String label, long count) {
+            this.value = value;
+            this.label = label;
+            this.count = count;
+        }
+
+        public String getValue() { return value; }
+        public String getLabel() { return label; }
+        public long getCount() { return count; }
+    }
+}
@@ -0,0 +1,16 @@
+package com.smartcommerce.backend.product.dto;
+
+/** Sort keys supported by the keyset-paginated product listing. */
+public enum ProductSort {
+    PRICE, CREATED_AT, RATING;
+
+    // accepts "price", "createdAt", "created_at", "rating"
+    public static ProductSort from(String value) {
+        if (value == null || value.isBlank()) return CREATED_AT;
+        String normalized = value.trim().replace("_", "").toUpperCase();
+        for (ProductSort s : values()) {
+            if (s.name().replace("_", "").equals(normalized)) return s;
+        }
+        throw new IllegalArgumentException("Invalid sort: " + value);
+    }
+}
@@ -0,0 +1,46 @@
+package com.smartcommerce.backend.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Slim product card used by listing endpoints (no tags/photos/category graphs).
+ * Built directly by a JPQL constructor projection, photoUrl is filled in afterwards.
+ */
+public class ProductSummaryDTO {
+    private Long id;
+    private String sku;
+    private String name;
+    private BigDecimal price;       // effective price (what the cart and checkout charge)
+    private String photoUrl;        // first photo, may be null
+    private Boolean inStock;
+    private Double rating;
+
+    @JsonIgnore
+    private LocalDateTime createdAt; // only needed to build the next cursor
+
+    public ProductSummaryDTO(Long id, String sku, String name, BigDecimal price,
+                             Boolean inStock, Double rating, LocalDateTime createdAt) {
+        this.id = id;
+        this.sku = sku;
+        this.name = name;
+        this.price = price;
+        this.inStock = inStock;
+        this.rating = rating;
+        this.createdAt = createdAt;
+    }
+
+    public Long getId() { return id; }
+    public String getSku() { return sku; }
+    public String getName() { return name; }
+    public BigDecimal getPrice() { return price; }
+
+    public String getPhotoUrl() { return photoUrl; }
+    public void setPhotoUrl(String photoUrl) { this.photoUrl = photoUrl; }
+
+    public Boolean getInStock() { return inStock; }
+    public Double getRating() { return rating; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
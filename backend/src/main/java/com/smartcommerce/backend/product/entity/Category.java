@@ -3,6 +3,8 @@ package com.smartcommerce.backend.product.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
@@ -21,8 +23,17 @@ public class Category {
     @Column(length = 500)
     private String icon; // ✅ new field: store URL/path for category icon
 
+    @JsonIgnore
+    private LocalDateTime updatedAt; // HTTP validators (CatalogHttpCache)
+
     // One category can have many products
     @OneToMany(mappedBy = "category", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Product> products;
+
+    @PrePersist
+    @PreUpdate
+    protected void touch() {
+        updatedAt = LocalDateTime.now();
+    }
 }
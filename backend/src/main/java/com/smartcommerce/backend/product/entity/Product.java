@@ -1,8 +1,14 @@
 package com.smartcommerce.backend.product.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.smartcommerce.backend.common.Money;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -10,7 +16,24 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "products")
+@Table(
+        name = "products",
+        indexes = {
+                // keyset listing: ORDER BY <key>, id
+                @Index(name = "idx_products_created", columnList = "createdAt, id"),
+                @Index(name = "idx_products_rating", columnList = "rating, id"),
+                @Index(name = "idx_products_category_created", columnList = "category_id, createdAt, id"),
+                @Index(name = "idx_products_price", columnList = "effectivePrice, id"),
+                // filtered listing: equality filters first, then the keyset sort key
+                @Index(name = "idx_products_category_price", columnList = "category_id, effectivePrice, id"),
+                @Index(name = "idx_products_category_rating", columnList = "category_id, rating, id"),
+                @Index(name = "idx_products_stock_created", columnList = "inStock, createdAt, id"),
+                @Index(name = "idx_products_stock_price", columnList = "inStock, effectivePrice, id"),
+                @Index(name = "idx_products_material_size", columnList = "material, size"),
+                // max(updatedAt) for HTTP validators
+                @Index(name = "idx_products_updated", columnList = "updatedAt")
+        }
+)
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,6 +50,8 @@ public class Product {
     private String description;
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OrderBy("id ASC") // first photo = primary photo
+    @BatchSize(size = 50) // lazy loads for a list of products go out in batches, not one query per product
     private List<ProductPhoto> photos;
 
     // 💰 Pricing
@@ -36,6 +61,18 @@ public class Product {
     @Column(precision = 10, scale = 2)
     private BigDecimal discountPrice;
 
+    // what the customer pays (discountPrice when above 0 and below price); stored so price filters/sorts can use an index
+    @JsonIgnore
+    @Column(precision = 10, scale = 2)
+    private BigDecimal effectivePrice;
+
+    // the same prices in paise, kept in step by the setters and on load: cart/checkout math never touches BigDecimal
+    @Transient @JsonIgnore @Setter(AccessLevel.NONE) @EqualsAndHashCode.Exclude @ToString.Exclude
+    private long pricePaise;
+
+    @Transient @JsonIgnore @Setter(AccessLevel.NONE) @EqualsAndHashCode.Exclude @ToString.Exclude
+    private long effectivePricePaise;
+
     // ⭐ Rating (average)
     @Column(nullable = false)
     private Double rating = 0.0;
@@ -52,7 +89,9 @@ public class Product {
     private Double weight;      // shipping weight
 
     // 🔖 Tags for search/SEO
-    @ElementCollection(fetch = FetchType.EAGER)
+    // lazy + batched: list reads fetch tags explicitly (see ProductCatalogRepository#findAllWithDetails)
+    @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     @CollectionTable(name = "product_tags", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "tags")
     private List<String> tags = new ArrayList<>();
@@ -66,15 +105,44 @@ public class Product {
     @JoinColumn(name = "category_id")
     private Category category;
 
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+        syncPaise();
+    }
+
+    public void setDiscountPrice(BigDecimal discountPrice) {
+        this.discountPrice = discountPrice;
+        syncPaise();
+    }
+
+    // Hibernate sets fields directly, so loaded products compute paise here
+    @PostLoad
+    protected void onLoad() {
+        syncPaise();
+    }
+
+    private void syncPaise() {
+        pricePaise = Money.paise(price);
+        effectivePricePaise = Money.effective(pricePaise, Money.paise(discountPrice));
+    }
+
     // ⚡ Auto set timestamps
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        effectivePrice = computeEffectivePrice();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        effectivePrice = computeEffectivePrice();
+    }
+
+    // same rule as cart and checkout (Money#effective): discountPrice wins when it is above 0 and below price
+    private BigDecimal computeEffectivePrice() {
+        syncPaise();
+        return Money.rupees(effectivePricePaise);
     }
 }
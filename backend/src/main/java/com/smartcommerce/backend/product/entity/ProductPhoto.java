@@ -5,9 +5,14 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
 
+import java.time.Instant;
+
 @Data
 @Entity
-@Table(name = "product_photos")
+@Table(
+        name = "product_photos",
+        indexes = @Index(name = "idx_product_photos_variant_status", columnList = "variantStatus, id")
+)
 public class ProductPhoto {
 
     @Id
@@ -15,12 +20,37 @@ public class ProductPhoto {
     private Long id;
 
     // Column stays photo_url in DB ✅
+    // uploaded photos: the original until variants are ready, then the largest variant
     @Column(nullable = false, name = "photo_url")
     @JsonProperty("url")  // 🔑 Expose as `url` in JSON response
     private String photoUrl;
 
+    // 🖼️ Responsive variants, ready to drop into <img srcset> ("…/320.jpg 320w, …/640.jpg 640w")
+    @Column(length = 2000)
+    private String srcset;
+
+    private Integer width;   // of the original
+    private Integer height;
+
+    // null = not an upload (external URL / created before variants existed)
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private VariantStatus variantStatus;
+
+    // original file, relative to the upload dir
+    @JsonIgnore
+    private String originalKey;
+
+    @JsonIgnore
+    private int variantAttempts;
+
+    @JsonIgnore
+    private Instant variantClaimedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     @JsonIgnore
     private Product product;
+
+    public enum VariantStatus { PENDING, PROCESSING, READY, FAILED }
 }
@@ -0,0 +1,224 @@
+package com.smartcommerce.backend.product.image;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Decodes an uploaded photo once and re-encodes it as progressive JPEG variants of the requested widths.
+ *
+ * Variants are drawn from the decoded pixels only, so EXIF/GPS/ICC metadata of the upload never
+ * reaches them; the EXIF Orientation of a JPEG is applied to the pixels first, so portrait phone
+ * photos come out upright without the tag. Dimensions are read from the header before decoding and oversized images are
+ * rejected; large originals are subsampled while decoding so memory tracks the largest variant,
+ * not the upload.
+ */
+public final class ImageTranscoder {
+
+    public record Variant(int width, int height, byte[] jpeg) {}
+
+    public record Result(int width, int height, List<Variant> variants) {}
+
+    private ImageTranscoder() {}
+
+    public static Result transcode(InputStream in, List<Integer> widths, float quality, long maxPixels) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+            if (iis == null) throw new IOException("Unreadable image stream");
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+            if (!readers.hasNext()) throw new IllegalArgumentException("Unsupported image format");
+
+            ImageReader reader = readers.next();
+            try {
+                int orientation = exifOrientation(iis);
+                reader.setInput(iis, true, true); // ignore metadata while reading
+                int rawW = reader.getWidth(0);
+                int rawH = reader.getHeight(0);
+                if ((long) rawW * rawH > maxPixels) {
+                    throw new IllegalArgumentException("Image too large: " + rawW + "x" + rawH);
+                }
+                // 5..8 are quarter turns: the displayed width is the stored height
+                boolean turned = orientation >= 5;
+                int srcW = turned ? rawH : rawW;
+                int srcH = turned ? rawW : rawH;
+
+                List<Integer> targets = targetWidths(widths, srcW);
+                int largest = targets.get(targets.size() - 1);
+
+                // decode at >= 2x the largest variant (keeps downscaling quality, bounds the raster)
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, srcW / (largest * 2));
+                if (step > 1) param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage decoded = orient(toRgb(reader.read(0, param)), orientation);
+
+                List<Variant> variants = new ArrayList<>(targets.size());
+                BufferedImage source = decoded;
+                // largest first, each smaller one scaled from the previous (cheaper, same quality)
+                for (int i = targets.size() - 1; i >= 0; i--) {
+                    int w = targets.get(i);
+                    int h = Math.max(1, (int) Math.round((double) srcH * w / srcW));
+                    source = scale(source, w, h);
+                    variants.add(0, new Variant(w, h, encodeJpeg(source, quality)));
+                }
+                return new Result(srcW, srcH, variants);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * EXIF Orientation (1..8) of a JPEG, 1 when absent, unreadable or not a JPEG. Walks the marker segments
+     * up to the first scan and leaves the stream back at position 0 for the image reader.
+     */
+    static int exifOrientation(ImageInputStream iis) throws IOException {
+        iis.mark();
+        try {
+            if (iis.read() != 0xFF || iis.read() != 0xD8) return 1;
+            while (true) {
+                int b = iis.read();
+                if (b != 0xFF) return 1;
+                int marker;
+                do marker = iis.read(); while (marker == 0xFF);
+                if (marker < 0 || marker == 0xDA || marker == 0xD9) return 1; // scan data / end: no EXIF before it
+                int length = (iis.read() << 8) | iis.read();
+                if (length < 2) return 1;
+                if (marker != 0xE1) {
+                    iis.skipBytes(length - 2);
+                    continue;
+                }
+                byte[] app1 = new byte[length - 2];
+                iis.readFully(app1);
+                int orientation = orientationOf(app1);
+                if (orientation > 0) return orientation;
+            }
+        } catch (IOException | RuntimeException e) {
+            return 1; // a broken EXIF block never fails the upload; the reader reports real decode errors
+        } finally {
+            iis.reset();
+        }
+    }
+
+    // APP1 payload "Exif\0\0" + TIFF header + IFD0; 0 = not an EXIF block or no usable tag
+    private static int orientationOf(byte[] app1) {
+        if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') return 0;
+        ByteBuffer tiff = ByteBuffer.wrap(app1, 6, app1.length - 6).slice();
+        if (tiff.get(0) == 'I' && tiff.get(1) == 'I') tiff.order(ByteOrder.LITTLE_ENDIAN);
+        else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') return 0;
+        int ifd = tiff.getInt(4);
+        int entries = Short.toUnsignedInt(tiff.getShort(ifd));
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (Short.toUnsignedInt(tiff.getShort(entry)) == 0x0112) {
+                int value = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                return value >= 1 && value <= 8 ? value : 0;
+            }
+        }
+        return 0;
+    }
+
+    // pixels as displayed: flips for 2 / 4, half turn for 3, transpose / quarter turns / transverse for 5..8
+    static BufferedImage orient(BufferedImage img, int orientation) {
+        if (orientation <= 1 || orientation > 8) return img;
+        int w = img.getWidth(), h = img.getHeight();
+        boolean turned = orientation >= 5;
+        BufferedImage out = new BufferedImage(turned ? h : w, turned ? w : h, BufferedImage.TYPE_INT_RGB);
+        int[] row = new int[w];
+        for (int y = 0; y < h; y++) {
+            img.getRGB(0, y, w, 1, row, 0, w);
+            for (int x = 0; x < w; x++) {
+                switch (orientation) {
+                    case 2 -> out.setRGB(w - 1 - x, y, row[x]);
+                    case 3 -> out.setRGB(w - 1 - x, h - 1 - y, row[x]);
+                    case 4 -> out.setRGB(x, h - 1 - y, row[x]);
+                    case 5 -> out.setRGB(y, x, row[x]);
+                    case 6 -> out.setRGB(h - 1 - y, x, row[x]);
+                    case 7 -> out.setRGB(h - 1 - y, w - 1 - x, row[x]);
+                    default -> out.setRGB(y, w - 1 - x, row[x]);      // 8
+                }
+            }
+        }
+        return out;
+    }
+
+    // configured widths below the original; an image narrower than all of them gets one variant at its own width
+    static List<Integer> targetWidths(List<Integer> widths, int srcW) {
+        TreeSet<Integer> out = new TreeSet<>();
+        for (Integer w : widths) {
+            if (w != null && w > 0 && w < srcW) out.add(w);
+        }
+        if (out.isEmpty()) out.add(srcW);
+        return new ArrayList<>(out);
+    }
+
+    // drops alpha (flattened on white) and odd color models; JPEG wants plain RGB
+    private static BufferedImage toRgb(BufferedImage img) {
+        if (img.getType() == BufferedImage.TYPE_INT_RGB) return img;
+        BufferedImage rgb = new BufferedImage(img.getWidth(), img.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, img.getWidth(), img.getHeight());
+            g.drawImage(img, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    // halve with bilinear until within 2x, then one final bilinear step (close to area averaging, much faster)
+    private static BufferedImage scale(BufferedImage src, int w, int h) {
+        BufferedImage current = src;
+        while (current.getWidth() / 2 >= w && current.getHeight() / 2 >= h) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        if (current.getWidth() == w && current.getHeight() == h) return current;
+        return draw(current, w, h);
+    }
+
+    private static BufferedImage draw(BufferedImage src, int w, int h) {
+        BufferedImage out = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = out.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(src, 0, 0, w, h, null);
+        } finally {
+            g.dispose();
+        }
+        return out;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage img, float quality) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (MemoryCacheImageOutputStream out = new MemoryCacheImageOutputStream(bytes)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(img, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,60 @@
+package com.smartcommerce.backend.product.image;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/** Content hashing and naming helpers for stored photo files. */
+public final class PhotoFiles {
+
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+
+    private PhotoFiles() {}
+
+    /** SHA-256 of a file, streamed through a small direct buffer (never the whole file on heap). */
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buf = ByteBuffer.allocateDirect(64 * 1024);
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (ch.read(buf) >= 0) {
+                buf.flip();
+                digest.update(buf);
+                buf.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(newDigest().digest(bytes));
+    }
+
+    /** ".jpg" style extension from the client's file name, else from the content type ("" if neither is usable). */
+    public static String extension(String originalFilename, String contentType) {
+        String ext = null;
+        if (originalFilename != null && originalFilename.lastIndexOf('.') >= 0) {
+            ext = originalFilename.substring(originalFilename.lastIndexOf('.') + 1);
+        } else if (contentType != null && contentType.indexOf('/') >= 0) {
+            ext = contentType.substring(contentType.indexOf('/') + 1);
+        }
+        if (ext == null) return "";
+        ext = ext.toLowerCase(Locale.ROOT);
+        if ("jpeg".equals(ext)) ext = "jpg";
+        return SAFE_EXTENSION.matcher(ext).matches() ? "." + ext : "";
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
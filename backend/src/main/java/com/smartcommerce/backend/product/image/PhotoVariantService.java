@@ -0,0 +1,187 @@
+package com.smartcommerce.backend.product.image;
+
+import com.smartcommerce.backend.config.ImageProps;
+import com.smartcommerce.backend.product.cache.CatalogCache;
+import com.smartcommerce.backend.product.entity.ProductPhoto;
+import com.smartcommerce.backend.product.entity.ProductPhoto.VariantStatus;
+import com.smartcommerce.backend.product.repository.ProductPhotoRepository;
+import com.smartcommerce.backend.product.repository.ProductRepository;
+import com.smartcommerce.backend.product.storage.PhotoStorage;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Turns uploaded originals into responsive JPEG variants on the bounded "imageExecutor" pool.
+ *
+ * Upload only stores the original and a PENDING photo row; {@link #submit} hands the id to a worker
+ * after commit. A worker claims the row (PENDING -> PROCESSING, conditional update), transcodes with
+ * no transaction open, stores variants/&lt;photoId&gt;/&lt;width&gt;.&lt;hash&gt;.jpg in {@link PhotoStorage} and records
+ * srcset/width/height. photoUrl then points at the largest variant, so existing clients stop
+ * downloading full-size originals without any change. Overflow and crashes are covered by the poller.
+ */
+@Service
+public class PhotoVariantService {
+
+    private final ProductPhotoRepository photoRepo;
+    private final ProductRepository productRepo;
+    private final CatalogCache catalogCache;
+    private final TaskExecutor executor;
+    private final TransactionTemplate tx;
+    private final ImageProps props;
+    private final PhotoStorage storage;
+
+    public PhotoVariantService(ProductPhotoRepository photoRepo,
+                               ProductRepository productRepo,
+                               CatalogCache catalogCache,
+                               @Qualifier("imageExecutor") TaskExecutor executor,
+                               PlatformTransactionManager txManager,
+                               ImageProps props,
+                               PhotoStorage storage) {
+        this.photoRepo = photoRepo;
+        this.productRepo = productRepo;
+        this.catalogCache = catalogCache;
+        this.executor = executor;
+        this.tx = new TransactionTemplate(txManager);
+        this.props = props;
+        this.storage = storage;
+    }
+
+    /** Queue variant generation for a PENDING photo (after commit when called inside a transaction). */
+    public void submit(Long photoId) {
+        Runnable task = () -> {
+            try {
+                executor.execute(() -> process(photoId));
+            } catch (RejectedExecutionException e) {
+                // left PENDING, the next poll picks it up
+            }
+        };
+        afterCommit(task);
+    }
+
+    @Scheduled(fixedDelayString = "${app.images.poll-interval:PT30S}")
+    public void poll() {
+        Instant now = Instant.now();
+        List<Long> pending = tx.execute(st -> {
+            photoRepo.requeueStuckVariants(now.minus(props.getStuckAfter()), VariantStatus.PENDING, VariantStatus.PROCESSING);
+            return photoRepo.findIdsByVariantStatus(VariantStatus.PENDING, PageRequest.of(0, props.getBatchSize()));
+        });
+        if (pending != null) pending.forEach(this::submit);
+    }
+
+    /** Removes the original and every variant of an uploaded photo (no-op for external URLs). */
+    public void deleteFiles(ProductPhoto photo) {
+        try {
+            if (photo.getOriginalKey() == null) {
+                // rows from before variants only know their URL
+                String legacyKey = storage.keyOf(photo.getPhotoUrl()).orElse(null);
+                if (legacyKey != null) storage.delete(legacyKey);
+                return;
+            }
+            // originals are content-addressed: another photo may be the same file
+            if (!photoRepo.existsByOriginalKeyAndIdNot(photo.getOriginalKey(), photo.getId())) {
+                storage.delete(photo.getOriginalKey());
+            }
+            storage.deletePrefix(variantPrefix(photo.getId()));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("⚠️ Could not delete files of photo " + photo.getId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Files of photo rows that are being removed (photo replace, product or category delete). Runs once the
+     * removal has committed, so a rollback never leaves rows pointing at deleted files; right away outside a
+     * transaction. The photos must be loaded before their rows go.
+     */
+    public void deleteFilesAfterCommit(Collection<ProductPhoto> photos) {
+        if (photos == null || photos.isEmpty()) return;
+        List<ProductPhoto> copy = List.copyOf(photos);
+        afterCommit(() -> copy.forEach(this::deleteFiles));
+    }
+
+    // ---------------- worker ----------------
+
+    void process(Long photoId) {
+        Integer claimed = tx.execute(st -> photoRepo.claimForVariants(
+                photoId, Instant.now(), VariantStatus.PENDING, VariantStatus.PROCESSING));
+        if (claimed == null || claimed == 0) return; // someone else has it, or it is gone / done
+
+        ProductPhoto photo = photoRepo.findById(photoId).orElse(null);
+        if (photo == null) return;
+
+        try {
+            ImageTranscoder.Result result;
+            try (InputStream in = storage.open(photo.getOriginalKey())) {
+                result = ImageTranscoder.transcode(in, props.getWidths(), props.getQuality(), props.getMaxPixels());
+            }
+
+            // <width>.<content hash>.jpg: a name never changes meaning, so it can be cached as immutable
+            Map<Integer, String> keys = new LinkedHashMap<>();
+            for (ImageTranscoder.Variant v : result.variants()) {
+                String key = variantPrefix(photoId) + v.width() + "." + PhotoFiles.sha256(v.jpeg()).substring(0, 16) + ".jpg";
+                storage.put(key, v.jpeg(), "image/jpeg");
+                keys.put(v.width(), key);
+            }
+
+            String srcset = keys.entrySet().stream()
+                    .map(e -> storage.publicUrl(e.getValue()) + " " + e.getKey() + "w")
+                    .collect(Collectors.joining(", "));
+            ImageTranscoder.Variant largest = result.variants().get(result.variants().size() - 1);
+
+            String photoUrl = storage.publicUrl(keys.get(largest.width()));
+
+            Long productId = photo.getProduct().getId();
+            Integer updated = tx.execute(st -> {
+                int n = photoRepo.completeVariants(photoId, photoUrl, srcset, result.width(), result.height(),
+                        VariantStatus.READY, VariantStatus.PROCESSING);
+                if (n > 0) productRepo.touch(productId, LocalDateTime.now()); // new urls → new product ETag
+                return n;
+            });
+            if (updated == null || updated == 0) {
+                if (!photoRepo.existsById(photoId)) deleteFiles(photo); // photo deleted while we worked
+                return;
+            }
+            catalogCache.evictProduct(productId);
+        } catch (Exception e) {
+            // bad input never gets better; I/O problems are retried until max-attempts
+            boolean permanent = e instanceof IllegalArgumentException || photo.getVariantAttempts() >= props.getMaxAttempts();
+            tx.executeWithoutResult(st -> photoRepo.releaseVariants(photoId,
+                    permanent ? VariantStatus.FAILED : VariantStatus.PENDING, VariantStatus.PROCESSING));
+            System.err.println("⚠️ Photo " + photoId + " variants " + (permanent ? "failed" : "will retry") + ": " + e.getMessage());
+        }
+    }
+
+    private static void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
+
+    private static String variantPrefix(Long photoId) {
+        return "variants/" + photoId + "/";
+    }
+}
@@ -2,9 +2,14 @@ package com.smartcommerce.backend.product.repository;
 
 import com.smartcommerce.backend.product.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     Optional<Category> findByName(String name);
+
+    // 🏷️ HTTP validator inputs, as for products
+    @Query("select max(c.updatedAt) as lastModified, count(c) as total from Category c")
+    ProductRepository.CatalogState findCatalogState();
 }
@@ -0,0 +1,35 @@
+package com.smartcommerce.backend.product.repository;
+
+import com.smartcommerce.backend.common.KeysetCursor;
+import com.smartcommerce.backend.product.dto.ProductFilter;
+import com.smartcommerce.backend.product.dto.ProductSort;
+import com.smartcommerce.backend.product.dto.ProductSummaryDTO;
+import com.smartcommerce.backend.product.entity.Product;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom (Criteria based) catalog reads, mixed into {@link ProductRepository}.
+ */
+public interface ProductCatalogRepository {
+
+    /**
+     * Keyset page of product cards matching {@code filter}, ordered by {@code sort} then id.
+     * Returns at most {@code limit} rows strictly after {@code after} (null = first page).
+     */
+    List<ProductSummaryDTO> findSummaries(ProductFilter filter,
+                                          ProductSort sort,
+                                          boolean descending,
+                                          KeysetCursor after,
+                                          int limit);
+
+    /**
+     * Full products (category, tags and photos initialized) in id order, optionally for one category.
+     * Always two queries: products + category + tags, then photos for the same rows.
+     */
+    List<Product> findAllWithDetails(Long categoryId);
+
+    /** Product cards for the given ids (any order; missing ids are absent). */
+    List<ProductSummaryDTO> findSummariesByIds(Collection<Long> ids);
+}
@@ -0,0 +1,181 @@
+package com.smartcommerce.backend.product.repository;
+
+import com.smartcommerce.backend.common.KeysetCursor;
+import com.smartcommerce.backend.product.dto.ProductFilter;
+import com.smartcommerce.backend.product.dto.ProductSort;
+import com.smartcommerce.backend.product.dto.ProductSummaryDTO;
+import com.smartcommerce.backend.product.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class ProductCatalogRepositoryImpl implements ProductCatalogRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<ProductSummaryDTO> findSummaries(ProductFilter filter,
+                                                 ProductSort sort,
+                                                 boolean descending,
+                                                 KeysetCursor after,
+                                                 int limit) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ProductSummaryDTO> q = cb.createQuery(ProductSummaryDTO.class);
+        Root<Product> p = q.from(Product.class);
+
+        Expression<BigDecimal> effectivePrice = effectivePrice(cb, p);
+        Path<Long> id = p.get("id");
+
+        q.select(cb.construct(ProductSummaryDTO.class,
+                id, p.get("sku"), p.get("name"), effectivePrice,
+                p.get("inStock"), p.get("rating"), p.get("createdAt")));
+
+        List<Predicate> where = filters(cb, p, filter);
+
+        Expression<?> key;
+        switch (sort) {
+            case PRICE -> {
+                key = effectivePrice;
+                if (after != null) where.add(after(cb, effectivePrice, parsePrice(after), id, after.getId(), descending));
+            }
+            case RATING -> {
+                Path<Double> rating = p.get("rating");
+                key = rating;
+                if (after != null) where.add(after(cb, rating, parseRating(after), id, after.getId(), descending));
+            }
+            default -> {
+                Path<LocalDateTime> createdAt = p.get("createdAt");
+                key = createdAt;
+                if (after != null) where.add(after(cb, createdAt, parseCreatedAt(after), id, after.getId(), descending));
+            }
+        }
+
+        q.where(where.toArray(new Predicate[0]));
+        q.orderBy(descending ? cb.desc(key) : cb.asc(key),
+                  descending ? cb.desc(id) : cb.asc(id));
+
+        return em.createQuery(q)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<Product> findAllWithDetails(Long categoryId) {
+        // tags and photos are both bags: fetching them in one query would multiply rows (and Hibernate refuses it),
+        // so photos come in a second query over the same rows and land on the already-managed instances
+        String where = categoryId != null ? " where p.category.id = :categoryId" : "";
+
+        TypedQuery<Product> products = em.createQuery(
+                "select distinct p from Product p left join fetch p.category left join fetch p.tags" + where +
+                        " order by p.id", Product.class);
+        if (categoryId != null) products.setParameter("categoryId", categoryId);
+        List<Product> result = products.getResultList();
+        if (result.isEmpty()) return result;
+
+        TypedQuery<Product> photos = em.createQuery(
+                "select distinct p from Product p left join fetch p.photos" + where, Product.class);
+        if (categoryId != null) photos.setParameter("categoryId", categoryId);
+        photos.getResultList();
+
+        return result;
+    }
+
+    @Override
+    public List<ProductSummaryDTO> findSummariesByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) return List.of();
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<ProductSummaryDTO> q = cb.createQuery(ProductSummaryDTO.class);
+        Root<Product> p = q.from(Product.class);
+
+        q.select(cb.construct(ProductSummaryDTO.class,
+                p.get("id"), p.get("sku"), p.get("name"), effectivePrice(cb, p),
+                p.get("inStock"), p.get("rating"), p.get("createdAt")));
+        q.where(p.get("id").in(ids));
+
+        return em.createQuery(q).getResultList();
+    }
+
+    // one predicate per set filter; equality filters match the leading columns of the products indexes
+    private static List<Predicate> filters(CriteriaBuilder cb, Root<Product> p, ProductFilter f) {
+        List<Predicate> where = new ArrayList<>();
+        if (f == null) return where;
+
+        if (f.getCategoryId() != null) {
+            where.add(cb.equal(p.get("category").get("id"), f.getCategoryId()));
+        }
+        if (f.getInStock() != null) {
+            where.add(cb.equal(p.get("inStock"), f.getInStock()));
+        }
+        if (f.getMaterial() != null) {
+            where.add(cb.equal(p.get("material"), f.getMaterial()));
+        }
+        if (f.getSize() != null) {
+            where.add(cb.equal(p.get("size"), f.getSize()));
+        }
+        if (f.getHasDiscount() != null) {
+            // same rule as the cart (Money.effective): a discount counts only when > 0 and < price
+            Path<BigDecimal> discount = p.get("discountPrice");
+            Predicate discounted = cb.and(cb.greaterThan(discount, BigDecimal.ZERO), cb.lessThan(discount, p.get("price")));
+            where.add(f.getHasDiscount() ? discounted : cb.or(cb.isNull(discount), cb.not(discounted)));
+        }
+        if (f.getMinPrice() != null) {
+            where.add(cb.greaterThanOrEqualTo(p.get("effectivePrice"), f.getMinPrice()));
+        }
+        if (f.getMaxPrice() != null) {
+            where.add(cb.lessThanOrEqualTo(p.get("effectivePrice"), f.getMaxPrice()));
+        }
+        if (f.getMinRating() != null) {
+            where.add(cb.greaterThanOrEqualTo(p.get("rating"), f.getMinRating()));
+        }
+        return where;
+    }
+
+    // (key, id) > (value, lastId) for ascending, < for descending
+    private static <Y extends Comparable<? super Y>> Predicate after(CriteriaBuilder cb,
+                                                                    Expression<Y> key, Y value,
+                                                                    Path<Long> id, long lastId,
+                                                                    boolean descending) {
+        Predicate beyond = descending ? cb.lessThan(key, value) : cb.greaterThan(key, value);
+        Predicate tie = cb.and(cb.equal(key, value),
+                descending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId));
+        return cb.or(beyond, tie);
+    }
+
+    // stored by Product on every write (Money#effective rule), so PRICE keysets can use an index
+    private static Expression<BigDecimal> effectivePrice(CriteriaBuilder cb, Root<Product> p) {
+        return p.get("effectivePrice");
+    }
+
+    private static BigDecimal parsePrice(KeysetCursor c) {
+        try {
+            return new BigDecimal(c.getValue());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static Double parseRating(KeysetCursor c) {
+        try {
+            return Double.valueOf(c.getValue());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static LocalDateTime parseCreatedAt(KeysetCursor c) {
+        try {
+            return LocalDateTime.parse(c.getValue());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -2,11 +2,63 @@ package com.smartcommerce.backend.product.repository;
 
 import com.smartcommerce.backend.product.entity.Product;
 import com.smartcommerce.backend.product.entity.ProductPhoto;
+import com.smartcommerce.backend.product.entity.ProductPhoto.VariantStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface ProductPhotoRepository extends JpaRepository<ProductPhoto, Long> {
     List<ProductPhoto> findByProduct_Id(Long productId);
+    List<ProductPhoto> findByProduct_Category_Id(Long categoryId);
+    boolean existsByOriginalKeyAndIdNot(String originalKey, Long id);
     void deleteByProduct(Product product);
+
+    // 📸 First (lowest id) photo of each product, one query for a whole page of products
+    @Query("select ph.product.id as productId, ph.photoUrl as photoUrl from ProductPhoto ph " +
+            "where ph.id in (select min(x.id) from ProductPhoto x " +
+            "                where x.product.id in :productIds group by x.product.id)")
+    List<PrimaryPhoto> findPrimaryPhotos(@Param("productIds") Collection<Long> productIds);
+
+    // 🖼️ Variant pipeline: claim one PENDING photo (0 rows = someone else has it / not pending)
+    @Modifying
+    @Query("update ProductPhoto ph set ph.variantStatus = :processing, ph.variantClaimedAt = :now, " +
+            "ph.variantAttempts = ph.variantAttempts + 1 where ph.id = :id and ph.variantStatus = :pending")
+    int claimForVariants(@Param("id") Long id, @Param("now") Instant now,
+                         @Param("pending") VariantStatus pending, @Param("processing") VariantStatus processing);
+
+    // only the claimant may finish; 0 rows = the photo was deleted (or re-queued) meanwhile
+    @Modifying
+    @Query("update ProductPhoto ph set ph.variantStatus = :ready, ph.variantClaimedAt = null, ph.photoUrl = :photoUrl, " +
+            "ph.srcset = :srcset, ph.width = :width, ph.height = :height " +
+            "where ph.id = :id and ph.variantStatus = :processing")
+    int completeVariants(@Param("id") Long id, @Param("photoUrl") String photoUrl, @Param("srcset") String srcset,
+                         @Param("width") Integer width, @Param("height") Integer height,
+                         @Param("ready") VariantStatus ready, @Param("processing") VariantStatus processing);
+
+    @Modifying
+    @Query("update ProductPhoto ph set ph.variantStatus = :status, ph.variantClaimedAt = null " +
+            "where ph.id = :id and ph.variantStatus = :processing")
+    int releaseVariants(@Param("id") Long id, @Param("status") VariantStatus status,
+                        @Param("processing") VariantStatus processing);
+
+    @Query("select ph.id from ProductPhoto ph where ph.variantStatus = :status order by ph.id")
+    List<Long> findIdsByVariantStatus(@Param("status") VariantStatus status, Pageable page);
+
+    // crashed / killed workers: give their photos back to the poller
+    @Modifying
+    @Query("update ProductPhoto ph set ph.variantStatus = :pending, ph.variantClaimedAt = null " +
+            "where ph.variantStatus = :processing and ph.variantClaimedAt < :before")
+    int requeueStuckVariants(@Param("before") Instant before,
+                             @Param("pending") VariantStatus pending, @Param("processing") VariantStatus processing);
+
+    interface PrimaryPhoto {
+        Long getProductId();
+        String getPhotoUrl();
+    }
 }
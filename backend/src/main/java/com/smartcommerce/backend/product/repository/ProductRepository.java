@@ -5,14 +5,16 @@ import com.smartcommerce.backend.product.entity.Category;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import jakarta.persistence.LockModeType;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductCatalogRepository {
 
     // 🔑 Find by SKU
     Optional<Product> findBySku(String sku);
@@ -32,8 +34,58 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // 🔍 Find products with discount
     List<Product> findByDiscountPriceIsNotNull();
 
-    // ⚡️ New: lock a product row when updating stock (to prevent overselling)
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("select p from Product p where p.id = :id")
-    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+    // ⚡️ Conditional stock decrement: 0 rows updated = not enough stock (no row lock held across calls)
+    // inStock is assigned first so it sees the pre-update stock on every dialect;
+    // updatedAt (the HTTP validator input) moves on every stock change, since responses carry the count
+    @Modifying
+    @Query("update Product p set p.updatedAt = :now, " +
+            "p.inStock = case when p.stock > :qty then true else false end, " +
+            "p.stock = p.stock - :qty " +
+            "where p.id = :id and p.stock >= :qty")
+    int decrementStock(@Param("id") Long id, @Param("qty") int qty, @Param("now") LocalDateTime now);
+
+    // ⚡️ Give held/cancelled stock back (updatedAt moves, as on decrement)
+    @Modifying
+    @Query("update Product p set p.updatedAt = :now, " +
+            "p.inStock = true, p.stock = coalesce(p.stock, 0) + :qty " +
+            "where p.id = :id")
+    int restoreStock(@Param("id") Long id, @Param("qty") int qty, @Param("now") LocalDateTime now);
+
+    // 🕒 Mark a product changed when only a child row (e.g. a photo) was written
+    @Modifying
+    @Transactional
+    @Query("update Product p set p.updatedAt = :now where p.id = :id")
+    int touch(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // 💰 Money.effective as JPQL: the discount counts only when > 0 and < price
+    String EFFECTIVE_PRICE = "(case when p.discountPrice > 0 and p.discountPrice < p.price " +
+            "then p.discountPrice else coalesce(p.price, 0) end)";
+
+    // 💰 Recompute the stored effective price wherever it is missing or differs from the rule
+    //    (rows written under the older "discount wins when present" rule)
+    @Modifying
+    @Transactional
+    @Query("update Product p set p.effectivePrice = " + EFFECTIVE_PRICE + ", p.updatedAt = :now " +
+            "where p.effectivePrice is null or p.effectivePrice <> " + EFFECTIVE_PRICE)
+    int backfillEffectivePrice(@Param("now") LocalDateTime now);
+
+
+    // 🏷️ HTTP validator inputs (idx_products_updated): an insert, delete or visible change moves one of them
+    @Query("select max(p.updatedAt) as lastModified, count(p) as total from Product p")
+    CatalogState findCatalogState();
+
+    // 📦 Current stock for shortfall reporting
+    @Query("select p.id as id, p.name as name, p.stock as stock from Product p where p.id in :ids")
+    List<StockLevel> findStockLevels(@Param("ids") Collection<Long> ids);
+
+    interface CatalogState {
+        LocalDateTime getLastModified();
+        Long getTotal();
+    }
+
+    interface StockLevel {
+        Long getId();
+        String getName();
+        Integer getStock();
+    }
 }
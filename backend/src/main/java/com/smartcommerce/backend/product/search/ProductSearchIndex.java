@@ -0,0 +1,609 @@
+package com.smartcommerce.backend.product.search;
+
+import com.smartcommerce.backend.product.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over product name, description, tags, size, material and SKU.
+ *
+ * Terms map to postings (productId → field-weighted term frequency); ranking is BM25-style
+ * (idf × saturated tf, no length norm, text is short). A query term matches exactly, as a
+ * prefix when it is the last word typed, or with one typo (insert/delete/substitute/transpose)
+ * through a symmetric-delete table, so lookups stay O(term length) however large the dictionary.
+ * All query words must match. Only ids come out of here; cards are read from the DB per page.
+ *
+ * Kept in sync by {@code ProductService} on create/update/delete (after commit when in a
+ * transaction), rebuilt from the DB at startup and periodically as a safety net for writes
+ * that bypass the service (bulk SQL, category cascade deletes).
+ */
+@Component
+public class ProductSearchIndex {
+
+    private static final float NAME = 3f, SKU = 3f, TAGS = 2f, MATERIAL = 1.5f, SIZE = 1.5f, DESCRIPTION = 1f;
+    private static final float PREFIX_MATCH = 0.8f, TYPO_MATCH = 0.6f;
+    private static final float K1 = 1.2f;
+    private static final int MAX_PREFIX_EXPANSIONS = 30;
+    private static final int MIN_TYPO_LENGTH = 4;
+    private static final int LOAD_BATCH = 1000;
+    private static final int ANY = -2, NO_MATCH = -3;    // facet filter ordinals (doc without a value = -1)
+
+    private final EntityManagerFactory emf;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();                  // guarded by lock
+    private List<Doc> pendingDuringRebuild;             // guarded by lock; non-null while rebuilding
+    private volatile long lastRebuildMs;
+    private volatile Date lastRebuildAt;
+
+    public ProductSearchIndex(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    // ---------------- Sync ----------------
+
+    public void index(Product product) {
+        if (product == null || product.getId() == null) return;
+        Doc doc = Doc.of(product);
+        afterCommitOrNow(() -> apply(doc));
+    }
+
+    public void remove(Long productId) {
+        if (productId == null) return;
+        afterCommitOrNow(() -> apply(Doc.removed(productId)));
+    }
+
+    public void removeCategory(Long categoryId) {
+        if (categoryId == null) return;
+        afterCommitOrNow(() -> {
+            List<Long> ids;
+            lock.readLock().lock();
+            try {
+                ids = state.docs.stream()
+                        .filter(d -> d != null && categoryId.equals(d.categoryId))
+                        .map(d -> d.id)
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+            ids.forEach(id -> apply(Doc.removed(id)));
+        });
+    }
+
+    private void apply(Doc doc) {
+        lock.writeLock().lock();
+        try {
+            state.put(doc);
+            if (pendingDuringRebuild != null) pendingDuringRebuild.add(doc);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Full reload from the DB; searches keep using the old index until the new one is swapped in. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.search.rebuild-interval:PT30M}",
+               initialDelayString = "${app.search.rebuild-interval:PT30M}")
+    public void rebuild() {
+        long t0 = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringRebuild != null) return; // already running
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State fresh = new State();
+        try {
+            loadAll(fresh);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // writes that raced the load are newer than what was read; replay them in order
+            pendingDuringRebuild.forEach(fresh::put);
+            pendingDuringRebuild = null;
+            state = fresh;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        lastRebuildMs = System.currentTimeMillis() - t0;
+        lastRebuildAt = new Date();
+        System.out.println("🔎 Product search index rebuilt: " + fresh.live + " products, "
+                + fresh.postings.size() + " terms in " + lastRebuildMs + " ms");
+    }
+
+    // ---------------- Search ----------------
+
+    /**
+     * Ranked ids for {@code [offset, offset + limit)} of all matches, the match count, and facet
+     * counts. Blank query = every product (newest first) so facets can be browsed without text.
+     */
+    public Hits search(String query, Long categoryId, String material, String size, String tag,
+                       int offset, int limit) {
+        List<String> words = TextAnalyzer.tokens(query);
+        String materialKey = TextAnalyzer.keyword(material);
+        String sizeKey = TextAnalyzer.keyword(size);
+        String tagKey = TextAnalyzer.keyword(tag);
+
+        lock.readLock().lock();
+        try {
+            State st = state;
+            int[] candidates;
+            int candidateCount;
+            float[] scores = null;
+            if (words.isEmpty()) {
+                candidates = new int[st.live];
+                candidateCount = 0;
+                for (int ord = 0; ord < st.docs.size(); ord++) {
+                    if (st.docs.get(ord) != null) candidates[candidateCount++] = ord;
+                }
+            } else {
+                scores = new float[st.docs.size()];
+                candidates = match(st, words, scores);
+                candidateCount = candidates.length;
+            }
+
+            int cf = filterOrd(st.categories, categoryId == null ? null : String.valueOf(categoryId));
+            int mf = filterOrd(st.materials, materialKey);
+            int sf = filterOrd(st.sizes, sizeKey);
+            int[] categoryCounts = new int[st.categories.size()];
+            int[] materialCounts = new int[st.materials.size()];
+            int[] sizeCounts = new int[st.sizes.size()];
+
+            long[] hitIds = new long[candidateCount];
+            float[] hitScores = new float[candidateCount];
+            int total = 0;
+            for (int i = 0; i < candidateCount; i++) {
+                int ord = candidates[i];
+                if (tagKey != null && !st.docs.get(ord).tags.contains(tagKey)) continue;
+                int cat = st.categoryOrd[ord], mat = st.materialOrd[ord], siz = st.sizeOrd[ord];
+                boolean c = cf == ANY || cat == cf;
+                boolean m = mf == ANY || mat == mf;
+                boolean s = sf == ANY || siz == sf;
+
+                // each dimension counts with all the other filters applied
+                if (m && s && cat >= 0) categoryCounts[cat]++;
+                if (c && s && mat >= 0) materialCounts[mat]++;
+                if (c && m && siz >= 0) sizeCounts[siz]++;
+                if (c && m && s) {
+                    hitIds[total] = st.idByOrd[ord];
+                    hitScores[total] = scores == null ? 0f : scores[ord];
+                    total++;
+                }
+            }
+
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            Map<String, Map<String, String>> labels = new HashMap<>();
+            facets.put("category", st.categories.counts(categoryCounts, null));
+            facets.put("material", st.materials.counts(materialCounts, labels.computeIfAbsent("material", k -> new HashMap<>())));
+            facets.put("size", st.sizes.counts(sizeCounts, labels.computeIfAbsent("size", k -> new HashMap<>())));
+            return new Hits(topK(hitIds, hitScores, total, offset, limit), total, facets, labels);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            m.put("products", state.live);
+            m.put("terms", state.postings.size());
+            m.put("rebuilding", pendingDuringRebuild != null);
+        } finally {
+            lock.readLock().unlock();
+        }
+        m.put("lastRebuildMs", lastRebuildMs);
+        m.put("lastRebuildAt", lastRebuildAt);
+        return m;
+    }
+
+    /**
+     * AND across words: a doc stays a candidate only if it matched every earlier word, so work
+     * shrinks word by word. Within one word the best expansion counts. Fills {@code scores}
+     * (indexed by doc ordinal) and returns the ordinals that matched all words.
+     */
+    private static int[] match(State st, List<String> words, float[] scores) {
+        int n = scores.length;
+        int[] matchedWords = new int[n];
+        float[] best = new float[n];
+        int[] touched = new int[0];
+        int touchedCount = 0;
+
+        for (int w = 0; w < words.size(); w++) {
+            Map<String, Float> expansions = expand(st, words.get(w), w == words.size() - 1);
+            int[] next = new int[w == 0 ? 16 : Math.max(touchedCount, 1)];
+            int nextCount = 0;
+
+            for (Map.Entry<String, Float> e : expansions.entrySet()) {
+                Postings p = st.postings.get(e.getKey());
+                double idf = Math.log(1 + (st.live - p.size + 0.5) / (p.size + 0.5));
+                float factor = e.getValue();
+                for (int j = 0; j < p.size; j++) {
+                    int ord = p.ords[j];
+                    int seen = matchedWords[ord];
+                    if (seen < w) continue;                       // missed an earlier word
+                    float tf = p.tfs[j];
+                    float s = (float) (idf * (tf * (K1 + 1)) / (tf + K1)) * factor;
+                    if (seen == w) {                              // first expansion of this word to hit it
+                        matchedWords[ord] = w + 1;
+                        best[ord] = s;
+                        if (nextCount == next.length) next = Arrays.copyOf(next, next.length * 2);
+                        next[nextCount++] = ord;
+                    } else if (s > best[ord]) {
+                        best[ord] = s;
+                    }
+                }
+            }
+            if (nextCount == 0) return new int[0];
+            for (int i = 0; i < nextCount; i++) scores[next[i]] += best[next[i]];
+            touched = next;
+            touchedCount = nextCount;
+        }
+        return Arrays.copyOf(touched, touchedCount);
+    }
+
+    // exact term, prefix completions for the word being typed, 1-typo neighbours when nothing exact
+    private static Map<String, Float> expand(State st, String word, boolean last) {
+        Map<String, Float> expansions = new HashMap<>();
+        boolean exact = st.postings.containsKey(word);
+        if (exact) expansions.put(word, 1f);
+
+        if (last) {
+            int n = 0;
+            for (String t : st.terms.subSet(word, false, word + Character.MAX_VALUE, false)) {
+                if (n++ >= MAX_PREFIX_EXPANSIONS) break;
+                expansions.putIfAbsent(t, PREFIX_MATCH);
+            }
+        }
+        if (!exact && word.length() >= MIN_TYPO_LENGTH) {
+            for (String t : st.typoCandidates(word)) {
+                if (TextAnalyzer.distance(word, t, 1) <= 1) expansions.putIfAbsent(t, TYPO_MATCH);
+            }
+        }
+        return expansions;
+    }
+
+    private static int filterOrd(FacetValues values, String key) {
+        if (key == null) return ANY;
+        Integer ord = values.ordByKey.get(key);
+        return ord == null ? NO_MATCH : ord;
+    }
+
+    // Best [offset, offset + limit) by score desc, then id desc (newest first on ties / blank query).
+    // Bounded binary heap of positions over primitive arrays: O(n log k), no boxing per comparison.
+    private static List<Long> topK(long[] ids, float[] scores, int n, int offset, int limit) {
+        if (offset >= n || limit <= 0) return List.of();
+        int k = Math.min(n, offset + limit);
+        int[] heap = new int[k]; // worst kept hit at heap[0]
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (size < k) {
+                heap[size] = i;
+                siftUp(heap, size++, ids, scores);
+            } else if (better(i, heap[0], ids, scores)) {
+                heap[0] = i;
+                siftDown(heap, size, ids, scores);
+            }
+        }
+        Integer[] ranked = new Integer[size];
+        for (int i = 0; i < size; i++) ranked[i] = heap[i];
+        Arrays.sort(ranked, (a, b) -> better(a, b, ids, scores) ? -1 : better(b, a, ids, scores) ? 1 : 0);
+
+        List<Long> out = new ArrayList<>(size - offset);
+        for (int i = offset; i < size; i++) out.add(ids[ranked[i]]);
+        return out;
+    }
+
+    private static boolean better(int a, int b, long[] ids, float[] scores) {
+        return scores[a] != scores[b] ? scores[a] > scores[b] : ids[a] > ids[b];
+    }
+
+    private static void siftUp(int[] heap, int i, long[] ids, float[] scores) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(heap[parent], heap[i], ids, scores)) break;
+            int t = heap[parent]; heap[parent] = heap[i]; heap[i] = t;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, long[] ids, float[] scores) {
+        int i = 0;
+        while (true) {
+            int l = 2 * i + 1, r = l + 1, worst = i;
+            if (l < size && better(heap[worst], heap[l], ids, scores)) worst = l;
+            if (r < size && better(heap[worst], heap[r], ids, scores)) worst = r;
+            if (worst == i) return;
+            int t = heap[worst]; heap[worst] = heap[i]; heap[i] = t;
+            i = worst;
+        }
+    }
+
+    // ---------------- Loading ----------------
+
+    // id-keyset batches: products + category, then the batch's tags (2 queries per batch)
+    private void loadAll(State target) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            long after = 0;
+            while (true) {
+                List<Object[]> rows = em.createQuery(
+                                "select p.id, p.sku, p.name, p.description, p.size, p.material, c.id " +
+                                "from Product p left join p.category c where p.id > :after order by p.id",
+                                Object[].class)
+                        .setParameter("after", after)
+                        .setMaxResults(LOAD_BATCH)
+                        .getResultList();
+                if (rows.isEmpty()) break;
+
+                List<Long> ids = rows.stream().map(r -> (Long) r[0]).toList();
+                Map<Long, List<String>> tags = new HashMap<>();
+                em.createQuery("select p.id, t from Product p join p.tags t where p.id in :ids", Object[].class)
+                        .setParameter("ids", ids)
+                        .getResultList()
+                        .forEach(r -> tags.computeIfAbsent((Long) r[0], k -> new ArrayList<>()).add((String) r[1]));
+
+                for (Object[] r : rows) {
+                    Long id = (Long) r[0];
+                    target.put(new Doc(id, (String) r[1], (String) r[2], (String) r[3], (String) r[4],
+                            (String) r[5], (Long) r[6], tags.getOrDefault(id, List.of())));
+                }
+                after = ids.get(ids.size() - 1);
+                em.clear();
+            }
+        } finally {
+            em.close();
+        }
+    }
+
+    private static void afterCommitOrNow(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // ---------------- Types ----------------
+
+    /** Result of one search: the page of ids in rank order plus facet counts (value → count). */
+    public record Hits(List<Long> ids, long total,
+                       Map<String, Map<String, Long>> facets,
+                       Map<String, Map<String, String>> labels) {
+
+        /** Display text for a material/size facet value (first spelling seen). */
+        public String label(String dimension, String value) {
+            return labels.getOrDefault(dimension, Map.of()).getOrDefault(value, value);
+        }
+    }
+
+    /** Immutable analyzed product; {@code terms == null} marks a removal. */
+    private static final class Doc {
+        final Long id;
+        final Long categoryId;
+        final String material, materialKey, size, sizeKey;
+        final Set<String> tags;
+        final Map<String, Float> terms;
+
+        Doc(Long id, String sku, String name, String description, String size, String material,
+            Long categoryId, Collection<String> tags) {
+            this.id = id;
+            this.categoryId = categoryId;
+            this.material = material == null ? null : material.trim();
+            this.materialKey = TextAnalyzer.keyword(material);
+            this.size = size == null ? null : size.trim();
+            this.sizeKey = TextAnalyzer.keyword(size);
+
+            Set<String> tagKeys = new HashSet<>();
+            Map<String, Float> tf = new HashMap<>();
+            add(tf, name, NAME);
+            add(tf, sku, SKU);
+            add(tf, description, DESCRIPTION);
+            add(tf, size, SIZE);
+            add(tf, material, MATERIAL);
+            if (tags != null) {
+                for (String t : tags) {
+                    String key = TextAnalyzer.keyword(t);
+                    if (key != null) tagKeys.add(key);
+                    add(tf, t, TAGS);
+                }
+            }
+            this.tags = Set.copyOf(tagKeys);
+            this.terms = Map.copyOf(tf);
+        }
+
+        private Doc(Long id) {
+            this.id = id;
+            this.categoryId = null;
+            this.material = this.materialKey = this.size = this.sizeKey = null;
+            this.tags = Set.of();
+            this.terms = null;
+        }
+
+        static Doc of(Product p) {
+            return new Doc(p.getId(), p.getSku(), p.getName(), p.getDescription(), p.getSize(), p.getMaterial(),
+                    p.getCategory() != null ? p.getCategory().getId() : null, p.getTags());
+        }
+
+        static Doc removed(Long id) {
+            return new Doc(id);
+        }
+
+        private static void add(Map<String, Float> tf, String text, float weight) {
+            for (String t : TextAnalyzer.tokens(text)) tf.merge(t, weight, Float::sum);
+        }
+    }
+
+    /**
+     * Mutable index structures; only touched under the owning index's lock (or before publication).
+     * Docs get dense ordinals so postings and per-search score arrays are primitive; a removed doc
+     * leaves a null slot until the next rebuild compacts it away.
+     */
+    private static final class State {
+        final List<Doc> docs = new ArrayList<>();                      // by ordinal
+        final Map<Long, Integer> ordById = new HashMap<>();
+        final Map<String, Postings> postings = new HashMap<>();
+        final NavigableSet<String> terms = new TreeSet<>();             // prefix lookups
+        final Map<String, Set<String>> deletes = new HashMap<>();       // one-char-deleted variant → terms
+        final FacetValues categories = new FacetValues();
+        final FacetValues materials = new FacetValues();
+        final FacetValues sizes = new FacetValues();
+        long[] idByOrd = new long[16];                                  // per-ordinal columns for the facet loop
+        int[] categoryOrd = new int[16];
+        int[] materialOrd = new int[16];
+        int[] sizeOrd = new int[16];
+        int live;
+
+        void put(Doc doc) {
+            Integer ord = ordById.get(doc.id);
+            if (ord != null) {
+                unlink(docs.get(ord), ord);
+                docs.set(ord, null);
+                live--;
+            }
+            if (doc.terms == null) {
+                ordById.remove(doc.id);
+                return;
+            }
+
+            if (ord == null) {
+                ord = docs.size();
+                docs.add(null);
+                ordById.put(doc.id, ord);
+                if (ord == idByOrd.length) {
+                    int cap = ord * 2;
+                    idByOrd = Arrays.copyOf(idByOrd, cap);
+                    categoryOrd = Arrays.copyOf(categoryOrd, cap);
+                    materialOrd = Arrays.copyOf(materialOrd, cap);
+                    sizeOrd = Arrays.copyOf(sizeOrd, cap);
+                }
+            }
+            docs.set(ord, doc);
+            idByOrd[ord] = doc.id;
+            categoryOrd[ord] = doc.categoryId == null ? -1 : categories.ordOf(String.valueOf(doc.categoryId), null);
+            materialOrd[ord] = materials.ordOf(doc.materialKey, doc.material);
+            sizeOrd[ord] = sizes.ordOf(doc.sizeKey, doc.size);
+            live++;
+            int o = ord;
+            doc.terms.forEach((term, tf) -> {
+                Postings p = postings.get(term);
+                if (p == null) {
+                    p = new Postings();
+                    postings.put(term, p);
+                    terms.add(term);
+                    for (String d : TextAnalyzer.deletes(term)) deletes.computeIfAbsent(d, k -> new HashSet<>()).add(term);
+                }
+                p.add(o, tf);
+            });
+        }
+
+        private void unlink(Doc doc, int ord) {
+            doc.terms.keySet().forEach(term -> {
+                Postings p = postings.get(term);
+                if (p == null) return;
+                p.remove(ord);
+                if (p.size > 0) return;
+                postings.remove(term);
+                terms.remove(term);
+                for (String d : TextAnalyzer.deletes(term)) {
+                    Set<String> s = deletes.get(d);
+                    if (s != null && s.remove(term) && s.isEmpty()) deletes.remove(d);
+                }
+            });
+        }
+
+        // terms within one edit of word: term = word minus a char, word = term minus a char, or both minus one
+        Set<String> typoCandidates(String word) {
+            Set<String> out = new HashSet<>(deletes.getOrDefault(word, Set.of()));
+            for (String d : TextAnalyzer.deletes(word)) {
+                if (postings.containsKey(d)) out.add(d);
+                out.addAll(deletes.getOrDefault(d, Set.of()));
+            }
+            return out;
+        }
+    }
+
+    /** Unordered (ordinal, tf) pairs of one term. */
+    private static final class Postings {
+        int[] ords = new int[4];
+        float[] tfs = new float[4];
+        int size;
+
+        void add(int ord, float tf) {
+            if (size == ords.length) {
+                ords = Arrays.copyOf(ords, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            ords[size] = ord;
+            tfs[size] = tf;
+            size++;
+        }
+
+        void remove(int ord) {
+            for (int i = 0; i < size; i++) {
+                if (ords[i] == ord) {
+                    size--;
+                    ords[i] = ords[size];
+                    tfs[i] = tfs[size];
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Dictionary of one facet's values → dense ordinals (grows until the next rebuild). */
+    private static final class FacetValues {
+        final Map<String, Integer> ordByKey = new HashMap<>();
+        final List<String> keys = new ArrayList<>();
+        final List<String> labels = new ArrayList<>();  // first spelling seen
+
+        int ordOf(String key, String label) {
+            if (key == null) return -1;
+            Integer ord = ordByKey.get(key);
+            if (ord != null) return ord;
+            keys.add(key);
+            labels.add(label);
+            ordByKey.put(key, keys.size() - 1);
+            return keys.size() - 1;
+        }
+
+        int size() {
+            return keys.size();
+        }
+
+        Map<String, Long> counts(int[] counts, Map<String, String> labelsOut) {
+            Map<String, Long> out = new HashMap<>();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) continue;
+                out.put(keys.get(i), (long) counts[i]);
+                if (labelsOut != null) labelsOut.put(keys.get(i), labels.get(i));
+            }
+            return out;
+        }
+    }
+}
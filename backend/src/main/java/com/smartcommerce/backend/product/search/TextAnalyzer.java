@@ -0,0 +1,90 @@
+package com.smartcommerce.backend.product.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Tokenizer shared by indexing and querying: lower-case, accents folded, split on anything that
+ * is not a letter or digit, a few stop words dropped and a light plural strip ("posters" → "poster").
+ * Both sides must analyze identically, so there is only this one implementation.
+ */
+final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "the", "of", "for", "with", "in", "on", "to", "by", "or");
+
+    private TextAnalyzer() {}
+
+    static List<String> tokens(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isBlank()) return out;
+
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT);
+
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean word = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (word && start < 0) start = i;
+            if (!word && start >= 0) {
+                String t = normalize(folded.substring(start, i));
+                if (t != null) out.add(t);
+                start = -1;
+            }
+        }
+        return out;
+    }
+
+    /** Facet values (size, material) are matched whole, case-insensitively. */
+    static String keyword(String value) {
+        if (value == null || value.isBlank()) return null;
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String normalize(String t) {
+        if (STOP_WORDS.contains(t)) return null;
+        if (t.length() > 3 && t.endsWith("s") && !t.endsWith("ss") && Character.isLetter(t.charAt(t.length() - 2))) {
+            t = t.endsWith("ies") ? t.substring(0, t.length() - 3) + "y" : t.substring(0, t.length() - 1);
+        }
+        return t;
+    }
+
+    /** Every string obtained by deleting one character; the symmetric-delete key space for 1-typo lookups. */
+    static List<String> deletes(String term) {
+        List<String> out = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            out.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return out;
+    }
+
+    /** Optimal string alignment distance capped at {@code max} (returns max + 1 when further apart). */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) return max + 1;
+        int[] prev2 = new int[b.length() + 1];
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int v = Math.min(Math.min(prev[j] + 1, cur[j - 1] + 1), prev[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    v = Math.min(v, prev2[j - 2] + 1); // transposition
+                }
+                cur[j] = v;
+                rowMin = Math.min(rowMin, v);
+            }
+            if (rowMin > max) return max + 1;
+            int[] t = prev2; prev2 = prev; prev = cur; cur = t;
+        }
+        return prev[b.length()];
+    }
+}
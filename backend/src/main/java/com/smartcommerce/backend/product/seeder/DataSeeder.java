@@ -2,17 +2,21 @@ package com.smartcommerce.backend.product.seeder;
 
 import com.smartcommerce.backend.product.entity.Category;
 import com.smartcommerce.backend.product.repository.CategoryRepository;
+import com.smartcommerce.backend.product.repository.ProductRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import java.time.LocalDateTime;
 
 @Configuration
 public class DataSeeder {
 
     private final CategoryRepository categoryRepo;
+    private final ProductRepository productRepo;
 
-    public DataSeeder(CategoryRepository categoryRepo) {
+    public DataSeeder(CategoryRepository categoryRepo, ProductRepository productRepo) {
         this.categoryRepo = categoryRepo;
+        this.productRepo = productRepo;
     }
 
     @Bean
@@ -27,4 +31,14 @@ public class DataSeeder {
             }
         };
     }
+
+    @Bean
+    CommandLineRunner backfillEffectivePrice() {
+        return args -> {
+            int updated = productRepo.backfillEffectivePrice(LocalDateTime.now());
+            if (updated > 0) {
+                System.out.println("✅ Effective price recomputed for " + updated + " products");
+            }
+        };
+    }
 }
@@ -1,22 +1,57 @@
 package com.smartcommerce.backend.product.service;
 
+import com.smartcommerce.backend.common.CursorPage;
+import com.smartcommerce.backend.product.cache.CatalogCache;
+import com.smartcommerce.backend.common.KeysetCursor;
+import com.smartcommerce.backend.product.dto.ProductFilter;
+import com.smartcommerce.backend.product.dto.ProductSearchResult;
+import com.smartcommerce.backend.product.dto.ProductSort;
+import com.smartcommerce.backend.product.dto.ProductSummaryDTO;
 import com.smartcommerce.backend.product.entity.Product;
 import com.smartcommerce.backend.product.entity.Category;
+import com.smartcommerce.backend.product.entity.ProductPhoto;
+import com.smartcommerce.backend.product.image.PhotoVariantService;
+import com.smartcommerce.backend.product.repository.ProductPhotoRepository;
 import com.smartcommerce.backend.product.repository.ProductRepository;
 import com.smartcommerce.backend.product.repository.CategoryRepository;
+import com.smartcommerce.backend.product.search.ProductSearchIndex;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
+    private static final int DEFAULT_PAGE_SIZE = 24;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ProductRepository productRepo;
     private final CategoryRepository categoryRepo;
+    private final ProductPhotoRepository productPhotoRepo;
+    private final CatalogCache catalogCache;
+    private final ProductSearchIndex searchIndex;
+    private final PhotoVariantService photoVariants;
 
-    public ProductService(ProductRepository productRepo, CategoryRepository categoryRepo) {
+    public ProductService(ProductRepository productRepo,
+                          CategoryRepository categoryRepo,
+                          ProductPhotoRepository productPhotoRepo,
+                          CatalogCache catalogCache,
+                          ProductSearchIndex searchIndex,
+                          PhotoVariantService photoVariants) {
         this.productRepo = productRepo;
         this.categoryRepo = categoryRepo;
+        this.productPhotoRepo = productPhotoRepo;
+        this.catalogCache = catalogCache;
+        this.searchIndex = searchIndex;
+        this.photoVariants = photoVariants;
     }
 
     // CREATE
@@ -44,17 +79,103 @@ public class ProductService {
             product.getPhotos().forEach(photo -> photo.setProduct(product));
         }
 
-        return productRepo.save(product);
+        Product saved = productRepo.save(product);
+        catalogCache.evictProduct(saved.getId());
+        searchIndex.index(saved);
+        return saved;
     }
 
-    // READ ALL
+    // READ ALL (2 queries whatever the catalog size; tags/photos ready for serialization)
+    @Transactional(readOnly = true)
     public List<Product> getAllProducts() {
-        return productRepo.findAll();
+        return productRepo.findAllWithDetails(null);
+    }
+
+    // READ PAGE (keyset): constant memory per request, 2 queries (cards + first photos)
+    // all filters are ANDed into the card query; hasNext comes from the extra row, never a count
+    @Transactional(readOnly = true)
+    public CursorPage<ProductSummaryDTO> listProducts(ProductFilter filter,
+                                                      ProductSort sort,
+                                                      boolean descending,
+                                                      String cursor,
+                                                      Integer size) {
+        int limit = (size == null || size <= 0) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        if (filter == null) filter = ProductFilter.none();
+        filter.validate();
+
+        // fetch one extra row to know if there is a next page (no count query)
+        List<ProductSummaryDTO> rows = productRepo.findSummaries(
+                filter, sort, descending, KeysetCursor.decode(cursor), limit + 1);
+
+        boolean hasNext = rows.size() > limit;
+        List<ProductSummaryDTO> items = hasNext ? rows.subList(0, limit) : rows;
+
+        attachPrimaryPhotos(items);
+
+        String nextCursor = hasNext ? cursorOf(items.get(items.size() - 1), sort) : null;
+        return new CursorPage<>(List.copyOf(items), nextCursor, hasNext);
+    }
+
+    // SEARCH: ranking/facets from the in-memory index, cards for the page from the DB (2 queries)
+    @Transactional(readOnly = true)
+    public ProductSearchResult searchProducts(String query,
+                                              Long categoryId,
+                                              String material,
+                                              String size,
+                                              String tag,
+                                              Integer page,
+                                              Integer pageSize) {
+        int limit = (pageSize == null || pageSize <= 0) ? DEFAULT_PAGE_SIZE : Math.min(pageSize, MAX_PAGE_SIZE);
+        int pageNo = (page == null || page < 0) ? 0 : page;
+
+        ProductSearchIndex.Hits hits = searchIndex.search(query, categoryId, material, size, tag, pageNo * limit, limit);
+
+        Map<Long, ProductSummaryDTO> cards = productRepo.findSummariesByIds(hits.ids()).stream()
+                .collect(Collectors.toMap(ProductSummaryDTO::getId, Function.identity()));
+        List<ProductSummaryDTO> items = hits.ids().stream()
+                .map(cards::get)
+                .filter(Objects::nonNull) // deleted behind the index's back; gone at next rebuild
+                .toList();
+        attachPrimaryPhotos(items);
+
+        Map<Long, String> categoryNames = catalogCache.getAllCategories().stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+        Map<String, List<ProductSearchResult.FacetCount>> facets = new LinkedHashMap<>();
+        hits.facets().forEach((dimension, counts) -> facets.put(dimension, counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .map(e -> new ProductSearchResult.FacetCount(e.getKey(),
+                        "category".equals(dimension)
+                                ? categoryNames.getOrDefault(Long.valueOf(e.getKey()), e.getKey())
+                                : hits.label(dimension, e.getKey()),
+                        e.getValue()))
+                .toList()));
+
+        return new ProductSearchResult(items, hits.total(), pageNo, limit, facets);
+    }
+
+    // first photo per card, one query for the whole page
+    private void attachPrimaryPhotos(List<ProductSummaryDTO> items) {
+        if (items.isEmpty()) return;
+        Map<Long, String> photos = productPhotoRepo.findPrimaryPhotos(
+                        items.stream().map(ProductSummaryDTO::getId).toList())
+                .stream()
+                .collect(Collectors.toMap(ProductPhotoRepository.PrimaryPhoto::getProductId,
+                        ProductPhotoRepository.PrimaryPhoto::getPhotoUrl));
+        items.forEach(it -> it.setPhotoUrl(photos.get(it.getId())));
+    }
+
+    private static String cursorOf(ProductSummaryDTO last, ProductSort sort) {
+        String value = switch (sort) {
+            case PRICE -> last.getPrice().toPlainString();
+            case RATING -> String.valueOf(last.getRating());
+            case CREATED_AT -> String.valueOf(last.getCreatedAt());
+        };
+        return new KeysetCursor(value, last.getId()).encode();
     }
 
-    // READ ONE
+    // READ ONE (served from the catalog cache; returned instance is shared → read-only)
     public Product getProductById(Long id) {
-        return productRepo.findById(id)
+        return catalogCache.getProduct(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
     }
 
@@ -63,18 +184,24 @@ public class ProductService {
         if (!productRepo.existsById(id)) {
             throw new RuntimeException("Product not found");
         }
+        List<ProductPhoto> photos = productPhotoRepo.findByProduct_Id(id); // rows go with the product (cascade)
         productRepo.deleteById(id);
+        photoVariants.deleteFilesAfterCommit(photos);
+        catalogCache.evictProduct(id);
+        searchIndex.remove(id);
     }
 
-    // READ BY CATEGORY (better: use repo directly instead of filtering in memory)
+    // READ BY CATEGORY (2 queries, same as READ ALL)
+    @Transactional(readOnly = true)
     public List<Product> getProductsByCategory(Long categoryId) {
-        Category category = categoryRepo.findById(categoryId)
+        Category category = catalogCache.getCategory(categoryId)
                 .orElseThrow(() -> new RuntimeException("Category not found"));
-        return productRepo.findByCategory(category);
+        return productRepo.findAllWithDetails(category.getId());
     }
 
     // UPDATE
 // UPDATE
+    @Transactional
     public Product updateProduct(Long id, Product updatedProduct, Long categoryId) {
         Product existing = productRepo.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found"));
@@ -82,8 +209,14 @@ public class ProductService {
         if (updatedProduct.getName() != null) existing.setName(updatedProduct.getName());
         if (updatedProduct.getDescription() != null) existing.setDescription(updatedProduct.getDescription());
 
+        List<ProductPhoto> removedPhotos = List.of();
         if (updatedProduct.getPhotos() != null) {
-            // clear old photos and replace with new ones
+            // clear old photos and replace with new ones; files of the old ones go after commit,
+            // except URLs the new list still points at
+            Set<String> keptUrls = updatedProduct.getPhotos().stream()
+                    .map(ProductPhoto::getPhotoUrl).filter(Objects::nonNull).collect(Collectors.toSet());
+            removedPhotos = new ArrayList<>(existing.getPhotos());
+            removedPhotos.removeIf(photo -> keptUrls.contains(photo.getPhotoUrl()));
             existing.getPhotos().clear();
             updatedProduct.getPhotos().forEach(photo -> photo.setProduct(existing));
             existing.getPhotos().addAll(updatedProduct.getPhotos());
@@ -114,6 +247,10 @@ public class ProductService {
             existing.setCategory(category);
         }
 
-        return productRepo.save(existing);
+        Product saved = productRepo.save(existing);
+        photoVariants.deleteFilesAfterCommit(removedPhotos);
+        catalogCache.evictProduct(id);
+        searchIndex.index(saved);
+        return saved;
     }
 }
@@ -0,0 +1,118 @@
+package com.smartcommerce.backend.product.storage;
+
+import com.smartcommerce.backend.config.StorageProps;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Photos on the local disk under app.storage.local-dir, served by UploadedFileController.
+ * Single node only (or a shared mount); use the s3 backend to run more than one instance.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local", matchIfMissing = true)
+public class LocalPhotoStorage implements PhotoStorage {
+
+    /** URL path UploadedFileController serves local-dir under; rows written before the storage abstraction carry it too. */
+    public static final String URL_PATH = "/uploads/productPhotos/";
+
+    private final Path root;
+    private final String publicBaseUrl;
+
+    public LocalPhotoStorage(StorageProps props, @Value("${app.base-url:}") String baseUrls) {
+        this.root = Paths.get(props.getLocalDir()).toAbsolutePath().normalize();
+        this.publicBaseUrl = publicBaseUrl(props.getPublicBaseUrl(), baseUrls);
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) throws IOException {
+        Path target = resolve(key);
+        if (Files.exists(target)) {
+            Files.deleteIfExists(file); // same key = same content
+            return;
+        }
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // different file system: copy beside the target, then rename
+            Path tmp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+            Files.copy(file, tmp);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public void put(String key, byte[] bytes, String contentType) throws IOException {
+        Path target = resolve(key);
+        if (Files.exists(target)) return;
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        Files.write(tmp, bytes);
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public void deletePrefix(String prefix) throws IOException {
+        Path dir = resolve(prefix);
+        if (!Files.isDirectory(dir)) return;
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return publicBaseUrl + key;
+    }
+
+    @Override
+    public Optional<String> keyOf(String url) {
+        Optional<String> key = PhotoStorage.super.keyOf(url);
+        if (key.isPresent() || url == null) return key;
+        int i = url.indexOf(URL_PATH);
+        return i < 0 ? Optional.empty() : Optional.of(url.substring(i + URL_PATH.length()));
+    }
+
+    private Path resolve(String key) {
+        Path p = root.resolve(key).normalize();
+        if (!p.startsWith(root) || p.equals(root) && !key.isEmpty()) {
+            throw new IllegalArgumentException("Invalid storage key: " + key);
+        }
+        return p;
+    }
+
+    // explicit setting wins; otherwise the first app.base-url entry, where UploadedFileController serves the files
+    static String publicBaseUrl(String configured, String baseUrls) {
+        if (configured != null && !configured.isBlank()) {
+            return configured.endsWith("/") ? configured : configured + "/";
+        }
+        String first = baseUrls == null ? "" : baseUrls.split(",")[0].trim();
+        if (first.endsWith("/")) first = first.substring(0, first.length() - 1);
+        return first + URL_PATH;
+    }
+}
@@ -0,0 +1,39 @@
+package com.smartcommerce.backend.product.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Where product photo files live. Keys are relative paths ("&lt;sha256&gt;.jpg",
+ * "variants/12/640.&lt;hash&gt;.jpg"); callers never build file paths or URLs themselves.
+ *
+ * Keys used by the photo pipeline are content-addressed, so writing an existing key is a no-op.
+ */
+public interface PhotoStorage {
+
+    /** Stores a file the caller no longer needs (it may be moved instead of copied). */
+    void put(String key, Path file, String contentType) throws IOException;
+
+    void put(String key, byte[] bytes, String contentType) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    InputStream open(String key) throws IOException;
+
+    /** Missing keys are ignored. */
+    void delete(String key) throws IOException;
+
+    /** Deletes every key starting with {@code prefix} (e.g. "variants/12/"). */
+    void deletePrefix(String prefix) throws IOException;
+
+    String publicUrl(String key);
+
+    /** The key behind a URL this storage handed out, if it is one of ours. */
+    default Optional<String> keyOf(String url) {
+        String base = publicUrl("");
+        if (url == null || !url.startsWith(base) || url.length() == base.length()) return Optional.empty();
+        return Optional.of(url.substring(base.length()));
+    }
+}
@@ -0,0 +1,300 @@
+package com.smartcommerce.backend.product.storage;
+
+import com.smartcommerce.backend.config.HttpCacheProps;
+import com.smartcommerce.backend.config.StorageProps;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Photos in an S3 bucket (AWS, MinIO, or any S3-API server via app.storage.s3.endpoint).
+ *
+ * Keys are content-addressed, so a put first checks whether the object is already there and skips
+ * the upload. Files above multipart-threshold are sent as a multipart upload whose parts are read
+ * straight from disk and uploaded in parallel on the bounded "photoUploadExecutor"; a failed
+ * upload is aborted so no orphaned parts are billed. Objects carry the "uploads-hashed"
+ * Cache-Control policy, so a CDN in front of the bucket can cache them forever.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+public class S3PhotoStorage implements PhotoStorage {
+
+    private final S3Client s3;
+    private final String bucket;
+    private final String publicBaseUrl;
+    private final long multipartThreshold;
+    private final long partSize;
+    private final int uploadThreads;
+    private final String cacheControl;
+    private final ThreadPoolTaskExecutor uploadExecutor;
+
+    public S3PhotoStorage(StorageProps props,
+                          HttpCacheProps cacheProps,
+                          @Qualifier("photoUploadExecutor") ThreadPoolTaskExecutor uploadExecutor) {
+        StorageProps.S3 cfg = props.getS3();
+        if (cfg.getBucket() == null || cfg.getBucket().isBlank()) {
+            throw new IllegalStateException("app.storage.s3.bucket is required when app.storage.type=s3");
+        }
+        if (cfg.getPartSize().toBytes() < 5L * 1024 * 1024) {
+            throw new IllegalStateException("app.storage.s3.part-size must be at least 5MB");
+        }
+        this.bucket = cfg.getBucket();
+        this.multipartThreshold = Math.max(cfg.getMultipartThreshold().toBytes(), cfg.getPartSize().toBytes());
+        this.partSize = cfg.getPartSize().toBytes();
+        this.uploadThreads = Math.max(1, cfg.getUploadThreads());
+        this.cacheControl = cacheProps.policyFor("uploads-hashed");
+        this.uploadExecutor = uploadExecutor;
+
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(cfg.getRegion()))
+                .forcePathStyle(cfg.isPathStyle())
+                // default CRC checksums are not understood by every S3-compatible server (older MinIO etc.)
+                .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED);
+        if (cfg.getEndpoint() != null && !cfg.getEndpoint().isBlank()) {
+            builder.endpointOverride(URI.create(cfg.getEndpoint()));
+        }
+        if (cfg.getAccessKey() != null && !cfg.getAccessKey().isBlank()) {
+            builder.credentialsProvider(StaticCredentialsProvider.create(
+                    AwsBasicCredentials.create(cfg.getAccessKey(), cfg.getSecretKey())));
+        }
+        this.s3 = builder.build();
+        this.publicBaseUrl = publicBaseUrl(props.getPublicBaseUrl(), cfg);
+    }
+
+    @PreDestroy
+    public void close() {
+        s3.close();
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) throws IOException {
+        try {
+            if (!exists(key)) {
+                long size = Files.size(file);
+                if (size > multipartThreshold) {
+                    putMultipart(key, file, size, contentType);
+                } else {
+                    s3.putObject(putRequest(key, contentType), RequestBody.fromFile(file));
+                }
+            }
+        } catch (SdkException e) {
+            throw new IOException("S3 upload of " + key + " failed: " + e.getMessage(), e);
+        }
+        Files.deleteIfExists(file);
+    }
+
+    @Override
+    public void put(String key, byte[] bytes, String contentType) throws IOException {
+        try {
+            if (exists(key)) return;
+            s3.putObject(putRequest(key, contentType), RequestBody.fromBytes(bytes));
+        } catch (SdkException e) {
+            throw new IOException("S3 upload of " + key + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        try {
+            s3.headObject(HeadObjectRequest.builder().bucket(bucket).key(key).build());
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) return false;
+            throw new IOException("S3 head of " + key + " failed: " + e.getMessage(), e);
+        } catch (SdkException e) {
+            throw new IOException("S3 head of " + key + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        try {
+            return s3.getObject(GetObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (SdkException e) {
+            throw new IOException("S3 read of " + key + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            s3.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(key).build());
+        } catch (SdkException e) {
+            throw new IOException("S3 delete of " + key + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void deletePrefix(String prefix) throws IOException {
+        try {
+            ListObjectsV2Request list = ListObjectsV2Request.builder().bucket(bucket).prefix(prefix).build();
+            for (ListObjectsV2Response page : s3.listObjectsV2Paginator(list)) {
+                if (page.contents().isEmpty()) continue;
+                // a listing page is at most 1000 keys, the DeleteObjects limit
+                List<ObjectIdentifier> ids = page.contents().stream()
+                        .map(o -> ObjectIdentifier.builder().key(o.key()).build())
+                        .toList();
+                s3.deleteObjects(DeleteObjectsRequest.builder()
+                        .bucket(bucket)
+                        .delete(Delete.builder().objects(ids).quiet(true).build())
+                        .build());
+            }
+        } catch (SdkException e) {
+            throw new IOException("S3 delete of " + prefix + "* failed: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return publicBaseUrl + key;
+    }
+
+    // ---------------- multipart ----------------
+
+    private void putMultipart(String key, Path file, long size, String contentType) throws IOException {
+        String uploadId = s3.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket).key(key).contentType(contentType).cacheControl(cacheControl)
+                .build()).uploadId();
+        // at most upload-threads parts of one file in flight, so a single big upload can't fill the pool
+        Deque<Future<CompletedPart>> inFlight = new ArrayDeque<>();
+        try {
+            int parts = (int) ((size + partSize - 1) / partSize);
+            List<CompletedPart> completed = new ArrayList<>(parts);
+            for (int i = 0; i < parts; i++) {
+                int partNumber = i + 1;
+                long offset = i * partSize;
+                long length = Math.min(partSize, size - offset);
+                if (inFlight.size() >= uploadThreads) completed.add(await(inFlight.poll()));
+                inFlight.add(uploadExecutor.submit(() -> uploadPart(key, uploadId, partNumber, file, offset, length)));
+            }
+            while (!inFlight.isEmpty()) completed.add(await(inFlight.poll()));
+
+            s3.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucket).key(key).uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completed).build())
+                    .build());
+        } catch (IOException | SdkException | RejectedExecutionException e) {
+            inFlight.forEach(f -> f.cancel(true));
+            abort(key, uploadId);
+            throw e instanceof IOException io ? io : new IOException("S3 multipart upload of " + key + " failed: " + e.getMessage(), e);
+        }
+    }
+
+    private CompletedPart uploadPart(String key, String uploadId, int partNumber, Path file, long offset, long length) {
+        UploadPartResponse res = s3.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucket).key(key).uploadId(uploadId)
+                        .partNumber(partNumber).contentLength(length)
+                        .build(),
+                // re-opened on every (retried) attempt; reads the slice from disk, never the whole part on heap
+                RequestBody.fromContentProvider(() -> new FileSliceInputStream(file, offset, length), length,
+                        "application/octet-stream"));
+        return CompletedPart.builder().partNumber(partNumber).eTag(res.eTag()).build();
+    }
+
+    private static CompletedPart await(Future<CompletedPart> part) throws IOException {
+        try {
+            return part.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted during multipart upload", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Multipart part failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private void abort(String key, String uploadId) {
+        try {
+            s3.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucket).key(key).uploadId(uploadId).build());
+        } catch (SdkException e) {
+            System.err.println("⚠️ Could not abort multipart upload " + uploadId + " of " + key + ": " + e.getMessage());
+        }
+    }
+
+    private PutObjectRequest putRequest(String key, String contentType) {
+        return PutObjectRequest.builder()
+                .bucket(bucket).key(key).contentType(contentType).cacheControl(cacheControl)
+                .build();
+    }
+
+    // explicit setting wins; otherwise the bucket URL on the configured endpoint (or AWS)
+    static String publicBaseUrl(String configured, StorageProps.S3 cfg) {
+        if (configured != null && !configured.isBlank()) {
+            return configured.endsWith("/") ? configured : configured + "/";
+        }
+        String endpoint = cfg.getEndpoint();
+        if (endpoint != null && !endpoint.isBlank()) {
+            if (endpoint.endsWith("/")) endpoint = endpoint.substring(0, endpoint.length() - 1);
+            return endpoint + "/" + cfg.getBucket() + "/";
+        }
+        return "https://" + cfg.getBucket() + ".s3." + cfg.getRegion() + ".amazonaws.com/";
+    }
+
+    /** length bytes of a file starting at offset, read with positional reads (thread-safe per stream). */
+    private static final class FileSliceInputStream extends InputStream {
+        private final FileChannel ch;
+        private long position;
+        private final long end;
+
+        FileSliceInputStream(Path file, long offset, long length) {
+            try {
+                this.ch = FileChannel.open(file, StandardOpenOption.READ);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot open " + file, e);
+            }
+            this.position = offset;
+            this.end = offset + length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end) return -1;
+            int n = ch.read(ByteBuffer.wrap(b, off, (int) Math.min(len, end - position)), position);
+            if (n < 0) return -1;
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            ch.close();
+        }
+    }
+}
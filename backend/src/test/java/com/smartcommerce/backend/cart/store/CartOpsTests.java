@@ -0,0 +1,85 @@
+package com.smartcommerce.backend.cart.store;
+
+import com.smartcommerce.backend.cart.dto.CartBatchRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A batch resolves in order against the current quantities: add sums, set replaces (0 removes), remove drops the
+ * line; existing lines keep their place and new ones go to the end.
+ */
+class CartOpsTests {
+
+	@Test
+	void opsApplyInOrder() {
+		Map<Long, Integer> current = quantities(1L, 2, 2L, 1);
+
+		LinkedHashMap<Long, Integer> after = CartOps.resolve(current, List.of(
+				op("add", 1L, 3),
+				op("set", 3L, 4),
+				op("remove", 2L, null),
+				op("add", 3L, 1)));
+
+		assertEquals(quantities(1L, 5, 3L, 5), after);
+		assertEquals(List.of(1L, 3L), List.copyOf(after.keySet()));
+		assertEquals(quantities(1L, 2, 2L, 1), current);   // input untouched
+	}
+
+	@Test
+	void setZeroAndRemoveOfMissingLinesAreNoOps() {
+		assertEquals(quantities(1L, 2), CartOps.resolve(quantities(1L, 2), List.of(
+				op("set", 9L, 0),
+				op("remove", 8L, null))));
+		assertEquals(quantities(), CartOps.resolve(quantities(1L, 2), List.of(op("set", 1L, 0))));
+	}
+
+	@Test
+	void removedLineComesBackAtTheEnd() {
+		LinkedHashMap<Long, Integer> after = CartOps.resolve(quantities(1L, 1, 2L, 1), List.of(
+				op("remove", 1L, null),
+				op("add", 1L, 2)));
+
+		assertEquals(List.of(2L, 1L), List.copyOf(after.keySet()));
+	}
+
+	@Test
+	void unknownOpIsRejected() {
+		assertThrows(IllegalArgumentException.class,
+				() -> CartOps.resolve(quantities(), List.of(op("double", 1L, 1))));
+	}
+
+	@Test
+	void onlyPutsNeedTheProduct() {
+		assertEquals(Set.of(1L, 3L), CartOps.productsNeeded(List.of(
+				op("add", 1L, 1),
+				op("set", 2L, 0),
+				op("set", 3L, 2),
+				op("remove", 4L, null))));
+
+		CartOps.requireAll(Set.of(1L), Set.of(1L, 2L));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> CartOps.requireAll(Set.of(1L, 5L), Set.of(1L)));
+		assertEquals("Product not found: [5]", e.getMessage());
+	}
+
+	private static CartBatchRequest.Op op(String name, Long productId, Integer quantity) {
+		CartBatchRequest.Op op = new CartBatchRequest.Op();
+		op.setOp(name);
+		op.setProductId(productId);
+		op.setQuantity(quantity);
+		return op;
+	}
+
+	private static LinkedHashMap<Long, Integer> quantities(Object... pairs) {
+		LinkedHashMap<Long, Integer> m = new LinkedHashMap<>();
+		for (int i = 0; i < pairs.length; i += 2) m.put((Long) pairs[i], (Integer) pairs[i + 1]);
+		return m;
+	}
+}
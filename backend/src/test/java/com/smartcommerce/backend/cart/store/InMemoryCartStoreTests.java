@@ -0,0 +1,143 @@
+package com.smartcommerce.backend.cart.store;
+
+import com.smartcommerce.backend.auth.entity.User;
+import com.smartcommerce.backend.auth.repository.UserRepository;
+import com.smartcommerce.backend.cart.entity.CartItem;
+import com.smartcommerce.backend.cart.repository.CartItemRepository;
+import com.smartcommerce.backend.config.CartProps;
+import com.smartcommerce.backend.product.cache.CatalogCache;
+import com.smartcommerce.backend.product.entity.Product;
+import com.smartcommerce.backend.product.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Write-behind: changes stay in memory until a flush, which writes each cart's final quantities in one go;
+ * a cart evicted with unwritten changes is adopted again instead of being re-read; clear wins over a late flush.
+ * Runs without a test transaction: CatalogCache reads through its own EntityManager and must see committed rows.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InMemoryCartStoreTests {
+
+	@Autowired
+	private CartItemRepository cartRepo;
+
+	@Autowired
+	private UserRepository userRepo;
+
+	@Autowired
+	private ProductRepository productRepo;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	private final CartProps props = new CartProps();
+	private InMemoryCartStore store;
+	private Long userId;
+	private Long poster;
+	private Long frame;
+
+	@BeforeEach
+	void setUp() {
+		store = newStore();
+		User u = new User();
+		u.setEmail("cart-store@x.com");
+		userId = userRepo.save(u).getId();
+		poster = product("CS-POSTER");
+		frame = product("CS-FRAME");
+	}
+
+	@AfterEach
+	void cleanUp() {
+		cartRepo.deleteAll();
+		productRepo.deleteAll();
+		userRepo.deleteAll();
+	}
+
+	@Test
+	void changesCoalesceIntoOneWrite() {
+		store.add(userId, poster, 1);
+		store.add(userId, poster, 1);
+		store.add(userId, frame, 1);
+		store.setQuantity(userId, poster, 5);
+		store.remove(userId, frame);
+		assertTrue(rows().isEmpty());                                  // nothing written yet
+
+		store.flush();
+
+		assertEquals(Map.of(poster, 5), rows());
+		assertEquals(1L, store.stats().get("flushes"));
+		assertEquals(0, store.stats().get("dirtyCarts"));
+		assertEquals(5, store.summary(userId).getTotalItems());
+
+		store.flush();                                                 // nothing dirty, nothing written
+		assertEquals(1L, store.stats().get("flushes"));
+	}
+
+	@Test
+	void evictedDirtyCartIsAdoptedNotReRead() throws InterruptedException {
+		props.setIdleTtl(Duration.ofMillis(50));
+		store = newStore();
+
+		store.add(userId, poster, 2);
+		Thread.sleep(120);                                             // evicted from the cache, still dirty
+
+		assertEquals(2, store.summary(userId).getTotalItems());       // not the empty DB copy
+		store.add(userId, poster, 1);
+		store.flush();
+		assertEquals(Map.of(poster, 3), rows());
+		assertEquals(1L, store.stats().get("loads"));
+	}
+
+	@Test
+	void clearWinsOverALateFlush() {
+		store.add(userId, poster, 1);
+		store.flush();
+		store.add(userId, frame, 1);                                   // pending when checkout clears
+
+		new TransactionTemplate(txManager).executeWithoutResult(st -> store.clear(userId));
+		store.flush();
+
+		assertTrue(rows().isEmpty());
+		assertEquals(0, store.summary(userId).getTotalItems());
+	}
+
+	private InMemoryCartStore newStore() {
+		CatalogCache catalogCache = new CatalogCache(emf, 100, 100, Duration.ofMinutes(1));
+		return new InMemoryCartStore(cartRepo, userRepo, productRepo, catalogCache, txManager, props, Runnable::run);
+	}
+
+	private Long product(String sku) {
+		Product p = new Product();
+		p.setSku(sku);
+		p.setName(sku);
+		p.setPrice(new BigDecimal("100.00"));
+		p.setStock(10);
+		return productRepo.save(p).getId();
+	}
+
+	private Map<Long, Integer> rows() {
+		return new TransactionTemplate(txManager).execute(st -> cartRepo.findByUser_Id(userId).stream()
+				.collect(Collectors.toMap(ci -> ci.getProduct().getId(), CartItem::getQuantity)));
+	}
+}
@@ -0,0 +1,54 @@
+package com.smartcommerce.backend.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Paise conversion and the pricing rules shared by the cart, checkout, coupons and the effectivePrice column.
+ */
+class MoneyTests {
+
+	@Test
+	void rupeesToPaiseRoundsHalfUp() {
+		assertEquals(0L, Money.paise(null));
+		assertEquals(49900L, Money.paise(new BigDecimal("499")));
+		assertEquals(1235L, Money.paise(new BigDecimal("12.345")));
+		assertEquals(1234L, Money.paise(new BigDecimal("12.344")));
+		assertEquals(new BigDecimal("499.00"), Money.rupees(49900L));
+	}
+
+	@Test
+	void discountCountsOnlyWhenAboveZeroAndBelowPrice() {
+		assertEquals(8000L, Money.effective(10000L, 8000L));
+		assertEquals(10000L, Money.effective(10000L, 0L));
+		assertEquals(10000L, Money.effective(10000L, 10000L));
+		assertEquals(10000L, Money.effective(10000L, 12000L));
+	}
+
+	@Test
+	void percentOffRoundsHalfUpToWholePercent() {
+		assertEquals(0, Money.percentOff(10000L, 10000L));
+		assertEquals(0, Money.percentOff(0L, 0L));
+		assertEquals(20, Money.percentOff(10000L, 8000L));
+		assertEquals(33, Money.percentOff(30000L, 20000L));   // 33.33
+		assertEquals(67, Money.percentOff(30000L, 10000L));   // 66.67
+		assertEquals(13, Money.percentOff(20000L, 17500L));   // 12.5 -> 13
+	}
+
+	@Test
+	void lineTotalsAreExact() {
+		assertEquals(149700L, Money.times(49900L, 3));
+		assertThrows(ArithmeticException.class, () -> Money.times(Long.MAX_VALUE / 2, 3));
+	}
+
+	@Test
+	void formatsTwoDecimals() {
+		assertEquals("1234.50", Money.format(123450L));
+		assertEquals("0.05", Money.format(5L));
+		assertEquals("-1.00", Money.format(-100L));
+	}
+}
@@ -0,0 +1,57 @@
+package com.smartcommerce.backend.order.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The keyset cursor must survive a round trip at full Instant precision (equal timestamps are told apart by id only),
+ * and anything that is not a cursor we issued is a 400, never a 500.
+ */
+class AdminOrderSliceDTOTests {
+
+	@Test
+	void cursorRoundTripKeepsNanos() {
+		Instant createdAt = Instant.parse("2030-03-01T10:15:30.123456789Z");
+		AdminOrderSliceDTO.Cursor cursor = AdminOrderSliceDTO.decodeCursor(AdminOrderSliceDTO.encodeCursor(createdAt, 42L));
+
+		assertEquals(createdAt, cursor.createdAt());
+		assertEquals(42L, cursor.id());
+	}
+
+	@Test
+	void nextCursorPointsAtTheLastRowOnlyWhenMoreFollow() {
+		List<AdminOrderDTO> rows = List.of(row(3L, "2030-03-01T00:00:02Z"), row(2L, "2030-03-01T00:00:01Z"));
+
+		AdminOrderSliceDTO more = AdminOrderSliceDTO.of(rows, 2, true);
+		assertEquals(new AdminOrderSliceDTO.Cursor(Instant.parse("2030-03-01T00:00:01Z"), 2L),
+				AdminOrderSliceDTO.decodeCursor(more.nextCursor));
+
+		assertNull(AdminOrderSliceDTO.of(rows, 2, false).nextCursor);
+		assertNull(AdminOrderSliceDTO.of(List.of(), 2, true).nextCursor);
+	}
+
+	@Test
+	void foreignCursorsAreRejected() {
+		assertThrows(IllegalArgumentException.class, () -> AdminOrderSliceDTO.decodeCursor("!!bad"));
+		assertThrows(IllegalArgumentException.class, () -> AdminOrderSliceDTO.decodeCursor(encode("no-comma")));
+		assertThrows(IllegalArgumentException.class, () -> AdminOrderSliceDTO.decodeCursor(encode("yesterday,1")));
+		assertThrows(IllegalArgumentException.class, () -> AdminOrderSliceDTO.decodeCursor(encode("2030-03-01T00:00:00Z,x")));
+	}
+
+	private static AdminOrderDTO row(Long id, String createdAt) {
+		AdminOrderDTO dto = new AdminOrderDTO();
+		dto.id = id;
+		dto.createdAt = Instant.parse(createdAt);
+		return dto;
+	}
+
+	private static String encode(String raw) {
+		return java.util.Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes());
+	}
+}
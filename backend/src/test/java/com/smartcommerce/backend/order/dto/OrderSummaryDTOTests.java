@@ -0,0 +1,55 @@
+package com.smartcommerce.backend.order.dto;
+
+import com.smartcommerce.backend.order.entity.ArchivedOrder;
+import com.smartcommerce.backend.order.entity.Order;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Live and archived orders come out in one shape, and the merged list is newest first across both sources
+ * (equal timestamps fall back to id, like the keyset order).
+ */
+class OrderSummaryDTOTests {
+
+	@Test
+	void mergeInterleavesByCreatedAtDesc() {
+		List<OrderSummaryDTO> live = List.of(row(9L, "2030-03-05T00:00:00Z"), row(7L, "2030-03-01T00:00:00Z"));
+		List<OrderSummaryDTO> archived = List.of(row(8L, "2030-03-03T00:00:00Z"), row(6L, "2030-03-01T00:00:00Z"),
+				row(2L, "2029-12-31T00:00:00Z"));
+
+		List<Long> ids = OrderSummaryDTO.merge(live, archived).stream().map(s -> s.id).toList();
+
+		assertEquals(List.of(9L, 8L, 7L, 6L, 2L), ids);
+		assertEquals(List.of(8L, 6L, 2L), OrderSummaryDTO.merge(List.of(), archived).stream().map(s -> s.id).toList());
+	}
+
+	@Test
+	void archivedRowsCarryOnlyTheSummaryFields() {
+		ArchivedOrder a = new ArchivedOrder();
+		a.setId(5L);
+		a.setUserId(1L);
+		a.setStatus(Order.OrderStatus.DELIVERED);
+		a.setCreatedAt(Instant.parse("2029-01-01T00:00:00Z"));
+		a.setTotalPayable(129_900L);
+		a.setArchiveMonth(202901);
+
+		OrderSummaryDTO dto = OrderSummaryDTO.from(a);
+
+		assertEquals(5L, dto.id);
+		assertEquals("DELIVERED", dto.status);
+		assertEquals(129_900L, dto.totalPayable);
+		assertTrue(dto.archived);
+	}
+
+	private static OrderSummaryDTO row(Long id, String createdAt) {
+		OrderSummaryDTO dto = new OrderSummaryDTO();
+		dto.id = id;
+		dto.createdAt = Instant.parse(createdAt);
+		return dto;
+	}
+}
@@ -0,0 +1,137 @@
+package com.smartcommerce.backend.order.repository;
+
+import com.smartcommerce.backend.auth.entity.User;
+import com.smartcommerce.backend.order.entity.ArchivedOrder;
+import com.smartcommerce.backend.order.entity.Order;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Admin order filters: only the given filters apply, an order id wins over the rest, and a keyset walk with
+ * olderThan visits every row once in NEWEST_FIRST order, also across equal createdAt values.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class OrderSpecsTests {
+
+	private static final Instant BASE = Instant.parse("2030-03-01T00:00:00Z");
+
+	@Autowired
+	private OrderRepository orderRepo;
+
+	@Autowired
+	private ArchivedOrderRepository archivedRepo;
+
+	@Autowired
+	private EntityManager em;
+
+	private User alice;
+	private User bob;
+	private final List<Long> ids = new ArrayList<>();   // index i = order created at BASE + i/2 seconds
+
+	@BeforeEach
+	void seed() {
+		alice = user("specs-alice@x.com");
+		bob = user("specs-bob@x.com");
+		for (int i = 0; i < 10; i++) {
+			Order o = new Order();
+			o.setUser(i % 2 == 0 ? alice : bob);
+			o.setStatus(i % 3 == 0 ? Order.OrderStatus.SHIPPED : Order.OrderStatus.PAID);
+			em.persist(o);
+			ids.add(o.getId());
+		}
+		em.flush();
+		// createdAt is stamped on persist and not updatable; pairs share a timestamp
+		for (int i = 0; i < ids.size(); i++) {
+			em.createNativeQuery("update orders set created_at = ? where id = ?")
+					.setParameter(1, BASE.plusSeconds(i / 2))
+					.setParameter(2, ids.get(i))
+					.executeUpdate();
+		}
+		em.clear();
+	}
+
+	@Test
+	void onlyGivenFiltersApply() {
+		assertEquals(10, find(OrderSpecs.filter(null, null, null, null, null)).size());
+		assertEquals(List.of(ids.get(9), ids.get(6), ids.get(3), ids.get(0)),
+				find(OrderSpecs.filter(Order.OrderStatus.SHIPPED, null, null, null, null)));
+		assertEquals(List.of(ids.get(6), ids.get(0)),
+				find(OrderSpecs.filter(Order.OrderStatus.SHIPPED, null, null, alice.getId(), null)));
+		// both bounds inclusive
+		assertEquals(List.of(ids.get(5), ids.get(4), ids.get(3), ids.get(2)),
+				find(OrderSpecs.filter(null, BASE.plusSeconds(1), BASE.plusSeconds(2), null, null)));
+	}
+
+	@Test
+	void orderIdWinsOverOtherFilters() {
+		assertEquals(List.of(ids.get(1)),
+				find(OrderSpecs.filter(Order.OrderStatus.SHIPPED, BASE.plusSeconds(60), null, alice.getId(), ids.get(1))));
+	}
+
+	@Test
+	void keysetWalkVisitsEveryRowOnceNewestFirst() {
+		List<Long> seen = new ArrayList<>();
+		Specification<Order> spec = OrderSpecs.filter(null, null, null, null, null);
+		List<Order> slice = slice(spec, 3);
+		while (!slice.isEmpty()) {
+			slice.forEach(o -> seen.add(o.getId()));
+			Order last = slice.get(slice.size() - 1);
+			slice = slice(spec.and(OrderSpecs.olderThan(last.getCreatedAt(), last.getId())), 3);
+		}
+
+		List<Long> expected = new ArrayList<>(ids);
+		java.util.Collections.reverse(expected);   // later index = later or equal createdAt and higher id
+		assertEquals(expected, seen);
+	}
+
+	@Test
+	void archivedFiltersOnTheUserIdColumn() {
+		archive(100L, alice.getId(), Order.OrderStatus.DELIVERED, BASE);
+		archive(101L, bob.getId(), Order.OrderStatus.DELIVERED, BASE.plusSeconds(1));
+		archive(102L, bob.getId(), Order.OrderStatus.CANCELLED, BASE.plusSeconds(2));
+		em.flush();
+
+		assertEquals(List.of(101L), archivedRepo.findAll(OrderSpecs.archived(Order.OrderStatus.DELIVERED, null, null,
+				bob.getId(), null), OrderSpecs.NEWEST_FIRST).stream().map(ArchivedOrder::getId).toList());
+		assertEquals(List.of(100L), archivedRepo.findAll(OrderSpecs.archived(null, null, null, null, 100L))
+				.stream().map(ArchivedOrder::getId).toList());
+	}
+
+	private List<Long> find(Specification<Order> spec) {
+		return orderRepo.findAll(spec, OrderSpecs.NEWEST_FIRST).stream().map(Order::getId).toList();
+	}
+
+	private List<Order> slice(Specification<Order> spec, int size) {
+		return orderRepo.findBy(spec, q -> q.sortBy(OrderSpecs.NEWEST_FIRST).limit(size).all());
+	}
+
+	private User user(String email) {
+		User u = new User();
+		u.setEmail(email);
+		u.setRole("USER");
+		em.persist(u);
+		return u;
+	}
+
+	private void archive(Long id, Long userId, Order.OrderStatus status, Instant createdAt) {
+		ArchivedOrder a = new ArchivedOrder();
+		a.setId(id);
+		a.setUserId(userId);
+		a.setStatus(status);
+		a.setCreatedAt(createdAt);
+		a.setUpdatedAt(createdAt);
+		a.setArchivedAt(createdAt);
+		a.setArchiveMonth(203003);
+		em.persist(a);
+	}
+}
@@ -0,0 +1,122 @@
+package com.smartcommerce.backend.product.bulk;
+
+import com.smartcommerce.backend.product.dto.ProductImportRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * RFC 4180 records as spreadsheets write them (quoted commas, "" escapes, CRLF, line breaks inside quotes,
+ * no final newline), the line each record starts on, and short rows mapping missing columns to null.
+ */
+class ProductCsvTests {
+
+	@Test
+	void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+		List<List<String>> records = read("sku,name,description\n"
+				+ "P1,\"Sunset, large\",\"He said \"\"wow\"\"\"\n"
+				+ "P2,Plain,\"two\nlines\"\n");
+
+		assertEquals(List.of("sku", "name", "description"), records.get(0));
+		assertEquals(List.of("P1", "Sunset, large", "He said \"wow\""), records.get(1));
+		assertEquals(List.of("P2", "Plain", "two\nlines"), records.get(2));
+		assertEquals(3, records.size());
+	}
+
+	@Test
+	void crlfBomBlankLinesAndMissingFinalNewline() throws IOException {
+		List<List<String>> records = read("\uFEFFsku,name\r\nP1,One\r\n\r\nP2,\"Two\r\nlines\"\r\nP3,Three");
+
+		assertEquals(List.of(
+				List.of("sku", "name"),
+				List.of("P1", "One"),
+				List.of("P2", "Two\r\nlines"),
+				List.of("P3", "Three")), records);
+	}
+
+	@Test
+	void emptyFieldsAndTrailingComma() throws IOException {
+		assertEquals(List.of(List.of("P1", "", "", "")), read("P1,,,\n"));
+		assertEquals(List.of(List.of("", "")), read("\"\",\n"));
+	}
+
+	@Test
+	void recordLineIsWhereTheRecordStarts() throws IOException {
+		ProductCsv.RecordReader reader = new ProductCsv.RecordReader(
+				new StringReader("sku,name\nP1,\"a\nb\nc\"\n\nP2,x\n"));
+		reader.next();
+		assertEquals(1, reader.recordLine());
+		reader.next();
+		assertEquals(2, reader.recordLine());
+		reader.next();
+		assertEquals(6, reader.recordLine());       // after the 3-line record and a blank line
+		assertNull(reader.next());
+	}
+
+	@Test
+	void unterminatedQuoteIsAnError() {
+		assertThrows(IllegalArgumentException.class, () -> read("P1,\"never closed\n"));
+	}
+
+	@Test
+	void shortRowsLeaveMissingColumnsNull() {
+		Map<String, Integer> header = ProductCsv.header(List.of("SKU", " Name ", "price", "stock", "tags"));
+		ProductImportRow row = ProductCsv.toRow(header, List.of("P1", "Poster", "199.50"));
+
+		assertEquals("P1", row.getSku());
+		assertEquals("Poster", row.getName());
+		assertEquals(new BigDecimal("199.50"), row.getPrice());
+		assertNull(row.getStock());
+		assertEquals(List.of(), row.getTags());
+	}
+
+	@Test
+	void headerNeedsSkuAndName() {
+		assertThrows(IllegalArgumentException.class, () -> ProductCsv.header(List.of("sku", "price")));
+	}
+
+	@Test
+	void badNumbersNameTheColumn() {
+		Map<String, Integer> header = ProductCsv.header(List.of("sku", "name", "stock"));
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+				() -> ProductCsv.toRow(header, List.of("P1", "Poster", "ten")));
+		assertEquals("Invalid stock: ten", e.getMessage());
+	}
+
+	@Test
+	void exportedLinesReadBackUnchanged() throws IOException {
+		ProductImportRow row = new ProductImportRow();
+		row.setSku("P1");
+		row.setName("Sunset, \"large\"");
+		row.setDescription("two\nlines");
+		row.setPrice(new BigDecimal("199.50"));
+		row.setTags(new ArrayList<>(List.of("beach", "warm")));
+		row.setPhotoUrls(new ArrayList<>());
+
+		List<List<String>> records = read(ProductCsv.headerLine() + ProductCsv.toLine(row));
+		ProductImportRow back = ProductCsv.toRow(ProductCsv.header(records.get(0)), records.get(1));
+
+		assertEquals(row.getName(), back.getName());
+		assertEquals(row.getDescription(), back.getDescription());
+		assertEquals(row.getPrice(), back.getPrice());
+		assertEquals(row.getTags(), back.getTags());
+	}
+
+	private static List<List<String>> read(String csv) throws IOException {
+		List<List<String>> out = new ArrayList<>();
+		try (ProductCsv.RecordReader reader = new ProductCsv.RecordReader(new StringReader(csv))) {
+			List<String> record;
+			while ((record = reader.next()) != null) out.add(record);
+		}
+		return out;
+	}
+}
@@ -0,0 +1,121 @@
+package com.smartcommerce.backend.product.bulk;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smartcommerce.backend.config.CatalogImportProps;
+import com.smartcommerce.backend.product.cache.CatalogCache;
+import com.smartcommerce.backend.product.entity.Category;
+import com.smartcommerce.backend.product.entity.Product;
+import com.smartcommerce.backend.product.repository.CategoryRepository;
+import com.smartcommerce.backend.product.repository.ProductRepository;
+import com.smartcommerce.backend.product.search.ProductSearchIndex;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Each chunk is one transaction: a row that fails in the database rolls back its whole chunk (rows inserted
+ * before it included), is reported as failed, and the import carries on with the next chunk.
+ * Runs without a test transaction so every chunk really commits or rolls back.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductImportServiceTests {
+
+	@Autowired
+	private ProductRepository productRepo;
+
+	@Autowired
+	private CategoryRepository categoryRepo;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	private ProductImportService service;
+
+	@BeforeEach
+	void setUp() {
+		Category general = new Category();
+		general.setName("General");
+		categoryRepo.save(general);
+
+		CatalogImportProps props = new CatalogImportProps();
+		props.setChunkSize(2);
+		service = new ProductImportService(new NamedParameterJdbcTemplate(dataSource), txManager, Runnable::run,
+				new ObjectMapper(), new CatalogCache(emf, 100, 100, Duration.ofMinutes(1)),
+				new ProductSearchIndex(emf), props);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		productRepo.deleteAll();
+		categoryRepo.deleteAll();
+	}
+
+	@Test
+	void aRowTheDatabaseRejectsRollsBackItsWholeChunk() throws IOException {
+		String tooLong = "m".repeat(300);           // passes validation, longer than the material column
+		ProductImportJob job = run("sku,name,price,material,tags\n"
+				+ "IMP-1,First,100,paper,a|b\n"
+				+ "IMP-2,Second,100," + tooLong + ",c\n"
+				+ "IMP-3,Third,100,paper,d\n"
+				+ "IMP-4,Fourth,100,canvas,\n");
+
+		assertEquals(List.of("IMP-3", "IMP-4"), productRepo.findAll().stream().map(Product::getSku).sorted().toList());
+		Map<String, Object> report = job.toMap();
+		assertEquals(ProductImportJob.Status.DONE, job.getStatus());
+		assertEquals(4L, report.get("read"));
+		assertEquals(2L, report.get("inserted"));
+		assertEquals(2L, report.get("failed"));
+		assertEquals(2L, ((Map<?, ?>) ((List<?>) report.get("errors")).get(0)).get("line"));
+	}
+
+	@Test
+	void invalidRowsAreReportedWithoutFailingTheirChunk() throws IOException {
+		ProductImportJob job = run("sku,name,price\n"
+				+ "IMP-1,First,100\n"
+				+ "IMP-2,,100\n"
+				+ "IMP-1,Again,100\n"
+				+ "IMP-3,Third,ten\n"
+				+ "IMP-4,Fourth,100\n");
+
+		assertEquals(List.of("IMP-1", "IMP-4"), productRepo.findAll().stream().map(Product::getSku).sorted().toList());
+		Map<String, Object> report = job.toMap();
+		assertEquals(2L, report.get("inserted"));
+		assertEquals(2L, report.get("invalid"));
+		assertEquals(1L, report.get("skipped"));
+		assertEquals(0L, report.get("failed"));
+	}
+
+	private ProductImportJob run(String csv) throws IOException {
+		Path file = Files.createTempFile("import-test-", ".csv");
+		Files.writeString(file, csv);
+		ProductImportJob job = new ProductImportJob("test", "csv", Files.size(file), 100);
+		service.run(job, file);
+		assertFalse(Files.exists(file));
+		return job;
+	}
+}
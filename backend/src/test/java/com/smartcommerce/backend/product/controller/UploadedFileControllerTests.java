@@ -0,0 +1,72 @@
+package com.smartcommerce.backend.product.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Single byte ranges: {start, end} to send 206, null for 416, an empty array to ignore the header and send 200.
+ * Only names that carry a content hash get the immutable cache policy.
+ */
+class UploadedFileControllerTests {
+
+	private static final long LENGTH = 1000;
+	private static final long[] IGNORE = new long[0];
+
+	@Test
+	void closedRange() {
+		assertArrayEquals(new long[]{0, 99}, UploadedFileController.parseRange("bytes=0-99", LENGTH));
+		assertArrayEquals(new long[]{500, 500}, UploadedFileController.parseRange("bytes=500-500", LENGTH));
+		assertArrayEquals(new long[]{10, 20}, UploadedFileController.parseRange("bytes= 10 - 20 ", LENGTH));
+	}
+
+	@Test
+	void openEndedRangeRunsToTheLastByte() {
+		assertArrayEquals(new long[]{900, 999}, UploadedFileController.parseRange("bytes=900-", LENGTH));
+		assertArrayEquals(new long[]{999, 999}, UploadedFileController.parseRange("bytes=999-", LENGTH));
+	}
+
+	@Test
+	void suffixRangeIsTheLastNBytes() {
+		assertArrayEquals(new long[]{900, 999}, UploadedFileController.parseRange("bytes=-100", LENGTH));
+		assertArrayEquals(new long[]{0, 999}, UploadedFileController.parseRange("bytes=-5000", LENGTH));  // longer than the file
+		assertNull(UploadedFileController.parseRange("bytes=-0", LENGTH));
+		assertNull(UploadedFileController.parseRange("bytes=-10", 0));
+	}
+
+	@Test
+	void endPastEofIsClampedButStartPastEofIsUnsatisfiable() {
+		assertArrayEquals(new long[]{900, 999}, UploadedFileController.parseRange("bytes=900-5000", LENGTH));
+		assertNull(UploadedFileController.parseRange("bytes=1000-", LENGTH));
+		assertNull(UploadedFileController.parseRange("bytes=1000-1100", LENGTH));
+		assertNull(UploadedFileController.parseRange("bytes=0-", 0));
+	}
+
+	@Test
+	void startAfterEndIsUnsatisfiable() {
+		assertNull(UploadedFileController.parseRange("bytes=200-100", LENGTH));
+	}
+
+	@Test
+	void malformedOrMultiRangeHeadersAreIgnored() {
+		assertArrayEquals(IGNORE, UploadedFileController.parseRange("items=0-10", LENGTH));
+		assertArrayEquals(IGNORE, UploadedFileController.parseRange("bytes=0-10,20-30", LENGTH));
+		assertArrayEquals(IGNORE, UploadedFileController.parseRange("bytes=10", LENGTH));
+		assertArrayEquals(IGNORE, UploadedFileController.parseRange("bytes=-", LENGTH));
+		assertArrayEquals(IGNORE, UploadedFileController.parseRange("bytes=a-b", LENGTH));
+	}
+
+	@Test
+	void hashedNamesAreOriginalsAndVariants() {
+		String sha256 = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+		assertTrue(UploadedFileController.isHashed(sha256 + ".jpg"));
+		assertTrue(UploadedFileController.isHashed("640.0123456789abcdef.jpg"));
+
+		assertFalse(UploadedFileController.isHashed("0123456789abcdef0123456789abcdef.jpg"));  // 32 hex is no sha256
+		assertFalse(UploadedFileController.isHashed("sunset-poster.jpg"));
+		assertFalse(UploadedFileController.isHashed(sha256 + ".jpg.part"));
+	}
+}
@@ -0,0 +1,135 @@
+package com.smartcommerce.backend.product.image;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Phone photos store pixels sideways and say so in EXIF Orientation; variants carry no metadata,
+ * so they must come out already turned. The source is left half red, right half blue.
+ */
+class ImageTranscoderTests {
+
+	private static final int W = 80, H = 40;
+
+	@Test
+	void orientationIsReadInBothByteOrders() throws IOException {
+		assertEquals(6, orientation(withExif(jpeg(), 6, ByteOrder.BIG_ENDIAN)));
+		assertEquals(8, orientation(withExif(jpeg(), 8, ByteOrder.LITTLE_ENDIAN)));
+		assertEquals(1, orientation(jpeg()));
+		assertEquals(1, orientation(png()));
+	}
+
+	@Test
+	void quarterTurnSwapsTheDimensionsAndTurnsThePixels() throws IOException {
+		ImageTranscoder.Result result = ImageTranscoder.transcode(
+				new ByteArrayInputStream(withExif(jpeg(), 6, ByteOrder.BIG_ENDIAN)), List.of(20), 0.9f, 1_000_000);
+
+		assertEquals(H, result.width());
+		assertEquals(W, result.height());
+		ImageTranscoder.Variant v = result.variants().get(0);
+		assertEquals(20, v.width());
+		assertEquals(40, v.height());
+
+		// 90° clockwise: the red left half is now on top
+		BufferedImage img = ImageIO.read(new ByteArrayInputStream(v.jpeg()));
+		assertEquals(20, img.getWidth());
+		assertTrue(isRed(img.getRGB(10, 5)));
+		assertTrue(isBlue(img.getRGB(10, 35)));
+	}
+
+	@Test
+	void withoutExifNothingIsTurned() throws IOException {
+		ImageTranscoder.Result result = ImageTranscoder.transcode(
+				new ByteArrayInputStream(jpeg()), List.of(40), 0.9f, 1_000_000);
+
+		assertEquals(W, result.width());
+		BufferedImage img = ImageIO.read(new ByteArrayInputStream(result.variants().get(0).jpeg()));
+		assertEquals(20, img.getHeight());
+		assertTrue(isRed(img.getRGB(5, 10)));
+		assertTrue(isBlue(img.getRGB(35, 10)));
+	}
+
+	@Test
+	void everyOrientationPutsTheTopLeftPixelWhereItBelongs() {
+		BufferedImage src = new BufferedImage(3, 2, BufferedImage.TYPE_INT_RGB);
+		src.setRGB(0, 0, 0xFFFFFF);
+		int[][] corner = {{0, 0}, {0, 0}, {2, 0}, {2, 1}, {0, 1}, {0, 0}, {1, 0}, {1, 2}, {0, 2}};
+
+		for (int o = 1; o <= 8; o++) {
+			BufferedImage out = ImageTranscoder.orient(src, o);
+			assertEquals(o >= 5 ? 2 : 3, out.getWidth(), "orientation " + o);
+			assertEquals(0xFFFFFF, out.getRGB(corner[o][0], corner[o][1]) & 0xFFFFFF, "orientation " + o);
+		}
+	}
+
+	private static int orientation(byte[] image) throws IOException {
+		try (ImageInputStream iis = ImageIO.createImageInputStream(new ByteArrayInputStream(image))) {
+			int o = ImageTranscoder.exifOrientation(iis);
+			assertEquals(0, iis.getStreamPosition());
+			return o;
+		}
+	}
+
+	private static BufferedImage halves() {
+		BufferedImage img = new BufferedImage(W, H, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g = img.createGraphics();
+		g.setColor(Color.RED);
+		g.fillRect(0, 0, W / 2, H);
+		g.setColor(Color.BLUE);
+		g.fillRect(W / 2, 0, W / 2, H);
+		g.dispose();
+		return img;
+	}
+
+	private static byte[] jpeg() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(halves(), "jpeg", out);
+		return out.toByteArray();
+	}
+
+	private static byte[] png() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageIO.write(halves(), "png", out);
+		return out.toByteArray();
+	}
+
+	// APP1 "Exif\0\0" + TIFF header + IFD0 holding only Orientation, inserted right after SOI
+	private static byte[] withExif(byte[] jpeg, int orientation, ByteOrder order) {
+		ByteBuffer tiff = ByteBuffer.allocate(26).order(order);
+		tiff.put(order == ByteOrder.LITTLE_ENDIAN ? new byte[]{'I', 'I'} : new byte[]{'M', 'M'});
+		tiff.putShort((short) 42).putInt(8);
+		tiff.putShort((short) 1);
+		tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+		tiff.putInt(0);
+
+		int length = 2 + 6 + tiff.capacity();
+		ByteBuffer out = ByteBuffer.allocate(jpeg.length + 2 + length);
+		out.put(jpeg, 0, 2);
+		out.put((byte) 0xFF).put((byte) 0xE1).putShort((short) length);
+		out.put(new byte[]{'E', 'x', 'i', 'f', 0, 0}).put(tiff.array());
+		out.put(jpeg, 2, jpeg.length - 2);
+		return out.array();
+	}
+
+	private static boolean isRed(int rgb) {
+		return ((rgb >> 16) & 0xFF) > 200 && (rgb & 0xFF) < 60;
+	}
+
+	private static boolean isBlue(int rgb) {
+		return (rgb & 0xFF) > 200 && ((rgb >> 16) & 0xFF) < 60;
+	}
+}
@@ -0,0 +1,91 @@
+package com.smartcommerce.backend.product.repository;
+
+import com.smartcommerce.backend.product.dto.ProductFilter;
+import com.smartcommerce.backend.product.dto.ProductSort;
+import com.smartcommerce.backend.product.dto.ProductSummaryDTO;
+import com.smartcommerce.backend.product.entity.Product;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The stored effectivePrice and the hasDiscount filter must follow Money.effective, the rule the cart charges:
+ * a discount counts only when it is above 0 and below the price.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ProductPriceRuleTests {
+
+	@Autowired
+	private ProductRepository productRepo;
+
+	@Autowired
+	private EntityManager em;
+
+	@BeforeEach
+	void seed() {
+		product("PR-REAL", "100.00", "80.00");
+		product("PR-ZERO", "100.00", "0.00");
+		product("PR-EQUAL", "100.00", "100.00");
+		product("PR-ABOVE", "100.00", "120.00");
+		product("PR-NONE", "100.00", null);
+		em.flush();
+		// rows written under the old "discount wins when present" rule
+		em.createNativeQuery("update products set effective_price = coalesce(discount_price, price)").executeUpdate();
+		em.clear();
+	}
+
+	@Test
+	void backfillRecomputesRowsThatDisagreeWithTheRule() {
+		assertEquals(2, productRepo.backfillEffectivePrice(LocalDateTime.now()));   // ZERO and ABOVE
+		em.clear();
+
+		Map<String, BigDecimal> prices = cards(ProductFilter.none()).stream()
+				.collect(Collectors.toMap(ProductSummaryDTO::getSku, ProductSummaryDTO::getPrice));
+		assertEquals(new BigDecimal("80.00"), prices.get("PR-REAL"));
+		assertEquals(new BigDecimal("100.00"), prices.get("PR-ZERO"));
+		assertEquals(new BigDecimal("100.00"), prices.get("PR-EQUAL"));
+		assertEquals(new BigDecimal("100.00"), prices.get("PR-ABOVE"));
+		assertEquals(new BigDecimal("100.00"), prices.get("PR-NONE"));
+
+		assertEquals(0, productRepo.backfillEffectivePrice(LocalDateTime.now()));
+	}
+
+	@Test
+	void hasDiscountFollowsTheCartRule() {
+		ProductFilter discounted = ProductFilter.none();
+		discounted.setHasDiscount(true);
+		assertEquals(List.of("PR-REAL"), skus(cards(discounted)));
+
+		ProductFilter full = ProductFilter.none();
+		full.setHasDiscount(false);
+		assertEquals(List.of("PR-ABOVE", "PR-EQUAL", "PR-NONE", "PR-ZERO"), skus(cards(full)));
+	}
+
+	private void product(String sku, String price, String discount) {
+		Product p = new Product();
+		p.setSku(sku);
+		p.setName(sku);
+		p.setPrice(new BigDecimal(price));
+		p.setDiscountPrice(discount != null ? new BigDecimal(discount) : null);
+		p.setStock(1);
+		em.persist(p);
+	}
+
+	private List<ProductSummaryDTO> cards(ProductFilter filter) {
+		return productRepo.findSummaries(filter, ProductSort.CREATED_AT, false, null, 50);
+	}
+
+	private static List<String> skus(List<ProductSummaryDTO> cards) {
+		return cards.stream().map(ProductSummaryDTO::getSku).sorted().toList();
+	}
+}
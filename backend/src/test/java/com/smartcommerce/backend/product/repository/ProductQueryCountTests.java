@@ -0,0 +1,126 @@
+package com.smartcommerce.backend.product.repository;
+
+import com.smartcommerce.backend.product.dto.ProductFilter;
+import com.smartcommerce.backend.product.dto.ProductSort;
+import com.smartcommerce.backend.product.dto.ProductSummaryDTO;
+import com.smartcommerce.backend.product.entity.Category;
+import com.smartcommerce.backend.product.entity.Product;
+import com.smartcommerce.backend.product.entity.ProductPhoto;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Catalog read paths must issue a fixed number of SQL statements per call, however many products they return.
+ * Counts come from Hibernate statistics, so an N+1 regression shows up as a failing assertion.
+ */
+@DataJpaTest(showSql = false, properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+class ProductQueryCountTests {
+
+	private static final int PRODUCTS = 30;
+
+	@Autowired
+	private ProductRepository productRepo;
+
+	@Autowired
+	private ProductPhotoRepository productPhotoRepo;
+
+	@Autowired
+	private EntityManager em;
+
+	private Statistics stats;
+	private Long categoryId;
+
+	@BeforeEach
+	void seed() {
+		Category category = new Category();
+		category.setName("Query count");
+		em.persist(category);
+		categoryId = category.getId();
+
+		for (int i = 0; i < PRODUCTS; i++) {
+			Product p = new Product();
+			p.setSku("QC-" + i);
+			p.setName("Poster " + i);
+			p.setPrice(new BigDecimal(100 + i));
+			p.setStock(5);
+			p.setCategory(category);
+			p.setTags(new ArrayList<>(List.of("tag" + i, "common")));
+			List<ProductPhoto> photos = new ArrayList<>();
+			for (int j = 0; j < 2; j++) {
+				ProductPhoto photo = new ProductPhoto();
+				photo.setPhotoUrl("/uploads/" + i + "-" + j + ".jpg");
+				photo.setProduct(p);
+				photos.add(photo);
+			}
+			p.setPhotos(photos);
+			em.persist(p);
+		}
+		em.flush();
+		em.clear();
+
+		stats = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+		stats.clear();
+	}
+
+	@Test
+	void findAllWithDetailsIsTwoQueries() {
+		List<Product> products = productRepo.findAllWithDetails(null);
+		touchEverything(products);
+
+		assertEquals(PRODUCTS, products.size());
+		assertEquals(2, stats.getPrepareStatementCount());
+	}
+
+	@Test
+	void findAllWithDetailsByCategoryIsTwoQueries() {
+		List<Product> products = productRepo.findAllWithDetails(categoryId);
+		touchEverything(products);
+
+		assertEquals(PRODUCTS, products.size());
+		assertEquals(2, stats.getPrepareStatementCount());
+	}
+
+	@Test
+	void lazyCollectionsLoadInBatches() {
+		List<Product> products = productRepo.findAll();
+		touchEverything(products);
+
+		// products, their category, then one batch each for tags and photos (batch size 50 > 30 products)
+		assertEquals(PRODUCTS, products.size());
+		assertTrue(stats.getPrepareStatementCount() <= 4, "statements: " + stats.getPrepareStatementCount());
+	}
+
+	@Test
+	void cardPageIsTwoQueries() {
+		List<ProductSummaryDTO> cards = productRepo.findSummaries(
+				ProductFilter.byCategory(categoryId), ProductSort.PRICE, false, null, 25);
+		productPhotoRepo.findPrimaryPhotos(cards.stream().map(ProductSummaryDTO::getId).toList());
+
+		assertEquals(25, cards.size());
+		assertEquals(2, stats.getPrepareStatementCount());
+	}
+
+	// what Jackson does when it serializes the list
+	private static void touchEverything(List<Product> products) {
+		for (Product p : products) {
+			p.getCategory().getName();
+			p.getTags().size();
+			p.getPhotos().forEach(ProductPhoto::getPhotoUrl);
+		}
+	}
+}
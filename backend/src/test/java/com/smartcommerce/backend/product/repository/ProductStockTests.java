@@ -0,0 +1,73 @@
+package com.smartcommerce.backend.product.repository;
+
+import com.smartcommerce.backend.product.entity.Product;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Catalog responses carry the exact stock count, so every stock move must reach the HTTP validators
+ * (max(updatedAt)), not only the ones that flip availability.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class ProductStockTests {
+
+	private static final LocalDateTime SEEDED = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+	@Autowired
+	private ProductRepository productRepo;
+
+	@Autowired
+	private EntityManager em;
+
+	private Long id;
+
+	@BeforeEach
+	void seed() {
+		Product p = new Product();
+		p.setSku("ST-1");
+		p.setName("ST-1");
+		p.setPrice(new BigDecimal("100.00"));
+		p.setStock(5);
+		id = productRepo.save(p).getId();
+		em.flush();
+		em.createQuery("update Product p set p.updatedAt = :t").setParameter("t", SEEDED).executeUpdate();
+		em.clear();
+	}
+
+	@Test
+	void partialDecrementMovesTheValidator() {
+		LocalDateTime now = SEEDED.plusMinutes(1);
+		assertEquals(1, productRepo.decrementStock(id, 2, now));
+		em.clear();
+
+		Product p = productRepo.findById(id).orElseThrow();
+		assertEquals(3, p.getStock());
+		assertTrue(p.getInStock());
+		assertEquals(now, p.getUpdatedAt());
+		assertEquals(now, productRepo.findCatalogState().getLastModified());
+	}
+
+	@Test
+	void restoreMovesTheValidatorAndFailedDecrementDoesNot() {
+		assertEquals(0, productRepo.decrementStock(id, 6, SEEDED.plusMinutes(1)));
+		em.clear();
+		assertEquals(SEEDED, productRepo.findCatalogState().getLastModified());
+
+		LocalDateTime now = SEEDED.plusMinutes(2);
+		assertEquals(1, productRepo.restoreStock(id, 1, now));
+		em.clear();
+
+		Product p = productRepo.findById(id).orElseThrow();
+		assertEquals(6, p.getStock());
+		assertEquals(now, p.getUpdatedAt());
+	}
+}
@@ -0,0 +1,188 @@
+package com.smartcommerce.backend.product.search;
+
+import com.smartcommerce.backend.product.entity.Category;
+import com.smartcommerce.backend.product.entity.Product;
+import com.smartcommerce.backend.product.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Matching (exact, last-word prefix, one typo through the delete table, AND across words), ranking, facet counts
+ * with the other filters applied, and a rebuild that replays the writes made while it was loading.
+ * Runs without a test transaction: rebuild reads through its own EntityManager and must see committed rows.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductSearchIndexTests {
+
+	@Autowired
+	private ProductRepository productRepo;
+
+	@Autowired
+	private EntityManagerFactory emf;
+
+	private ProductSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProductSearchIndex(emf);
+		index.index(product(1L, "Sunset Poster", "Canvas", "A3", 10L, "beach", "warm"));
+		index.index(product(2L, "Sunset Canvas Print", "canvas", "A4", 10L));
+		index.index(product(3L, "Mountain Poster", "Paper", "A3", 20L));
+		index.index(product(4L, "Ocean Frame", "Wood", null, null));
+	}
+
+	@AfterEach
+	void cleanUp() {
+		productRepo.deleteAll();
+	}
+
+	@Test
+	void exactTermsAreAndedAcrossWords() {
+		assertEquals(List.of(2L, 1L), ids("sunset"));
+		assertEquals(List.of(1L), ids("sunset posters"));
+		assertEquals(List.of(), ids("sunset frame"));
+	}
+
+	@Test
+	void fieldWeightsRankAndTiesGoNewestFirst() {
+		assertEquals(List.of(2L, 1L), ids("canvas"));        // name + material beats material alone
+		assertEquals(List.of(3L, 1L), ids("poster"));        // same score: higher id first
+	}
+
+	@Test
+	void onlyTheLastWordExpandsAsAPrefix() {
+		assertEquals(List.of(3L), ids("mount"));
+		assertEquals(List.of(3L), ids("poster mount"));
+		assertEquals(List.of(), ids("mount poster"));
+	}
+
+	@Test
+	void oneTypoMatchesLongEnoughWords() {
+		assertEquals(List.of(2L, 1L), ids("sunsel"));        // substitute
+		assertEquals(List.of(3L, 1L), ids("potser"));        // transpose
+		assertEquals(List.of(4L), ids("oceans frme"));       // delete
+		assertEquals(List.of(3L), ids("mountaing"));         // insert
+		assertEquals(List.of(), ids("wod"));                 // under MIN_TYPO_LENGTH
+	}
+
+	@Test
+	void facetCountsApplyEveryOtherFilter() {
+		ProductSearchIndex.Hits hits = index.search("", null, "CANVAS", null, null, 0, 10);
+
+		assertEquals(List.of(2L, 1L), hits.ids());
+		assertEquals(2, hits.total());
+		assertEquals(Map.of("canvas", 2L, "paper", 1L, "wood", 1L), hits.facets().get("material"));
+		assertEquals(Map.of("10", 2L), hits.facets().get("category"));
+		assertEquals(Map.of("a3", 1L, "a4", 1L), hits.facets().get("size"));
+		assertEquals("Canvas", hits.label("material", "canvas"));   // first spelling seen
+
+		ProductSearchIndex.Hits inCategory = index.search("poster", 20L, null, null, null, 0, 10);
+		assertEquals(List.of(3L), inCategory.ids());
+		assertEquals(Map.of("10", 1L, "20", 1L), inCategory.facets().get("category"));
+	}
+
+	@Test
+	void tagAndUnknownFacetValues() {
+		assertEquals(List.of(1L), index.search("", null, null, null, "Beach", 0, 10).ids());
+		ProductSearchIndex.Hits none = index.search("", null, "metal", null, null, 0, 10);
+		assertEquals(0, none.total());
+		assertTrue(none.ids().isEmpty());
+	}
+
+	@Test
+	void pagesAreSlicesOfTheFullRanking() {
+		assertEquals(List.of(3L, 2L), index.search("", null, null, null, null, 1, 2).ids());
+		assertEquals(List.of(), index.search("", null, null, null, null, 4, 2).ids());
+	}
+
+	@Test
+	void updatesAndRemovalsReplaceTheOldTerms() {
+		index.index(product(3L, "Forest Poster", "Paper", "A3", 20L));
+		index.remove(1L);
+
+		assertEquals(List.of(), ids("mountain"));
+		assertEquals(List.of(3L), ids("forest"));
+		assertEquals(List.of(3L), ids("poster"));
+		assertEquals(List.of(2L), ids("sunset"));
+		assertEquals(3, index.stats().get("products"));
+	}
+
+	@Test
+	void rebuildReplaysWritesThatRacedTheLoad() {
+		Long kept = productRepo.save(product(null, "Desert Poster", "Paper", "A3", null)).getId();
+		Long renamed = productRepo.save(product(null, "River Print", "Paper", "A4", null)).getId();
+		Long deleted = productRepo.save(product(null, "Lake Print", "Paper", "A4", null)).getId();
+
+		// the writes land after the rebuild started and before its snapshot is swapped in
+		AtomicReference<ProductSearchIndex> self = new AtomicReference<>();
+		ProductSearchIndex racing = new ProductSearchIndex(onCreateEntityManager(() -> {
+			self.get().index(product(renamed, "Canyon Print", "Paper", "A4", null));
+			self.get().remove(deleted);
+		}));
+		self.set(racing);
+
+		racing.rebuild();
+
+		assertEquals(List.of(kept), racing.search("desert", null, null, null, null, 0, 10).ids());
+		assertEquals(List.of(renamed), racing.search("canyon", null, null, null, null, 0, 10).ids());
+		assertEquals(List.of(), racing.search("river", null, null, null, null, 0, 10).ids());
+		assertEquals(List.of(), racing.search("lake", null, null, null, null, 0, 10).ids());
+		assertEquals(2, racing.stats().get("products"));
+		assertFalse((Boolean) racing.stats().get("rebuilding"));
+	}
+
+	private List<Long> ids(String query) {
+		return index.search(query, null, null, null, null, 0, 10).ids();
+	}
+
+	// the real factory, running hook first whenever the rebuild opens its EntityManager
+	private EntityManagerFactory onCreateEntityManager(Runnable hook) {
+		return (EntityManagerFactory) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[]{EntityManagerFactory.class}, (proxy, method, args) -> {
+					if (method.getName().equals("createEntityManager")) hook.run();
+					try {
+						return method.invoke(emf, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+	}
+
+	private static Product product(Long id, String name, String material, String size, Long categoryId,
+								   String... tags) {
+		Product p = new Product();
+		p.setId(id);
+		p.setSku("SKU" + Math.abs(name.hashCode()));
+		p.setName(name);
+		p.setPrice(new BigDecimal("100.00"));
+		p.setStock(1);
+		p.setMaterial(material);
+		p.setSize(size);
+		p.setTags(new ArrayList<>(List.of(tags)));
+		if (categoryId != null) {
+			Category c = new Category();
+			c.setId(categoryId);
+			p.setCategory(c);
+		}
+		return p;
+	}
+}
@@ -0,0 +1,66 @@
+package com.smartcommerce.backend.product.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Indexing and querying share this analyzer, so its folding, splitting and plural rules decide what can match;
+ * distance is the 1-typo check behind the symmetric-delete lookup.
+ */
+class TextAnalyzerTests {
+
+	@Test
+	void tokensAreFoldedSplitAndStopWordsDropped() {
+		assertEquals(List.of("cafe", "creme", "poster"), TextAnalyzer.tokens("Café CRÈME — the Poster!"));
+		assertEquals(List.of("24x36", "canva", "print"), TextAnalyzer.tokens("24x36 canvas/print"));
+		assertEquals(List.of("sunset", "beach"), TextAnalyzer.tokens("  sunset,,beach  "));
+		assertTrue(TextAnalyzer.tokens("a of the and").isEmpty());
+		assertTrue(TextAnalyzer.tokens(null).isEmpty());
+		assertTrue(TextAnalyzer.tokens("   ").isEmpty());
+	}
+
+	@Test
+	void lightPluralStrip() {
+		assertEquals(List.of("poster"), TextAnalyzer.tokens("posters"));
+		assertEquals(List.of("city"), TextAnalyzer.tokens("cities"));
+		assertEquals(List.of("glass"), TextAnalyzer.tokens("glass"));     // "ss" is not a plural
+		assertEquals(List.of("bus"), TextAnalyzer.tokens("bus"));         // too short to strip
+		assertEquals(List.of("a4s"), TextAnalyzer.tokens("a4s"));         // digit before the s
+	}
+
+	@Test
+	void keywordIsTrimmedLowerCaseWhole() {
+		assertEquals("matte paper", TextAnalyzer.keyword("  Matte Paper "));
+		assertNull(TextAnalyzer.keyword(" "));
+		assertNull(TextAnalyzer.keyword(null));
+	}
+
+	@Test
+	void deletesDropEachCharacterOnce() {
+		assertEquals(List.of("at", "ct", "ca"), TextAnalyzer.deletes("cat"));
+		assertTrue(TextAnalyzer.deletes("").isEmpty());
+	}
+
+	@Test
+	void distanceCountsOneEditPerTypo() {
+		assertEquals(0, TextAnalyzer.distance("poster", "poster", 1));
+		assertEquals(1, TextAnalyzer.distance("poster", "postr", 1));     // delete
+		assertEquals(1, TextAnalyzer.distance("poster", "posterr", 1));   // insert
+		assertEquals(1, TextAnalyzer.distance("poster", "pester", 1));    // substitute
+		assertEquals(1, TextAnalyzer.distance("poster", "potser", 1));    // transpose
+		assertEquals(2, TextAnalyzer.distance("poster", "pstr", 2));
+	}
+
+	@Test
+	void distanceIsCappedAtMaxPlusOne() {
+		assertEquals(2, TextAnalyzer.distance("poster", "frame", 1));
+		assertEquals(2, TextAnalyzer.distance("poster", "post", 1));      // length gap alone
+		assertEquals(2, TextAnalyzer.distance("abcdef", "badcfe", 1));    // three transpositions
+		assertEquals(3, TextAnalyzer.distance("abcdef", "badcfe", 3));
+	}
+}